@@ -0,0 +1,41 @@
+package com.intuitivecare.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Diretório temporário dos dados gerados por um benchmark
+ */
+public final class ArquivosTemporarios {
+
+    private ArquivosTemporarios() {
+    } // ArquivosTemporarios
+
+    public static Path criarDiretorio(String prefixo) throws IOException {
+        return Files.createTempDirectory("bench-" + prefixo + "-");
+    } // criarDiretorio
+
+    /**
+     * Remove o diretório e todo o conteúdo (ignora se já não existir)
+     */
+    public static void remover(Path diretorio) throws IOException {
+        if (diretorio == null || !Files.exists(diretorio)) {
+            return;
+        } // if
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            caminhos.sorted(Comparator.reverseOrder()).forEach(caminho -> {
+                try {
+                    Files.delete(caminho);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } // try-catch
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } // try-catch
+    } // remover
+} // ArquivosTemporarios
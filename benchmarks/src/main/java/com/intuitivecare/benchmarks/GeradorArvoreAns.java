@@ -0,0 +1,157 @@
+package com.intuitivecare.benchmarks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Gera uma cópia sintética da árvore de dados abertos da ANS
+ *
+ * Layout (o mesmo de https://dadosabertos.ans.gov.br/FTP/PDA/):
+ * - FTP/PDA/demonstracoes_contabeis/{ano}/{n}T{ano}.zip, cada ZIP com o
+ *   CSV {n}T{ano}.csv da demonstração do trimestre
+ * - FTP/PDA/operadoras_de_plano_de_saude_ativas/Relatorio_cadop.csv
+ *
+ * As listagens HTML dos diretórios são montadas pelo ServidorAnsSimulado a
+ * partir desta árvore, então arquivos copiados dos dados reais para dentro
+ * dela também aparecem nas listagens.
+ *
+ * Escala: 1 = ordem de grandeza da produção (~1.100 operadoras ativas e
+ * ~700 mil linhas por trimestre); operadoras e linhas crescem juntas, de
+ * 0,01 (testes rápidos) a 100 (estresse).
+ *
+ * Uso: GeradorArvoreAns diretorio [escala] [trimestres] [semente]
+ * (padrão: 1 3 42)
+ *
+ * Trade-off: ZIPs DETERMINÍSTICOS
+ * - Data das entradas fixada no início do trimestre: mesma semente e
+ *   escala geram ZIPs idênticos byte a byte, o que mantém estável qualquer
+ *   cache por hash de conteúdo entre execuções
+ * - Um trimestre por thread; com 100x cada ZIP é gerado em streaming, sem
+ *   passar pela memória
+ */
+public class GeradorArvoreAns {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeradorArvoreAns.class);
+
+    public static final String RAIZ_PDA = "FTP/PDA";
+    public static final String DEMONSTRACOES_CONTABEIS = "demonstracoes_contabeis";
+    public static final String OPERADORAS_ATIVAS = "operadoras_de_plano_de_saude_ativas";
+    public static final String ARQUIVO_CADASTRO = "Relatorio_cadop.csv";
+
+    // Ordem de grandeza dos arquivos reais (escala 1)
+    private static final int OPERADORAS_PRODUCAO = 1_100;
+    private static final int LINHAS_TRIMESTRE_PRODUCAO = 700_000;
+
+    private final GeradorDadosAns gerador;
+    private final int trimestres;
+
+    public GeradorArvoreAns(double escala, int trimestres, long semente) {
+        if (escala <= 0) {
+            throw new IllegalArgumentException("Escala deve ser positiva: " + escala);
+        } // if
+        this.trimestres = trimestres;
+        this.gerador = new GeradorDadosAns(
+            Math.max(1, (int) Math.round(LINHAS_TRIMESTRE_PRODUCAO * escala)),
+            Math.max(1, (int) Math.round(OPERADORAS_PRODUCAO * escala)),
+            trimestres, semente);
+    } // GeradorArvoreAns
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: GeradorArvoreAns diretorio [escala] [trimestres] [semente]");
+            System.exit(1);
+        } // if
+        new GeradorArvoreAns(
+            args.length > 1 ? Double.parseDouble(args[1]) : 1.0,
+            args.length > 2 ? Integer.parseInt(args[2]) : 3,
+            args.length > 3 ? Long.parseLong(args[3]) : 42L
+        ).gerar(Paths.get(args[0]));
+    } // main
+
+    /**
+     * Gera a árvore completa sob o diretório dado
+     *
+     * @return Diretório FTP/PDA gerado
+     */
+    public Path gerar(Path raiz) throws IOException {
+        long inicio = System.nanoTime();
+        Path pda = raiz.resolve(RAIZ_PDA);
+        Path demonstracoes = pda.resolve(DEMONSTRACOES_CONTABEIS);
+        Path operadorasAtivas = pda.resolve(OPERADORAS_ATIVAS);
+        Files.createDirectories(demonstracoes);
+        Files.createDirectories(operadorasAtivas);
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(trimestres, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Path>> futuros = new ArrayList<>();
+            for (int t = 0; t < trimestres; t++) {
+                int indice = t;
+                futuros.add(executor.submit(() -> gerarZipTrimestre(demonstracoes, indice)));
+            } // for
+            for (Future<Path> futuro : futuros) {
+                Path zip = futuro.get();
+                logger.info("Gerado {} ({} bytes)", pda.relativize(zip), Files.size(zip));
+            } // for
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Geração interrompida", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        } // try-catch
+
+        Path cadastro = gerador.gerarCadastro(operadorasAtivas.resolve(ARQUIVO_CADASTRO));
+        logger.info("Gerado {} ({} bytes)", pda.relativize(cadastro), Files.size(cadastro));
+        logger.info("Árvore ANS sintética em {} ({} trimestres, {} operadoras) em {} ms", pda.toAbsolutePath(),
+            trimestres, gerador.getOperadoras().size(), (System.nanoTime() - inicio) / 1_000_000);
+        return pda;
+    } // gerar
+
+    /**
+     * Gera o ZIP de um trimestre (grava em .tmp e renomeia ao final, para
+     * um ZIP incompleto nunca ser servido)
+     */
+    private Path gerarZipTrimestre(Path demonstracoes, int indice) throws IOException {
+        String nome = GeradorDadosAns.nomeTrimestre(indice);
+        int ano = GeradorDadosAns.ANO_INICIAL + indice / 4;
+        Path diretorioAno = demonstracoes.resolve(Integer.toString(ano));
+        Files.createDirectories(diretorioAno);
+        Path zip = diretorioAno.resolve(nome + ".zip");
+        Path temporario = diretorioAno.resolve(nome + ".zip.tmp");
+
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(temporario))) {
+            ZipEntry entrada = new ZipEntry(nome + ".csv");
+            entrada.setTime(LocalDateTime.of(ano, (indice % 4) * 3 + 1, 1, 0, 0)
+                .toInstant(ZoneOffset.UTC).toEpochMilli());
+            zos.putNextEntry(entrada);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(zos, StandardCharsets.UTF_8), 1 << 16);
+            gerador.escreverDemonstracao(indice, writer);
+            writer.flush();
+            zos.closeEntry();
+        } // try
+        Files.move(temporario, zip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return zip;
+    } // gerarZipTrimestre
+} // GeradorArvoreAns
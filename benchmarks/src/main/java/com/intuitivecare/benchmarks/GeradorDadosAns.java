@@ -0,0 +1,515 @@
+package com.intuitivecare.benchmarks;
+
+import com.intuitivecare.transformacao.util.CnpjValidator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador de dados sintéticos no formato da ANS
+ *
+ * Produz, de forma determinística (mesma semente = mesmos arquivos):
+ * - Demonstrações contábeis por trimestre ({n}T{ano}.csv), com as colunas
+ *   e aspas dos arquivos reais e valores no formato brasileiro; a conta 41
+ *   (Eventos Indenizáveis) aparece entre outras contas, como no original
+ * - Consolidado (entrada da validação), enriquecido (entrada da agregação)
+ *   e cadastro de operadoras ativas (layout do CADOP)
+ *
+ * Volume: cada arquivo de trimestre, o consolidado e o enriquecido têm
+ * "linhas" registros, divididos igualmente entre as operadoras; uma em cada
+ * 33 operadoras fica fora do cadastro (despesa sem match) e ~2% dos CNPJs
+ * têm dígito verificador errado, para os caminhos de rejeição também serem
+ * exercitados.
+ *
+ * Uso: GeradorDadosAns diretorio [linhas] [operadoras] [trimestres] [semente]
+ * (padrão: 100000 1000 3 42)
+ *
+ * Trade-off: DISTRIBUIÇÃO SIMPLES
+ * - Valores log-uniformes e UFs/modalidades uniformes: não reproduzem a
+ *   concentração dos dados reais (poucas operadoras grandes), mas mantêm o
+ *   custo por registro (tamanho das strings, cardinalidade das chaves)
+ *   na mesma ordem de grandeza
+ */
+public class GeradorDadosAns {
+
+    public static final int ANO_INICIAL = 2023;
+
+    private static final String[] CONTAS = {
+        "41", "411", "4111", "41111", "31", "311", "3111", "1", "12", "2", "21", "46"
+    };
+
+    private static final String[] DESCRICOES = {
+        "EVENTOS/ SINISTROS CONHECIDOS OU AVISADOS DE ASSISTÊNCIA A SAÚDE MEDICO HOSPITALAR",
+        "EVENTOS/SINISTROS CONHECIDOS OU AVISADOS",
+        "COBERTURA ASSISTENCIAL COM PREÇO PRÉ-ESTABELECIDO",
+        "CONSULTAS MÉDICAS",
+        "CONTRAPRESTAÇÕES EFETIVAS DE PLANO DE ASSISTÊNCIA À SAÚDE",
+        "RECEITAS COM OPERAÇÕES DE ASSISTÊNCIA À SAÚDE",
+        "CONTRAPRESTAÇÕES LÍQUIDAS / PRÊMIOS RETIDOS",
+        "ATIVO",
+        "ATIVO CIRCULANTE",
+        "PASSIVO",
+        "PASSIVO CIRCULANTE",
+        "DESPESAS ADMINISTRATIVAS"
+    };
+
+    private static final String[] MODALIDADES = {
+        "Medicina de Grupo", "Cooperativa Médica", "Odontologia de Grupo", "Autogestão",
+        "Seguradora Especializada em Saúde", "Cooperativa Odontológica", "Filantropia",
+        "Administradora de Benefícios"
+    };
+
+    private static final String[] UFS = {
+        "AC", "AL", "AM", "AP", "BA", "CE", "DF", "ES", "GO", "MA", "MG", "MS", "MT", "PA",
+        "PB", "PE", "PI", "PR", "RJ", "RN", "RO", "RR", "RS", "SC", "SE", "SP", "TO"
+    };
+
+    private static final String[] PALAVRAS = {
+        "UNIMED", "SAUDE", "ODONTO", "AMIL", "BRADESCO", "VIDA", "MED", "ASSISTENCIA", "PLANO",
+        "CLINICA", "SUL", "NORTE", "CENTRAL", "BRASIL", "SERVICOS", "HOSPITALAR"
+    };
+
+    private static final String[] NATUREZAS = {"LTDA", "S.A.", "COOPERATIVA DE TRABALHO MEDICO", "EIRELI"};
+
+    private static final String[] CABECALHO_CADASTRO = {
+        "REGISTRO_OPERADORA", "CNPJ", "Razao_Social", "Nome_Fantasia", "Modalidade", "Logradouro",
+        "Numero", "Complemento", "Bairro", "Cidade", "UF", "CEP", "DDD", "Telefone", "Fax",
+        "Endereco_eletronico", "Representante", "Cargo_Representante", "Regiao_de_Comercializacao",
+        "Data_Registro_ANS"
+    };
+
+    private static final int[] PESOS_DV1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_DV2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    // Uma em cada N operadoras fica fora do cadastro
+    private static final int INTERVALO_SEM_CADASTRO = 33;
+
+    /**
+     * Operadora sintética
+     */
+    public record Operadora(String registroAns, String cnpj, String razaoSocial, String modalidade,
+                            String uf, boolean cadastrada) {
+    } // Operadora
+
+    private final int linhas;
+    private final int trimestres;
+    private final long semente;
+    private final List<Operadora> operadoras;
+
+    /**
+     * @param linhas Registros por arquivo gerado
+     * @param quantidadeOperadoras Operadoras distintas
+     * @param trimestres Trimestres consecutivos a partir de 1T{ANO_INICIAL}
+     * @param semente Semente do gerador pseudoaleatório
+     */
+    public GeradorDadosAns(int linhas, int quantidadeOperadoras, int trimestres, long semente) {
+        if (linhas <= 0 || quantidadeOperadoras <= 0 || trimestres <= 0) {
+            throw new IllegalArgumentException("linhas, operadoras e trimestres devem ser positivos");
+        } // if
+        this.linhas = linhas;
+        this.trimestres = trimestres;
+        this.semente = semente;
+        this.operadoras = criarOperadoras(quantidadeOperadoras, new SplittableRandom(semente));
+    } // GeradorDadosAns
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: GeradorDadosAns diretorio [linhas] [operadoras] [trimestres] [semente]");
+            System.exit(1);
+        } // if
+        Path diretorio = Paths.get(args[0]);
+        GeradorDadosAns gerador = new GeradorDadosAns(
+            args.length > 1 ? Integer.parseInt(args[1]) : 100_000,
+            args.length > 2 ? Integer.parseInt(args[2]) : 1_000,
+            args.length > 3 ? Integer.parseInt(args[3]) : 3,
+            args.length > 4 ? Long.parseLong(args[4]) : 42L);
+
+        Files.createDirectories(diretorio);
+        List<Path> demonstracoes = gerador.gerarDemonstracoes(diretorio.resolve("demonstracoes"));
+        gerador.gerarConsolidado(diretorio.resolve("consolidado_despesas.csv"));
+        gerador.gerarEnriquecido(diretorio.resolve("consolidado_enriquecido.csv"));
+        gerador.gerarCadastro(diretorio.resolve("Relatorio_cadop.csv"));
+        System.out.println("Gerados " + demonstracoes.size() + " trimestres, consolidado, enriquecido e cadastro em "
+            + diretorio.toAbsolutePath());
+    } // main
+
+    public List<Operadora> getOperadoras() {
+        return operadoras;
+    } // getOperadoras
+
+    public int getTrimestres() {
+        return trimestres;
+    } // getTrimestres
+
+    /**
+     * Nome do trimestre no padrão dos arquivos da ANS (ex.: 1T2023)
+     *
+     * @param indice 0 = primeiro trimestre gerado
+     */
+    public static String nomeTrimestre(int indice) {
+        return (indice % 4 + 1) + "T" + (ANO_INICIAL + indice / 4);
+    } // nomeTrimestre
+
+    /**
+     * Gera uma demonstração contábil por trimestre
+     *
+     * Layout: "DATA";"REG_ANS";"CD_CONTA_CONTABIL";"DESCRICAO";"VL_SALDO_INICIAL";"VL_SALDO_FINAL"
+     *
+     * @return Arquivos gerados, em ordem cronológica
+     */
+    public List<Path> gerarDemonstracoes(Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        List<Path> arquivos = new ArrayList<>(trimestres);
+        for (int t = 0; t < trimestres; t++) {
+            Path arquivo = diretorio.resolve(nomeTrimestre(t) + ".csv");
+            gerarDemonstracao(t, arquivo);
+            arquivos.add(arquivo);
+        } // for
+        return arquivos;
+    } // gerarDemonstracoes
+
+    /**
+     * Gera a demonstração contábil de um trimestre
+     *
+     * @param indiceTrimestre 0 = primeiro trimestre gerado
+     */
+    public Path gerarDemonstracao(int indiceTrimestre, Path arquivo) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            escreverDemonstracao(indiceTrimestre, writer);
+        } // try
+        return arquivo;
+    } // gerarDemonstracao
+
+    /**
+     * Escreve a demonstração contábil de um trimestre (ex.: dentro de um ZIP)
+     *
+     * Como nos arquivos reais, as linhas vêm agrupadas por operadora e cada
+     * operadora tem uma única linha da conta 41 por trimestre.
+     */
+    public void escreverDemonstracao(int indiceTrimestre, Writer writer) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente * 31 + indiceTrimestre);
+        String data = (ANO_INICIAL + indiceTrimestre / 4) + "-" + String.format("%02d", (indiceTrimestre % 4) * 3 + 1)
+            + "-01";
+        int linhasPorOperadora = (linhas + operadoras.size() - 1) / operadoras.size();
+        StringBuilder linha = new StringBuilder(256);
+
+        writer.write("\"DATA\";\"REG_ANS\";\"CD_CONTA_CONTABIL\";\"DESCRICAO\";\"VL_SALDO_INICIAL\";\"VL_SALDO_FINAL\"\n");
+        for (int i = 0; i < linhas; i++) {
+            Operadora operadora = operadoras.get(i / linhasPorOperadora);
+            int posicao = i % linhasPorOperadora;
+            int conta = posicao == 0 ? 0 : 1 + (posicao - 1) % (CONTAS.length - 1);
+
+            linha.setLength(0);
+            linha.append('"').append(data).append("\";\"")
+                .append(operadora.registroAns()).append("\";\"")
+                .append(CONTAS[conta]).append("\";\"")
+                .append(DESCRICOES[conta]).append("\";\"");
+            formatarBrasileiro(centavos(aleatorio), linha);
+            linha.append("\";\"");
+            formatarBrasileiro(centavos(aleatorio), linha);
+            linha.append("\"\n");
+            writer.append(linha);
+        } // for
+    } // escreverDemonstracao
+
+    /**
+     * Gera o consolidado no layout do Desafio 1
+     *
+     * Layout: RegistroANS;Trimestre;Ano;ValorDespesas (valor com ponto
+     * decimal); ~2% dos valores são zero ou negativos (rejeitados na validação)
+     */
+    public Path gerarConsolidado(Path arquivo) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente * 31 + 1_000);
+        int quantidadeOperadoras = operadoras.size();
+        StringBuilder linha = new StringBuilder(64);
+
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            writer.write("RegistroANS;Trimestre;Ano;ValorDespesas\r\n");
+            for (int i = 0; i < linhas; i++) {
+                Operadora operadora = operadoras.get(i % quantidadeOperadoras);
+                int trimestre = (i / quantidadeOperadoras) % trimestres;
+                int sorteio = aleatorio.nextInt(100);
+                long centavos = sorteio == 0 ? 0 : sorteio == 1 ? -centavos(aleatorio) : centavos(aleatorio);
+
+                linha.setLength(0);
+                linha.append(operadora.registroAns())
+                    .append(";Q").append(trimestre % 4 + 1)
+                    .append(';').append(ANO_INICIAL + trimestre / 4)
+                    .append(';');
+                formatarDecimal(centavos, linha);
+                linha.append("\r\n");
+                writer.append(linha);
+            } // for
+        } // try
+        return arquivo;
+    } // gerarConsolidado
+
+    /**
+     * Gera o CSV enriquecido no layout de EnriquecimentoService
+     *
+     * Layout: CNPJ;RegistroANS;RazaoSocial;Modalidade;UF;Trimestre;Ano;
+     * ValorDespesas;CnpjValido;MatchCadastro
+     */
+    public Path gerarEnriquecido(Path arquivo) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente * 31 + 2_000);
+        int quantidadeOperadoras = operadoras.size();
+        boolean[] cnpjValido = new boolean[quantidadeOperadoras];
+        for (int i = 0; i < quantidadeOperadoras; i++) {
+            cnpjValido[i] = CnpjValidator.isValid(operadoras.get(i).cnpj());
+        } // for
+        StringBuilder linha = new StringBuilder(192);
+
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            writer.write("CNPJ;RegistroANS;RazaoSocial;Modalidade;UF;Trimestre;Ano;ValorDespesas;CnpjValido;"
+                + "MatchCadastro\r\n");
+            for (int i = 0; i < linhas; i++) {
+                int indiceOperadora = i % quantidadeOperadoras;
+                Operadora operadora = operadoras.get(indiceOperadora);
+                int trimestre = (i / quantidadeOperadoras) % trimestres;
+                boolean match = operadora.cadastrada();
+
+                linha.setLength(0);
+                linha.append(match ? operadora.cnpj() : "").append(';')
+                    .append(operadora.registroAns()).append(';')
+                    .append(match ? operadora.razaoSocial() : "OPERADORA NÃO ENCONTRADA").append(';')
+                    .append(match ? operadora.modalidade() : "").append(';')
+                    .append(match ? operadora.uf() : "").append(';')
+                    .append('Q').append(trimestre % 4 + 1).append(';')
+                    .append(ANO_INICIAL + trimestre / 4).append(';');
+                formatarDecimal(centavos(aleatorio), linha);
+                linha.append(';').append(match && cnpjValido[indiceOperadora] ? "SIM" : "NAO")
+                    .append(';').append(match ? "SIM" : "NAO")
+                    .append("\r\n");
+                writer.append(linha);
+            } // for
+        } // try
+        return arquivo;
+    } // gerarEnriquecido
+
+    /**
+     * Gera o cadastro de operadoras ativas no layout do CADOP
+     * (delimitador ";" e todos os campos entre aspas)
+     */
+    public Path gerarCadastro(Path arquivo) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            escreverCadastro(writer);
+        } // try
+        return arquivo;
+    } // gerarCadastro
+
+    /**
+     * Escreve o cadastro de operadoras ativas no layout do CADOP
+     */
+    public void escreverCadastro(Writer writer) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente * 31 + 3_000);
+        StringBuilder linha = new StringBuilder(512);
+
+        writer.write(String.join(";", aspas(CABECALHO_CADASTRO)));
+        writer.write('\n');
+        for (Operadora operadora : operadoras) {
+            if (!operadora.cadastrada()) {
+                continue;
+            } // if
+            int ddd = 11 + aleatorio.nextInt(89);
+            String[] campos = {
+                operadora.registroAns(),
+                operadora.cnpj(),
+                operadora.razaoSocial(),
+                PALAVRAS[aleatorio.nextInt(PALAVRAS.length)],
+                operadora.modalidade(),
+                "RUA " + PALAVRAS[aleatorio.nextInt(PALAVRAS.length)],
+                Integer.toString(1 + aleatorio.nextInt(5_000)),
+                "",
+                "CENTRO",
+                "CIDADE " + operadora.uf(),
+                operadora.uf(),
+                String.format("%08d", aleatorio.nextInt(100_000_000)),
+                Integer.toString(ddd),
+                Integer.toString(30_000_000 + aleatorio.nextInt(70_000_000)),
+                "",
+                "contato@operadora" + operadora.registroAns() + ".com.br",
+                "REPRESENTANTE " + operadora.registroAns(),
+                "DIRETOR",
+                Integer.toString(1 + aleatorio.nextInt(6)),
+                (1998 + aleatorio.nextInt(26)) + "-" + String.format("%02d", 1 + aleatorio.nextInt(12)) + "-01"
+            };
+            linha.setLength(0);
+            for (int c = 0; c < campos.length; c++) {
+                if (c > 0) {
+                    linha.append(';');
+                } // if
+                linha.append('"').append(campos[c]).append('"');
+            } // for
+            linha.append('\n');
+            writer.append(linha);
+        } // for
+    } // escreverCadastro
+
+    /**
+     * Valores no formato brasileiro ("1234567,89", com alguns "1.234.567,89"
+     * e entre aspas), como chegam em VL_SALDO_FINAL
+     */
+    public String[] gerarValoresBrasileiros(int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(semente * 31 + 4_000);
+        String[] valores = new String[quantidade];
+        StringBuilder valor = new StringBuilder(32);
+        for (int i = 0; i < quantidade; i++) {
+            valor.setLength(0);
+            long centavos = centavos(aleatorio);
+            int sorteio = aleatorio.nextInt(10);
+            if (sorteio == 0) {
+                formatarMilhar(centavos, valor);
+            } else if (sorteio == 1) {
+                valor.append('"');
+                formatarBrasileiro(centavos, valor);
+                valor.append('"');
+            } else {
+                formatarBrasileiro(centavos, valor);
+            } // if
+            valores[i] = valor.toString();
+        } // for
+        return valores;
+    } // gerarValoresBrasileiros
+
+    /**
+     * Valores com ponto decimal ("1234567.89"), como chegam em ValorDespesas
+     * no consolidado
+     */
+    public String[] gerarValoresDecimais(int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(semente * 31 + 5_000);
+        String[] valores = new String[quantidade];
+        StringBuilder valor = new StringBuilder(32);
+        for (int i = 0; i < quantidade; i++) {
+            valor.setLength(0);
+            formatarDecimal(centavos(aleatorio), valor);
+            valores[i] = valor.toString();
+        } // for
+        return valores;
+    } // gerarValoresDecimais
+
+    /**
+     * CNPJs das operadoras, metade formatados (00.000.000/0000-00) e metade
+     * só dígitos, repetidos em rodízio até a quantidade pedida
+     */
+    public String[] gerarCnpjs(int quantidade) {
+        String[] cnpjs = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            String cnpj = operadoras.get(i % operadoras.size()).cnpj();
+            cnpjs[i] = (i & 1) == 0 ? cnpj : CnpjValidator.format(cnpj);
+        } // for
+        return cnpjs;
+    } // gerarCnpjs
+
+    private static List<Operadora> criarOperadoras(int quantidade, SplittableRandom aleatorio) {
+        List<Operadora> lista = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            // Registros ANS de 6 dígitos, distintos e fora de ordem
+            String registroAns = Integer.toString(300_000 + (int) ((i * 7_919L) % 700_000));
+            String razaoSocial = PALAVRAS[aleatorio.nextInt(PALAVRAS.length)] + " "
+                + PALAVRAS[aleatorio.nextInt(PALAVRAS.length)] + " " + (i + 1) + " "
+                + NATUREZAS[aleatorio.nextInt(NATUREZAS.length)];
+            lista.add(new Operadora(
+                registroAns,
+                gerarCnpj(aleatorio, aleatorio.nextInt(50) == 0),
+                razaoSocial,
+                MODALIDADES[aleatorio.nextInt(MODALIDADES.length)],
+                UFS[aleatorio.nextInt(UFS.length)],
+                i % INTERVALO_SEM_CADASTRO != INTERVALO_SEM_CADASTRO - 1
+            ));
+        } // for
+        return lista;
+    } // criarOperadoras
+
+    /**
+     * CNPJ de 14 dígitos com dígitos verificadores corretos (ou com o
+     * segundo dígito trocado, se invalido)
+     */
+    private static String gerarCnpj(SplittableRandom aleatorio, boolean invalido) {
+        int[] digitos = new int[14];
+        for (int i = 0; i < 8; i++) {
+            digitos[i] = aleatorio.nextInt(10);
+        } // for
+        digitos[11] = 1; // filial 0001
+        digitos[12] = digitoVerificador(digitos, PESOS_DV1);
+        digitos[13] = digitoVerificador(digitos, PESOS_DV2);
+        if (invalido) {
+            digitos[13] = (digitos[13] + 1) % 10;
+        } // if
+
+        char[] cnpj = new char[14];
+        for (int i = 0; i < 14; i++) {
+            cnpj[i] = (char) ('0' + digitos[i]);
+        } // for
+        return new String(cnpj);
+    } // gerarCnpj
+
+    private static int digitoVerificador(int[] digitos, int[] pesos) {
+        int soma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            soma += digitos[i] * pesos[i];
+        } // for
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    } // digitoVerificador
+
+    /**
+     * Valor em centavos, log-uniforme entre R$ 1,00 e R$ 100 milhões
+     */
+    private static long centavos(SplittableRandom aleatorio) {
+        return (long) Math.exp(Math.log(100) + aleatorio.nextDouble() * (Math.log(1e10) - Math.log(100)));
+    } // centavos
+
+    private static void formatarBrasileiro(long centavos, StringBuilder destino) {
+        formatarComSeparador(centavos, ',', destino);
+    } // formatarBrasileiro
+
+    private static void formatarDecimal(long centavos, StringBuilder destino) {
+        formatarComSeparador(centavos, '.', destino);
+    } // formatarDecimal
+
+    private static void formatarComSeparador(long centavos, char separador, StringBuilder destino) {
+        if (centavos < 0) {
+            destino.append('-');
+            centavos = -centavos;
+        } // if
+        long fracao = centavos % 100;
+        destino.append(centavos / 100).append(separador);
+        if (fracao < 10) {
+            destino.append('0');
+        } // if
+        destino.append(fracao);
+    } // formatarComSeparador
+
+    /**
+     * Formato brasileiro com separador de milhar (1.234.567,89)
+     */
+    private static void formatarMilhar(long centavos, StringBuilder destino) {
+        String inteiro = Long.toString(centavos / 100);
+        int primeiroGrupo = inteiro.length() % 3 == 0 ? 3 : inteiro.length() % 3;
+        destino.append(inteiro, 0, primeiroGrupo);
+        for (int i = primeiroGrupo; i < inteiro.length(); i += 3) {
+            destino.append('.').append(inteiro, i, i + 3);
+        } // for
+        long fracao = centavos % 100;
+        destino.append(',');
+        if (fracao < 10) {
+            destino.append('0');
+        } // if
+        destino.append(fracao);
+    } // formatarMilhar
+
+    private static String[] aspas(String[] valores) {
+        String[] resultado = new String[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            resultado[i] = '"' + valores[i] + '"';
+        } // for
+        return resultado;
+    } // aspas
+} // GeradorDadosAns
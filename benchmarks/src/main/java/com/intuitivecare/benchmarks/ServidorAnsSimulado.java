@@ -0,0 +1,319 @@
+package com.intuitivecare.benchmarks;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Servidor HTTP local que imita dadosabertos.ans.gov.br
+ *
+ * Serve uma árvore de diretórios (ex.: a gerada por GeradorArvoreAns) com
+ * o mesmo comportamento que os Desafios 1 e 2 esperam do servidor real:
+ * - Diretórios respondem com a listagem HTML no formato do Apache
+ *   (autoindex), com links relativos "2024/", "1T2024.zip" etc.
+ * - Diretório sem barra final redireciona (301) para a URL com barra
+ * - Arquivos vão com Content-Length e Content-Type, em GET ou HEAD
+ *
+ * Uso: ServidorAnsSimulado diretorio [porta] [escala] [trimestres] [MB/s]
+ * (padrão: 8080 1 3 0). Se o diretório ainda não tiver FTP/PDA, a árvore
+ * é gerada antes; MB/s > 0 limita a banda de cada download. Depois, rodar
+ * os desafios com -Dans.baseUrl=http://localhost:{porta}/FTP/PDA/
+ *
+ * Trade-off: LIMITE DE BANDA POR CONEXÃO
+ * - Cada resposta dorme o necessário para não passar da taxa configurada,
+ *   o que aproxima downloads reais sem simular latência nem perdas
+ * - Sem limite (padrão), a vazão fica limitada por disco e loopback, útil
+ *   para medir o custo de CPU do pipeline isoladamente
+ */
+public class ServidorAnsSimulado {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServidorAnsSimulado.class);
+
+    private static final int TAMANHO_BLOCO = 64 * 1024;
+    private static final DateTimeFormatter FORMATO_DATA =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+    private final Path raiz;
+    private final int porta;
+    private final long bytesPorSegundo;
+
+    private HttpServer servidor;
+    private ExecutorService executor;
+
+    static {
+        // Mesmo motivo da ServidorApi: sem Nagle, respostas pequenas não
+        // esperam o ACK atrasado do cliente
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        } // if
+    }
+
+    /**
+     * @param raiz Diretório servido como "/" (contém FTP/PDA)
+     * @param porta Porta TCP (0 = qualquer livre)
+     * @param bytesPorSegundo Limite de banda por download (0 = sem limite)
+     */
+    public ServidorAnsSimulado(Path raiz, int porta, long bytesPorSegundo) {
+        this.raiz = raiz.toAbsolutePath().normalize();
+        this.porta = porta;
+        this.bytesPorSegundo = bytesPorSegundo;
+    } // ServidorAnsSimulado
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: ServidorAnsSimulado diretorio [porta] [escala] [trimestres] [MB/s]");
+            System.exit(1);
+        } // if
+        Path raiz = Paths.get(args[0]);
+        int porta = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        double escala = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        int trimestres = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        double megabytesPorSegundo = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+
+        if (!Files.isDirectory(raiz.resolve(GeradorArvoreAns.RAIZ_PDA))) {
+            new GeradorArvoreAns(escala, trimestres, 42L).gerar(raiz);
+        } // if
+
+        ServidorAnsSimulado servidor = new ServidorAnsSimulado(raiz, porta,
+            (long) (megabytesPorSegundo * 1024 * 1024));
+        servidor.iniciar();
+        Runtime.getRuntime().addShutdownHook(new Thread(servidor::parar));
+        logger.info("Use -Dans.baseUrl={}", servidor.getBaseUrl());
+    } // main
+
+    public void iniciar() throws IOException {
+        // Downloads longos ocupam a thread até o fim; folga para os desafios
+        // baixarem em paralelo enquanto as listagens continuam respondendo
+        executor = Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 2));
+        servidor = HttpServer.create(new InetSocketAddress(porta), 0);
+        servidor.createContext("/", this::tratar);
+        servidor.setExecutor(executor);
+        servidor.start();
+        logger.info("Simulador ANS servindo {} em http://localhost:{}/{}", raiz, getPorta(),
+            bytesPorSegundo > 0 ? "(limite " + bytesPorSegundo + " B/s por download)" : "");
+    } // iniciar
+
+    public void parar() {
+        if (servidor != null) {
+            servidor.stop(0);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } // try-catch
+            servidor = null;
+            logger.info("Simulador ANS encerrado");
+        } // if
+    } // parar
+
+    /**
+     * Porta efetiva (útil com porta 0)
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    } // getPorta
+
+    /**
+     * Valor para -Dans.baseUrl nos Desafios 1 e 2
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + getPorta() + "/" + GeradorArvoreAns.RAIZ_PDA + "/";
+    } // getBaseUrl
+
+    private void tratar(HttpExchange troca) throws IOException {
+        try (troca) {
+            String metodo = troca.getRequestMethod();
+            boolean head = "HEAD".equals(metodo);
+            if (!head && !"GET".equals(metodo)) {
+                troca.getResponseHeaders().set("Allow", "GET, HEAD");
+                responderTexto(troca, 405, "Method Not Allowed", false);
+                return;
+            } // if
+
+            String caminhoUrl = URLDecoder.decode(troca.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            Path alvo = raiz.resolve(caminhoUrl.substring(1)).normalize();
+            if (!alvo.startsWith(raiz) || !Files.exists(alvo) || oculto(alvo)) {
+                responderTexto(troca, 404, "Not Found", head);
+                return;
+            } // if
+
+            if (Files.isDirectory(alvo)) {
+                if (!caminhoUrl.endsWith("/")) {
+                    troca.getResponseHeaders().set("Location", caminhoUrl + "/");
+                    responderTexto(troca, 301, "Moved Permanently", head);
+                    return;
+                } // if
+                byte[] html = listagem(caminhoUrl, alvo).getBytes(StandardCharsets.UTF_8);
+                troca.getResponseHeaders().set("Content-Type", "text/html;charset=UTF-8");
+                troca.sendResponseHeaders(200, head ? -1 : html.length);
+                if (!head) {
+                    troca.getResponseBody().write(html);
+                } // if
+                return;
+            } // if
+
+            enviarArquivo(troca, alvo, head);
+        } catch (IOException e) {
+            // Cliente fechou a conexão no meio do download
+            logger.debug("Falha ao responder {}: {}", troca.getRequestURI(), e.getMessage());
+        } // try-catch
+    } // tratar
+
+    private void enviarArquivo(HttpExchange troca, Path arquivo, boolean head) throws IOException {
+        long tamanho = Files.size(arquivo);
+        Headers cabecalhos = troca.getResponseHeaders();
+        cabecalhos.set("Content-Type", tipoConteudo(arquivo.getFileName().toString()));
+        cabecalhos.set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            Files.getLastModifiedTime(arquivo).toInstant().atZone(ZoneId.of("GMT"))));
+        if (head) {
+            cabecalhos.set("Content-Length", Long.toString(tamanho));
+            troca.sendResponseHeaders(200, -1);
+            return;
+        } // if
+        troca.sendResponseHeaders(200, tamanho == 0 ? -1 : tamanho);
+
+        byte[] bloco = new byte[TAMANHO_BLOCO];
+        long inicio = System.nanoTime();
+        long enviados = 0;
+        try (InputStream entrada = Files.newInputStream(arquivo);
+             OutputStream saida = troca.getResponseBody()) {
+            int lidos;
+            while ((lidos = entrada.read(bloco)) > 0) {
+                saida.write(bloco, 0, lidos);
+                enviados += lidos;
+                if (bytesPorSegundo > 0) {
+                    aguardarBanda(inicio, enviados);
+                } // if
+            } // while
+        } // try
+    } // enviarArquivo
+
+    /**
+     * Dorme até o tempo decorrido corresponder aos bytes já enviados
+     */
+    private void aguardarBanda(long inicio, long enviados) throws IOException {
+        long esperadoNanos = enviados * 1_000_000_000L / bytesPorSegundo;
+        long adiantamentoNanos = esperadoNanos - (System.nanoTime() - inicio);
+        if (adiantamentoNanos > 1_000_000) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(adiantamentoNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Download interrompido", e);
+            } // try-catch
+        } // if
+    } // aguardarBanda
+
+    /**
+     * Listagem no formato do autoindex do Apache, como a do servidor da ANS
+     */
+    private String listagem(String caminhoUrl, Path diretorio) throws IOException {
+        List<Path> entradas = new ArrayList<>();
+        try (Stream<Path> filhos = Files.list(diretorio)) {
+            filhos.filter(filho -> !oculto(filho)).sorted().forEach(entradas::add);
+        } // try
+
+        String titulo = caminhoUrl.length() > 1 ? caminhoUrl.substring(0, caminhoUrl.length() - 1) : caminhoUrl;
+        StringBuilder html = new StringBuilder(1024 + entradas.size() * 200);
+        html.append("<!DOCTYPE HTML PUBLIC \"-//W3C//DTD HTML 3.2 Final//EN\">\n<html>\n <head>\n  <title>Index of ")
+            .append(titulo).append("</title>\n </head>\n <body>\n<h1>Index of ").append(titulo).append("</h1>\n")
+            .append("  <table>\n")
+            .append("   <tr><th valign=\"top\"><img src=\"/icons/blank.gif\" alt=\"[ICO]\"></th>")
+            .append("<th><a href=\"?C=N;O=D\">Name</a></th><th><a href=\"?C=M;O=A\">Last modified</a></th>")
+            .append("<th><a href=\"?C=S;O=A\">Size</a></th><th><a href=\"?C=D;O=A\">Description</a></th></tr>\n")
+            .append("   <tr><th colspan=\"5\"><hr></th></tr>\n");
+
+        if (caminhoUrl.length() > 1) {
+            String pai = caminhoUrl.substring(0, caminhoUrl.lastIndexOf('/', caminhoUrl.length() - 2) + 1);
+            html.append("<tr><td valign=\"top\"><img src=\"/icons/back.gif\" alt=\"[PARENTDIR]\"></td>")
+                .append("<td><a href=\"").append(pai).append("\">Parent Directory</a></td><td>&nbsp;</td>")
+                .append("<td align=\"right\">  - </td><td>&nbsp;</td></tr>\n");
+        } // if
+
+        for (Path entrada : entradas) {
+            boolean diretorioFilho = Files.isDirectory(entrada);
+            String nome = entrada.getFileName().toString() + (diretorioFilho ? "/" : "");
+            html.append("<tr><td valign=\"top\"><img src=\"/icons/")
+                .append(diretorioFilho ? "folder.gif\" alt=\"[DIR]\"" : "compressed.gif\" alt=\"[   ]\"")
+                .append("></td><td><a href=\"").append(nome).append("\">").append(nome).append("</a></td>")
+                .append("<td align=\"right\">")
+                .append(FORMATO_DATA.format(Files.getLastModifiedTime(entrada).toInstant()))
+                .append("  </td><td align=\"right\">")
+                .append(diretorioFilho ? " - " : tamanhoLegivel(Files.size(entrada)))
+                .append("</td><td>&nbsp;</td></tr>\n");
+        } // for
+
+        html.append("   <tr><th colspan=\"5\"><hr></th></tr>\n</table>\n</body></html>\n");
+        return html.toString();
+    } // listagem
+
+    /**
+     * Tamanho no estilo do Apache (ex.: 512, 3.4K, 87M)
+     */
+    private static String tamanhoLegivel(long bytes) {
+        if (bytes < 1024) {
+            return Long.toString(bytes);
+        } // if
+        String unidades = "KMGT";
+        double valor = bytes;
+        int unidade = -1;
+        while (valor >= 1024 && unidade < unidades.length() - 1) {
+            valor /= 1024;
+            unidade++;
+        } // while
+        return (valor < 10 ? String.format(Locale.ROOT, "%.1f", valor) : Long.toString(Math.round(valor)))
+            + unidades.charAt(unidade);
+    } // tamanhoLegivel
+
+    /**
+     * Arquivos ocultos e temporários da geração não são servidos
+     */
+    private static boolean oculto(Path caminho) {
+        String nome = caminho.getFileName() != null ? caminho.getFileName().toString() : "";
+        return nome.startsWith(".") || nome.endsWith(".tmp");
+    } // oculto
+
+    private static String tipoConteudo(String nome) {
+        String minusculo = nome.toLowerCase(Locale.ROOT);
+        if (minusculo.endsWith(".zip")) {
+            return "application/zip";
+        } else if (minusculo.endsWith(".csv")) {
+            return "text/csv";
+        } else if (minusculo.endsWith(".html") || minusculo.endsWith(".htm")) {
+            return "text/html;charset=UTF-8";
+        } // if
+        return "application/octet-stream";
+    } // tipoConteudo
+
+    private static void responderTexto(HttpExchange troca, int status, String texto, boolean head)
+            throws IOException {
+        byte[] corpo = texto.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "text/plain;charset=UTF-8");
+        troca.sendResponseHeaders(status, head ? -1 : corpo.length);
+        if (!head) {
+            troca.getResponseBody().write(corpo);
+        } // if
+    } // responderTexto
+} // ServidorAnsSimulado
@@ -0,0 +1,93 @@
+package com.intuitivecare.integracao.service;
+
+import com.intuitivecare.benchmarks.ArquivosTemporarios;
+import com.intuitivecare.benchmarks.GeradorDadosAns;
+import com.intuitivecare.integracao.config.ApplicationConfig;
+import com.intuitivecare.integracao.model.InconsistenciaReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da consolidação do Desafio 1
+ *
+ * - processarArquivo: leitura de uma demonstração trimestral completa
+ *   (filtro da conta 41, parse do valor, detector de inconsistências e
+ *   agregação por operadora/trimestre); uma operação = um arquivo
+ * - parseValor: conversão de VL_SALDO_FINAL no formato brasileiro para
+ *   BigDecimal; uma operação = um valor
+ *
+ * Rodar com -prof gc para ver gc.alloc.rate.norm (bytes por operação).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsolidacaoBenchmark {
+
+    private static final int VALORES = 10_000;
+
+    @Param({"100000"})
+    public int linhas;
+
+    @Param({"1000"})
+    public int operadoras;
+
+    private Path diretorio;
+    private Path demonstracao;
+    private String[] valores;
+    private ConsolidacaoService service;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        GeradorDadosAns gerador = new GeradorDadosAns(linhas, operadoras, 1, 42L);
+        diretorio = ArquivosTemporarios.criarDiretorio("consolidacao");
+        demonstracao = gerador.gerarDemonstracao(0, diretorio.resolve(GeradorDadosAns.nomeTrimestre(0) + ".csv"));
+        valores = gerador.gerarValoresBrasileiros(VALORES);
+        service = new ConsolidacaoService(new ApplicationConfig(diretorio));
+    } // preparar
+
+    @TearDown(Level.Trial)
+    public void limpar() throws Exception {
+        ArquivosTemporarios.remover(diretorio);
+    } // limpar
+
+    @Benchmark
+    public Map<String, BigDecimal> processarArquivo() throws Exception {
+        Map<String, BigDecimal> despesas = new HashMap<>();
+        Set<String> registros = new HashSet<>();
+        DetectorInconsistencias detector = new DetectorInconsistencias(new InconsistenciaReport());
+        service.processarArquivo(demonstracao, despesas, registros, detector);
+        return despesas;
+    } // processarArquivo
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public void parseValor(Blackhole blackhole) {
+        for (String valor : valores) {
+            blackhole.consume(service.parseValor(valor));
+        } // for
+    } // parseValor
+} // ConsolidacaoBenchmark
@@ -0,0 +1,157 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.benchmarks.ArquivosTemporarios;
+import com.intuitivecare.benchmarks.GeradorDadosAns;
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.AcumuladorEstatistico;
+import com.intuitivecare.transformacao.model.AgregacaoParcial;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da agregação do Desafio 2
+ *
+ * - agregarDados: CSV enriquecido inteiro, da leitura à escrita de
+ *   output/despesas_agregadas.csv no diretório temporário (as saídas
+ *   versionadas do Desafio 2 não são tocadas)
+ * - agregarParcial: só leitura e agrupamento, para separar o custo do
+ *   parse/agrupamento do custo das estatísticas e da escrita
+ * - agruparChaveTexto / agruparChaveCodificada: só o agrupamento, sobre as
+ *   mesmas linhas já lidas no setup. O primeiro é a implementação original
+ *   (LinkedHashMap com chave razaoSocial + "|" + uf, uma String por
+ *   registro); o segundo é o da AgregacaoParcial (id de dicionário da razão
+ *   social e código da UF em uma chave long, na LongIntHashMap)
+ *
+ * Uma operação = um arquivo (ou todas as linhas dele, nos agrupamentos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgregacaoBenchmark {
+
+    @Param({"100000"})
+    public int linhas;
+
+    @Param({"1000"})
+    public int operadoras;
+
+    @Param({"3"})
+    public int trimestres;
+
+    private Path diretorio;
+    private Path enriquecido;
+    private AgregacaoService service;
+
+    // Linhas do enriquecido já lidas (textos distintos por linha, como no parse)
+    private String[] razoesSociais;
+    private String[] ufs;
+    private BigDecimal[] valores;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        GeradorDadosAns gerador = new GeradorDadosAns(linhas, operadoras, trimestres, 42L);
+        diretorio = ArquivosTemporarios.criarDiretorio("agregacao");
+        enriquecido = gerador.gerarEnriquecido(diretorio.resolve("consolidado_enriquecido.csv"));
+        service = new AgregacaoService(new ApplicationConfig(diretorio));
+        lerLinhas();
+    } // preparar
+
+    @TearDown(Level.Trial)
+    public void limpar() throws Exception {
+        ArquivosTemporarios.remover(diretorio);
+    } // limpar
+
+    @Benchmark
+    public Path agregarDados() throws Exception {
+        return service.agregarDados(enriquecido);
+    } // agregarDados
+
+    @Benchmark
+    public AgregacaoParcial agregarParcial() throws Exception {
+        return service.agregarParcial(enriquecido);
+    } // agregarParcial
+
+    @Benchmark
+    public Map<String, AcumuladorEstatistico> agruparChaveTexto() {
+        Map<String, AcumuladorEstatistico> grupos = new LinkedHashMap<>();
+        for (int i = 0; i < valores.length; i++) {
+            String chave = razoesSociais[i] + "|" + ufs[i];
+            grupos.computeIfAbsent(chave, c -> new AcumuladorEstatistico()).adicionar(valores[i]);
+        } // for
+        return grupos;
+    } // agruparChaveTexto
+
+    @Benchmark
+    public AgregacaoParcial agruparChaveCodificada() {
+        AgregacaoParcial agregacao = new AgregacaoParcial();
+        for (int i = 0; i < valores.length; i++) {
+            agregacao.acumular(razoesSociais[i], ufs[i], valores[i]);
+        } // for
+        return agregacao;
+    } // agruparChaveCodificada
+
+    /**
+     * Lê RazaoSocial, UF e ValorDespesas do enriquecido como o
+     * AgregacaoService (UF vazia vira "N/A"; valor inválido, zero)
+     */
+    private void lerLinhas() throws Exception {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+            .setDelimiter(';')
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+        List<String> razoes = new ArrayList<>(linhas);
+        List<String> siglas = new ArrayList<>(linhas);
+        List<BigDecimal> lidos = new ArrayList<>(linhas);
+        try (Reader reader = Files.newBufferedReader(enriquecido, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, format)) {
+            for (CSVRecord record : parser) {
+                String uf = record.get("UF");
+                BigDecimal valor;
+                try {
+                    valor = new BigDecimal(record.get("ValorDespesas"));
+                } catch (NumberFormatException e) {
+                    valor = BigDecimal.ZERO;
+                } // try-catch
+                razoes.add(record.get("RazaoSocial"));
+                siglas.add(uf.isBlank() ? "N/A" : uf);
+                lidos.add(valor);
+            } // for
+        } // try
+
+        razoesSociais = razoes.toArray(new String[0]);
+        ufs = siglas.toArray(new String[0]);
+        valores = lidos.toArray(new BigDecimal[0]);
+    } // lerLinhas
+} // AgregacaoBenchmark
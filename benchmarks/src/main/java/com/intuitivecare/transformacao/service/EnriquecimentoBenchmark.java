@@ -0,0 +1,88 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.benchmarks.ArquivosTemporarios;
+import com.intuitivecare.benchmarks.GeradorDadosAns;
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.CuboDespesas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do join do enriquecimento (Desafio 2)
+ *
+ * Uma operação = processarJoin sobre o consolidado validado inteiro: leitura,
+ * join com o cadastro, validação de CNPJ, escrita do CSV enriquecido e
+ * montagem do cubo. O cadastro vem pronto em memória (sem download), e o
+ * pool usa uma thread por núcleo, como na execução normal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnriquecimentoBenchmark {
+
+    @Param({"100000"})
+    public int linhas;
+
+    @Param({"1000"})
+    public int operadoras;
+
+    @Param({"3"})
+    public int trimestres;
+
+    private Path diretorio;
+    private Path validado;
+    private Path enriquecido;
+    private Map<String, EnriquecimentoService.OperadoraInfo> cadastro;
+    private ApplicationConfig config;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        GeradorDadosAns gerador = new GeradorDadosAns(linhas, operadoras, trimestres, 42L);
+        diretorio = ArquivosTemporarios.criarDiretorio("enriquecimento");
+        // Mesmo layout do consolidado validado (RegistroANS;Trimestre;Ano;ValorDespesas)
+        validado = gerador.gerarConsolidado(diretorio.resolve("consolidado_validado.csv"));
+        enriquecido = diretorio.resolve("consolidado_enriquecido.csv");
+
+        cadastro = new HashMap<>();
+        for (GeradorDadosAns.Operadora operadora : gerador.getOperadoras()) {
+            if (operadora.cadastrada()) {
+                cadastro.put(operadora.registroAns(), new EnriquecimentoService.OperadoraInfo(
+                    operadora.cnpj(), operadora.razaoSocial(), operadora.modalidade(), operadora.uf()));
+            } // if
+        } // for
+        config = new ApplicationConfig(diretorio);
+    } // preparar
+
+    @TearDown(Level.Trial)
+    public void limpar() throws Exception {
+        ArquivosTemporarios.remover(diretorio);
+    } // limpar
+
+    @Benchmark
+    public CuboDespesas processarJoin() throws Exception {
+        // Serviços novos por operação: o cache de CNPJs validados fica na ValidacaoService
+        EnriquecimentoService service = new EnriquecimentoService(config, new ValidacaoService(config));
+        CuboDespesas cubo = new CuboDespesas();
+        service.processarJoin(validado, cadastro, enriquecido, cubo);
+        return cubo;
+    } // processarJoin
+} // EnriquecimentoBenchmark
@@ -0,0 +1,85 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.benchmarks.ArquivosTemporarios;
+import com.intuitivecare.benchmarks.GeradorDadosAns;
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da validação do Desafio 2
+ *
+ * - validarDados: consolidado completo, da leitura à escrita de
+ *   output/consolidado_validado.csv no diretório temporário; uma
+ *   operação = um arquivo
+ * - parseValor: conversão de ValorDespesas; uma operação = um valor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private static final int VALORES = 10_000;
+
+    @Param({"100000"})
+    public int linhas;
+
+    @Param({"1000"})
+    public int operadoras;
+
+    @Param({"3"})
+    public int trimestres;
+
+    private Path diretorio;
+    private Path consolidado;
+    private String[] valores;
+    private ApplicationConfig config;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        GeradorDadosAns gerador = new GeradorDadosAns(linhas, operadoras, trimestres, 42L);
+        diretorio = ArquivosTemporarios.criarDiretorio("validacao");
+        consolidado = gerador.gerarConsolidado(diretorio.resolve("consolidado_despesas.csv"));
+        valores = gerador.gerarValoresDecimais(VALORES);
+        config = new ApplicationConfig(diretorio);
+    } // preparar
+
+    @TearDown(Level.Trial)
+    public void limpar() throws Exception {
+        ArquivosTemporarios.remover(diretorio);
+    } // limpar
+
+    @Benchmark
+    public Path validarDados() throws Exception {
+        // Serviço novo por operação: as estatísticas são acumuladas na instância
+        return new ValidacaoService(config).validarDados(consolidado);
+    } // validarDados
+
+    @Benchmark
+    @OperationsPerInvocation(VALORES)
+    public void parseValor(Blackhole blackhole) {
+        ValidacaoService service = new ValidacaoService(config);
+        for (String valor : valores) {
+            blackhole.consume(service.parseValor(valor));
+        } // for
+    } // parseValor
+} // ValidacaoBenchmark
@@ -0,0 +1,198 @@
+package com.intuitivecare.transformacao.util;
+
+import com.intuitivecare.benchmarks.GeradorDadosAns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks do CnpjValidator
+ *
+ * Mesma massa em todos (metade formatada, metade só dígitos, ~2% com dígito
+ * verificador errado), para comparar a validação individual com a em lote
+ * e o custo das conversões usadas na carga e na API. Uma operação = um CNPJ.
+ *
+ * Os lotes são empacotados uma vez no setup, então validateBatchEmpacotado e
+ * validateDigitsBatch medem só a validação; validateBatchLista inclui o
+ * empacotamento. Os métodos *Legado são a implementação original (regex,
+ * String.format, "0" + s) e as variantes *To escrevem em buffers reutilizados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CnpjValidatorBenchmark {
+
+    private static final int CNPJS = 10_000;
+    private static final int DIGITOS_CNPJ = 14;
+
+    private String[] cnpjs;
+    private List<String> listaCnpjs;
+
+    // Lote com pontuação: CNPJ i em empacotados[offsets[i], offsets[i + 1])
+    private char[] empacotados;
+    private int[] offsets;
+
+    // Lote normalizado: 14 dígitos ASCII por CNPJ
+    private byte[] digitos;
+
+    private boolean[] resultados;
+
+    // Buffers reutilizados pelas variantes *To
+    private char[] destino;
+    private StringBuilder texto;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        cnpjs = new GeradorDadosAns(1, 2_000, 1, 42L).gerarCnpjs(CNPJS);
+        listaCnpjs = Arrays.asList(cnpjs);
+
+        offsets = new int[CNPJS + 1];
+        StringBuilder todos = new StringBuilder();
+        for (int i = 0; i < CNPJS; i++) {
+            todos.append(cnpjs[i]);
+            offsets[i + 1] = todos.length();
+        } // for
+        empacotados = todos.toString().toCharArray();
+
+        char[] normalizado = new char[DIGITOS_CNPJ];
+        digitos = new byte[CNPJS * DIGITOS_CNPJ];
+        for (int i = 0; i < CNPJS; i++) {
+            if (!CnpjValidator.normalizeTo(cnpjs[i], normalizado, 0)) {
+                throw new IllegalStateException("CNPJ gerado com mais de 14 dígitos: " + cnpjs[i]);
+            } // if
+            for (int j = 0; j < normalizado.length; j++) {
+                digitos[i * DIGITOS_CNPJ + j] = (byte) normalizado[j];
+            } // for
+        } // for
+
+        resultados = new boolean[CNPJS];
+        destino = new char[DIGITOS_CNPJ];
+        texto = new StringBuilder(32);
+    } // preparar
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public int isValid() {
+        int validos = 0;
+        for (String cnpj : cnpjs) {
+            if (CnpjValidator.isValid(cnpj)) {
+                validos++;
+            } // if
+        } // for
+        return validos;
+    } // isValid
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public int isValidLegado() {
+        int validos = 0;
+        for (String cnpj : cnpjs) {
+            if (CnpjValidatorLegado.isValid(cnpj)) {
+                validos++;
+            } // if
+        } // for
+        return validos;
+    } // isValidLegado
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public boolean[] validateBatchLista() {
+        return CnpjValidator.validateBatch(listaCnpjs);
+    } // validateBatchLista
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public boolean[] validateBatchEmpacotado() {
+        CnpjValidator.validateBatch(empacotados, offsets, CNPJS, resultados);
+        return resultados;
+    } // validateBatchEmpacotado
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public boolean[] validateDigitsBatch() {
+        CnpjValidator.validateDigitsBatch(digitos, CNPJS, resultados);
+        return resultados;
+    } // validateDigitsBatch
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public void normalize(Blackhole blackhole) {
+        for (String cnpj : cnpjs) {
+            blackhole.consume(CnpjValidator.normalize(cnpj));
+        } // for
+    } // normalize
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public void normalizeLegado(Blackhole blackhole) {
+        for (String cnpj : cnpjs) {
+            blackhole.consume(CnpjValidatorLegado.normalize(cnpj));
+        } // for
+    } // normalizeLegado
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public int normalizeTo() {
+        int soma = 0;
+        for (String cnpj : cnpjs) {
+            CnpjValidator.normalizeTo(cnpj, destino, 0);
+            soma += destino[DIGITOS_CNPJ - 1];
+        } // for
+        return soma;
+    } // normalizeTo
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public void format(Blackhole blackhole) {
+        for (String cnpj : cnpjs) {
+            blackhole.consume(CnpjValidator.format(cnpj));
+        } // for
+    } // format
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public void formatLegado(Blackhole blackhole) {
+        for (String cnpj : cnpjs) {
+            blackhole.consume(CnpjValidatorLegado.format(cnpj));
+        } // for
+    } // formatLegado
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public int formatTo() {
+        int tamanho = 0;
+        for (String cnpj : cnpjs) {
+            texto.setLength(0);
+            CnpjValidator.formatTo(cnpj, texto);
+            tamanho += texto.length();
+        } // for
+        return tamanho;
+    } // formatTo
+
+    @Benchmark
+    @OperationsPerInvocation(CNPJS)
+    public long toLong() {
+        long soma = 0;
+        for (String cnpj : cnpjs) {
+            soma += CnpjValidator.toLong(cnpj);
+        } // for
+        return soma;
+    } // toLong
+} // CnpjValidatorBenchmark
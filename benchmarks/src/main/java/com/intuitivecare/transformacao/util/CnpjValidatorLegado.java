@@ -0,0 +1,97 @@
+package com.intuitivecare.transformacao.util;
+
+/**
+ * Implementação original do CnpjValidator (regex, Character.getNumericValue,
+ * String.format e padding com "0" + s), mantida só como linha de base dos
+ * benchmarks
+ */
+final class CnpjValidatorLegado {
+
+    private static final int[] PESOS_PRIMEIRO = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_SEGUNDO = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    private CnpjValidatorLegado() {
+        // Construtor privado para classe utilitária
+    } // CnpjValidatorLegado
+
+    static boolean isValid(String cnpj) {
+        if (cnpj == null) {
+            return false;
+        } // if
+
+        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
+        if (cnpjNumerico.length() != 14) {
+            return false;
+        } // if
+        if (todosDigitosIguais(cnpjNumerico)) {
+            return false;
+        } // if
+        return verificarDigitos(cnpjNumerico);
+    } // isValid
+
+    static String format(String cnpj) {
+        if (cnpj == null) {
+            return "";
+        } // if
+
+        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
+        if (cnpjNumerico.length() != 14) {
+            return cnpj;
+        } // if
+
+        return String.format("%s.%s.%s/%s-%s",
+            cnpjNumerico.substring(0, 2),
+            cnpjNumerico.substring(2, 5),
+            cnpjNumerico.substring(5, 8),
+            cnpjNumerico.substring(8, 12),
+            cnpjNumerico.substring(12, 14));
+    } // format
+
+    static String normalize(String cnpj) {
+        if (cnpj == null) {
+            return "";
+        } // if
+
+        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
+        while (cnpjNumerico.length() < 14) {
+            cnpjNumerico = "0" + cnpjNumerico;
+        } // while
+        return cnpjNumerico;
+    } // normalize
+
+    private static boolean todosDigitosIguais(String cnpj) {
+        char primeiro = cnpj.charAt(0);
+        for (int i = 1; i < cnpj.length(); i++) {
+            if (cnpj.charAt(i) != primeiro) {
+                return false;
+            } // if
+        } // for
+        return true;
+    } // todosDigitosIguais
+
+    private static boolean verificarDigitos(String cnpj) {
+        try {
+            int soma1 = 0;
+            for (int i = 0; i < 12; i++) {
+                soma1 += Character.getNumericValue(cnpj.charAt(i)) * PESOS_PRIMEIRO[i];
+            } // for
+
+            int resto1 = soma1 % 11;
+            int digito1 = (resto1 < 2) ? 0 : (11 - resto1);
+            if (Character.getNumericValue(cnpj.charAt(12)) != digito1) {
+                return false;
+            } // if
+
+            int soma2 = 0;
+            for (int i = 0; i < 13; i++) {
+                soma2 += Character.getNumericValue(cnpj.charAt(i)) * PESOS_SEGUNDO[i];
+            } // for
+
+            int resto2 = soma2 % 11;
+            int digito2 = (resto2 < 2) ? 0 : (11 - resto2);
+            return Character.getNumericValue(cnpj.charAt(13)) == digito2;
+        } catch (Exception e) {
+            return false;
+        } // try-catch
+    } // verificarDigitos
+} // CnpjValidatorLegado
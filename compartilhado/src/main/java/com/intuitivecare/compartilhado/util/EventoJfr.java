@@ -0,0 +1,36 @@
+package com.intuitivecare.compartilhado.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base dos eventos do JDK Flight Recorder dos dois desafios
+ *
+ * Cada módulo declara seus eventos em EventosJfr (Desafio 1: download,
+ * extração e consolidação; Desafio 2: enriquecimento e agregação), como
+ * subclasses de uma base do módulo que acrescenta a subcategoria
+ * ("Desafio 1", "Desafio 2"). @Category e @StackTrace são herdadas, então
+ * os eventos só declaram nome, rótulo, descrição e campos. Com
+ * -XX:StartFlightRecording o JMC (ou `jfr print --events
+ * com.intuitivecare.*`) mostra cada evento ao lado dos eventos de GC,
+ * alocação (jdk.ObjectAllocationSample) e I/O da JVM no mesmo intervalo.
+ *
+ * Trade-off: EVENTOS JFR EM VEZ DE LOG/MÉTRICAS
+ * - Sem gravação ativa o evento não é registrado, e o objeto, que não
+ *   escapa do método, é eliminado pelo JIT: custo praticamente nulo
+ * - Granularidade por arquivo ou lote, não por linha (por linha o volume de
+ *   eventos distorceria o próprio perfil)
+ * - Stack trace desligado: o evento já diz onde está, e capturá-la custa
+ *   mais que o próprio evento
+ */
+@Category(EventoJfr.CATEGORIA)
+@StackTrace(false)
+public abstract class EventoJfr extends Event {
+
+    /**
+     * Categoria raiz dos eventos no JMC; as bases de cada módulo a repetem
+     * seguida da subcategoria
+     */
+    public static final String CATEGORIA = "Intuitive Care";
+} // EventoJfr
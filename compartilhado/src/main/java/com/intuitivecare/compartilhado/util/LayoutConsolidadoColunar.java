@@ -0,0 +1,64 @@
+package com.intuitivecare.compartilhado.util;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout do consolidado em formato binário colunar
+ *
+ * Gravado pelo ConsolidadoColunarWriter (Desafio 1) e lido pelo
+ * ConsolidadoColunarReader (Desafio 2). Os dois usam só estas constantes e
+ * posições; qualquer mudança no layout é feita aqui, incrementando VERSAO
+ * para que arquivos antigos sejam recusados em vez de mal interpretados.
+ *
+ * Little-endian, colunas contíguas e alinhadas ao tamanho do tipo:
+ * - Cabeçalho (16 bytes): magic "ANSC", versão (int), quantidade n (int),
+ *   escala dos valores (int, 2 = centavos)
+ * - long[n]  ValorDespesas em centavos
+ * - int[n]   RegistroANS
+ * - short[n] Ano
+ * - byte[n]  Trimestre (1 a 4)
+ */
+public final class LayoutConsolidadoColunar {
+
+    public static final ByteOrder ORDEM = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int MAGIC = 0x43534E41; // "ANSC" em little-endian
+    public static final int VERSAO = 1;
+    public static final int ESCALA = 2;
+
+    // Cabeçalho: magic, versão, quantidade e escala (um int cada)
+    public static final int POSICAO_VERSAO = 4;
+    public static final int POSICAO_QUANTIDADE = 8;
+    public static final int POSICAO_ESCALA = 12;
+    public static final int TAMANHO_CABECALHO = 16;
+
+    // Bytes por registro somando todas as colunas (8 + 4 + 2 + 1)
+    public static final int BYTES_POR_REGISTRO = Long.BYTES + Integer.BYTES + Short.BYTES + Byte.BYTES;
+
+    private LayoutConsolidadoColunar() {
+        // Construtor privado para classe utilitária
+    } // LayoutConsolidadoColunar
+
+    /**
+     * Tamanho exato do arquivo com n registros
+     */
+    public static long tamanhoArquivo(int quantidade) {
+        return TAMANHO_CABECALHO + (long) quantidade * BYTES_POR_REGISTRO;
+    } // tamanhoArquivo
+
+    public static int inicioCentavos() {
+        return TAMANHO_CABECALHO;
+    } // inicioCentavos
+
+    public static int inicioRegistrosAns(int quantidade) {
+        return inicioCentavos() + quantidade * Long.BYTES;
+    } // inicioRegistrosAns
+
+    public static int inicioAnos(int quantidade) {
+        return inicioRegistrosAns(quantidade) + quantidade * Integer.BYTES;
+    } // inicioAnos
+
+    public static int inicioTrimestres(int quantidade) {
+        return inicioAnos(quantidade) + quantidade * Short.BYTES;
+    } // inicioTrimestres
+} // LayoutConsolidadoColunar
@@ -0,0 +1,332 @@
+package com.intuitivecare.compartilhado.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas por etapa do pipeline (tempo, linhas e bytes)
+ *
+ * Cada etapa (download, consolidacao, validacao, agregacao...) acumula:
+ * - Tempo de parede (do primeiro início ao último fim) e tempo somado das
+ *   execuções; com execuções em paralelo o somado passa do de parede
+ * - Linhas de entrada, de saída e rejeitadas
+ * - Bytes lidos e escritos; a vazão (MB/s) usa o tempo somado, então para
+ *   downloads é a vazão média por transferência
+ *
+ * O snapshot é exportado em JSON (metricas.json) e no formato texto do
+ * Prometheus (metricas.prom), no fim da execução e, opcionalmente, a cada
+ * N segundos durante ela (-Dmetricas.intervalo=N), para acompanhar a
+ * evolução entre execuções ou apontar um node_exporter (textfile) para o
+ * diretório.
+ *
+ * Trade-off: REGISTRO PRÓPRIO EM VEZ DE MICROMETER
+ * - Sem dependência nova; só o que o pipeline precisa (contadores por
+ *   etapa), com LongAdder para os lotes paralelos somarem sem disputa
+ * - Os serviços somam contadores locais e registram uma vez por arquivo ou
+ *   lote, nunca por linha, então o custo no caminho quente é nulo
+ * - Sem histogramas nem tags arbitrárias; para isso, trocar por Micrometer
+ *
+ * Compartilhada pelos Desafios 1 e 2 (o rótulo "pipeline" distingue os
+ * dois), então os dois metricas.json têm os mesmos campos e os números o
+ * mesmo formato; o JSON é montado à mão porque o JsonWriter é do Desafio 2.
+ */
+public final class MetricasPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricasPipeline.class);
+
+    public static final String ARQUIVO_JSON = "metricas.json";
+    public static final String ARQUIVO_PROMETHEUS = "metricas.prom";
+
+    private final String pipeline;
+    private final long inicioNanos = System.nanoTime();
+    private final Instant inicio = Instant.now();
+    private final Map<String, Etapa> etapas = new ConcurrentHashMap<>();
+    private final List<Etapa> ordem = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService agendador;
+
+    public MetricasPipeline(String pipeline) {
+        this.pipeline = pipeline;
+    } // MetricasPipeline
+
+    /**
+     * Etapa com o nome dado, criada no primeiro uso (ordem de criação
+     * preservada na exportação)
+     */
+    public Etapa etapa(String nome) {
+        Etapa etapa = etapas.get(nome);
+        if (etapa == null) {
+            synchronized (ordem) {
+                etapa = etapas.get(nome);
+                if (etapa == null) {
+                    etapa = new Etapa(nome);
+                    etapas.put(nome, etapa);
+                    ordem.add(etapa);
+                } // if
+            } // synchronized
+        } // if
+        return etapa;
+    } // etapa
+
+    /**
+     * Exporta periodicamente em uma thread daemon (intervalo <= 0 não agenda)
+     */
+    public synchronized void iniciarExportacaoPeriodica(Path diretorio, int intervaloSegundos) {
+        if (intervaloSegundos <= 0 || agendador != null) {
+            return;
+        } // if
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "metricas-" + pipeline);
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleAtFixedRate(() -> exportarSemFalhar(diretorio),
+            intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    } // iniciarExportacaoPeriodica
+
+    /**
+     * Para a exportação periódica e grava o snapshot final
+     */
+    public void encerrar(Path diretorio) {
+        synchronized (this) {
+            if (agendador != null) {
+                agendador.shutdownNow();
+                agendador = null;
+            } // if
+        } // synchronized
+        exportarSemFalhar(diretorio);
+    } // encerrar
+
+    /**
+     * Grava metricas.json e metricas.prom (cada um por arquivo temporário +
+     * rename, para quem lê durante a execução nunca ver arquivo pela metade)
+     */
+    public void exportar(Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        gravarAtomico(diretorio.resolve(ARQUIVO_JSON), paraJson());
+        gravarAtomico(diretorio.resolve(ARQUIVO_PROMETHEUS), paraPrometheus());
+    } // exportar
+
+    public String paraJson() {
+        long agora = System.nanoTime();
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"pipeline\":\"").append(pipeline)
+            .append("\",\"inicio\":\"").append(inicio)
+            .append("\",\"duracaoSegundos\":").append(formatar(segundos(agora - inicioNanos)))
+            .append(",\"etapas\":[");
+        boolean primeira = true;
+        for (Etapa etapa : ordem) {
+            double parede = segundos(etapa.nanosParede(agora));
+            double somado = segundos(etapa.nanosSomados.sum());
+            if (!primeira) {
+                json.append(',');
+            } // if
+            primeira = false;
+            json.append("{\"etapa\":\"").append(etapa.nome).append('"')
+                .append(",\"execucoes\":").append(etapa.execucoes.sum())
+                .append(",\"emAndamento\":").append(etapa.ativas.get())
+                .append(",\"segundosParede\":").append(formatar(parede))
+                .append(",\"segundosSomados\":").append(formatar(somado))
+                .append(",\"linhasEntrada\":").append(etapa.linhasEntrada.sum())
+                .append(",\"linhasSaida\":").append(etapa.linhasSaida.sum())
+                .append(",\"linhasRejeitadas\":").append(etapa.linhasRejeitadas.sum())
+                .append(",\"bytesLidos\":").append(etapa.bytesLidos.sum())
+                .append(",\"bytesEscritos\":").append(etapa.bytesEscritos.sum())
+                .append(",\"linhasPorSegundo\":")
+                .append(formatar(parede > 0 ? etapa.linhasEntrada.sum() / parede : 0))
+                .append(",\"mbLidosPorSegundo\":")
+                .append(formatar(somado > 0 ? etapa.bytesLidos.sum() / somado / 1_048_576 : 0))
+                .append(",\"mbEscritosPorSegundo\":")
+                .append(formatar(somado > 0 ? etapa.bytesEscritos.sum() / somado / 1_048_576 : 0))
+                .append('}');
+        } // for
+        return json.append("]}").toString();
+    } // paraJson
+
+    public String paraPrometheus() {
+        long agora = System.nanoTime();
+        StringBuilder texto = new StringBuilder(2048);
+        String rotuloPipeline = "pipeline=\"" + pipeline + "\"";
+
+        cabecalho(texto, "pipeline_duracao_segundos", "gauge", "Tempo desde o início da execução");
+        texto.append("pipeline_duracao_segundos{").append(rotuloPipeline).append("} ")
+            .append(formatar(segundos(agora - inicioNanos))).append('\n');
+
+        cabecalho(texto, "pipeline_etapa_segundos", "gauge", "Tempo de parede da etapa");
+        for (Etapa etapa : ordem) {
+            amostra(texto, "pipeline_etapa_segundos", rotuloPipeline, etapa, null,
+                formatar(segundos(etapa.nanosParede(agora))));
+        } // for
+        cabecalho(texto, "pipeline_etapa_segundos_somados_total", "counter",
+            "Soma dos tempos das execuções da etapa");
+        for (Etapa etapa : ordem) {
+            amostra(texto, "pipeline_etapa_segundos_somados_total", rotuloPipeline, etapa, null,
+                formatar(segundos(etapa.nanosSomados.sum())));
+        } // for
+        cabecalho(texto, "pipeline_etapa_execucoes_total", "counter", "Execuções da etapa (arquivos, lotes)");
+        for (Etapa etapa : ordem) {
+            amostra(texto, "pipeline_etapa_execucoes_total", rotuloPipeline, etapa, null,
+                Long.toString(etapa.execucoes.sum()));
+        } // for
+        cabecalho(texto, "pipeline_etapa_linhas_total", "counter", "Linhas por tipo (entrada, saida, rejeitada)");
+        for (Etapa etapa : ordem) {
+            amostra(texto, "pipeline_etapa_linhas_total", rotuloPipeline, etapa, "tipo=\"entrada\"",
+                Long.toString(etapa.linhasEntrada.sum()));
+            amostra(texto, "pipeline_etapa_linhas_total", rotuloPipeline, etapa, "tipo=\"saida\"",
+                Long.toString(etapa.linhasSaida.sum()));
+            amostra(texto, "pipeline_etapa_linhas_total", rotuloPipeline, etapa, "tipo=\"rejeitada\"",
+                Long.toString(etapa.linhasRejeitadas.sum()));
+        } // for
+        cabecalho(texto, "pipeline_etapa_bytes_total", "counter", "Bytes lidos e escritos");
+        for (Etapa etapa : ordem) {
+            amostra(texto, "pipeline_etapa_bytes_total", rotuloPipeline, etapa, "direcao=\"lido\"",
+                Long.toString(etapa.bytesLidos.sum()));
+            amostra(texto, "pipeline_etapa_bytes_total", rotuloPipeline, etapa, "direcao=\"escrito\"",
+                Long.toString(etapa.bytesEscritos.sum()));
+        } // for
+        return texto.toString();
+    } // paraPrometheus
+
+    private void exportarSemFalhar(Path diretorio) {
+        try {
+            exportar(diretorio);
+        } catch (IOException | RuntimeException e) {
+            // Métricas nunca derrubam a execução
+            logger.warn("Falha ao exportar métricas em {}: {}", diretorio, e.getMessage());
+        } // try-catch
+    } // exportarSemFalhar
+
+    private static void gravarAtomico(Path arquivo, String conteudo) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        Files.writeString(temporario, conteudo, StandardCharsets.UTF_8);
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } // gravarAtomico
+
+    private static void cabecalho(StringBuilder texto, String metrica, String tipo, String ajuda) {
+        texto.append("# HELP ").append(metrica).append(' ').append(ajuda).append('\n')
+            .append("# TYPE ").append(metrica).append(' ').append(tipo).append('\n');
+    } // cabecalho
+
+    private static void amostra(StringBuilder texto, String metrica, String rotuloPipeline, Etapa etapa,
+                                String rotuloExtra, String valor) {
+        texto.append(metrica).append('{').append(rotuloPipeline).append(",etapa=\"").append(etapa.nome).append('"');
+        if (rotuloExtra != null) {
+            texto.append(',').append(rotuloExtra);
+        } // if
+        texto.append("} ").append(valor).append('\n');
+    } // amostra
+
+    private static double segundos(long nanos) {
+        return nanos / 1_000_000_000.0;
+    } // segundos
+
+    private static String formatar(double valor) {
+        return String.format(Locale.ROOT, "%.6f", valor);
+    } // formatar
+
+    /**
+     * Contadores de uma etapa (thread-safe)
+     */
+    public static final class Etapa {
+        private final String nome;
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder nanosSomados = new LongAdder();
+        private final AtomicLong primeiroInicio = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong ultimoFim = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger ativas = new AtomicInteger();
+        private final LongAdder linhasEntrada = new LongAdder();
+        private final LongAdder linhasSaida = new LongAdder();
+        private final LongAdder linhasRejeitadas = new LongAdder();
+        private final LongAdder bytesLidos = new LongAdder();
+        private final LongAdder bytesEscritos = new LongAdder();
+
+        private Etapa(String nome) {
+            this.nome = nome;
+        } // Etapa
+
+        /**
+         * Inicia a medição de uma execução; o tempo é registrado no close()
+         */
+        public Cronometro iniciar() {
+            long inicio = System.nanoTime();
+            primeiroInicio.accumulateAndGet(inicio, Math::min);
+            ativas.incrementAndGet();
+            return new Cronometro(this, inicio);
+        } // iniciar
+
+        public void registrarLinhas(long entrada, long saida, long rejeitadas) {
+            linhasEntrada.add(entrada);
+            linhasSaida.add(saida);
+            linhasRejeitadas.add(rejeitadas);
+        } // registrarLinhas
+
+        public void registrarBytes(long lidos, long escritos) {
+            bytesLidos.add(lidos);
+            bytesEscritos.add(escritos);
+        } // registrarBytes
+
+        public String getNome() {
+            return nome;
+        } // getNome
+
+        private void concluir(long inicio) {
+            long fim = System.nanoTime();
+            nanosSomados.add(fim - inicio);
+            execucoes.increment();
+            ultimoFim.accumulateAndGet(fim, Math::max);
+            ativas.decrementAndGet();
+        } // concluir
+
+        /**
+         * Do primeiro início ao último fim (ou até agora, se em andamento)
+         */
+        private long nanosParede(long agora) {
+            long inicio = primeiroInicio.get();
+            if (inicio == Long.MAX_VALUE) {
+                return 0;
+            } // if
+            long fim = ativas.get() > 0 ? agora : ultimoFim.get();
+            return Math.max(0, fim - inicio);
+        } // nanosParede
+    } // Etapa
+
+    /**
+     * Medição em andamento de uma etapa (usar em try-with-resources)
+     */
+    public static final class Cronometro implements AutoCloseable {
+        private final Etapa etapa;
+        private final long inicio;
+        private boolean fechado;
+
+        private Cronometro(Etapa etapa, long inicio) {
+            this.etapa = etapa;
+            this.inicio = inicio;
+        } // Cronometro
+
+        @Override
+        public void close() {
+            if (!fechado) {
+                fechado = true;
+                etapa.concluir(inicio);
+            } // if
+        } // close
+    } // Cronometro
+} // MetricasPipeline
@@ -1,5 +1,6 @@
 package com.intuitivecare.integracao;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
 import com.intuitivecare.integracao.config.ApplicationConfig;
 import com.intuitivecare.integracao.service.AnsDataService;
 import com.intuitivecare.integracao.service.ConsolidacaoService;
@@ -27,9 +28,11 @@ public class Application {
     public static void main(String[] args) {
         logger.info("=== Iniciando Desafio 1 - Integração com API Pública ANS ===");
         
+        ApplicationConfig config = new ApplicationConfig();
+        MetricasPipeline metricas = config.getMetricas();
+        metricas.iniciarExportacaoPeriodica(config.getDiretorioOutput(), config.getIntervaloMetricasSegundos());
+        
         try {
-            ApplicationConfig config = new ApplicationConfig();
-            
             // Serviço para identificar trimestres disponíveis
             AnsDataService ansDataService = new AnsDataService(config);
             
@@ -67,8 +70,15 @@ public class Application {
             logger.info("=== Desafio 1 concluído com sucesso! ===");
             logger.info("Arquivo gerado: {}", zipFinal.toAbsolutePath());
             
+            config.getProgresso().encerrar();
+            metricas.encerrar(config.getDiretorioOutput());
+            logger.info("Métricas: {}", config.getDiretorioOutput().resolve(MetricasPipeline.ARQUIVO_JSON));
+            
         } catch (Exception e) {
             logger.error("Erro durante a execução do Desafio 1: {}", e.getMessage(), e);
+            // Métricas parciais ajudam a localizar a etapa que falhou
+            config.getProgresso().encerrar();
+            metricas.encerrar(config.getDiretorioOutput());
             System.exit(1);
         } // try-catch
     } // main
@@ -1,5 +1,8 @@
 package com.intuitivecare.integracao.config;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -13,6 +16,9 @@ public class ApplicationConfig {
     private static final String ANS_BASE_URL = "https://dadosabertos.ans.gov.br/FTP/PDA/";
     private static final String DEMONSTRACOES_CONTABEIS_PATH = "demonstracoes_contabeis/";
     
+    // Raiz dos dados abertos (sobrescrevível, ex.: espelho local ou simulador)
+    private final String ansBaseUrl;
+    
     // Diretórios de trabalho
     private final Path diretorioDownload;
     private final Path diretorioExtracao;
@@ -23,24 +29,56 @@ public class ApplicationConfig {
     private final int timeoutConexaoMs;
     private final int timeoutLeituraMs;
     
+    // Saída adicional em formato binário colunar (entrada rápida do Desafio 2)
+    private final boolean formatoColunar;
+    
+    // Métricas por etapa (exportadas no fim e, opcionalmente, periodicamente)
+    private final MetricasPipeline metricas;
+    private final int intervaloMetricasSegundos;
+    
+    // Progresso ao vivo das etapas longas (linhas/s, MB/s, ETA)
+    private final RelatorioProgresso progresso;
+    
     public ApplicationConfig() {
+        this(Paths.get(""));
+    } // ApplicationConfig
+    
+    /**
+     * Configuração com os diretórios de trabalho sob outra raiz (ex.: o
+     * orquestrador roda os dois desafios no mesmo processo)
+     */
+    public ApplicationConfig(Path diretorioBase) {
+        // Ex.: -Dans.baseUrl=http://localhost:8080/FTP/PDA/
+        String base = System.getProperty("ans.baseUrl", ANS_BASE_URL);
+        this.ansBaseUrl = base.endsWith("/") ? base : base + "/";
+        
         // Diretórios padrão
-        this.diretorioDownload = Paths.get("downloads");
-        this.diretorioExtracao = Paths.get("extraidos");
-        this.diretorioOutput = Paths.get("output");
+        this.diretorioDownload = diretorioBase.resolve("downloads");
+        this.diretorioExtracao = diretorioBase.resolve("extraidos");
+        this.diretorioOutput = diretorioBase.resolve("output");
         
         // Configurações padrão
         this.quantidadeTrimestres = 3;
         this.timeoutConexaoMs = 30000;
         this.timeoutLeituraMs = 60000;
+        
+        // Ex.: -Dconsolidado.colunar=true
+        this.formatoColunar = Boolean.getBoolean("consolidado.colunar");
+        
+        // Ex.: -Dmetricas.intervalo=10 (0 = exporta só ao final)
+        this.metricas = new MetricasPipeline("desafio-1");
+        this.intervaloMetricasSegundos = Integer.getInteger("metricas.intervalo", 0);
+        
+        // Ex.: -Dprogresso.intervalo=5 (0 = sem relatório de progresso)
+        this.progresso = new RelatorioProgresso(Integer.getInteger("progresso.intervalo", 10));
     } // ApplicationConfig
     
     public String getAnsBaseUrl() {
-        return ANS_BASE_URL;
+        return ansBaseUrl;
     } // getAnsBaseUrl
     
     public String getDemonstracoesContabeisUrl() {
-        return ANS_BASE_URL + DEMONSTRACOES_CONTABEIS_PATH;
+        return ansBaseUrl + DEMONSTRACOES_CONTABEIS_PATH;
     } // getDemonstracoesContabeisUrl
     
     public Path getDiretorioDownload() {
@@ -66,4 +104,20 @@ public class ApplicationConfig {
     public int getTimeoutLeituraMs() {
         return timeoutLeituraMs;
     } // getTimeoutLeituraMs
+    
+    public boolean isFormatoColunar() {
+        return formatoColunar;
+    } // isFormatoColunar
+    
+    public MetricasPipeline getMetricas() {
+        return metricas;
+    } // getMetricas
+    
+    public int getIntervaloMetricasSegundos() {
+        return intervaloMetricasSegundos;
+    } // getIntervaloMetricasSegundos
+    
+    public RelatorioProgresso getProgresso() {
+        return progresso;
+    } // getProgresso
 } // ApplicationConfig
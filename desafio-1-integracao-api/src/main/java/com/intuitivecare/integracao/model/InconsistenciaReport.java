@@ -1,74 +1,75 @@
 package com.intuitivecare.integracao.model;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Resultado do processamento de inconsistências
  * Usado para análise e documentação das decisões tomadas
+ *
+ * Contadores em LongAdder: cada thread incrementa uma célula própria, sem
+ * lock nem disputa de CAS, e a leitura soma as células. Os incrementos ficam
+ * seguros com etapas paralelas; os valores são lidos ao fim da consolidação,
+ * quando são exatos.
  */
 public class InconsistenciaReport {
 
-    private int cnpjsDuplicadosRazoesDiferentes;
-    private int valoresZerados;
-    private int valoresNegativos;
-    private int trimestresFormatoInconsistente;
-    private int registrosProcessados;
-    private int registrosDescartados;
+    private final LongAdder cnpjsDuplicadosRazoesDiferentes = new LongAdder();
+    private final LongAdder valoresZerados = new LongAdder();
+    private final LongAdder valoresNegativos = new LongAdder();
+    private final LongAdder trimestresFormatoInconsistente = new LongAdder();
+    private final LongAdder registrosProcessados = new LongAdder();
+    private final LongAdder registrosDescartados = new LongAdder();
 
     public InconsistenciaReport() {
-        this.cnpjsDuplicadosRazoesDiferentes = 0;
-        this.valoresZerados = 0;
-        this.valoresNegativos = 0;
-        this.trimestresFormatoInconsistente = 0;
-        this.registrosProcessados = 0;
-        this.registrosDescartados = 0;
     } // InconsistenciaReport
 
     public void incrementarCnpjsDuplicados() {
-        this.cnpjsDuplicadosRazoesDiferentes++;
+        this.cnpjsDuplicadosRazoesDiferentes.increment();
     } // incrementarCnpjsDuplicados
 
     public void incrementarValoresZerados() {
-        this.valoresZerados++;
+        this.valoresZerados.increment();
     } // incrementarValoresZerados
 
     public void incrementarValoresNegativos() {
-        this.valoresNegativos++;
+        this.valoresNegativos.increment();
     } // incrementarValoresNegativos
 
     public void incrementarTrimestresInconsistentes() {
-        this.trimestresFormatoInconsistente++;
+        this.trimestresFormatoInconsistente.increment();
     } // incrementarTrimestresInconsistentes
 
     public void incrementarProcessados() {
-        this.registrosProcessados++;
+        this.registrosProcessados.increment();
     } // incrementarProcessados
 
     public void incrementarDescartados() {
-        this.registrosDescartados++;
+        this.registrosDescartados.increment();
     } // incrementarDescartados
 
     // Getters
-    public int getCnpjsDuplicadosRazoesDiferentes() {
-        return cnpjsDuplicadosRazoesDiferentes;
+    public long getCnpjsDuplicadosRazoesDiferentes() {
+        return cnpjsDuplicadosRazoesDiferentes.sum();
     } // getCnpjsDuplicadosRazoesDiferentes
 
-    public int getValoresZerados() {
-        return valoresZerados;
+    public long getValoresZerados() {
+        return valoresZerados.sum();
     } // getValoresZerados
 
-    public int getValoresNegativos() {
-        return valoresNegativos;
+    public long getValoresNegativos() {
+        return valoresNegativos.sum();
     } // getValoresNegativos
 
-    public int getTrimestresFormatoInconsistente() {
-        return trimestresFormatoInconsistente;
+    public long getTrimestresFormatoInconsistente() {
+        return trimestresFormatoInconsistente.sum();
     } // getTrimestresFormatoInconsistente
 
-    public int getRegistrosProcessados() {
-        return registrosProcessados;
+    public long getRegistrosProcessados() {
+        return registrosProcessados.sum();
     } // getRegistrosProcessados
 
-    public int getRegistrosDescartados() {
-        return registrosDescartados;
+    public long getRegistrosDescartados() {
+        return registrosDescartados.sum();
     } // getRegistrosDescartados
 
     @Override
@@ -83,11 +84,11 @@ public class InconsistenciaReport {
             Trimestres com formato inconsistente: %d
             =====================================
             """,
-            registrosProcessados,
-            registrosDescartados,
-            cnpjsDuplicadosRazoesDiferentes,
-            valoresZerados,
-            valoresNegativos,
-            trimestresFormatoInconsistente);
+            getRegistrosProcessados(),
+            getRegistrosDescartados(),
+            getCnpjsDuplicadosRazoesDiferentes(),
+            getValoresZerados(),
+            getValoresNegativos(),
+            getTrimestresFormatoInconsistente());
     } // toString
 } // InconsistenciaReport
@@ -1,5 +1,6 @@
 package com.intuitivecare.integracao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
 import com.intuitivecare.integracao.config.ApplicationConfig;
 import com.intuitivecare.integracao.model.TrimestreInfo;
 import org.jsoup.Jsoup;
@@ -52,23 +53,29 @@ public class AnsDataService {
         logger.info("Buscando trimestres disponíveis em: {}", config.getDemonstracoesContabeisUrl());
         
         List<TrimestreInfo> todosTrimestres = new ArrayList<>();
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("descoberta");
+        List<String> ultimosTrimestres;
         
-        // Buscar anos disponíveis
-        List<Integer> anos = buscarAnosDisponiveis();
-        logger.info("Anos encontrados: {}", anos);
-        
-        // Para cada ano, buscar trimestres (arquivos ZIP disponíveis)
-        for (Integer ano : anos) {
-            List<TrimestreInfo> trimestresAno = buscarTrimestresDoAno(ano);
-            todosTrimestres.addAll(trimestresAno);
-        } // for
-        
-        // Ordenar por data (mais recente primeiro) e pegar os N últimos
-        List<String> ultimosTrimestres = todosTrimestres.stream()
-            .sorted(TrimestreInfo::compareToDesc)
-            .limit(quantidade)
-            .map(TrimestreInfo::getIdentificador)
-            .collect(Collectors.toList());
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar()) {
+            // Buscar anos disponíveis
+            List<Integer> anos = buscarAnosDisponiveis();
+            logger.info("Anos encontrados: {}", anos);
+            
+            // Para cada ano, buscar trimestres (arquivos ZIP disponíveis)
+            for (Integer ano : anos) {
+                List<TrimestreInfo> trimestresAno = buscarTrimestresDoAno(ano);
+                todosTrimestres.addAll(trimestresAno);
+            } // for
+            
+            // Ordenar por data (mais recente primeiro) e pegar os N últimos
+            ultimosTrimestres = todosTrimestres.stream()
+                .sorted(TrimestreInfo::compareToDesc)
+                .limit(quantidade)
+                .map(TrimestreInfo::getIdentificador)
+                .collect(Collectors.toList());
+        } // try
+        // Linhas aqui são trimestres: encontrados na listagem e selecionados
+        etapa.registrarLinhas(todosTrimestres.size(), ultimosTrimestres.size(), 0);
         
         logger.info("Últimos {} trimestres identificados: {}", quantidade, ultimosTrimestres);
         return ultimosTrimestres;
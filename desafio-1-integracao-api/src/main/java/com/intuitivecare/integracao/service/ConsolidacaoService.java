@@ -1,6 +1,11 @@
 package com.intuitivecare.integracao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
 import com.intuitivecare.integracao.config.ApplicationConfig;
+import com.intuitivecare.integracao.model.InconsistenciaReport;
+import com.intuitivecare.integracao.util.ConsolidadoColunarWriter;
+import com.intuitivecare.integracao.util.EventosJfr;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
@@ -31,6 +36,11 @@ import java.util.zip.ZipOutputStream;
  * - VL_SALDO_FINAL: Valor final (usado para despesas)
  * 
  * Filtramos apenas contas que começam com "41" (Eventos Indenizáveis / Sinistros)
+ * 
+ * Inconsistências: cada registro da conta 41 passa pelo DetectorInconsistencias
+ * na mesma leitura, e o relatório é salvo em relatorio_inconsistencias.txt.
+ * Os arquivos contábeis da ANS não trazem CNPJ nem razão social; quando o
+ * arquivo tiver essas colunas elas são usadas, senão o identificador é o REG_ANS.
  */
 public class ConsolidacaoService {
 
@@ -48,6 +58,7 @@ public class ConsolidacaoService {
     private int registrosProcessados = 0;
     private int registrosDescartados = 0;
     private int operadorasUnicas = 0;
+    private InconsistenciaReport relatorioInconsistencias = new InconsistenciaReport();
 
     public ConsolidacaoService(ApplicationConfig config) {
         this.config = config;
@@ -66,10 +77,12 @@ public class ConsolidacaoService {
         // Chave: REG_ANS + "-" + trimestre + "-" + ano
         Map<String, BigDecimal> despesasPorOperadora = new HashMap<>();
         Set<String> operadoras = new HashSet<>();
+        relatorioInconsistencias = new InconsistenciaReport();
+        DetectorInconsistencias detector = new DetectorInconsistencias(relatorioInconsistencias);
         
         for (Path arquivo : arquivos) {
             try {
-                processarArquivo(arquivo, despesasPorOperadora, operadoras);
+                processarArquivo(arquivo, despesasPorOperadora, operadoras, detector);
             } catch (Exception e) {
                 logger.error("Erro ao processar arquivo {}: {}", arquivo.getFileName(), e.getMessage());
             } // try-catch
@@ -82,7 +95,16 @@ public class ConsolidacaoService {
         
         // Gerar CSV consolidado
         Path csvOutput = config.getDiretorioOutput().resolve("consolidado_despesas.csv");
-        escreverCsv(despesasPorOperadora, csvOutput);
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("consolidacao");
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar()) {
+            escreverCsv(despesasPorOperadora, csvOutput);
+        } // try
+        etapa.registrarBytes(0, Files.size(csvOutput));
+        
+        // Opcional: mesmo conteúdo em formato colunar para o Desafio 2
+        if (config.isFormatoColunar()) {
+            escreverColunar(despesasPorOperadora, config.getDiretorioOutput().resolve("consolidado_despesas.bin"));
+        }
         
         // Log estatísticas
         logger.info("=== Relatório de Consolidação ===");
@@ -91,13 +113,25 @@ public class ConsolidacaoService {
         logger.info("Operadoras únicas: {}", operadorasUnicas);
         logger.info("=================================");
         
+        escreverRelatorioInconsistencias(config.getDiretorioOutput().resolve("relatorio_inconsistencias.txt"));
+        
         return csvOutput;
     } // consolidarDados
 
+    /**
+     * Relatório de inconsistências da última consolidação
+     */
+    public InconsistenciaReport getRelatorioInconsistencias() {
+        return relatorioInconsistencias;
+    } // getRelatorioInconsistencias
+
     /**
      * Processa um arquivo CSV da ANS
+     * 
+     * Package-private para os benchmarks (módulo benchmarks)
      */
-    private void processarArquivo(Path arquivo, Map<String, BigDecimal> despesas, Set<String> operadoras) throws Exception {
+    void processarArquivo(Path arquivo, Map<String, BigDecimal> despesas, Set<String> operadoras,
+                                  DetectorInconsistencias detector) throws Exception {
         logger.info("Processando: {}", arquivo.getFileName());
         
         // Extrair trimestre e ano do nome do arquivo
@@ -106,13 +140,17 @@ public class ConsolidacaoService {
         
         String trimestre = "Q1";
         int ano = 2025;
+        boolean trimestreIdentificado = matcher.find();
         
-        if (matcher.find()) {
+        if (trimestreIdentificado) {
             trimestre = "Q" + matcher.group(1);
             ano = Integer.parseInt(matcher.group(2));
         } else {
+            // Contado uma vez por arquivo, não por registro
             logger.warn("Não foi possível extrair trimestre/ano de: {}", nomeArquivo);
+            detector.registrarTrimestreNaoIdentificado();
         }
+        int numeroTrimestre = trimestre.charAt(1) - '0';
         
         // Ler CSV com separador ; (padrão ANS)
         CSVFormat format = CSVFormat.DEFAULT.builder()
@@ -124,11 +162,27 @@ public class ConsolidacaoService {
             .build();
         
         int registrosArquivo = 0;
+        long linhasLidas = 0;
+        long descartadosAntes = registrosDescartados;
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("consolidacao");
+        EventosJfr.Consolidacao evento = new EventosJfr.Consolidacao();
+        evento.begin();
         
-        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar();
+             RelatorioProgresso.Progresso progresso = config.getProgresso()
+                 .iniciar("consolidacao", nomeArquivo, Files.size(arquivo));
+             Reader reader = progresso.abrirLeitor(arquivo);
              CSVParser parser = new CSVParser(reader, format)) {
             
+            // Colunas opcionais de identificação e data
+            List<String> headers = parser.getHeaderNames();
+            String colunaCnpj = encontrarColuna(headers, "CNPJ", "CD_CNPJ", "NR_CNPJ");
+            String colunaRazao = encontrarColuna(headers, "RAZAO_SOCIAL", "RAZÃO_SOCIAL", "NM_RAZAO_SOCIAL");
+            String colunaData = encontrarColuna(headers, "DATA");
+            
             for (CSVRecord record : parser) {
+                linhasLidas++;
+                progresso.avancarLinha();
                 try {
                     String regAns = record.get("REG_ANS");
                     String contaContabil = record.get("CD_CONTA_CONTABIL");
@@ -142,12 +196,23 @@ public class ConsolidacaoService {
                     
                     if (regAns == null || regAns.isBlank()) {
                         registrosDescartados++;
+                        detector.registrarDescartado();
                         continue;
                     }
                     
                     // Parsear valor (formato brasileiro: vírgula como decimal)
                     BigDecimal valor = parseValor(valorStr);
                     
+                    // Inconsistências do registro (mesma passada)
+                    if (colunaRazao != null) {
+                        String identificador = colunaCnpj != null ? record.get(colunaCnpj) : regAns;
+                        detector.registrarIdentidade(identificador, record.get(colunaRazao));
+                    }
+                    detector.registrarValor(valor);
+                    if (trimestreIdentificado && colunaData != null) {
+                        detector.registrarData(record.get(colunaData), numeroTrimestre, ano);
+                    }
+                    
                     // Chave única: REG_ANS-trimestre-ano
                     String chave = regAns + "-" + trimestre + "-" + ano;
                     
@@ -157,21 +222,53 @@ public class ConsolidacaoService {
                     
                     registrosProcessados++;
                     registrosArquivo++;
+                    detector.registrarProcessado();
                     
                 } catch (Exception e) {
                     logger.debug("Erro ao processar linha {}: {}", record.getRecordNumber(), e.getMessage());
                     registrosDescartados++;
+                    detector.registrarDescartado();
                 } // try-catch
             } // for
         } // try
         
+        // Linhas de outras contas são filtradas (nem saída nem rejeitadas)
+        etapa.registrarLinhas(linhasLidas, registrosArquivo, registrosDescartados - descartadosAntes);
+        etapa.registrarBytes(Files.size(arquivo), 0);
+        
+        if (evento.shouldCommit()) {
+            evento.arquivo = nomeArquivo;
+            evento.bytes = Files.size(arquivo);
+            evento.linhasLidas = linhasLidas;
+            evento.registros = registrosArquivo;
+            evento.descartados = registrosDescartados - descartadosAntes;
+            evento.commit();
+        } // if
         logger.info("Processados {} registros de {}", registrosArquivo, nomeArquivo);
     } // processarArquivo
 
+    /**
+     * Localiza a coluna do cabeçalho com um dos nomes dados (case-insensitive)
+     * 
+     * @return Nome da coluna como aparece no arquivo, ou null se ausente
+     */
+    private String encontrarColuna(List<String> headers, String... nomes) {
+        for (String header : headers) {
+            for (String nome : nomes) {
+                if (header.equalsIgnoreCase(nome)) {
+                    return header;
+                } // if
+            } // for
+        } // for
+        return null;
+    } // encontrarColuna
+
     /**
      * Parseia valor no formato brasileiro (vírgula como decimal)
+     * 
+     * Package-private para os benchmarks (módulo benchmarks)
      */
-    private BigDecimal parseValor(String valorStr) {
+    BigDecimal parseValor(String valorStr) {
         if (valorStr == null || valorStr.isBlank()) {
             return BigDecimal.ZERO;
         }
@@ -217,6 +314,42 @@ public class ConsolidacaoService {
         logger.info("CSV gerado: {} ({} registros)", outputPath, despesas.size());
     } // escreverCsv
 
+    /**
+     * Loga e salva o relatório de inconsistências
+     */
+    private void escreverRelatorioInconsistencias(Path arquivo) throws IOException {
+        String relatorio = relatorioInconsistencias.toString();
+        logger.info("\n{}", relatorio);
+        Files.writeString(arquivo, relatorio, StandardCharsets.UTF_8);
+        logger.info("Relatório de inconsistências: {}", arquivo);
+    } // escreverRelatorioInconsistencias
+
+    /**
+     * Escreve o consolidado em formato binário colunar (ver ConsolidadoColunarWriter)
+     */
+    private void escreverColunar(Map<String, BigDecimal> despesas, Path outputPath) throws IOException {
+        ConsolidadoColunarWriter colunar = new ConsolidadoColunarWriter(despesas.size());
+        int ignorados = 0;
+        
+        for (Map.Entry<String, BigDecimal> entry : despesas.entrySet()) {
+            String[] partes = entry.getKey().split("-");
+            if (partes.length >= 3) {
+                try {
+                    colunar.adicionar(partes[0], partes[1], Integer.parseInt(partes[2]), entry.getValue());
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    logger.debug("Registro fora do formato colunar {}: {}", entry.getKey(), e.getMessage());
+                    ignorados++;
+                }
+            }
+        }
+        
+        colunar.gravar(outputPath);
+        if (ignorados > 0) {
+            logger.warn("{} registros não representáveis no formato colunar foram ignorados", ignorados);
+        }
+        logger.info("Consolidado colunar gerado: {} ({} registros)", outputPath, colunar.getQuantidade());
+    } // escreverColunar
+
     /**
      * Compacta o CSV em um arquivo ZIP
      */
@@ -225,7 +358,10 @@ public class ConsolidacaoService {
             csvPath.getFileName().toString().replace(".csv", ".zip")
         );
         
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipPath.toFile()))) {
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("compactacao");
+        
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar();
+             ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipPath.toFile()))) {
             ZipEntry entry = new ZipEntry(csvPath.getFileName().toString());
             zos.putNextEntry(entry);
             
@@ -233,6 +369,7 @@ public class ConsolidacaoService {
             
             zos.closeEntry();
         }
+        etapa.registrarBytes(Files.size(csvPath), Files.size(zipPath));
         
         logger.info("ZIP gerado: {}", zipPath);
         return zipPath;
@@ -0,0 +1,247 @@
+package com.intuitivecare.integracao.service;
+
+import com.intuitivecare.integracao.model.InconsistenciaReport;
+
+import java.math.BigDecimal;
+
+/**
+ * Detector de inconsistências em streaming
+ *
+ * Recebe cada registro durante a consolidação e alimenta o
+ * InconsistenciaReport na mesma passada, sem releitura dos arquivos:
+ * - Identificador (CNPJ, ou REG_ANS quando o arquivo não traz CNPJ) com
+ *   razões sociais diferentes
+ * - Valores zerados e negativos
+ * - DATA ausente, em formato desconhecido ou fora do trimestre do arquivo
+ * - Registros processados e descartados
+ *
+ * Trade-off: ÍNDICE COMPACTO DE IMPRESSÕES DIGITAIS
+ * - O identificador é empacotado em um long e a razão social normalizada
+ *   vira um hash de 64 bits (FNV-1a); nenhuma String é retida
+ * - Tabela de endereçamento aberto com dois long[]: 16 bytes por
+ *   identificador distinto (~1.500 operadoras), independente do número de
+ *   registros
+ * - Colisão de hash entre razões diferentes (probabilidade ~2^-64) faria
+ *   um conflito passar despercebido; aceitável para um relatório
+ */
+public class DetectorInconsistencias {
+
+    private static final int CAPACIDADE_INICIAL = 4096;
+
+    // Impressões digitais: 0 = posição livre, ímpar = razão social, CONFLITO = já contado
+    private static final long LIVRE = 0L;
+    private static final long CONFLITO = 2L;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final InconsistenciaReport report;
+
+    private long[] chaves;
+    private long[] digitais;
+    private int tamanho;
+    private int mascara;
+
+    public DetectorInconsistencias(InconsistenciaReport report) {
+        this.report = report;
+        alocar(CAPACIDADE_INICIAL);
+    } // DetectorInconsistencias
+
+    /**
+     * Registra a razão social associada a um identificador (CNPJ ou REG_ANS),
+     * contando uma única vez cada identificador visto com razões diferentes
+     */
+    public void registrarIdentidade(String identificador, String razaoSocial) {
+        if (identificador == null || identificador.isBlank() || razaoSocial == null || razaoSocial.isBlank()) {
+            return;
+        } // if
+
+        long chave = empacotar(identificador);
+        long digital = impressaoDigital(razaoSocial);
+
+        int posicao = espalhar(chave) & mascara;
+        while (digitais[posicao] != LIVRE) {
+            if (chaves[posicao] == chave) {
+                long anterior = digitais[posicao];
+                if (anterior != CONFLITO && anterior != digital) {
+                    digitais[posicao] = CONFLITO;
+                    report.incrementarCnpjsDuplicados();
+                } // if
+                return;
+            } // if
+            posicao = (posicao + 1) & mascara;
+        } // while
+
+        chaves[posicao] = chave;
+        digitais[posicao] = digital;
+        tamanho++;
+
+        // Fator de carga máximo de 50%
+        if (tamanho * 2 > chaves.length) {
+            redimensionar();
+        } // if
+    } // registrarIdentidade
+
+    /**
+     * Registra o valor de um registro consolidado (zerados e negativos)
+     */
+    public void registrarValor(BigDecimal valor) {
+        int sinal = valor.signum();
+        if (sinal == 0) {
+            report.incrementarValoresZerados();
+        } else if (sinal < 0) {
+            report.incrementarValoresNegativos();
+        } // if-else
+    } // registrarValor
+
+    /**
+     * Confere a DATA do registro (yyyy-MM-dd ou dd/MM/yyyy) com o trimestre
+     * e ano do arquivo
+     */
+    public void registrarData(String data, int trimestre, int ano) {
+        if (!dataNoTrimestre(data, trimestre, ano)) {
+            report.incrementarTrimestresInconsistentes();
+        } // if
+    } // registrarData
+
+    /**
+     * Arquivo cujo nome não permite identificar o trimestre
+     */
+    public void registrarTrimestreNaoIdentificado() {
+        report.incrementarTrimestresInconsistentes();
+    } // registrarTrimestreNaoIdentificado
+
+    public void registrarProcessado() {
+        report.incrementarProcessados();
+    } // registrarProcessado
+
+    public void registrarDescartado() {
+        report.incrementarDescartados();
+    } // registrarDescartado
+
+    private static boolean dataNoTrimestre(String data, int trimestre, int ano) {
+        if (data == null || data.length() < 10) {
+            return false;
+        } // if
+
+        int anoData;
+        int mes;
+        if (data.charAt(4) == '-' && data.charAt(7) == '-') {
+            anoData = numero(data, 0, 4);
+            mes = numero(data, 5, 7);
+        } else if (data.charAt(2) == '/' && data.charAt(5) == '/') {
+            mes = numero(data, 3, 5);
+            anoData = numero(data, 6, 10);
+        } else {
+            return false;
+        } // if-else
+
+        if (mes < 1 || mes > 12) {
+            return false;
+        } // if
+        return anoData == ano && (mes - 1) / 3 + 1 == trimestre;
+    } // dataNoTrimestre
+
+    /**
+     * Converte data[inicio, fim) em número, ou -1 se houver caractere não numérico
+     */
+    private static int numero(String texto, int inicio, int fim) {
+        int valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            } // if
+            valor = valor * 10 + (c - '0');
+        } // for
+        return valor;
+    } // numero
+
+    /**
+     * Identificador numérico (CNPJ, REG_ANS) vira o próprio valor dos dígitos;
+     * os demais, um hash de 64 bits
+     */
+    private static long empacotar(String identificador) {
+        long valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < identificador.length(); i++) {
+            char c = identificador.charAt(i);
+            if (c >= '0' && c <= '9') {
+                valor = valor * 10 + (c - '0');
+                digitos++;
+            } else if (c != '.' && c != '/' && c != '-' && c != ' ') {
+                return fnv(identificador.trim()) | Long.MIN_VALUE;
+            } // if-else
+        } // for
+        return digitos <= 18 ? valor : fnv(identificador.trim()) | Long.MIN_VALUE;
+    } // empacotar
+
+    /**
+     * Hash da razão social normalizada (maiúsculas, espaços colapsados), sempre ímpar
+     */
+    private static long impressaoDigital(String razaoSocial) {
+        long h = FNV_OFFSET;
+        boolean espacoPendente = false;
+        boolean inicio = true;
+        for (int i = 0; i < razaoSocial.length(); i++) {
+            char c = razaoSocial.charAt(i);
+            if (Character.isWhitespace(c)) {
+                espacoPendente = !inicio;
+                continue;
+            } // if
+            if (espacoPendente) {
+                h = (h ^ ' ') * FNV_PRIME;
+                espacoPendente = false;
+            } // if
+            h = (h ^ Character.toUpperCase(c)) * FNV_PRIME;
+            inicio = false;
+        } // for
+        return h | 1L;
+    } // impressaoDigital
+
+    private static long fnv(String texto) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < texto.length(); i++) {
+            h = (h ^ texto.charAt(i)) * FNV_PRIME;
+        } // for
+        return h;
+    } // fnv
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        digitais = new long[capacidade];
+        mascara = capacidade - 1;
+        tamanho = 0;
+    } // alocar
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] digitaisAntigas = digitais;
+        alocar(chavesAntigas.length * 2);
+
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (digitaisAntigas[i] != LIVRE) {
+                int posicao = espalhar(chavesAntigas[i]) & mascara;
+                while (digitais[posicao] != LIVRE) {
+                    posicao = (posicao + 1) & mascara;
+                } // while
+                chaves[posicao] = chavesAntigas[i];
+                digitais[posicao] = digitaisAntigas[i];
+                tamanho++;
+            } // if
+        } // for
+    } // redimensionar
+
+    /**
+     * Mistura os bits da chave (finalizador do MurmurHash3)
+     */
+    private static int espalhar(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53ec34dL;
+        h ^= h >>> 33;
+        return (int) h;
+    } // espalhar
+} // DetectorInconsistencias
@@ -1,6 +1,9 @@
 package com.intuitivecare.integracao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
 import com.intuitivecare.integracao.config.ApplicationConfig;
+import com.intuitivecare.integracao.util.EventosJfr;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.slf4j.Logger;
@@ -51,52 +54,130 @@ public class DownloadService {
     /**
      * Baixa e extrai arquivos de múltiplos trimestres
      * 
+     * Tolerante a falhas: arquivos e trimestres com erro são pulados e o
+     * processamento segue com o que foi possível baixar.
+     * 
      * @param trimestres Lista de identificadores de trimestres
      * @return Lista de caminhos para arquivos extraídos
      */
     public List<Path> baixarEExtrairTrimestres(List<String> trimestres) throws Exception {
-        // Criar diretórios de trabalho
-        Files.createDirectories(config.getDiretorioDownload());
-        Files.createDirectories(config.getDiretorioExtracao());
-        
         List<Path> todosArquivosExtraidos = new ArrayList<>();
         
         for (String trimestre : trimestres) {
-            logger.info("Processando trimestre: {}", trimestre);
-            
-            try {
-                // Buscar URLs dos ZIPs do trimestre
-                List<String> urlsZip = ansDataService.buscarArquivosZipTrimestre(trimestre);
-                logger.info("Encontrados {} arquivos ZIP no trimestre {}", urlsZip.size(), trimestre);
-                
-                for (String urlZip : urlsZip) {
-                    try {
-                        // Download do ZIP
-                        Path arquivoZip = baixarArquivo(urlZip, trimestre);
-                        
-                        // Extração
-                        List<Path> extraidos = extrairZip(arquivoZip, trimestre);
-                        todosArquivosExtraidos.addAll(extraidos);
-                        
-                        logger.info("Extraídos {} arquivos de {}", extraidos.size(), arquivoZip.getFileName());
-                    } catch (Exception e) {
-                        logger.error("Erro ao processar arquivo {}: {}", urlZip, e.getMessage());
-                        // Continua com o próximo arquivo (resiliência)
-                    } // try-catch
-                } // for urlsZip
-            } catch (Exception e) {
-                logger.error("Erro ao processar trimestre {}: {}", trimestre, e.getMessage());
-                // Continua com o próximo trimestre (resiliência)
-            } // try-catch
+            List<Path> zips = baixarTrimestre(trimestre, true);
+            todosArquivosExtraidos.addAll(extrairTrimestre(zips, trimestre, true));
         } // for trimestres
         
         return todosArquivosExtraidos;
     } // baixarEExtrairTrimestres
 
+    /**
+     * Baixa os ZIPs de um trimestre
+     * 
+     * Estrito: usado pelo orquestrador, que guarda a saída da etapa; uma
+     * falha em qualquer ZIP falha a etapa, em vez de deixar em cache uma
+     * lista incompleta.
+     * 
+     * @param trimestre Identificador do trimestre
+     * @return ZIPs baixados (ou já em cache)
+     * @throws IOException Se a listagem ou algum dos downloads falhar
+     */
+    public List<Path> baixarTrimestre(String trimestre) throws IOException {
+        return baixarTrimestre(trimestre, false);
+    } // baixarTrimestre
+
+    /**
+     * Extrai os ZIPs de um trimestre
+     * 
+     * Estrito, como baixarTrimestre(String).
+     * 
+     * @return Arquivos extraídos
+     * @throws IOException Se algum ZIP não puder ser extraído
+     */
+    public List<Path> extrairTrimestre(List<Path> zips, String trimestre) throws IOException {
+        return extrairTrimestre(zips, trimestre, false);
+    } // extrairTrimestre
+
+    /**
+     * @param tolerarFalhas true: arquivos (ou o trimestre) com erro são pulados; false: o erro é propagado
+     */
+    private List<Path> baixarTrimestre(String trimestre, boolean tolerarFalhas) throws IOException {
+        Files.createDirectories(config.getDiretorioDownload());
+        logger.info("Processando trimestre: {}", trimestre);
+        
+        List<Path> zips = new ArrayList<>();
+        try {
+            // Buscar URLs dos ZIPs do trimestre
+            List<String> urlsZip = ansDataService.buscarArquivosZipTrimestre(trimestre);
+            logger.info("Encontrados {} arquivos ZIP no trimestre {}", urlsZip.size(), trimestre);
+            
+            for (String urlZip : urlsZip) {
+                try {
+                    zips.add(baixarArquivo(urlZip, trimestre));
+                } catch (Exception e) {
+                    if (!tolerarFalhas) {
+                        throw new IOException("Erro ao baixar " + urlZip + ": " + e.getMessage(), e);
+                    } // if
+                    logger.error("Erro ao processar arquivo {}: {}", urlZip, e.getMessage());
+                    // Continua com o próximo arquivo (resiliência)
+                } // try-catch
+            } // for urlsZip
+        } catch (Exception e) {
+            if (!tolerarFalhas) {
+                throw e instanceof IOException io ? io
+                    : new IOException("Erro ao processar trimestre " + trimestre + ": " + e.getMessage(), e);
+            } // if
+            logger.error("Erro ao processar trimestre {}: {}", trimestre, e.getMessage());
+            // Continua com o próximo trimestre (resiliência)
+        } // try-catch
+        
+        return zips;
+    } // baixarTrimestre
+
+    /**
+     * @param tolerarFalhas true: ZIPs com erro são pulados; false: o erro é propagado
+     */
+    private List<Path> extrairTrimestre(List<Path> zips, String trimestre, boolean tolerarFalhas)
+            throws IOException {
+        Files.createDirectories(config.getDiretorioExtracao());
+        
+        List<Path> extraidos = new ArrayList<>();
+        for (Path arquivoZip : zips) {
+            try {
+                List<Path> arquivos = extrairZip(arquivoZip, trimestre);
+                extraidos.addAll(arquivos);
+                logger.info("Extraídos {} arquivos de {}", arquivos.size(), arquivoZip.getFileName());
+            } catch (Exception e) {
+                if (!tolerarFalhas) {
+                    throw new IOException("Erro ao extrair " + arquivoZip + ": " + e.getMessage(), e);
+                } // if
+                logger.error("Erro ao processar arquivo {}: {}", arquivoZip, e.getMessage());
+                // Continua com o próximo arquivo (resiliência)
+            } // try-catch
+        } // for
+        return extraidos;
+    } // extrairTrimestre
+
     /**
      * Baixa um arquivo da URL especificada
      */
     private Path baixarArquivo(String url, String trimestre) throws Exception {
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("download");
+        EventosJfr.Download evento = new EventosJfr.Download();
+        evento.begin();
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar()) {
+            return baixarArquivo(url, trimestre, etapa, evento);
+        } finally {
+            // Emitido também em falha (status HTTP diferente de 200)
+            if (evento.shouldCommit()) {
+                evento.url = url;
+                evento.commit();
+            } // if
+        } // try-finally
+    } // baixarArquivo
+
+    private Path baixarArquivo(String url, String trimestre, MetricasPipeline.Etapa etapa,
+                               EventosJfr.Download evento) throws Exception {
         logger.debug("Baixando: {}", url);
         
         // Extrair nome do arquivo da URL
@@ -107,10 +188,12 @@ public class DownloadService {
         Files.createDirectories(diretorioTrimestre);
         
         Path arquivoDestino = diretorioTrimestre.resolve(nomeArquivo);
+        evento.arquivo = nomeArquivo;
         
         // Se já existe, não baixa novamente (cache simples)
         if (Files.exists(arquivoDestino)) {
             logger.debug("Arquivo já existe, usando cache: {}", arquivoDestino);
+            evento.cache = true;
             return arquivoDestino;
         } // if
         
@@ -121,14 +204,26 @@ public class DownloadService {
             .build();
         
         HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        evento.status = response.statusCode();
         
         if (response.statusCode() != 200) {
             throw new IOException("Erro ao baixar arquivo: HTTP " + response.statusCode());
         } // if
         
-        try (InputStream is = response.body()) {
-            Files.copy(is, arquivoDestino, StandardCopyOption.REPLACE_EXISTING);
-        } // try
+        // Grava em .parte e só então renomeia: um download interrompido não
+        // fica no lugar do arquivo como se fosse cache válido
+        long tamanho = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        Path arquivoParcial = diretorioTrimestre.resolve(nomeArquivo + ".parte");
+        try (RelatorioProgresso.Progresso progresso = config.getProgresso().iniciar("download", nomeArquivo, tamanho);
+             InputStream is = progresso.contar(response.body())) {
+            // Só conta bytes de downloads reais (cache não entra na vazão)
+            evento.bytes = Files.copy(is, arquivoParcial, StandardCopyOption.REPLACE_EXISTING);
+            etapa.registrarBytes(evento.bytes, 0);
+        } catch (IOException e) {
+            Files.deleteIfExists(arquivoParcial);
+            throw e;
+        } // try-catch
+        Files.move(arquivoParcial, arquivoDestino, StandardCopyOption.REPLACE_EXISTING);
         
         logger.info("Download concluído: {}", arquivoDestino);
         return arquivoDestino;
@@ -143,8 +238,13 @@ public class DownloadService {
         
         Path diretorioDestino = config.getDiretorioExtracao().resolve(trimestre.replace("/", "_"));
         Files.createDirectories(diretorioDestino);
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("extracao");
+        long bytesExtraidos = 0;
+        EventosJfr.Extracao evento = new EventosJfr.Extracao();
+        evento.begin();
         
-        try (InputStream fis = Files.newInputStream(arquivoZip);
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar();
+             InputStream fis = Files.newInputStream(arquivoZip);
              BufferedInputStream bis = new BufferedInputStream(fis);
              ZipArchiveInputStream zis = new ZipArchiveInputStream(bis, "UTF-8", true, true)) {
             
@@ -171,11 +271,20 @@ public class DownloadService {
                     continue;
                 } // if
                 
-                Files.copy(zis, arquivoDestino, StandardCopyOption.REPLACE_EXISTING);
+                bytesExtraidos += Files.copy(zis, arquivoDestino, StandardCopyOption.REPLACE_EXISTING);
                 arquivosExtraidos.add(arquivoDestino);
                 logger.debug("Extraído: {}", arquivoDestino);
             } // while
         } // try
+        etapa.registrarBytes(Files.size(arquivoZip), bytesExtraidos);
+        
+        if (evento.shouldCommit()) {
+            evento.arquivo = arquivoZip.getFileName().toString();
+            evento.entradas = arquivosExtraidos.size();
+            evento.bytesCompactados = Files.size(arquivoZip);
+            evento.bytesExtraidos = bytesExtraidos;
+            evento.commit();
+        } // if
         
         return arquivosExtraidos;
     } // extrairZip
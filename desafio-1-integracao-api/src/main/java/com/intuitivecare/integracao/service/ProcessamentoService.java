@@ -1,5 +1,6 @@
 package com.intuitivecare.integracao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
 import com.intuitivecare.integracao.config.ApplicationConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,10 +54,16 @@ public class ProcessamentoService {
     public List<Path> filtrarArquivosDespesas(List<Path> arquivos) {
         logger.info("Filtrando {} arquivos para identificar despesas...", arquivos.size());
         
-        List<Path> arquivosDespesas = arquivos.stream()
-            .filter(this::isArquivoSuportado)
-            .filter(this::contemDadosDespesas)
-            .collect(Collectors.toList());
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("classificacao");
+        List<Path> arquivosDespesas;
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar()) {
+            arquivosDespesas = arquivos.stream()
+                .filter(this::isArquivoSuportado)
+                .filter(this::contemDadosDespesas)
+                .collect(Collectors.toList());
+        } // try
+        // Linhas aqui são arquivos: candidatos, selecionados e descartados
+        etapa.registrarLinhas(arquivos.size(), arquivosDespesas.size(), arquivos.size() - arquivosDespesas.size());
         
         logger.info("Identificados {} arquivos de despesas", arquivosDespesas.size());
         arquivosDespesas.forEach(a -> logger.debug("  - {}", a.getFileName()));
@@ -0,0 +1,106 @@
+package com.intuitivecare.integracao.util;
+
+import com.intuitivecare.compartilhado.util.LayoutConsolidadoColunar;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Escrita do consolidado em formato binário colunar (entrada do Desafio 2)
+ *
+ * Layout em {@link LayoutConsolidadoColunar}, compartilhado com o
+ * ConsolidadoColunarReader do Desafio 2.
+ *
+ * Trade-off: o consolidado deixa de ser formatado como texto e reinterpretado
+ * pelo leitor; o Desafio 2 mapeia o arquivo em memória e lê os valores
+ * diretamente. Exige RegistroANS numérico (códigos ANS têm 6 dígitos) e
+ * valores com até 2 casas decimais (arredondados HALF_EVEN se houver mais).
+ */
+public class ConsolidadoColunarWriter {
+
+    private long[] centavos;
+    private int[] registrosAns;
+    private short[] anos;
+    private byte[] trimestres;
+    private int quantidade;
+
+    public ConsolidadoColunarWriter(int capacidadeEsperada) {
+        int capacidade = Math.max(capacidadeEsperada, 16);
+        this.centavos = new long[capacidade];
+        this.registrosAns = new int[capacidade];
+        this.anos = new short[capacidade];
+        this.trimestres = new byte[capacidade];
+        this.quantidade = 0;
+    } // ConsolidadoColunarWriter
+
+    /**
+     * Adiciona um registro consolidado
+     *
+     * @param registroAns Código da operadora (numérico)
+     * @param trimestre Trimestre no formato "Q1".."Q4"
+     * @throws IllegalArgumentException se algum campo não couber no layout
+     */
+    public void adicionar(String registroAns, String trimestre, int ano, BigDecimal valor) {
+        if (quantidade == centavos.length) {
+            int capacidade = quantidade * 2;
+            centavos = Arrays.copyOf(centavos, capacidade);
+            registrosAns = Arrays.copyOf(registrosAns, capacidade);
+            anos = Arrays.copyOf(anos, capacidade);
+            trimestres = Arrays.copyOf(trimestres, capacidade);
+        } // if
+
+        if (trimestre == null || trimestre.length() != 2 || trimestre.charAt(1) < '1' || trimestre.charAt(1) > '4') {
+            throw new IllegalArgumentException("Trimestre inválido: " + trimestre);
+        } // if
+        if (ano < 0 || ano > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Ano inválido: " + ano);
+        } // if
+
+        registrosAns[quantidade] = Integer.parseInt(registroAns.trim());
+        trimestres[quantidade] = (byte) (trimestre.charAt(1) - '0');
+        anos[quantidade] = (short) ano;
+        centavos[quantidade] = valor.setScale(LayoutConsolidadoColunar.ESCALA, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        quantidade++;
+    } // adicionar
+
+    public int getQuantidade() {
+        return quantidade;
+    } // getQuantidade
+
+    /**
+     * Grava o arquivo mapeando-o em memória com o tamanho exato
+     */
+    public void gravar(Path arquivo) throws IOException {
+        long tamanho = LayoutConsolidadoColunar.tamanhoArquivo(quantidade);
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IOException("Consolidado grande demais para o formato colunar: " + quantidade + " registros");
+        } // if
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            buffer.order(LayoutConsolidadoColunar.ORDEM);
+
+            buffer.putInt(LayoutConsolidadoColunar.MAGIC);
+            buffer.putInt(LayoutConsolidadoColunar.VERSAO);
+            buffer.putInt(quantidade);
+            buffer.putInt(LayoutConsolidadoColunar.ESCALA);
+
+            buffer.asLongBuffer().put(centavos, 0, quantidade);
+            buffer.position(buffer.position() + quantidade * Long.BYTES);
+            buffer.asIntBuffer().put(registrosAns, 0, quantidade);
+            buffer.position(buffer.position() + quantidade * Integer.BYTES);
+            buffer.asShortBuffer().put(anos, 0, quantidade);
+            buffer.position(buffer.position() + quantidade * Short.BYTES);
+            buffer.put(trimestres, 0, quantidade);
+
+            buffer.force();
+        } // try
+    } // gravar
+} // ConsolidadoColunarWriter
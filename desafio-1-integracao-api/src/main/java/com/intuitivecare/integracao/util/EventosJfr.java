@@ -0,0 +1,93 @@
+package com.intuitivecare.integracao.util;
+
+import com.intuitivecare.compartilhado.util.EventoJfr;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eventos do JDK Flight Recorder nos caminhos quentes do Desafio 1
+ *
+ * Um evento por arquivo baixado, ZIP extraído e CSV consolidado, com nome do
+ * arquivo, bytes e linhas. Com -XX:StartFlightRecording:filename=d1.jfr cada
+ * arquivo aparece lado a lado com o I/O de socket/arquivo e a alocação da
+ * JVM, separando rede, inflate do ZIP e parsing.
+ *
+ * Categoria, stack trace desligado e o trade-off de custo vêm de EventoJfr
+ * (compartilhado/).
+ */
+public final class EventosJfr {
+
+    private EventosJfr() {
+    } // EventosJfr
+
+    /**
+     * Base dos eventos do Desafio 1: subcategoria no JMC
+     */
+    @Category({EventoJfr.CATEGORIA, "Desafio 1"})
+    public abstract static class Evento extends EventoJfr {
+    } // Evento
+
+    @Name("com.intuitivecare.integracao.Download")
+    @Label("Download")
+    @Description("Download de um arquivo da ANS (cache não conta bytes)")
+    public static class Download extends Evento {
+        @Label("URL")
+        public String url;
+
+        @Label("Arquivo")
+        public String arquivo;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Status HTTP")
+        public int status;
+
+        @Label("Cache")
+        public boolean cache;
+    } // Download
+
+    @Name("com.intuitivecare.integracao.Extracao")
+    @Label("Extração de ZIP")
+    @Description("Extração de um ZIP trimestral")
+    public static class Extracao extends Evento {
+        @Label("Arquivo")
+        public String arquivo;
+
+        @Label("Entradas")
+        public int entradas;
+
+        @Label("Bytes compactados")
+        @DataAmount
+        public long bytesCompactados;
+
+        @Label("Bytes extraídos")
+        @DataAmount
+        public long bytesExtraidos;
+    } // Extracao
+
+    @Name("com.intuitivecare.integracao.Consolidacao")
+    @Label("Consolidação de arquivo")
+    @Description("Parsing e agregação de um CSV de demonstrações contábeis")
+    public static class Consolidacao extends Evento {
+        @Label("Arquivo")
+        public String arquivo;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Linhas lidas")
+        public long linhasLidas;
+
+        @Label("Registros consolidados")
+        public long registros;
+
+        @Label("Registros descartados")
+        public long descartados;
+    } // Consolidacao
+} // EventosJfr
@@ -0,0 +1,115 @@
+package com.intuitivecare.integracao.service;
+
+import com.intuitivecare.integracao.config.ApplicationConfig;
+import com.intuitivecare.integracao.model.InconsistenciaReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consolidação de arquivos contábeis sintéticos (layout da ANS): valores
+ * somados por operadora e trimestre, e contadores do relatório de
+ * inconsistências, com o trimestre não identificado contado por arquivo
+ */
+class ConsolidacaoServiceTest {
+
+    private static final String CABECALHO = "DATA;REG_ANS;CD_CONTA_CONTABIL;DESCRICAO;VL_SALDO_INICIAL;VL_SALDO_FINAL";
+
+    @TempDir
+    Path diretorio;
+
+    private ConsolidacaoService service;
+
+    @BeforeEach
+    void preparar() {
+        service = new ConsolidacaoService(new ApplicationConfig(diretorio));
+    } // preparar
+
+    @Test
+    void consolidaContaDeEventosPorOperadoraETrimestre() throws Exception {
+        Path primeiro = arquivo("1T2024.csv",
+            "2024-01-01;300001;41;EVENTOS;0;1.000,50",
+            "2024-01-01;300001;411;SUBCONTA;0;999,99",
+            "2024-03-31;300001;41;EVENTOS;0;200,25",
+            "2024-01-01;300002;41;EVENTOS;0;0,00",
+            "2024-01-01;300003;41;EVENTOS;0;-10,00",
+            "2024-01-01;;41;EVENTOS;0;5,00",
+            "2024-01-01;300004;31;RECEITAS;0;123,00");
+        Path segundo = arquivo("2T2024.csv",
+            "2024-04-01;300001;41;EVENTOS;0;50,00",
+            // DATA fora do trimestre do nome do arquivo
+            "2023-12-31;300002;41;EVENTOS;0;7,00");
+
+        Path csv = service.consolidarDados(List.of(primeiro, segundo));
+
+        assertEquals(Set.of(
+            "300001;Q1;2024;1200.75",
+            "300002;Q1;2024;0.00",
+            "300003;Q1;2024;-10.00",
+            "300001;Q2;2024;50.00",
+            "300002;Q2;2024;7.00"), linhas(csv));
+
+        InconsistenciaReport relatorio = service.getRelatorioInconsistencias();
+        assertEquals(6, relatorio.getRegistrosProcessados());
+        assertEquals(1, relatorio.getRegistrosDescartados());
+        assertEquals(1, relatorio.getValoresZerados());
+        assertEquals(1, relatorio.getValoresNegativos());
+        assertEquals(1, relatorio.getTrimestresFormatoInconsistente());
+        assertEquals(0, relatorio.getCnpjsDuplicadosRazoesDiferentes());
+        assertTrue(Files.exists(diretorio.resolve("output/relatorio_inconsistencias.txt")));
+    } // consolidaContaDeEventosPorOperadoraETrimestre
+
+    @Test
+    void trimestreNaoIdentificadoContadoUmaVezPorArquivo() throws Exception {
+        List<String> registros = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            registros.add("2025-01-01;" + (300_000 + i) + ";41;EVENTOS;0;10,00");
+            registros.add("2025-01-01;" + (300_000 + i) + ";31;RECEITAS;0;10,00");
+        } // for
+        Path semTrimestre = arquivo("despesas_sem_trimestre.csv", registros.toArray(String[]::new));
+        // Sem nenhum registro da conta 41: o arquivo conta do mesmo jeito
+        Path vazio = arquivo("outro_sem_trimestre.csv", "2025-01-01;300000;31;RECEITAS;0;1,00");
+        Path identificado = arquivo("3T2025.csv", "2025-07-01;300000;41;EVENTOS;0;1,00");
+
+        service.consolidarDados(List.of(semTrimestre, vazio, identificado));
+
+        InconsistenciaReport relatorio = service.getRelatorioInconsistencias();
+        assertEquals(2, relatorio.getTrimestresFormatoInconsistente());
+        assertEquals(26, relatorio.getRegistrosProcessados());
+
+        // Nova consolidação começa com o relatório zerado
+        service.consolidarDados(List.of(semTrimestre));
+        assertEquals(1, service.getRelatorioInconsistencias().getTrimestresFormatoInconsistente());
+    } // trimestreNaoIdentificadoContadoUmaVezPorArquivo
+
+    private Path arquivo(String nome, String... registros) throws IOException {
+        List<String> conteudo = new ArrayList<>();
+        conteudo.add(CABECALHO);
+        conteudo.addAll(List.of(registros));
+        Path arquivo = diretorio.resolve("extraidos").resolve(nome);
+        Files.createDirectories(arquivo.getParent());
+        Files.write(arquivo, conteudo, StandardCharsets.UTF_8);
+        return arquivo;
+    } // arquivo
+
+    /**
+     * Linhas do CSV consolidado, sem o cabeçalho (a ordem segue o HashMap)
+     */
+    private static Set<String> linhas(Path csv) throws IOException {
+        List<String> linhas = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals("RegistroANS;Trimestre;Ano;ValorDespesas", linhas.get(0));
+        return new TreeSet<>(linhas.subList(1, linhas.size()));
+    } // linhas
+} // ConsolidacaoServiceTest
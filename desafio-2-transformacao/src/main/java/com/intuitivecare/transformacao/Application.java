@@ -1,8 +1,12 @@
 package com.intuitivecare.transformacao;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
 import com.intuitivecare.transformacao.config.ApplicationConfig;
 import com.intuitivecare.transformacao.service.AgregacaoService;
+import com.intuitivecare.transformacao.service.AnaliseService;
+import com.intuitivecare.transformacao.service.CargaBancoService;
 import com.intuitivecare.transformacao.service.EnriquecimentoService;
+import com.intuitivecare.transformacao.service.ExportacaoParquetService;
 import com.intuitivecare.transformacao.service.ValidacaoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,22 +28,25 @@ public class Application {
     public static void main(String[] args) {
         logger.info("=== Iniciando Desafio 2 - Transformação e Validação de Dados ===");
         
+        ApplicationConfig config = new ApplicationConfig();
+        MetricasPipeline metricas = config.getMetricas();
+        metricas.iniciarExportacaoPeriodica(config.getDiretorioOutput(), config.getIntervaloMetricasSegundos());
+        
         try {
-            ApplicationConfig config = new ApplicationConfig();
-            
             // Serviços
             ValidacaoService validacaoService = new ValidacaoService(config);
-            EnriquecimentoService enriquecimentoService = new EnriquecimentoService(config);
+            EnriquecimentoService enriquecimentoService = new EnriquecimentoService(config, validacaoService);
             AgregacaoService agregacaoService = new AgregacaoService(config);
             
             // 2.1 - Validação de Dados
             logger.info("Etapa 2.1: Validando dados do CSV consolidado...");
-            Path csvValidado = validacaoService.validarDados(config.getCsvConsolidado());
+            Path csvValidado = validacaoService.validarDados(config.getEntradaConsolidada());
             logger.info("Validação concluída: {}", csvValidado);
             
             // 2.2 - Enriquecimento com Dados Cadastrais
             logger.info("Etapa 2.2: Enriquecendo dados com cadastro de operadoras...");
             Path csvEnriquecido = enriquecimentoService.enriquecerDados(csvValidado);
+            validacaoService.logRelatorioCnpj();
             logger.info("Enriquecimento concluído: {}", csvEnriquecido);
             
             // 2.3 - Agregação e Estatísticas
@@ -47,14 +54,39 @@ public class Application {
             Path csvAgregado = agregacaoService.agregarDados(csvEnriquecido);
             logger.info("Agregação concluída: {}", csvAgregado);
             
+            // Opcional: saídas também em Parquet
+            if (config.isExportacaoParquet()) {
+                logger.info("Exportando saídas em Parquet...");
+                new ExportacaoParquetService(config).exportarSaidas();
+            } // if
+            
+            // Opcional: carga direta nas tabelas do Desafio 3
+            if (config.isCargaBanco()) {
+                logger.info("Carregando saídas no banco de dados...");
+                new CargaBancoService(config).carregarSaidas();
+            } // if
+            
+            // Opcional: queries analíticas do Desafio 3 sem banco
+            if (config.isAnaliseEmMemoria()) {
+                logger.info("Executando análises em memória...");
+                new AnaliseService(config).executarAnalises();
+            } // if
+            
             // Compactar resultado final
             Path zipFinal = agregacaoService.compactarResultado(csvAgregado);
             
             logger.info("=== Desafio 2 concluído com sucesso! ===");
             logger.info("Arquivo gerado: {}", zipFinal.toAbsolutePath());
             
+            config.getProgresso().encerrar();
+            metricas.encerrar(config.getDiretorioOutput());
+            logger.info("Métricas: {}", config.getDiretorioOutput().resolve(MetricasPipeline.ARQUIVO_JSON));
+            
         } catch (Exception e) {
             logger.error("Erro durante a execução do Desafio 2: {}", e.getMessage(), e);
+            // Métricas parciais ajudam a localizar a etapa que falhou
+            config.getProgresso().encerrar();
+            metricas.encerrar(config.getDiretorioOutput());
             System.exit(1);
         } // try-catch
     } // main
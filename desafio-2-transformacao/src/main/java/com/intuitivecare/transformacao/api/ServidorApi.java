@@ -0,0 +1,552 @@
+package com.intuitivecare.transformacao.api;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.CuboDespesas;
+import com.intuitivecare.transformacao.model.EstatisticasGerais;
+import com.intuitivecare.transformacao.model.OperadoraResumo;
+import com.intuitivecare.transformacao.model.PaginaOperadoras;
+import com.intuitivecare.transformacao.model.ParticipacaoUf;
+import com.intuitivecare.transformacao.service.ConsultaOperadorasService;
+import com.intuitivecare.transformacao.util.CuboDespesasCsv;
+import com.intuitivecare.transformacao.util.JsonWriter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor HTTP de consulta de operadoras e estatísticas
+ *
+ * Mesmo contrato do backend FastAPI do Desafio 4 (coleção
+ * Intuitive_Care_API.postman_collection.json), servido direto das saídas do
+ * módulo 2 carregadas em memória pelo ConsultaOperadorasService:
+ * - GET /api/operadoras?page&limit&q&uf
+ * - GET /api/operadoras/{cnpj}
+ * - GET /api/operadoras/{cnpj}/despesas
+ * - GET /api/estatisticas
+ * - GET /api/estatisticas/por-uf
+ * - GET /api/estatisticas/top-operadoras?n
+ * - GET /api/estatisticas/cubo?uf&modalidade&ano&trimestre (fatia do
+ *   cubo_despesas.csv; parâmetro ausente = todos)
+ * - GET / e GET /health
+ *
+ * Trade-off: HttpServer DO JDK + RESPOSTAS PRÉ-SERIALIZADAS
+ * - Sem framework nem dependência nova; o roteamento é um switch sobre o path
+ * - Respostas que não dependem de parâmetros (estatísticas, distribuição por
+ *   UF, health) são serializadas uma vez na carga e enviadas como bytes
+ * - Uma thread virtual por requisição quando a JVM oferece (Java 21+); no
+ *   Java 17 cai para um pool fixo, suficiente porque os handlers não bloqueiam
+ */
+public class ServidorApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServidorApi.class);
+
+    private static final String ARQUIVO_ENRIQUECIDO = "consolidado_enriquecido.csv";
+    private static final String ARQUIVO_CUBO = "cubo_despesas.csv";
+    private static final String TIPO_JSON = "application/json";
+    private static final String PREFIXO_OPERADORAS = "/api/operadoras/";
+    private static final int LIMITE_PADRAO = 10;
+    private static final int LIMITE_MAXIMO = 100;
+    private static final int TOP_PADRAO = 5;
+
+    private static final byte[] RAIZ = new JsonWriter().inicioObjeto()
+        .campo("status", "healthy")
+        .campo("message", "API Operadoras de Saúde")
+        .campo("version", "1.0.0")
+        .fimObjeto().toBytes();
+    private static final byte[] SAUDE = new JsonWriter().inicioObjeto().campo("status", "ok").fimObjeto().toBytes();
+    private static final byte[] NAO_ENCONTRADO = detalhe("Not Found");
+    private static final byte[] METODO_NAO_PERMITIDO = detalhe("Method Not Allowed");
+    private static final byte[] ERRO_INTERNO = detalhe("Internal Server Error");
+
+    private final ApplicationConfig config;
+    private final ConsultaOperadorasService consultaService;
+
+    // Respostas fixas, refeitas a cada carga
+    private volatile byte[] estatisticas;
+    private volatile byte[] distribuicaoUf;
+    private volatile CuboDespesas cubo;
+
+    private HttpServer servidor;
+    private ExecutorService executor;
+
+    static {
+        // O HttpServer escreve cabeçalhos e corpo em chamadas separadas; com
+        // Nagle ligado, cada resposta espera o ACK atrasado do cliente (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        } // if
+    }
+
+    public ServidorApi(ApplicationConfig config, ConsultaOperadorasService consultaService) {
+        this.config = config;
+        this.consultaService = consultaService;
+        prepararRespostas();
+    } // ServidorApi
+
+    public static void main(String[] args) {
+        try {
+            ApplicationConfig config = new ApplicationConfig();
+            Path csvEnriquecido = args.length > 0
+                ? Path.of(args[0])
+                : config.getDiretorioOutput().resolve(ARQUIVO_ENRIQUECIDO);
+            if (!Files.exists(csvEnriquecido)) {
+                throw new IOException("Arquivo não encontrado: " + csvEnriquecido
+                    + " (execute o pipeline do Desafio 2 antes)");
+            } // if
+
+            ConsultaOperadorasService consultaService = new ConsultaOperadorasService();
+            consultaService.carregar(csvEnriquecido);
+
+            ServidorApi servidor = new ServidorApi(config, consultaService);
+            Path csvCubo = csvEnriquecido.resolveSibling(ARQUIVO_CUBO);
+            if (Files.exists(csvCubo)) {
+                servidor.carregarCubo(csvCubo);
+            } // if
+            servidor.iniciar();
+            Runtime.getRuntime().addShutdownHook(new Thread(servidor::parar, "api-shutdown"));
+
+        } catch (Exception e) {
+            logger.error("Erro ao iniciar a API: {}", e.getMessage(), e);
+            System.exit(1);
+        } // try-catch
+    } // main
+
+    public void iniciar() throws IOException {
+        executor = criarExecutor();
+        servidor = HttpServer.create(new InetSocketAddress(config.getApiPorta()), 0);
+        servidor.createContext("/", this::tratar);
+        servidor.setExecutor(executor);
+        servidor.start();
+        logger.info("API escutando em http://localhost:{} ({} operadoras)",
+            servidor.getAddress().getPort(), consultaService.getQuantidadeOperadoras());
+    } // iniciar
+
+    public void parar() {
+        if (servidor != null) {
+            servidor.stop(1);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } // try-catch
+            servidor = null;
+            logger.info("API encerrada");
+        } // if
+    } // parar
+
+    /**
+     * Porta efetiva (útil com api.porta=0)
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    } // getPorta
+
+    /**
+     * Recarrega o CSV enriquecido e troca as respostas pré-calculadas
+     */
+    public void recarregar(Path csvEnriquecido) throws IOException {
+        consultaService.carregar(csvEnriquecido);
+        prepararRespostas();
+    } // recarregar
+
+    /**
+     * Carrega (ou troca) o cubo de rollup servido em /api/estatisticas/cubo
+     */
+    public void carregarCubo(Path csvCubo) throws IOException {
+        this.cubo = CuboDespesasCsv.ler(csvCubo);
+        logger.info("API: cubo de despesas carregado de {}", csvCubo);
+    } // carregarCubo
+
+    private void prepararRespostas() {
+        EstatisticasGerais dados = consultaService.getEstatisticas();
+
+        JsonWriter json = new JsonWriter().inicioObjeto()
+            .campo("total_despesas", dados.getTotalDespesas().toPlainString())
+            .campo("media_despesas", dados.getMediaDespesas().toPlainString())
+            .campo("total_operadoras", dados.getTotalOperadoras())
+            .nome("top_5_operadoras");
+        escreverTop(json, dados.getTopOperadoras(), TOP_PADRAO);
+        json.nome("distribuicao_por_uf");
+        escreverDistribuicao(json, dados.getDistribuicaoPorUf());
+        this.estatisticas = json.fimObjeto().toBytes();
+
+        JsonWriter porUf = new JsonWriter();
+        escreverDistribuicao(porUf, dados.getDistribuicaoPorUf());
+        this.distribuicaoUf = porUf.toBytes();
+    } // prepararRespostas
+
+    private void tratar(HttpExchange exchange) throws IOException {
+        try {
+            Resposta resposta;
+            String metodo = exchange.getRequestMethod();
+            if ("OPTIONS".equals(metodo) && exchange.getRequestHeaders().containsKey("Access-Control-Request-Method")) {
+                resposta = preflight(exchange);
+            } else if (!"GET".equals(metodo)) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                resposta = new Resposta(405, METODO_NAO_PERMITIDO);
+            } else {
+                resposta = rotear(exchange.getRequestURI().getRawPath(), exchange.getRequestURI().getRawQuery());
+            } // if
+            enviar(exchange, resposta);
+
+        } catch (Exception e) {
+            logger.error("Erro em {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage(), e);
+            enviar(exchange, new Resposta(500, ERRO_INTERNO));
+        } finally {
+            exchange.close();
+        } // try
+    } // tratar
+
+    private Resposta rotear(String caminho, String consulta) {
+        switch (caminho) {
+            case "/":
+                return Resposta.ok(RAIZ);
+            case "/health":
+                return Resposta.ok(SAUDE);
+            case "/api/operadoras":
+                return listarOperadoras(parametros(consulta));
+            case "/api/estatisticas":
+                return Resposta.ok(estatisticas);
+            case "/api/estatisticas/por-uf":
+                return Resposta.ok(distribuicaoUf);
+            case "/api/estatisticas/top-operadoras":
+                return topOperadoras(parametros(consulta));
+            case "/api/estatisticas/cubo":
+                return fatiaCubo(parametros(consulta));
+            default:
+                break;
+        } // switch
+
+        if (caminho.startsWith(PREFIXO_OPERADORAS)) {
+            String resto = caminho.substring(PREFIXO_OPERADORAS.length());
+            int barra = resto.indexOf('/');
+            if (barra < 0 && !resto.isEmpty()) {
+                return detalharOperadora(decodificar(resto));
+            } // if
+            if (barra > 0 && "/despesas".equals(resto.substring(barra))) {
+                return despesasOperadora(decodificar(resto.substring(0, barra)));
+            } // if
+        } // if
+        return new Resposta(404, NAO_ENCONTRADO);
+    } // rotear
+
+    private Resposta listarOperadoras(Map<String, String> parametros) {
+        ErrosValidacao erros = new ErrosValidacao();
+        int pagina = erros.inteiro(parametros, "page", 1, 1, Integer.MAX_VALUE);
+        int limite = erros.inteiro(parametros, "limit", LIMITE_PADRAO, 1, LIMITE_MAXIMO);
+        String busca = parametros.get("q");
+        String uf = parametros.get("uf");
+        if (uf != null && uf.length() > 2) {
+            erros.adicionar("string_too_long", "uf", "String should have at most 2 characters", uf);
+        } // if
+        if (erros.existem()) {
+            return erros.resposta();
+        } // if
+
+        PaginaOperadoras resultado = consultaService.listar(pagina, limite, busca, uf);
+
+        JsonWriter json = new JsonWriter(new StringBuilder(256 + resultado.getOperadoras().size() * 192))
+            .inicioObjeto().nome("data").inicioArray();
+        int id = resultado.getPrimeiraPosicao();
+        for (OperadoraResumo operadora : resultado.getOperadoras()) {
+            json.inicioObjeto();
+            escreverCadastro(json, operadora);
+            json.campo("id", id++)
+                .campo("total_despesas", operadora.getTotalDespesas())
+                .fimObjeto();
+        } // for
+        json.fimArray()
+            .nome("meta").inicioObjeto()
+            .campo("total", resultado.getTotal())
+            .campo("page", pagina)
+            .campo("limit", limite)
+            .campo("pages", resultado.getPaginas())
+            .campo("has_next", pagina < resultado.getPaginas())
+            .campo("has_prev", pagina > 1)
+            .fimObjeto()
+            .fimObjeto();
+        return Resposta.ok(json.toBytes());
+    } // listarOperadoras
+
+    private Resposta detalharOperadora(String cnpj) {
+        OperadoraResumo operadora = consultaService.buscarPorCnpj(cnpj);
+        if (operadora == null) {
+            return naoEncontrada(cnpj);
+        } // if
+
+        JsonWriter json = new JsonWriter().inicioObjeto();
+        escreverCadastro(json, operadora);
+        json.campo("id", 1)
+            .campo("total_despesas", operadora.getTotalDespesas())
+            .campo("quantidade_trimestres", operadora.getQuantidadeTrimestres())
+            .fimObjeto();
+        return Resposta.ok(json.toBytes());
+    } // detalharOperadora
+
+    private Resposta despesasOperadora(String cnpj) {
+        OperadoraResumo operadora = consultaService.buscarPorCnpj(cnpj);
+        if (operadora == null) {
+            return naoEncontrada(cnpj);
+        } // if
+
+        int quantidade = operadora.getQuantidadeTrimestres();
+        JsonWriter json = new JsonWriter(new StringBuilder(16 + quantidade * 64)).inicioArray();
+        for (int i = 0; i < quantidade; i++) {
+            json.inicioObjeto()
+                .campo("trimestre", operadora.getTrimestre(i))
+                .campo("ano", operadora.getAno(i))
+                .campo("valor_despesas", operadora.getValorDespesas(i).toPlainString())
+                .fimObjeto();
+        } // for
+        return Resposta.ok(json.fimArray().toBytes());
+    } // despesasOperadora
+
+    private Resposta topOperadoras(Map<String, String> parametros) {
+        ErrosValidacao erros = new ErrosValidacao();
+        int n = erros.inteiro(parametros, "n", TOP_PADRAO, 1, LIMITE_MAXIMO);
+        if (erros.existem()) {
+            return erros.resposta();
+        } // if
+
+        JsonWriter json = new JsonWriter();
+        escreverTop(json, consultaService.getEstatisticas().getTopOperadoras(), n);
+        return Resposta.ok(json.toBytes());
+    } // topOperadoras
+
+    private Resposta fatiaCubo(Map<String, String> parametros) {
+        CuboDespesas atual = this.cubo;
+        if (atual == null) {
+            return new Resposta(404, detalhe("Cubo de despesas não disponível"));
+        } // if
+
+        ErrosValidacao erros = new ErrosValidacao();
+        String uf = parametros.get("uf");
+        String modalidade = parametros.get("modalidade");
+        Integer ano = parametros.containsKey("ano")
+            ? erros.inteiro(parametros, "ano", 0, 1, Integer.MAX_VALUE)
+            : null;
+        String textoTrimestre = parametros.get("trimestre");
+        Integer trimestre = null;
+        if (textoTrimestre != null) {
+            Map<String, String> numero = Map.of("trimestre", textoTrimestre.replaceFirst("^[Qq]", ""));
+            trimestre = erros.inteiro(numero, "trimestre", 0, 1, 4);
+        } // if
+        if (erros.existem()) {
+            return erros.resposta();
+        } // if
+
+        JsonWriter json = new JsonWriter().inicioObjeto()
+            .campo("uf", uf)
+            .campo("modalidade", modalidade);
+        if (ano != null) {
+            json.campo("ano", ano);
+        } else {
+            json.nome("ano").valor((String) null);
+        } // if
+        json.campo("trimestre", trimestre != null ? "Q" + trimestre : null)
+            .campo("quantidade", atual.getQuantidade(uf, modalidade, ano, trimestre))
+            .campo("total_despesas", atual.getTotalDespesas(uf, modalidade, ano, trimestre).toPlainString())
+            .fimObjeto();
+        return Resposta.ok(json.toBytes());
+    } // fatiaCubo
+
+    private static Resposta naoEncontrada(String cnpj) {
+        return new Resposta(404, detalhe("Operadora com CNPJ " + cnpj + " não encontrada"));
+    } // naoEncontrada
+
+    private static void escreverCadastro(JsonWriter json, OperadoraResumo operadora) {
+        json.campo("cnpj", operadora.getCnpj())
+            .campo("razao_social", operadora.getRazaoSocial())
+            .campo("registro_ans", operadora.getRegistroAns())
+            .campo("modalidade", operadora.getModalidade())
+            .campo("uf", operadora.getUf());
+    } // escreverCadastro
+
+    /**
+     * Valores Decimal do backend Python saem como texto no JSON (Pydantic v2)
+     */
+    private static void escreverTop(JsonWriter json, List<OperadoraResumo> ranking, int n) {
+        json.inicioArray();
+        for (int i = 0; i < Math.min(n, ranking.size()); i++) {
+            OperadoraResumo operadora = ranking.get(i);
+            json.inicioObjeto()
+                .campo("cnpj", operadora.getCnpj())
+                .campo("razao_social", operadora.getRazaoSocial())
+                .campo("total_despesas", operadora.getTotalDespesas().toPlainString())
+                .campo("uf", operadora.getUf())
+                .fimObjeto();
+        } // for
+        json.fimArray();
+    } // escreverTop
+
+    private static void escreverDistribuicao(JsonWriter json, List<ParticipacaoUf> distribuicao) {
+        json.inicioArray();
+        for (ParticipacaoUf participacao : distribuicao) {
+            json.inicioObjeto()
+                .campo("uf", participacao.getUf())
+                .campo("total", participacao.getTotal().toPlainString())
+                .campo("quantidade_operadoras", participacao.getQuantidadeOperadoras())
+                .campo("percentual", participacao.getPercentual())
+                .fimObjeto();
+        } // for
+        json.fimArray();
+    } // escreverDistribuicao
+
+    private static byte[] detalhe(String mensagem) {
+        return new JsonWriter().inicioObjeto().campo("detail", mensagem).fimObjeto().toBytes();
+    } // detalhe
+
+    /**
+     * Resposta ao preflight CORS (mesmas regras do CORSMiddleware do backend)
+     */
+    private Resposta preflight(HttpExchange exchange) {
+        Headers cabecalhos = exchange.getResponseHeaders();
+        cabecalhos.set("Content-Type", "text/plain; charset=utf-8");
+
+        String origem = exchange.getRequestHeaders().getFirst("Origin");
+        if (origem == null || !config.getApiOrigensCors().contains(origem)) {
+            return new Resposta(400, "Disallowed CORS origin".getBytes(StandardCharsets.UTF_8));
+        } // if
+
+        cabecalhos.set("Access-Control-Allow-Methods", "DELETE, GET, HEAD, OPTIONS, PATCH, POST, PUT");
+        cabecalhos.set("Access-Control-Max-Age", "600");
+        String solicitados = exchange.getRequestHeaders().getFirst("Access-Control-Request-Headers");
+        if (solicitados != null) {
+            cabecalhos.set("Access-Control-Allow-Headers", solicitados);
+        } // if
+        return new Resposta(200, "OK".getBytes(StandardCharsets.UTF_8));
+    } // preflight
+
+    private void enviar(HttpExchange exchange, Resposta resposta) throws IOException {
+        Headers cabecalhos = exchange.getResponseHeaders();
+        if (!cabecalhos.containsKey("Content-Type")) {
+            cabecalhos.set("Content-Type", TIPO_JSON);
+        } // if
+
+        String origem = exchange.getRequestHeaders().getFirst("Origin");
+        if (origem != null && config.getApiOrigensCors().contains(origem)) {
+            cabecalhos.set("Access-Control-Allow-Origin", origem);
+            cabecalhos.set("Access-Control-Allow-Credentials", "true");
+            cabecalhos.set("Vary", "Origin");
+        } // if
+
+        exchange.sendResponseHeaders(resposta.status, resposta.corpo.length);
+        try (OutputStream corpo = exchange.getResponseBody()) {
+            corpo.write(resposta.corpo);
+        } // try
+    } // enviar
+
+    /**
+     * Parâmetros da query string (em repetições, vale o último, como no Starlette)
+     */
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        } // if
+        for (String par : consulta.split("&")) {
+            if (par.isEmpty()) {
+                continue;
+            } // if
+            int igual = par.indexOf('=');
+            String nome = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(decodificar(nome), decodificar(valor));
+        } // for
+        return parametros;
+    } // parametros
+
+    private static String decodificar(String texto) {
+        return texto.indexOf('%') < 0 && texto.indexOf('+') < 0
+            ? texto
+            : URLDecoder.decode(texto, StandardCharsets.UTF_8);
+    } // decodificar
+
+    /**
+     * Uma thread virtual por requisição (Java 21+), obtida por reflexão para
+     * o módulo continuar compilando no Java 17; senão, pool fixo
+     */
+    private ExecutorService criarExecutor() {
+        try {
+            ExecutorService virtuais = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("API: threads virtuais");
+            return virtuais;
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(Runtime.getRuntime().availableProcessors(), config.getThreadsProcessamento()) * 2;
+            logger.info("API: threads virtuais indisponíveis nesta JVM, usando pool de {} threads", threads);
+            return Executors.newFixedThreadPool(threads);
+        } // try-catch
+    } // criarExecutor
+
+    private record Resposta(int status, byte[] corpo) {
+
+        static Resposta ok(byte[] corpo) {
+            return new Resposta(200, corpo);
+        } // ok
+    } // Resposta
+
+    /**
+     * Erros de validação de parâmetros no formato 422 do FastAPI
+     */
+    private static final class ErrosValidacao {
+        private final JsonWriter json = new JsonWriter().inicioObjeto().nome("detail").inicioArray();
+        private boolean existem;
+
+        int inteiro(Map<String, String> parametros, String nome, int padrao, int minimo, int maximo) {
+            String texto = parametros.get(nome);
+            if (texto == null) {
+                return padrao;
+            } // if
+            int valor;
+            try {
+                valor = Integer.parseInt(texto.trim());
+            } catch (NumberFormatException e) {
+                adicionar("int_parsing", nome,
+                    "Input should be a valid integer, unable to parse string as an integer", texto);
+                return padrao;
+            } // try-catch
+            if (valor < minimo) {
+                adicionar("greater_than_equal", nome, "Input should be greater than or equal to " + minimo, texto);
+            } else if (valor > maximo) {
+                adicionar("less_than_equal", nome, "Input should be less than or equal to " + maximo, texto);
+            } // if
+            return valor;
+        } // inteiro
+
+        void adicionar(String tipo, String parametro, String mensagem, String entrada) {
+            existem = true;
+            json.inicioObjeto()
+                .campo("type", tipo)
+                .nome("loc").inicioArray().valor("query").valor(parametro).fimArray()
+                .campo("msg", mensagem)
+                .campo("input", entrada)
+                .fimObjeto();
+        } // adicionar
+
+        boolean existem() {
+            return existem;
+        } // existem
+
+        Resposta resposta() {
+            return new Resposta(422, json.fimArray().fimObjeto().toBytes());
+        } // resposta
+    } // ErrosValidacao
+} // ServidorApi
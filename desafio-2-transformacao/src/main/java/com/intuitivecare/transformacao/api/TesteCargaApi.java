@@ -0,0 +1,252 @@
+package com.intuitivecare.transformacao.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Teste de carga da API de consulta (latência p50/p90/p99/p99.9)
+ *
+ * Uso: TesteCargaApi [baseUrl] [conexoes] [segundos]
+ * (padrão: http://localhost:8000 32 20)
+ *
+ * Cada conexão é uma thread em laço fechado (envia, espera a resposta,
+ * envia a próxima) com a mistura de chamadas da coleção do Postman:
+ * listagem paginada, busca por nome, filtro por UF, detalhe e despesas de
+ * CNPJs reais (amostrados da própria API) e estatísticas. Os primeiros
+ * segundos são aquecimento (JIT e pool de conexões) e não entram na conta.
+ *
+ * Trade-off: LATÊNCIAS EXATAS, NÃO HISTOGRAMA
+ * - Cada thread guarda todas as suas medições em um long[] e os percentis
+ *   saem da ordenação no final; alguns milhões de amostras cabem folgados
+ * - Laço fechado mede a latência sob a vazão que o servidor sustenta; não
+ *   corrige omissão coordenada (para isso, taxa fixa de chegada)
+ */
+public class TesteCargaApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(TesteCargaApi.class);
+
+    private static final Pattern CNPJ_JSON = Pattern.compile("\"cnpj\":\"(\\d{14})\"");
+    private static final String[] BUSCAS = {"saude", "unimed", "odonto", "amil", "bradesco", "vida", "med"};
+    private static final String[] UFS = {"SP", "RJ", "MG", "RS", "PR", "BA", "SC", "PE", "GO", "CE"};
+    private static final int SEGUNDOS_AQUECIMENTO = 3;
+
+    /**
+     * Tipos de chamada e peso (em %) na mistura
+     */
+    private enum Rota {
+        LISTAGEM(25), BUSCA(20), FILTRO_UF(15), DETALHE(15), DESPESAS(15), ESTATISTICAS(5), POR_UF(5);
+
+        final int peso;
+
+        Rota(int peso) {
+            this.peso = peso;
+        } // Rota
+    } // Rota
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8000";
+        int conexoes = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        String[] cnpjs = amostrarCnpjs(cliente, baseUrl);
+        logger.info("Teste de carga: {} conexões, {}s (+{}s de aquecimento), {} CNPJs amostrados",
+            conexoes, segundos, SEGUNDOS_AQUECIMENTO, cnpjs.length);
+
+        long inicioMedicao = System.nanoTime() + SEGUNDOS_AQUECIMENTO * 1_000_000_000L;
+        long fim = inicioMedicao + segundos * 1_000_000_000L;
+
+        Trabalhador[] trabalhadores = new Trabalhador[conexoes];
+        for (int i = 0; i < conexoes; i++) {
+            trabalhadores[i] = new Trabalhador(cliente, baseUrl, cnpjs, inicioMedicao, fim);
+            trabalhadores[i].start();
+        } // for
+        for (Trabalhador trabalhador : trabalhadores) {
+            trabalhador.join();
+        } // for
+
+        relatar(trabalhadores, segundos);
+    } // main
+
+    private static String[] amostrarCnpjs(HttpClient cliente, String baseUrl) throws Exception {
+        HttpResponse<String> resposta = cliente.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/api/operadoras?page=1&limit=100")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("API respondeu " + resposta.statusCode() + " na listagem inicial");
+        } // if
+
+        List<String> cnpjs = new ArrayList<>();
+        Matcher matcher = CNPJ_JSON.matcher(resposta.body());
+        while (matcher.find()) {
+            cnpjs.add(matcher.group(1));
+        } // while
+        if (cnpjs.isEmpty()) {
+            throw new IllegalStateException("Nenhuma operadora na API para amostrar");
+        } // if
+        return cnpjs.toArray(String[]::new);
+    } // amostrarCnpjs
+
+    private static void relatar(Trabalhador[] trabalhadores, int segundos) {
+        Rota[] rotas = Rota.values();
+        long[][] porRota = new long[rotas.length][];
+        long erros = 0;
+        int totalGeral = 0;
+
+        for (int r = 0; r < rotas.length; r++) {
+            int total = 0;
+            for (Trabalhador trabalhador : trabalhadores) {
+                total += trabalhador.quantidades[r];
+            } // for
+            porRota[r] = new long[total];
+            int posicao = 0;
+            for (Trabalhador trabalhador : trabalhadores) {
+                System.arraycopy(trabalhador.latencias[r], 0, porRota[r], posicao, trabalhador.quantidades[r]);
+                posicao += trabalhador.quantidades[r];
+            } // for
+            Arrays.sort(porRota[r]);
+            totalGeral += total;
+        } // for
+        for (Trabalhador trabalhador : trabalhadores) {
+            erros += trabalhador.erros;
+        } // for
+
+        long[] todas = new long[totalGeral];
+        int posicao = 0;
+        for (long[] latencias : porRota) {
+            System.arraycopy(latencias, 0, todas, posicao, latencias.length);
+            posicao += latencias.length;
+        } // for
+        Arrays.sort(todas);
+
+        logger.info("=== Resultado: {} requisições em {}s = {} req/s, {} erros ===",
+            totalGeral, segundos, String.format("%.0f", totalGeral / (double) segundos), erros);
+        logger.info(String.format("%-14s %9s %9s %9s %9s %9s %9s", "rota", "n", "p50(ms)", "p90(ms)",
+            "p99(ms)", "p99.9(ms)", "max(ms)"));
+        for (int r = 0; r < rotas.length; r++) {
+            logger.info(linha(rotas[r].name(), porRota[r]));
+        } // for
+        logger.info(linha("TOTAL", todas));
+    } // relatar
+
+    private static String linha(String rotulo, long[] ordenadas) {
+        return String.format("%-14s %9d %9.3f %9.3f %9.3f %9.3f %9.3f", rotulo, ordenadas.length,
+            percentil(ordenadas, 50), percentil(ordenadas, 90), percentil(ordenadas, 99),
+            percentil(ordenadas, 99.9), percentil(ordenadas, 100));
+    } // linha
+
+    /**
+     * Percentil pelo método nearest-rank, em milissegundos
+     */
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        } // if
+        int posicao = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(posicao, ordenadas.length - 1))] / 1_000_000.0;
+    } // percentil
+
+    private static final class Trabalhador extends Thread {
+        private final HttpClient cliente;
+        private final String baseUrl;
+        private final String[] cnpjs;
+        private final long inicioMedicao;
+        private final long fim;
+
+        final long[][] latencias = new long[Rota.values().length][];
+        final int[] quantidades = new int[Rota.values().length];
+        long erros;
+
+        Trabalhador(HttpClient cliente, String baseUrl, String[] cnpjs, long inicioMedicao, long fim) {
+            super("carga-api");
+            this.cliente = cliente;
+            this.baseUrl = baseUrl;
+            this.cnpjs = cnpjs;
+            this.inicioMedicao = inicioMedicao;
+            this.fim = fim;
+            for (int r = 0; r < latencias.length; r++) {
+                latencias[r] = new long[1024];
+            } // for
+        } // Trabalhador
+
+        @Override
+        public void run() {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            long agora = System.nanoTime();
+            while (agora < fim) {
+                Rota rota = sortear(aleatorio.nextInt(100));
+                HttpRequest requisicao = HttpRequest.newBuilder(URI.create(baseUrl + caminho(rota, aleatorio)))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+
+                long inicio = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == 200;
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } // if
+                    ok = false;
+                } // try-catch
+                agora = System.nanoTime();
+
+                if (inicio >= inicioMedicao && agora < fim) {
+                    if (ok) {
+                        registrar(rota.ordinal(), agora - inicio);
+                    } else {
+                        erros++;
+                    } // if
+                } // if
+            } // while
+        } // run
+
+        private void registrar(int rota, long nanos) {
+            if (quantidades[rota] == latencias[rota].length) {
+                latencias[rota] = Arrays.copyOf(latencias[rota], quantidades[rota] * 2);
+            } // if
+            latencias[rota][quantidades[rota]++] = nanos;
+        } // registrar
+
+        private static Rota sortear(int sorteio) {
+            int acumulado = 0;
+            for (Rota rota : Rota.values()) {
+                acumulado += rota.peso;
+                if (sorteio < acumulado) {
+                    return rota;
+                } // if
+            } // for
+            return Rota.LISTAGEM;
+        } // sortear
+
+        private String caminho(Rota rota, ThreadLocalRandom aleatorio) {
+            return switch (rota) {
+                case LISTAGEM -> "/api/operadoras?page=" + (1 + aleatorio.nextInt(20)) + "&limit=10";
+                case BUSCA -> "/api/operadoras?q=" + BUSCAS[aleatorio.nextInt(BUSCAS.length)] + "&limit=10";
+                case FILTRO_UF -> "/api/operadoras?uf=" + UFS[aleatorio.nextInt(UFS.length)] + "&limit=10";
+                case DETALHE -> "/api/operadoras/" + cnpjs[aleatorio.nextInt(cnpjs.length)];
+                case DESPESAS -> "/api/operadoras/" + cnpjs[aleatorio.nextInt(cnpjs.length)] + "/despesas";
+                case ESTATISTICAS -> "/api/estatisticas";
+                case POR_UF -> "/api/estatisticas/por-uf";
+            };
+        } // caminho
+    } // Trabalhador
+} // TesteCargaApi
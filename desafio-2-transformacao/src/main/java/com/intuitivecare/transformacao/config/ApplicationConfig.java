@@ -1,7 +1,11 @@
 package com.intuitivecare.transformacao.config;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Configurações da aplicação de transformação
@@ -9,8 +13,11 @@ import java.nio.file.Paths;
 public class ApplicationConfig {
 
     // URLs
-    private static final String OPERADORAS_ATIVAS_URL = 
-        "https://dadosabertos.ans.gov.br/FTP/PDA/operadoras_de_plano_de_saude_ativas/";
+    private static final String ANS_BASE_URL = "https://dadosabertos.ans.gov.br/FTP/PDA/";
+    private static final String OPERADORAS_ATIVAS_PATH = "operadoras_de_plano_de_saude_ativas/";
+
+    // Raiz dos dados abertos (sobrescrevível, ex.: espelho local ou simulador)
+    private final String ansBaseUrl;
 
     // Diretórios
     private final Path diretorioInput;
@@ -20,17 +27,107 @@ public class ApplicationConfig {
     // Arquivo CSV consolidado (do Desafio 1)
     private final Path csvConsolidado;
 
+    // Consolidado em formato binário colunar (opcional, mesmo conteúdo do CSV)
+    private final Path consolidadoColunar;
+    private final boolean entradaColunar;
+
+    // Processamento paralelo
+    private final int threadsProcessamento;
+
+    // Ranking da agregação (0 = ordenação completa de todos os grupos)
+    private final int topKAgregacao;
+    private final boolean topKPorUf;
+
+    // Exportação adicional das saídas em Parquet
+    private final boolean exportacaoParquet;
+
+    // Carga nas tabelas do Desafio 3 (desabilitada sem URL JDBC)
+    private final String cargaJdbcUrl;
+    private final String cargaUsuario;
+    private final String cargaSenha;
+    private final int cargaTamanhoLote;
+    private final int cargaEscritores;
+
+    // Queries analíticas do Desafio 3 respondidas em memória
+    private final boolean analiseEmMemoria;
+
+    // API HTTP de consulta (mesmo contrato do backend do Desafio 4)
+    private final int apiPorta;
+    private final List<String> apiOrigensCors;
+
+    // Métricas por etapa (exportadas no fim e, opcionalmente, periodicamente)
+    private final MetricasPipeline metricas;
+    private final int intervaloMetricasSegundos;
+
+    // Progresso ao vivo das etapas longas (linhas/s, MB/s, ETA)
+    private final RelatorioProgresso progresso;
+
     public ApplicationConfig() {
-        this.diretorioInput = Paths.get("input");
-        this.diretorioOutput = Paths.get("output");
-        this.diretorioTemp = Paths.get("temp");
+        this(Paths.get(""));
+    } // ApplicationConfig
+
+    /**
+     * Configuração com os diretórios de trabalho sob outra raiz (ex.: o
+     * orquestrador roda os dois desafios no mesmo processo)
+     */
+    public ApplicationConfig(Path diretorioBase) {
+        // Ex.: -Dans.baseUrl=http://localhost:8080/FTP/PDA/ (mesma propriedade do Desafio 1)
+        String base = System.getProperty("ans.baseUrl", ANS_BASE_URL);
+        this.ansBaseUrl = base.endsWith("/") ? base : base + "/";
+        
+        this.diretorioInput = diretorioBase.resolve("input");
+        this.diretorioOutput = diretorioBase.resolve("output");
+        this.diretorioTemp = diretorioBase.resolve("temp");
         
         // Caminho padrão para o CSV do Desafio 1
-        this.csvConsolidado = Paths.get("../desafio-1-integracao-api/output/consolidado_despesas.csv");
+        this.csvConsolidado = diretorioBase.resolve("../desafio-1-integracao-api/output/consolidado_despesas.csv");
+        this.consolidadoColunar = diretorioBase.resolve("../desafio-1-integracao-api/output/consolidado_despesas.bin");
+        
+        // Ex.: -Dconsolidado.colunar=true (mesma propriedade do Desafio 1)
+        this.entradaColunar = Boolean.getBoolean("consolidado.colunar");
+        
+        // Uma thread por núcleo disponível
+        this.threadsProcessamento = Runtime.getRuntime().availableProcessors();
+        
+        // Ex.: -Dagregacao.topK=10 -Dagregacao.topKPorUf=true (top 10 por UF)
+        this.topKAgregacao = Integer.getInteger("agregacao.topK", 0);
+        if (topKAgregacao < 0) {
+            throw new IllegalArgumentException("agregacao.topK deve ser >= 0 (0 = todos os grupos): " + topKAgregacao);
+        } // if
+        this.topKPorUf = Boolean.getBoolean("agregacao.topKPorUf");
+        
+        // Ex.: -Dexportacao.parquet=true
+        this.exportacaoParquet = Boolean.getBoolean("exportacao.parquet");
+        
+        // Ex.: -Dcarga.jdbcUrl=jdbc:postgresql://localhost:5432/ans -Dcarga.usuario=... -Dcarga.senha=...
+        this.cargaJdbcUrl = System.getProperty("carga.jdbcUrl");
+        this.cargaUsuario = System.getProperty("carga.usuario");
+        this.cargaSenha = System.getProperty("carga.senha");
+        this.cargaTamanhoLote = Integer.getInteger("carga.tamanhoLote", 5000);
+        this.cargaEscritores = Integer.getInteger("carga.escritores", 2);
+        
+        // Ex.: -Danalise.memoria=true
+        this.analiseEmMemoria = Boolean.getBoolean("analise.memoria");
+        
+        // Ex.: -Dapi.porta=8000 -Dapi.cors=http://localhost:5173,http://127.0.0.1:5173
+        this.apiPorta = Integer.getInteger("api.porta", 8000);
+        this.apiOrigensCors = List.of(System.getProperty("api.cors",
+            "http://localhost:3000,http://localhost:5173,http://127.0.0.1:5173").split(","));
+        
+        // Ex.: -Dmetricas.intervalo=10 (0 = exporta só ao final)
+        this.metricas = new MetricasPipeline("desafio-2");
+        this.intervaloMetricasSegundos = Integer.getInteger("metricas.intervalo", 0);
+        
+        // Ex.: -Dprogresso.intervalo=5 (0 = sem relatório de progresso)
+        this.progresso = new RelatorioProgresso(Integer.getInteger("progresso.intervalo", 10));
     } // ApplicationConfig
 
+    public String getAnsBaseUrl() {
+        return ansBaseUrl;
+    } // getAnsBaseUrl
+
     public String getOperadorasAtivasUrl() {
-        return OPERADORAS_ATIVAS_URL;
+        return ansBaseUrl + OPERADORAS_ATIVAS_PATH;
     } // getOperadorasAtivasUrl
 
     public Path getDiretorioInput() {
@@ -48,4 +145,89 @@ public class ApplicationConfig {
     public Path getCsvConsolidado() {
         return csvConsolidado;
     } // getCsvConsolidado
+
+    public Path getConsolidadoColunar() {
+        return consolidadoColunar;
+    } // getConsolidadoColunar
+
+    public boolean isEntradaColunar() {
+        return entradaColunar;
+    } // isEntradaColunar
+
+    /**
+     * Arquivo de entrada da validação: colunar se habilitado, senão o CSV
+     */
+    public Path getEntradaConsolidada() {
+        return entradaColunar ? consolidadoColunar : csvConsolidado;
+    } // getEntradaConsolidada
+
+    public int getThreadsProcessamento() {
+        return threadsProcessamento;
+    } // getThreadsProcessamento
+
+    public int getTopKAgregacao() {
+        return topKAgregacao;
+    } // getTopKAgregacao
+
+    public boolean isTopKPorUf() {
+        return topKPorUf;
+    } // isTopKPorUf
+
+    public boolean isExportacaoParquet() {
+        return exportacaoParquet;
+    } // isExportacaoParquet
+
+    public boolean isCargaBanco() {
+        return cargaJdbcUrl != null && !cargaJdbcUrl.isBlank();
+    } // isCargaBanco
+
+    public String getCargaJdbcUrl() {
+        return cargaJdbcUrl;
+    } // getCargaJdbcUrl
+
+    public String getCargaUsuario() {
+        return cargaUsuario;
+    } // getCargaUsuario
+
+    public String getCargaSenha() {
+        return cargaSenha;
+    } // getCargaSenha
+
+    /**
+     * Linhas por lote (e por commit) na carga do banco
+     */
+    public int getCargaTamanhoLote() {
+        return cargaTamanhoLote;
+    } // getCargaTamanhoLote
+
+    /**
+     * Conexões gravando em paralelo por tabela
+     */
+    public int getCargaEscritores() {
+        return cargaEscritores;
+    } // getCargaEscritores
+
+    public boolean isAnaliseEmMemoria() {
+        return analiseEmMemoria;
+    } // isAnaliseEmMemoria
+
+    public int getApiPorta() {
+        return apiPorta;
+    } // getApiPorta
+
+    public List<String> getApiOrigensCors() {
+        return apiOrigensCors;
+    } // getApiOrigensCors
+
+    public MetricasPipeline getMetricas() {
+        return metricas;
+    } // getMetricas
+
+    public int getIntervaloMetricasSegundos() {
+        return intervaloMetricasSegundos;
+    } // getIntervaloMetricasSegundos
+
+    public RelatorioProgresso getProgresso() {
+        return progresso;
+    } // getProgresso
 } // ApplicationConfig
@@ -0,0 +1,151 @@
+package com.intuitivecare.transformacao.model;
+
+import com.intuitivecare.transformacao.util.SketchQuantis;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Acumulador de estatísticas de um grupo de agregação em memória constante
+ *
+ * Mantém quantidade, soma exata (BigDecimal), mínimo e máximo, além de média
+ * e soma dos quadrados dos desvios (M2) atualizadas pelo algoritmo de Welford,
+ * numericamente estável para variância em uma única passada.
+ * 
+ * É serializável e combinável (merge associativo de Chan et al.), permitindo
+ * que workers ou nós distintos agreguem subconjuntos da entrada e combinem
+ * os estados parciais ao final.
+ * 
+ * Percentis: um SketchQuantis (KLL) por grupo estima p50/p90/p99 em memória
+ * limitada; é exato enquanto o grupo tem poucos valores.
+ */
+public class AcumuladorEstatistico implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private long quantidade;
+    private BigDecimal total;
+    private BigDecimal minimo;
+    private BigDecimal maximo;
+
+    // Estado de Welford (em double, como o DescriptiveStatistics)
+    private double media;
+    private double m2;
+
+    // Sketch de quantis (memória limitada)
+    private final SketchQuantis quantis;
+
+    public AcumuladorEstatistico() {
+        this.quantidade = 0;
+        this.total = BigDecimal.ZERO;
+        this.media = 0.0;
+        this.m2 = 0.0;
+        this.quantis = new SketchQuantis();
+    } // AcumuladorEstatistico
+
+    /**
+     * Adiciona um valor ao grupo
+     */
+    public void adicionar(BigDecimal valor) {
+        quantidade++;
+        total = total.add(valor);
+
+        if (minimo == null || valor.compareTo(minimo) < 0) {
+            minimo = valor;
+        } // if
+        if (maximo == null || valor.compareTo(maximo) > 0) {
+            maximo = valor;
+        } // if
+
+        double x = valor.doubleValue();
+        double delta = x - media;
+        media += delta / quantidade;
+        m2 += delta * (x - media);
+
+        quantis.adicionar(x);
+    } // adicionar
+
+    /**
+     * Combina o estado de outro acumulador neste
+     * 
+     * O resultado equivale (a menos de arredondamento em double na média/M2)
+     * a ter adicionado ao mesmo acumulador todos os valores dos dois.
+     */
+    public void combinar(AcumuladorEstatistico outro) {
+        if (outro.quantidade == 0) {
+            return;
+        } // if
+        quantis.combinar(outro.quantis);
+        if (quantidade == 0) {
+            quantidade = outro.quantidade;
+            total = outro.total;
+            minimo = outro.minimo;
+            maximo = outro.maximo;
+            media = outro.media;
+            m2 = outro.m2;
+            return;
+        } // if
+
+        long n = quantidade + outro.quantidade;
+        double delta = outro.media - media;
+        media += delta * outro.quantidade / n;
+        m2 += outro.m2 + delta * delta * ((double) quantidade * outro.quantidade / n);
+        quantidade = n;
+        total = total.add(outro.total);
+
+        if (outro.minimo.compareTo(minimo) < 0) {
+            minimo = outro.minimo;
+        } // if
+        if (outro.maximo.compareTo(maximo) > 0) {
+            maximo = outro.maximo;
+        } // if
+    } // combinar
+
+    public long getQuantidade() {
+        return quantidade;
+    } // getQuantidade
+
+    public BigDecimal getTotal() {
+        return total;
+    } // getTotal
+
+    public BigDecimal getMinimo() {
+        return minimo;
+    } // getMinimo
+
+    public BigDecimal getMaximo() {
+        return maximo;
+    } // getMaximo
+
+    /**
+     * Estimativas dos quantis pedidos (ex.: 0.5, 0.9, 0.99), NaN se vazio
+     */
+    public double[] getQuantis(double... qs) {
+        return quantis.getQuantis(qs);
+    } // getQuantis
+
+    public double getMedia() {
+        return media;
+    } // getMedia
+
+    public double getM2() {
+        return m2;
+    } // getM2
+
+    /**
+     * Variância amostral (divisor n - 1), zero para menos de 2 valores
+     */
+    public double getVariancia() {
+        if (quantidade < 2) {
+            return 0.0;
+        } // if
+        return m2 / (quantidade - 1);
+    } // getVariancia
+
+    /**
+     * Desvio padrão amostral, equivalente a DescriptiveStatistics.getStandardDeviation
+     */
+    public double getDesvioPadrao() {
+        return Math.sqrt(getVariancia());
+    } // getDesvioPadrao
+} // AcumuladorEstatistico
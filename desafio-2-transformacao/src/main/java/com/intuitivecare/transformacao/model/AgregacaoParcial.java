@@ -0,0 +1,148 @@
+package com.intuitivecare.transformacao.model;
+
+import com.intuitivecare.transformacao.util.LongIntHashMap;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado parcial da agregação por RazaoSocial e UF
+ *
+ * Cada worker (ou nó) agrega um subconjunto dos arquivos em uma instância
+ * própria; as instâncias são combinadas com {@link #combinar(AgregacaoParcial)}.
+ * A ordem de primeira ocorrência dos grupos é preservada, de modo que combinar
+ * as parciais na ordem dos arquivos equivale a agregar tudo em uma passada.
+ * Em outra ordem só muda a numeração dos grupos (e o último bit de média/M2
+ * em double); o ranking do AgregacaoService não depende dela.
+ *
+ * Chaves de agrupamento codificadas: a razão social vira um id de dicionário
+ * e a UF o código de {@link UnidadeFederativa} (siglas fora das 27 UFs, como
+ * "N/A", recebem códigos a partir de 27). Os dois ids formam uma única chave
+ * long, indexada em uma tabela hash primitiva, sem concatenar strings por
+ * registro. Os ids são locais à instância; a combinação usa os textos.
+ */
+public class AgregacaoParcial implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private static final UnidadeFederativa[] UFS = UnidadeFederativa.values();
+    private static final int QUANTIDADE_UFS = UFS.length;
+
+    // Dicionário de razões sociais (id -> texto e texto -> id)
+    private final List<String> razoesSociais;
+    private final Map<String, Integer> idsRazaoSocial;
+
+    // Siglas fora das 27 UFs (código = QUANTIDADE_UFS + índice)
+    private final List<String> ufsExtras;
+
+    // Chave codificada -> índice do grupo
+    private final LongIntHashMap indiceGrupos;
+
+    // Grupos na ordem de primeira ocorrência
+    private long[] chavesGrupos;
+    private final List<AcumuladorEstatistico> acumuladores;
+
+    public AgregacaoParcial() {
+        this.razoesSociais = new ArrayList<>();
+        this.idsRazaoSocial = new HashMap<>();
+        this.ufsExtras = new ArrayList<>();
+        this.indiceGrupos = new LongIntHashMap();
+        this.chavesGrupos = new long[64];
+        this.acumuladores = new ArrayList<>();
+    } // AgregacaoParcial
+
+    /**
+     * Adiciona um valor ao grupo (razaoSocial, uf)
+     */
+    public void acumular(String razaoSocial, String uf, BigDecimal valor) {
+        acumulador(razaoSocial, uf).adicionar(valor);
+    } // acumular
+
+    /**
+     * Combina outra agregação parcial nesta
+     */
+    public void combinar(AgregacaoParcial outra) {
+        for (int grupo = 0; grupo < outra.getQuantidadeGrupos(); grupo++) {
+            acumulador(outra.getRazaoSocial(grupo), outra.getUf(grupo))
+                .combinar(outra.getAcumulador(grupo));
+        } // for
+    } // combinar
+
+    public int getQuantidadeGrupos() {
+        return acumuladores.size();
+    } // getQuantidadeGrupos
+
+    /**
+     * Razão social do grupo (índice na ordem de primeira ocorrência)
+     */
+    public String getRazaoSocial(int grupo) {
+        return razoesSociais.get((int) (chavesGrupos[grupo] >>> 32));
+    } // getRazaoSocial
+
+    /**
+     * UF do grupo (índice na ordem de primeira ocorrência)
+     */
+    public String getUf(int grupo) {
+        int codigoUf = (int) chavesGrupos[grupo];
+        if (codigoUf < QUANTIDADE_UFS) {
+            return UFS[codigoUf].name();
+        } // if
+        return ufsExtras.get(codigoUf - QUANTIDADE_UFS);
+    } // getUf
+
+    public AcumuladorEstatistico getAcumulador(int grupo) {
+        return acumuladores.get(grupo);
+    } // getAcumulador
+
+    /**
+     * Localiza (ou cria) o acumulador do grupo pela chave codificada
+     */
+    private AcumuladorEstatistico acumulador(String razaoSocial, String uf) {
+        long chave = ((long) idRazaoSocial(razaoSocial) << 32) | codigoUf(uf);
+
+        int grupo = indiceGrupos.get(chave);
+        if (grupo != LongIntHashMap.AUSENTE) {
+            return acumuladores.get(grupo);
+        } // if
+
+        grupo = acumuladores.size();
+        if (grupo == chavesGrupos.length) {
+            chavesGrupos = Arrays.copyOf(chavesGrupos, grupo * 2);
+        } // if
+        chavesGrupos[grupo] = chave;
+        indiceGrupos.put(chave, grupo);
+
+        AcumuladorEstatistico acumulador = new AcumuladorEstatistico();
+        acumuladores.add(acumulador);
+        return acumulador;
+    } // acumulador
+
+    private int idRazaoSocial(String razaoSocial) {
+        Integer id = idsRazaoSocial.get(razaoSocial);
+        if (id == null) {
+            id = razoesSociais.size();
+            razoesSociais.add(razaoSocial);
+            idsRazaoSocial.put(razaoSocial, id);
+        } // if
+        return id;
+    } // idRazaoSocial
+
+    private int codigoUf(String uf) {
+        int codigo = UnidadeFederativa.codigo(uf);
+        if (codigo >= 0) {
+            return codigo;
+        } // if
+
+        int indice = ufsExtras.indexOf(uf);
+        if (indice < 0) {
+            indice = ufsExtras.size();
+            ufsExtras.add(uf);
+        } // if
+        return QUANTIDADE_UFS + indice;
+    } // codigoUf
+} // AgregacaoParcial
@@ -0,0 +1,66 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Crescimento de despesas de uma operadora entre seu primeiro e último
+ * trimestre com valor positivo (query 1 do Desafio 3)
+ */
+public class CrescimentoOperadora {
+
+    private final String cnpj;
+    private final String razaoSocial;
+    private final BigDecimal valorPrimeiro;
+    private final String periodoInicial;
+    private final BigDecimal valorUltimo;
+    private final String periodoFinal;
+    private final BigDecimal crescimentoPercentual;
+
+    public CrescimentoOperadora(String cnpj, String razaoSocial, BigDecimal valorPrimeiro, String periodoInicial,
+                                BigDecimal valorUltimo, String periodoFinal, BigDecimal crescimentoPercentual) {
+        this.cnpj = cnpj;
+        this.razaoSocial = razaoSocial;
+        this.valorPrimeiro = valorPrimeiro;
+        this.periodoInicial = periodoInicial;
+        this.valorUltimo = valorUltimo;
+        this.periodoFinal = periodoFinal;
+        this.crescimentoPercentual = crescimentoPercentual;
+    } // CrescimentoOperadora
+
+    public String getCnpj() {
+        return cnpj;
+    } // getCnpj
+
+    public String getRazaoSocial() {
+        return razaoSocial;
+    } // getRazaoSocial
+
+    public BigDecimal getValorPrimeiro() {
+        return valorPrimeiro;
+    } // getValorPrimeiro
+
+    /**
+     * Período no formato da query: "Q1/2024"
+     */
+    public String getPeriodoInicial() {
+        return periodoInicial;
+    } // getPeriodoInicial
+
+    public BigDecimal getValorUltimo() {
+        return valorUltimo;
+    } // getValorUltimo
+
+    public String getPeriodoFinal() {
+        return periodoFinal;
+    } // getPeriodoFinal
+
+    public BigDecimal getCrescimentoPercentual() {
+        return crescimentoPercentual;
+    } // getCrescimentoPercentual
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %s (%s) -> %s (%s) = %s%%", cnpj, razaoSocial, valorPrimeiro.toPlainString(),
+            periodoInicial, valorUltimo.toPlainString(), periodoFinal, crescimentoPercentual.toPlainString());
+    } // toString
+} // CrescimentoOperadora
@@ -0,0 +1,285 @@
+package com.intuitivecare.transformacao.model;
+
+import com.intuitivecare.transformacao.util.LongIntHashMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cubo de despesas por UF x Modalidade x Ano x Trimestre
+ *
+ * Duas fases:
+ * - Montagem: adicionar() acumula quantidade e soma (centavos) por célula
+ *   base (os quatro valores preenchidos); cubos parciais de lotes
+ *   diferentes são somados com combinar()
+ * - Consolidação: consolidar() materializa, em arrays densos, todas as
+ *   combinações com qualquer dimensão em "todos" (rollup). A partir daí
+ *   qualquer fatia do dashboard (ex.: SP em 2024, todas as modalidades e
+ *   trimestres) é uma leitura de célula, sem varrer os registros
+ *
+ * Dimensões codificadas por dicionário (ids locais à instância); a posição
+ * 0 de cada dimensão consolidada é "todos". UF e modalidade vazias (despesa
+ * sem match no cadastro) são valores como os demais.
+ *
+ * Trade-off: CUBO DENSO
+ * - Tamanho = (UFs+1) x (modalidades+1) x (anos+1) x 5 células, poucos
+ *   milhares para os dados da ANS; cada consulta é O(1)
+ * - Dimensões de alta cardinalidade (ex.: operadora) fariam o cubo denso
+ *   explodir; essas ficam na agregação por grupo (AgregacaoParcial)
+ *
+ * Não é thread-safe na montagem; depois de consolidado, as leituras podem
+ * ser concorrentes desde que não haja novas adições.
+ */
+public class CuboDespesas {
+
+    /**
+     * Valor de dimensão que representa "todos" nas consultas e no CSV
+     */
+    public static final String TODOS = "*";
+
+    private static final int TRIMESTRES = 4;
+
+    // Dicionários das dimensões
+    private final List<String> ufs = new ArrayList<>();
+    private final Map<String, Integer> idsUf = new HashMap<>();
+    private final List<String> modalidades = new ArrayList<>();
+    private final Map<String, Integer> idsModalidade = new HashMap<>();
+    private final List<Integer> anos = new ArrayList<>();
+    private final Map<Integer, Integer> idsAno = new HashMap<>();
+
+    // Células base: chave codificada -> índice
+    private final LongIntHashMap indiceCelulas = new LongIntHashMap();
+    private long[] chavesCelulas = new long[64];
+    private long[] quantidadesCelulas = new long[64];
+    private long[] somasCelulas = new long[64];
+    private int quantidadeCelulas;
+
+    // Rollup denso (null até consolidar)
+    private long[] quantidades;
+    private long[] somas;
+
+    /**
+     * Acumula uma despesa na célula base
+     *
+     * @param trimestre 1 a 4
+     * @param centavos Valor em centavos
+     */
+    public void adicionar(String uf, String modalidade, int ano, int trimestre, long centavos) {
+        acumular(uf, modalidade, ano, trimestre, 1, centavos);
+    } // adicionar
+
+    /**
+     * Acumula quantidade e soma já agregadas na célula base
+     */
+    public void acumular(String uf, String modalidade, int ano, int trimestre, long quantidade, long centavos) {
+        if (trimestre < 1 || trimestre > TRIMESTRES) {
+            throw new IllegalArgumentException("Trimestre inválido: " + trimestre);
+        } // if
+
+        long chave = ((long) id(uf, ufs, idsUf) << 48)
+            | ((long) id(modalidade, modalidades, idsModalidade) << 32)
+            | ((long) id(ano, anos, idsAno) << 8)
+            | trimestre;
+
+        int celula = indiceCelulas.get(chave);
+        if (celula == LongIntHashMap.AUSENTE) {
+            celula = quantidadeCelulas++;
+            if (celula == chavesCelulas.length) {
+                chavesCelulas = Arrays.copyOf(chavesCelulas, celula * 2);
+                quantidadesCelulas = Arrays.copyOf(quantidadesCelulas, celula * 2);
+                somasCelulas = Arrays.copyOf(somasCelulas, celula * 2);
+            } // if
+            chavesCelulas[celula] = chave;
+            quantidadesCelulas[celula] = 0;
+            somasCelulas[celula] = 0;
+            indiceCelulas.put(chave, celula);
+        } // if
+
+        quantidadesCelulas[celula] += quantidade;
+        somasCelulas[celula] += centavos;
+        quantidades = null;
+        somas = null;
+    } // acumular
+
+    /**
+     * Soma as células base de outro cubo neste
+     */
+    public void combinar(CuboDespesas outro) {
+        for (int celula = 0; celula < outro.quantidadeCelulas; celula++) {
+            long chave = outro.chavesCelulas[celula];
+            acumular(
+                outro.ufs.get((int) (chave >>> 48)),
+                outro.modalidades.get((int) (chave >>> 32) & 0xFFFF),
+                outro.anos.get((int) (chave >>> 8) & 0xFFFFFF),
+                (int) (chave & 0xFF),
+                outro.quantidadesCelulas[celula],
+                outro.somasCelulas[celula]
+            );
+        } // for
+    } // combinar
+
+    /**
+     * Esvazia o cubo para reutilização (mantém a capacidade)
+     */
+    public void limpar() {
+        ufs.clear();
+        idsUf.clear();
+        modalidades.clear();
+        idsModalidade.clear();
+        anos.clear();
+        idsAno.clear();
+        indiceCelulas.clear();
+        quantidadeCelulas = 0;
+        quantidades = null;
+        somas = null;
+    } // limpar
+
+    /**
+     * Materializa o rollup: cada célula base contribui para as 16
+     * combinações de suas dimensões com "todos"
+     */
+    public void consolidar() {
+        int tamanhoUf = ufs.size() + 1;
+        int tamanhoModalidade = modalidades.size() + 1;
+        int tamanhoAno = anos.size() + 1;
+        long[] novasQuantidades = new long[tamanhoUf * tamanhoModalidade * tamanhoAno * (TRIMESTRES + 1)];
+        long[] novasSomas = new long[novasQuantidades.length];
+
+        for (int celula = 0; celula < quantidadeCelulas; celula++) {
+            long chave = chavesCelulas[celula];
+            int uf = (int) (chave >>> 48) + 1;
+            int modalidade = ((int) (chave >>> 32) & 0xFFFF) + 1;
+            int ano = ((int) (chave >>> 8) & 0xFFFFFF) + 1;
+            int trimestre = (int) (chave & 0xFF);
+
+            for (int mascara = 0; mascara < 16; mascara++) {
+                int indice = indice(
+                    (mascara & 1) != 0 ? 0 : uf,
+                    (mascara & 2) != 0 ? 0 : modalidade,
+                    (mascara & 4) != 0 ? 0 : ano,
+                    (mascara & 8) != 0 ? 0 : trimestre,
+                    tamanhoModalidade, tamanhoAno);
+                novasQuantidades[indice] += quantidadesCelulas[celula];
+                novasSomas[indice] += somasCelulas[celula];
+            } // for
+        } // for
+
+        this.quantidades = novasQuantidades;
+        this.somas = novasSomas;
+    } // consolidar
+
+    /**
+     * Quantidade de despesas na fatia (null ou TODOS = todos os valores)
+     */
+    public long getQuantidade(String uf, String modalidade, Integer ano, Integer trimestre) {
+        int indice = indiceConsulta(uf, modalidade, ano, trimestre);
+        return indice >= 0 ? quantidades[indice] : 0;
+    } // getQuantidade
+
+    /**
+     * Soma das despesas da fatia, em centavos (null ou TODOS = todos os valores)
+     */
+    public long getTotalCentavos(String uf, String modalidade, Integer ano, Integer trimestre) {
+        int indice = indiceConsulta(uf, modalidade, ano, trimestre);
+        return indice >= 0 ? somas[indice] : 0;
+    } // getTotalCentavos
+
+    public BigDecimal getTotalDespesas(String uf, String modalidade, Integer ano, Integer trimestre) {
+        return BigDecimal.valueOf(getTotalCentavos(uf, modalidade, ano, trimestre), 2);
+    } // getTotalDespesas
+
+    public List<String> getUfs() {
+        return List.copyOf(ufs);
+    } // getUfs
+
+    public List<String> getModalidades() {
+        return List.copyOf(modalidades);
+    } // getModalidades
+
+    public List<Integer> getAnos() {
+        return List.copyOf(anos);
+    } // getAnos
+
+    public int getQuantidadeCelulasBase() {
+        return quantidadeCelulas;
+    } // getQuantidadeCelulasBase
+
+    /**
+     * Percorre todas as células consolidadas com quantidade > 0 (dimensões
+     * em "todos" chegam como null)
+     */
+    public void paraCadaCelula(VisitanteCelula visitante) {
+        exigirConsolidado();
+        int tamanhoModalidade = modalidades.size() + 1;
+        int tamanhoAno = anos.size() + 1;
+        for (int u = 0; u <= ufs.size(); u++) {
+            for (int m = 0; m < tamanhoModalidade; m++) {
+                for (int a = 0; a < tamanhoAno; a++) {
+                    for (int t = 0; t <= TRIMESTRES; t++) {
+                        int indice = indice(u, m, a, t, tamanhoModalidade, tamanhoAno);
+                        if (quantidades[indice] > 0) {
+                            visitante.visitar(
+                                u == 0 ? null : ufs.get(u - 1),
+                                m == 0 ? null : modalidades.get(m - 1),
+                                a == 0 ? null : anos.get(a - 1),
+                                t == 0 ? null : t,
+                                quantidades[indice], somas[indice]);
+                        } // if
+                    } // for
+                } // for
+            } // for
+        } // for
+    } // paraCadaCelula
+
+    /**
+     * Recebe uma célula do cubo consolidado
+     */
+    @FunctionalInterface
+    public interface VisitanteCelula {
+        void visitar(String uf, String modalidade, Integer ano, Integer trimestre, long quantidade, long centavos);
+    } // VisitanteCelula
+
+    private int indiceConsulta(String uf, String modalidade, Integer ano, Integer trimestre) {
+        exigirConsolidado();
+        int u = posicao(uf, idsUf);
+        int m = posicao(modalidade, idsModalidade);
+        int a = ano == null ? 0 : posicao(idsAno.get(ano));
+        int t = trimestre == null ? 0 : (trimestre >= 1 && trimestre <= TRIMESTRES ? trimestre : -1);
+        if (u < 0 || m < 0 || a < 0 || t < 0) {
+            return -1;
+        } // if
+        return indice(u, m, a, t, modalidades.size() + 1, anos.size() + 1);
+    } // indiceConsulta
+
+    private static int posicao(String valor, Map<String, Integer> ids) {
+        return valor == null || TODOS.equals(valor) ? 0 : posicao(ids.get(valor));
+    } // posicao
+
+    private static int posicao(Integer id) {
+        return id == null ? -1 : id + 1;
+    } // posicao
+
+    private static int indice(int uf, int modalidade, int ano, int trimestre, int tamanhoModalidade, int tamanhoAno) {
+        return ((uf * tamanhoModalidade + modalidade) * tamanhoAno + ano) * (TRIMESTRES + 1) + trimestre;
+    } // indice
+
+    private void exigirConsolidado() {
+        if (quantidades == null) {
+            throw new IllegalStateException("Cubo não consolidado: chame consolidar() após as adições");
+        } // if
+    } // exigirConsolidado
+
+    private static <T> int id(T valor, List<T> valores, Map<T, Integer> ids) {
+        Integer id = ids.get(valor);
+        if (id == null) {
+            id = valores.size();
+            valores.add(valor);
+            ids.put(valor, id);
+        } // if
+        return id;
+    } // id
+} // CuboDespesas
@@ -13,6 +13,9 @@ public class DespesaAgregada {
     private BigDecimal mediaPorTrimestre;
     private BigDecimal desvioPadrao;
     private int quantidadeTrimestres;
+    private BigDecimal percentil50;
+    private BigDecimal percentil90;
+    private BigDecimal percentil99;
 
     // Getters e Setters
     public String getRazaoSocial() {
@@ -62,4 +65,28 @@ public class DespesaAgregada {
     public void setQuantidadeTrimestres(int quantidadeTrimestres) {
         this.quantidadeTrimestres = quantidadeTrimestres;
     } // setQuantidadeTrimestres
+
+    public BigDecimal getPercentil50() {
+        return percentil50;
+    } // getPercentil50
+
+    public void setPercentil50(BigDecimal percentil50) {
+        this.percentil50 = percentil50;
+    } // setPercentil50
+
+    public BigDecimal getPercentil90() {
+        return percentil90;
+    } // getPercentil90
+
+    public void setPercentil90(BigDecimal percentil90) {
+        this.percentil90 = percentil90;
+    } // setPercentil90
+
+    public BigDecimal getPercentil99() {
+        return percentil99;
+    } // getPercentil99
+
+    public void setPercentil99(BigDecimal percentil99) {
+        this.percentil99 = percentil99;
+    } // setPercentil99
 } // DespesaAgregada
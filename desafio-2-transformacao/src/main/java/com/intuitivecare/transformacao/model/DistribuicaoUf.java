@@ -0,0 +1,64 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Distribuição de despesas em uma UF (query 2 do Desafio 3)
+ */
+public class DistribuicaoUf {
+
+    private final String uf;
+    private final int quantidadeOperadoras;
+    private final BigDecimal totalDespesas;
+    private final BigDecimal mediaPorRegistro;
+    private final BigDecimal mediaPorOperadora;
+    private final BigDecimal menorDespesa;
+    private final BigDecimal maiorDespesa;
+
+    public DistribuicaoUf(String uf, int quantidadeOperadoras, BigDecimal totalDespesas,
+                          BigDecimal mediaPorRegistro, BigDecimal mediaPorOperadora,
+                          BigDecimal menorDespesa, BigDecimal maiorDespesa) {
+        this.uf = uf;
+        this.quantidadeOperadoras = quantidadeOperadoras;
+        this.totalDespesas = totalDespesas;
+        this.mediaPorRegistro = mediaPorRegistro;
+        this.mediaPorOperadora = mediaPorOperadora;
+        this.menorDespesa = menorDespesa;
+        this.maiorDespesa = maiorDespesa;
+    } // DistribuicaoUf
+
+    public String getUf() {
+        return uf;
+    } // getUf
+
+    public int getQuantidadeOperadoras() {
+        return quantidadeOperadoras;
+    } // getQuantidadeOperadoras
+
+    public BigDecimal getTotalDespesas() {
+        return totalDespesas;
+    } // getTotalDespesas
+
+    public BigDecimal getMediaPorRegistro() {
+        return mediaPorRegistro;
+    } // getMediaPorRegistro
+
+    public BigDecimal getMediaPorOperadora() {
+        return mediaPorOperadora;
+    } // getMediaPorOperadora
+
+    public BigDecimal getMenorDespesa() {
+        return menorDespesa;
+    } // getMenorDespesa
+
+    public BigDecimal getMaiorDespesa() {
+        return maiorDespesa;
+    } // getMaiorDespesa
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d operadoras, total %s, média/registro %s, média/operadora %s, min %s, max %s",
+            uf, quantidadeOperadoras, totalDespesas.toPlainString(), mediaPorRegistro.toPlainString(),
+            mediaPorOperadora.toPlainString(), menorDespesa.toPlainString(), maiorDespesa.toPlainString());
+    } // toString
+} // DistribuicaoUf
@@ -0,0 +1,54 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Estatísticas gerais das despesas (endpoint /api/estatisticas)
+ */
+public class EstatisticasGerais {
+
+    private final BigDecimal totalDespesas;
+    private final BigDecimal mediaDespesas;
+    private final int totalOperadoras;
+    private final List<OperadoraResumo> topOperadoras;
+    private final List<ParticipacaoUf> distribuicaoPorUf;
+
+    public EstatisticasGerais(BigDecimal totalDespesas, BigDecimal mediaDespesas, int totalOperadoras,
+                              List<OperadoraResumo> topOperadoras, List<ParticipacaoUf> distribuicaoPorUf) {
+        this.totalDespesas = totalDespesas;
+        this.mediaDespesas = mediaDespesas;
+        this.totalOperadoras = totalOperadoras;
+        this.topOperadoras = topOperadoras;
+        this.distribuicaoPorUf = distribuicaoPorUf;
+    } // EstatisticasGerais
+
+    public BigDecimal getTotalDespesas() {
+        return totalDespesas;
+    } // getTotalDespesas
+
+    /**
+     * Média por registro de despesa, 2 casas
+     */
+    public BigDecimal getMediaDespesas() {
+        return mediaDespesas;
+    } // getMediaDespesas
+
+    public int getTotalOperadoras() {
+        return totalOperadoras;
+    } // getTotalOperadoras
+
+    /**
+     * Totais por (CNPJ, razão social, UF), em ordem decrescente
+     */
+    public List<OperadoraResumo> getTopOperadoras() {
+        return topOperadoras;
+    } // getTopOperadoras
+
+    /**
+     * Todas as UFs, por total decrescente
+     */
+    public List<ParticipacaoUf> getDistribuicaoPorUf() {
+        return distribuicaoPorUf;
+    } // getDistribuicaoPorUf
+} // EstatisticasGerais
@@ -0,0 +1,50 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de despesas de um trimestre (query de evolução do Desafio 3)
+ */
+public class EvolucaoTrimestral {
+
+    private final int ano;
+    private final String trimestre;
+    private final int operadoras;
+    private final BigDecimal totalDespesas;
+    private final BigDecimal mediaDespesas;
+
+    public EvolucaoTrimestral(int ano, String trimestre, int operadoras,
+                              BigDecimal totalDespesas, BigDecimal mediaDespesas) {
+        this.ano = ano;
+        this.trimestre = trimestre;
+        this.operadoras = operadoras;
+        this.totalDespesas = totalDespesas;
+        this.mediaDespesas = mediaDespesas;
+    } // EvolucaoTrimestral
+
+    public int getAno() {
+        return ano;
+    } // getAno
+
+    public String getTrimestre() {
+        return trimestre;
+    } // getTrimestre
+
+    public int getOperadoras() {
+        return operadoras;
+    } // getOperadoras
+
+    public BigDecimal getTotalDespesas() {
+        return totalDespesas;
+    } // getTotalDespesas
+
+    public BigDecimal getMediaDespesas() {
+        return mediaDespesas;
+    } // getMediaDespesas
+
+    @Override
+    public String toString() {
+        return String.format("%s/%d: %d operadoras, total %s, média %s",
+            trimestre, ano, operadoras, totalDespesas.toPlainString(), mediaDespesas.toPlainString());
+    } // toString
+} // EvolucaoTrimestral
@@ -0,0 +1,61 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Operadora com despesas acima da média geral em vários trimestres
+ * (query 3 do Desafio 3)
+ */
+public class OperadoraAcimaMedia {
+
+    private final String cnpj;
+    private final String razaoSocial;
+    private final int totalTrimestres;
+    private final int trimestresAcimaMedia;
+    private final BigDecimal mediaDespesasOperadora;
+    private final BigDecimal mediaGeral;
+
+    public OperadoraAcimaMedia(String cnpj, String razaoSocial, int totalTrimestres, int trimestresAcimaMedia,
+                               BigDecimal mediaDespesasOperadora, BigDecimal mediaGeral) {
+        this.cnpj = cnpj;
+        this.razaoSocial = razaoSocial;
+        this.totalTrimestres = totalTrimestres;
+        this.trimestresAcimaMedia = trimestresAcimaMedia;
+        this.mediaDespesasOperadora = mediaDespesasOperadora;
+        this.mediaGeral = mediaGeral;
+    } // OperadoraAcimaMedia
+
+    public String getCnpj() {
+        return cnpj;
+    } // getCnpj
+
+    public String getRazaoSocial() {
+        return razaoSocial;
+    } // getRazaoSocial
+
+    public int getTotalTrimestres() {
+        return totalTrimestres;
+    } // getTotalTrimestres
+
+    public int getTrimestresAcimaMedia() {
+        return trimestresAcimaMedia;
+    } // getTrimestresAcimaMedia
+
+    public BigDecimal getMediaDespesasOperadora() {
+        return mediaDespesasOperadora;
+    } // getMediaDespesasOperadora
+
+    /**
+     * Média geral de referência (registros com valor positivo), 2 casas
+     */
+    public BigDecimal getMediaGeral() {
+        return mediaGeral;
+    } // getMediaGeral
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %d de %d trimestres acima da média %s (média da operadora %s)",
+            cnpj, razaoSocial, trimestresAcimaMedia, totalTrimestres,
+            mediaGeral.toPlainString(), mediaDespesasOperadora.toPlainString());
+    } // toString
+} // OperadoraAcimaMedia
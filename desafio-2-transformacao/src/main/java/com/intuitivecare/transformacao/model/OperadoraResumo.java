@@ -0,0 +1,87 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Operadora com o total e o histórico de despesas (respostas da API)
+ *
+ * O histórico fica em arrays paralelos em ordem cronológica; os valores
+ * são mantidos em centavos.
+ */
+public class OperadoraResumo {
+
+    private final String cnpj;
+    private final String razaoSocial;
+    private final String registroAns;
+    private final String modalidade;
+    private final String uf;
+    private final long totalCentavos;
+
+    // Histórico de despesas (ano, trimestre 1 a 4, valor em centavos)
+    private final int[] anos;
+    private final byte[] trimestres;
+    private final long[] valoresCentavos;
+
+    public OperadoraResumo(String cnpj, String razaoSocial, String registroAns, String modalidade, String uf,
+                           long totalCentavos, int[] anos, byte[] trimestres, long[] valoresCentavos) {
+        this.cnpj = cnpj;
+        this.razaoSocial = razaoSocial;
+        this.registroAns = registroAns;
+        this.modalidade = modalidade;
+        this.uf = uf;
+        this.totalCentavos = totalCentavos;
+        this.anos = anos;
+        this.trimestres = trimestres;
+        this.valoresCentavos = valoresCentavos;
+    } // OperadoraResumo
+
+    public String getCnpj() {
+        return cnpj;
+    } // getCnpj
+
+    public String getRazaoSocial() {
+        return razaoSocial;
+    } // getRazaoSocial
+
+    public String getRegistroAns() {
+        return registroAns;
+    } // getRegistroAns
+
+    public String getModalidade() {
+        return modalidade;
+    } // getModalidade
+
+    public String getUf() {
+        return uf;
+    } // getUf
+
+    public long getTotalCentavos() {
+        return totalCentavos;
+    } // getTotalCentavos
+
+    public BigDecimal getTotalDespesas() {
+        return BigDecimal.valueOf(totalCentavos, 2);
+    } // getTotalDespesas
+
+    /**
+     * Quantidade de registros de despesa (trimestres) da operadora
+     */
+    public int getQuantidadeTrimestres() {
+        return valoresCentavos.length;
+    } // getQuantidadeTrimestres
+
+    public int getAno(int indice) {
+        return anos[indice];
+    } // getAno
+
+    /**
+     * Trimestre no formato "Q1".."Q4"
+     */
+    public String getTrimestre(int indice) {
+        return "Q" + trimestres[indice];
+    } // getTrimestre
+
+    public BigDecimal getValorDespesas(int indice) {
+        return BigDecimal.valueOf(valoresCentavos[indice], 2);
+    } // getValorDespesas
+} // OperadoraResumo
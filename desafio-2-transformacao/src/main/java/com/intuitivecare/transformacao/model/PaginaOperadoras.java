@@ -0,0 +1,51 @@
+package com.intuitivecare.transformacao.model;
+
+import java.util.List;
+
+/**
+ * Página de operadoras de uma listagem filtrada (paginação por offset)
+ */
+public class PaginaOperadoras {
+
+    private final List<OperadoraResumo> operadoras;
+    private final int total;
+    private final int pagina;
+    private final int limite;
+
+    public PaginaOperadoras(List<OperadoraResumo> operadoras, int total, int pagina, int limite) {
+        this.operadoras = operadoras;
+        this.total = total;
+        this.pagina = pagina;
+        this.limite = limite;
+    } // PaginaOperadoras
+
+    public List<OperadoraResumo> getOperadoras() {
+        return operadoras;
+    } // getOperadoras
+
+    /**
+     * Total de operadoras que atendem aos filtros (todas as páginas)
+     */
+    public int getTotal() {
+        return total;
+    } // getTotal
+
+    public int getPagina() {
+        return pagina;
+    } // getPagina
+
+    public int getLimite() {
+        return limite;
+    } // getLimite
+
+    public int getPaginas() {
+        return total > 0 ? (total + limite - 1) / limite : 1;
+    } // getPaginas
+
+    /**
+     * Posição (1-based) do primeiro item da página na listagem completa
+     */
+    public int getPrimeiraPosicao() {
+        return (pagina - 1) * limite + 1;
+    } // getPrimeiraPosicao
+} // PaginaOperadoras
@@ -0,0 +1,40 @@
+package com.intuitivecare.transformacao.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Participação de uma UF no total de despesas (estatísticas da API)
+ */
+public class ParticipacaoUf {
+
+    private final String uf;
+    private final BigDecimal total;
+    private final int quantidadeOperadoras;
+    private final double percentual;
+
+    public ParticipacaoUf(String uf, BigDecimal total, int quantidadeOperadoras, double percentual) {
+        this.uf = uf;
+        this.total = total;
+        this.quantidadeOperadoras = quantidadeOperadoras;
+        this.percentual = percentual;
+    } // ParticipacaoUf
+
+    public String getUf() {
+        return uf;
+    } // getUf
+
+    public BigDecimal getTotal() {
+        return total;
+    } // getTotal
+
+    public int getQuantidadeOperadoras() {
+        return quantidadeOperadoras;
+    } // getQuantidadeOperadoras
+
+    /**
+     * Percentual do total geral, 2 casas
+     */
+    public double getPercentual() {
+        return percentual;
+    } // getPercentual
+} // ParticipacaoUf
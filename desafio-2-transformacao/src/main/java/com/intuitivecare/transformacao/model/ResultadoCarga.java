@@ -0,0 +1,62 @@
+package com.intuitivecare.transformacao.model;
+
+/**
+ * Resultado da carga de um arquivo em uma tabela do banco (Desafio 3)
+ */
+public class ResultadoCarga {
+
+    private final String tabela;
+    private final String arquivoOrigem;
+    private final long registrosProcessados;
+    private final long registrosImportados;
+    private final long registrosRejeitados;
+    private final long duracaoMs;
+
+    public ResultadoCarga(String tabela, String arquivoOrigem, long registrosProcessados,
+                          long registrosImportados, long registrosRejeitados, long duracaoMs) {
+        this.tabela = tabela;
+        this.arquivoOrigem = arquivoOrigem;
+        this.registrosProcessados = registrosProcessados;
+        this.registrosImportados = registrosImportados;
+        this.registrosRejeitados = registrosRejeitados;
+        this.duracaoMs = duracaoMs;
+    } // ResultadoCarga
+
+    public String getTabela() {
+        return tabela;
+    } // getTabela
+
+    public String getArquivoOrigem() {
+        return arquivoOrigem;
+    } // getArquivoOrigem
+
+    public long getRegistrosProcessados() {
+        return registrosProcessados;
+    } // getRegistrosProcessados
+
+    public long getRegistrosImportados() {
+        return registrosImportados;
+    } // getRegistrosImportados
+
+    public long getRegistrosRejeitados() {
+        return registrosRejeitados;
+    } // getRegistrosRejeitados
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    } // getDuracaoMs
+
+    /**
+     * Vazão da carga em linhas importadas por segundo
+     */
+    public long getLinhasPorSegundo() {
+        return registrosImportados * 1000 / Math.max(duracaoMs, 1);
+    } // getLinhasPorSegundo
+
+    @Override
+    public String toString() {
+        return String.format("%s <- %s: %d processados, %d importados, %d rejeitados em %d ms (%d linhas/s)",
+            tabela, arquivoOrigem, registrosProcessados, registrosImportados,
+            registrosRejeitados, duracaoMs, getLinhasPorSegundo());
+    } // toString
+} // ResultadoCarga
@@ -0,0 +1,51 @@
+package com.intuitivecare.transformacao.model;
+
+/**
+ * As 27 unidades federativas brasileiras
+ *
+ * O ordinal é usado como código compacto da UF em chaves de agregação.
+ */
+public enum UnidadeFederativa {
+    AC, AL, AP, AM, BA, CE, DF, ES, GO, MA, MT, MS, MG, PA,
+    PB, PR, PE, PI, RJ, RN, RS, RO, RR, SC, SP, SE, TO;
+
+    /**
+     * Código da UF (ordinal) a partir da sigla, ou -1 se não for uma UF válida
+     */
+    public static int codigo(String sigla) {
+        if (sigla == null || sigla.length() != 2) {
+            return -1;
+        } // if
+
+        return switch (sigla) {
+            case "AC" -> 0;
+            case "AL" -> 1;
+            case "AP" -> 2;
+            case "AM" -> 3;
+            case "BA" -> 4;
+            case "CE" -> 5;
+            case "DF" -> 6;
+            case "ES" -> 7;
+            case "GO" -> 8;
+            case "MA" -> 9;
+            case "MT" -> 10;
+            case "MS" -> 11;
+            case "MG" -> 12;
+            case "PA" -> 13;
+            case "PB" -> 14;
+            case "PR" -> 15;
+            case "PE" -> 16;
+            case "PI" -> 17;
+            case "RJ" -> 18;
+            case "RN" -> 19;
+            case "RS" -> 20;
+            case "RO" -> 21;
+            case "RR" -> 22;
+            case "SC" -> 23;
+            case "SP" -> 24;
+            case "SE" -> 25;
+            case "TO" -> 26;
+            default -> -1;
+        };
+    } // codigo
+} // UnidadeFederativa
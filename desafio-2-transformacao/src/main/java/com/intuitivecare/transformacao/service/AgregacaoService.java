@@ -1,12 +1,16 @@
 package com.intuitivecare.transformacao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
 import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.AcumuladorEstatistico;
+import com.intuitivecare.transformacao.model.AgregacaoParcial;
 import com.intuitivecare.transformacao.model.DespesaAgregada;
+import com.intuitivecare.transformacao.util.EventosJfr;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +21,10 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -43,6 +51,22 @@ import java.util.zip.ZipOutputStream;
  *   * External Merge Sort: Overkill para este volume
  *   * Banco de dados com ORDER BY: Overhead de infraestrutura
  *   * Parallel Sort: Possível melhoria para datasets maiores
+ * 
+ * Estatísticas por grupo: calculadas em uma única passada com um
+ * AcumuladorEstatistico (Welford), sem guardar os valores individuais.
+ * 
+ * Agregação distribuída: o estado por grupo é uma AgregacaoParcial
+ * serializável e combinável. Arquivos distintos podem ser agregados em
+ * paralelo (ou em nós distintos, trocando parciais via salvarParcial /
+ * carregarParcial) e combinados antes de gerar o CSV final.
+ * 
+ * Ranking Top-K: quando configurado (agregacao.topK > 0), em vez de ordenar
+ * todos os grupos, um min-heap limitado a K elementos seleciona os K maiores
+ * totais em O(n log K), globalmente ou por UF (agregacao.topKPorUf). Apenas
+ * os grupos selecionados têm as estatísticas finais calculadas.
+ * 
+ * Percentis p50/p90/p99 por grupo vêm do sketch de quantis do acumulador
+ * (critério nearest rank; exatos para grupos pequenos).
  */
 public class AgregacaoService {
 
@@ -63,8 +87,52 @@ public class AgregacaoService {
     public Path agregarDados(Path csvEnriquecido) throws IOException {
         logger.info("Iniciando agregação de dados");
         
-        // Mapa para agregação: chave = "RazaoSocial|UF"
-        Map<String, List<BigDecimal>> agregacoes = new LinkedHashMap<>();
+        try (MetricasPipeline.Cronometro cronometro = etapaMetricas().iniciar()) {
+            AgregacaoParcial agregacao = agregarParcial(csvEnriquecido);
+            return gerarResultado(agregacao);
+        } // try
+    } // agregarDados
+
+    /**
+     * Agrega múltiplos CSVs enriquecidos em paralelo (um arquivo por tarefa)
+     * 
+     * As parciais são combinadas na ordem dos arquivos, produzindo o mesmo
+     * resultado que a agregação sequencial dos arquivos concatenados.
+     * 
+     * @param arquivos CSVs enriquecidos (mesmo layout)
+     * @return Caminho do CSV agregado
+     */
+    public Path agregarDados(List<Path> arquivos) throws IOException {
+        logger.info("Iniciando agregação paralela de {} arquivos", arquivos.size());
+        
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreadsProcessamento());
+        List<AgregacaoParcial> parciais = new ArrayList<>();
+        MetricasPipeline.Cronometro cronometro = etapaMetricas().iniciar();
+        
+        try (cronometro) {
+            List<Future<AgregacaoParcial>> futuros = new ArrayList<>();
+            for (Path arquivo : arquivos) {
+                futuros.add(executor.submit(() -> agregarParcial(arquivo)));
+            } // for
+            
+            for (Future<AgregacaoParcial> futuro : futuros) {
+                parciais.add(aguardarParcial(futuro));
+            } // for
+            
+            return gerarResultado(combinarParciais(parciais));
+        } finally {
+            executor.shutdownNow();
+        } // try-finally
+    } // agregarDados
+
+    /**
+     * Agrega um CSV enriquecido em um estado parcial, sem gerar saída
+     */
+    public AgregacaoParcial agregarParcial(Path csvEnriquecido) throws IOException {
+        AgregacaoParcial agregacao = new AgregacaoParcial();
+        long linhas = 0;
+        EventosJfr.Agregacao evento = new EventosJfr.Agregacao();
+        evento.begin();
         
         CSVFormat format = CSVFormat.DEFAULT.builder()
             .setDelimiter(';')
@@ -74,7 +142,9 @@ public class AgregacaoService {
             .setTrim(true)
             .build();
         
-        try (Reader reader = Files.newBufferedReader(csvEnriquecido, StandardCharsets.UTF_8);
+        try (RelatorioProgresso.Progresso progresso = config.getProgresso()
+                 .iniciar("agregacao", csvEnriquecido.getFileName().toString(), Files.size(csvEnriquecido));
+             Reader reader = progresso.abrirLeitor(csvEnriquecido);
              CSVParser parser = new CSVParser(reader, format)) {
             
             for (CSVRecord record : parser) {
@@ -87,8 +157,6 @@ public class AgregacaoService {
                     uf = "N/A";
                 } // if
                 
-                String chave = razaoSocial + "|" + uf;
-                
                 BigDecimal valor;
                 try {
                     valor = new BigDecimal(valorStr);
@@ -96,89 +164,279 @@ public class AgregacaoService {
                     valor = BigDecimal.ZERO;
                 } // try-catch
                 
-                agregacoes.computeIfAbsent(chave, k -> new ArrayList<>()).add(valor);
+                agregacao.acumular(razaoSocial, uf, valor);
+                linhas++;
+                progresso.avancarLinha();
             } // for
         } // try
         
-        // Calcular estatísticas para cada grupo
-        List<DespesaAgregada> resultados = calcularEstatisticas(agregacoes);
+        // Valor inválido conta como zero (não rejeita a linha)
+        etapaMetricas().registrarLinhas(linhas, 0, 0);
+        etapaMetricas().registrarBytes(Files.size(csvEnriquecido), 0);
         
-        // Ordenar por valor total (maior para menor)
-        resultados.sort((a, b) -> b.getTotalDespesas().compareTo(a.getTotalDespesas()));
+        if (evento.shouldCommit()) {
+            evento.arquivo = csvEnriquecido.getFileName().toString();
+            evento.bytes = Files.size(csvEnriquecido);
+            evento.linhas = linhas;
+            evento.grupos = agregacao.getQuantidadeGrupos();
+            evento.commit();
+        } // if
+        logger.debug("Agregação parcial de {}: {} grupos", csvEnriquecido, agregacao.getQuantidadeGrupos());
+        return agregacao;
+    } // agregarParcial
+
+    /**
+     * Combina agregações parciais, na ordem recebida
+     */
+    public AgregacaoParcial combinarParciais(List<AgregacaoParcial> parciais) {
+        AgregacaoParcial combinada = new AgregacaoParcial();
+        for (AgregacaoParcial parcial : parciais) {
+            combinada.combinar(parcial);
+        } // for
+        return combinada;
+    } // combinarParciais
+
+    /**
+     * Calcula as estatísticas finais e escreve o CSV agregado
+     * 
+     * @param agregacao Agregação completa (ou combinação de parciais)
+     * @return Caminho do CSV agregado
+     */
+    public Path gerarResultado(AgregacaoParcial agregacao) throws IOException {
+        EventosJfr.AgregacaoResultado evento = new EventosJfr.AgregacaoResultado();
+        evento.begin();
+        int topK = config.getTopKAgregacao();
+        List<DespesaAgregada> resultados;
+        
+        if (topK <= 0) {
+            // Estatísticas de todos os grupos, na ordem do ranking
+            resultados = calcularEstatisticas(agregacao);
+        } else if (config.isTopKPorUf()) {
+            resultados = selecionarTopKPorUf(agregacao, topK);
+        } else {
+            resultados = selecionarTopK(agregacao, topK);
+        } // if-else
         
         // Salvar resultado
+        Files.createDirectories(config.getDiretorioOutput());
         Path csvOutput = config.getDiretorioOutput().resolve("despesas_agregadas.csv");
         escreverCsvAgregado(resultados, csvOutput);
+        etapaMetricas().registrarLinhas(0, resultados.size(), 0);
+        etapaMetricas().registrarBytes(0, Files.size(csvOutput));
+        
+        if (evento.shouldCommit()) {
+            evento.grupos = agregacao.getQuantidadeGrupos();
+            evento.linhas = resultados.size();
+            evento.bytes = Files.size(csvOutput);
+            evento.commit();
+        } // if
         
         logger.info("Agregação concluída: {} grupos", resultados.size());
         return csvOutput;
-    } // agregarDados
+    } // gerarResultado
+
+    /**
+     * Salva uma agregação parcial para ser combinada em outro processo/nó
+     */
+    public void salvarParcial(AgregacaoParcial agregacao, Path arquivo) throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(arquivo)))) {
+            oos.writeObject(agregacao);
+        } // try
+        
+        logger.info("Agregação parcial salva: {} ({} grupos)", arquivo, agregacao.getQuantidadeGrupos());
+    } // salvarParcial
+
+    /**
+     * Carrega uma agregação parcial salva por salvarParcial
+     */
+    public AgregacaoParcial carregarParcial(Path arquivo) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            return (AgregacaoParcial) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Agregação parcial inválida: " + arquivo, e);
+        } // try-catch
+    } // carregarParcial
+
+    private AgregacaoParcial aguardarParcial(Future<AgregacaoParcial> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Agregação interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException ioException) {
+                throw ioException;
+            } // if
+            throw new IOException("Erro na agregação parcial: " + causa.getMessage(), causa);
+        } // try-catch
+    } // aguardarParcial
+
+    /**
+     * Seleciona os K grupos de maior total, em ordem decrescente
+     * 
+     * Empates seguem a mesma ordem da listagem completa (ver ordemRanking).
+     */
+    public List<DespesaAgregada> selecionarTopK(AgregacaoParcial agregacao, int k) {
+        Comparator<Integer> ordem = ordemRanking(agregacao);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(capacidadeHeap(agregacao, k), ordem.reversed());
+        
+        for (int grupo = 0; grupo < agregacao.getQuantidadeGrupos(); grupo++) {
+            ofertar(heap, grupo, k);
+        } // for
+        
+        return extrairRanking(agregacao, heap, ordem);
+    } // selecionarTopK
 
     /**
-     * Calcula estatísticas para cada grupo de agregação
+     * Seleciona os K grupos de maior total de cada UF
+     * 
+     * O resultado é ordenado por UF e, dentro de cada UF, por total decrescente.
      */
-    private List<DespesaAgregada> calcularEstatisticas(Map<String, List<BigDecimal>> agregacoes) {
+    public List<DespesaAgregada> selecionarTopKPorUf(AgregacaoParcial agregacao, int k) {
+        Comparator<Integer> ordem = ordemRanking(agregacao);
+        Map<String, PriorityQueue<Integer>> heapsPorUf = new TreeMap<>();
+        int capacidade = capacidadeHeap(agregacao, k);
+        
+        for (int grupo = 0; grupo < agregacao.getQuantidadeGrupos(); grupo++) {
+            PriorityQueue<Integer> heap = heapsPorUf.computeIfAbsent(
+                agregacao.getUf(grupo), uf -> new PriorityQueue<>(capacidade, ordem.reversed()));
+            ofertar(heap, grupo, k);
+        } // for
+        
         List<DespesaAgregada> resultados = new ArrayList<>();
+        for (PriorityQueue<Integer> heap : heapsPorUf.values()) {
+            resultados.addAll(extrairRanking(agregacao, heap, ordem));
+        } // for
+        return resultados;
+    } // selecionarTopKPorUf
+
+    /**
+     * Ordem do ranking: maior total primeiro; empate por razão social e UF
+     *
+     * O desempate não usa a ordem de primeira ocorrência dos grupos, que muda
+     * conforme a entrada é dividida entre parciais e a ordem em que elas são
+     * combinadas: assim o CSV agregado é o mesmo em qualquer divisão.
+     */
+    private Comparator<Integer> ordemRanking(AgregacaoParcial agregacao) {
+        return (a, b) -> {
+            int cmp = agregacao.getAcumulador(b).getTotal().compareTo(agregacao.getAcumulador(a).getTotal());
+            if (cmp == 0) {
+                cmp = agregacao.getRazaoSocial(a).compareTo(agregacao.getRazaoSocial(b));
+            } // if
+            return cmp != 0 ? cmp : agregacao.getUf(a).compareTo(agregacao.getUf(b));
+        };
+    } // ordemRanking
+
+    /**
+     * Capacidade inicial do heap: K + 1, limitada ao número de grupos (um K
+     * enorme não aloca nada além do necessário nem estoura o int)
+     */
+    private static int capacidadeHeap(AgregacaoParcial agregacao, int k) {
+        return Math.min(k, agregacao.getQuantidadeGrupos()) + 1;
+    } // capacidadeHeap
+
+    /**
+     * Insere o grupo no min-heap, descartando o pior quando passar de K
+     */
+    private void ofertar(PriorityQueue<Integer> heap, int grupo, int k) {
+        heap.offer(grupo);
+        if (heap.size() > k) {
+            heap.poll();
+        } // if
+    } // ofertar
+
+    private List<DespesaAgregada> extrairRanking(AgregacaoParcial agregacao, PriorityQueue<Integer> heap,
+                                                 Comparator<Integer> ordem) {
+        List<Integer> grupos = new ArrayList<>(heap);
+        grupos.sort(ordem);
         
-        for (Map.Entry<String, List<BigDecimal>> entry : agregacoes.entrySet()) {
-            String[] partes = entry.getKey().split("\\|");
-            String razaoSocial = partes[0];
-            String uf = partes.length > 1 ? partes[1] : "N/A";
-            
-            List<BigDecimal> valores = entry.getValue();
-            
-            DespesaAgregada agregada = new DespesaAgregada();
-            agregada.setRazaoSocial(razaoSocial);
-            agregada.setUf(uf);
-            agregada.setQuantidadeTrimestres(valores.size());
-            
-            // Calcular total
-            BigDecimal total = valores.stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            agregada.setTotalDespesas(total);
-            
-            // Calcular média
-            BigDecimal media = total.divide(
-                BigDecimal.valueOf(valores.size()), 
-                2, 
-                RoundingMode.HALF_UP
-            );
-            agregada.setMediaPorTrimestre(media);
-            
-            // Calcular desvio padrão usando Apache Commons Math
-            BigDecimal desvioPadrao = calcularDesvioPadrao(valores);
-            agregada.setDesvioPadrao(desvioPadrao);
-            
-            resultados.add(agregada);
+        List<DespesaAgregada> resultados = new ArrayList<>(grupos.size());
+        for (int grupo : grupos) {
+            resultados.add(criarDespesaAgregada(agregacao, grupo));
+        } // for
+        return resultados;
+    } // extrairRanking
+
+    /**
+     * Calcula estatísticas para cada grupo de agregação, na ordem do ranking
+     */
+    private List<DespesaAgregada> calcularEstatisticas(AgregacaoParcial agregacao) {
+        List<Integer> grupos = new ArrayList<>(agregacao.getQuantidadeGrupos());
+        for (int grupo = 0; grupo < agregacao.getQuantidadeGrupos(); grupo++) {
+            grupos.add(grupo);
+        } // for
+        grupos.sort(ordemRanking(agregacao));
+        
+        List<DespesaAgregada> resultados = new ArrayList<>(grupos.size());
+        for (int grupo : grupos) {
+            resultados.add(criarDespesaAgregada(agregacao, grupo));
         } // for
         
         return resultados;
     } // calcularEstatisticas
 
+    /**
+     * Calcula as estatísticas finais de um grupo
+     */
+    private DespesaAgregada criarDespesaAgregada(AgregacaoParcial agregacao, int grupo) {
+        AcumuladorEstatistico acumulador = agregacao.getAcumulador(grupo);
+        
+        DespesaAgregada agregada = new DespesaAgregada();
+        agregada.setRazaoSocial(agregacao.getRazaoSocial(grupo));
+        agregada.setUf(agregacao.getUf(grupo));
+        agregada.setQuantidadeTrimestres((int) acumulador.getQuantidade());
+        
+        // Total exato (BigDecimal)
+        BigDecimal total = acumulador.getTotal();
+        agregada.setTotalDespesas(total);
+        
+        // Calcular média
+        BigDecimal media = total.divide(
+            BigDecimal.valueOf(acumulador.getQuantidade()), 
+            2, 
+            RoundingMode.HALF_UP
+        );
+        agregada.setMediaPorTrimestre(media);
+        
+        // Desvio padrão amostral (Welford)
+        BigDecimal desvioPadrao = calcularDesvioPadrao(acumulador);
+        agregada.setDesvioPadrao(desvioPadrao);
+        
+        // Percentis estimados pelo sketch de quantis
+        double[] percentis = acumulador.getQuantis(0.50, 0.90, 0.99);
+        agregada.setPercentil50(paraValorMonetario(percentis[0]));
+        agregada.setPercentil90(paraValorMonetario(percentis[1]));
+        agregada.setPercentil99(paraValorMonetario(percentis[2]));
+        
+        return agregada;
+    } // criarDespesaAgregada
+
     /**
      * Calcula desvio padrão dos valores
      */
-    private BigDecimal calcularDesvioPadrao(List<BigDecimal> valores) {
-        if (valores.size() < 2) {
+    private BigDecimal calcularDesvioPadrao(AcumuladorEstatistico acumulador) {
+        if (acumulador.getQuantidade() < 2) {
             return BigDecimal.ZERO;
         } // if
         
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-        for (BigDecimal valor : valores) {
-            stats.addValue(valor.doubleValue());
-        } // for
-        
-        double dp = stats.getStandardDeviation();
+        double dp = acumulador.getDesvioPadrao();
         return BigDecimal.valueOf(dp).setScale(2, RoundingMode.HALF_UP);
     } // calcularDesvioPadrao
 
+    private BigDecimal paraValorMonetario(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    } // paraValorMonetario
+
     /**
      * Escreve o CSV agregado
      */
     private void escreverCsvAgregado(List<DespesaAgregada> agregados, Path arquivo) throws IOException {
         CSVFormat format = CSVFormat.DEFAULT.builder()
             .setHeader("RazaoSocial", "UF", "TotalDespesas", "MediaPorTrimestre", 
-                       "DesvioPadrao", "QuantidadeTrimestres")
+                       "DesvioPadrao", "QuantidadeTrimestres", "P50", "P90", "P99")
             .setDelimiter(';')
             .build();
         
@@ -192,7 +450,10 @@ public class AgregacaoService {
                     a.getTotalDespesas().toPlainString(),
                     a.getMediaPorTrimestre().toPlainString(),
                     a.getDesvioPadrao().toPlainString(),
-                    a.getQuantidadeTrimestres()
+                    a.getQuantidadeTrimestres(),
+                    a.getPercentil50().toPlainString(),
+                    a.getPercentil90().toPlainString(),
+                    a.getPercentil99().toPlainString()
                 );
             } // for
         } // try
@@ -205,29 +466,40 @@ public class AgregacaoService {
      */
     public Path compactarResultado(Path csvAgregado) throws IOException {
         Path zipFile = config.getDiretorioOutput().resolve("Teste_Candidato.zip");
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("compactacao");
+        long bytesLidos = 0;
         
-        try (FileOutputStream fos = new FileOutputStream(zipFile.toFile());
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar();
+             FileOutputStream fos = new FileOutputStream(zipFile.toFile());
              ZipOutputStream zos = new ZipOutputStream(fos)) {
             
             // Adicionar CSV agregado
             adicionarAoZip(zos, csvAgregado, "despesas_agregadas.csv");
+            bytesLidos += Files.size(csvAgregado);
             
             // Adicionar outros arquivos relevantes se existirem
             Path csvEnriquecido = config.getDiretorioOutput().resolve("consolidado_enriquecido.csv");
             if (Files.exists(csvEnriquecido)) {
                 adicionarAoZip(zos, csvEnriquecido, "consolidado_enriquecido.csv");
+                bytesLidos += Files.size(csvEnriquecido);
             } // if
             
             Path csvValidado = config.getDiretorioOutput().resolve("consolidado_validado.csv");
             if (Files.exists(csvValidado)) {
                 adicionarAoZip(zos, csvValidado, "consolidado_validado.csv");
+                bytesLidos += Files.size(csvValidado);
             } // if
         } // try
+        etapa.registrarBytes(bytesLidos, Files.size(zipFile));
         
         logger.info("ZIP gerado: {}", zipFile);
         return zipFile;
     } // compactarResultado
 
+    private MetricasPipeline.Etapa etapaMetricas() {
+        return config.getMetricas().etapa("agregacao");
+    } // etapaMetricas
+
     private void adicionarAoZip(ZipOutputStream zos, Path arquivo, String nomeNoZip) throws IOException {
         ZipEntry zipEntry = new ZipEntry(nomeNoZip);
         zos.putNextEntry(zipEntry);
@@ -0,0 +1,444 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.CrescimentoOperadora;
+import com.intuitivecare.transformacao.model.DistribuicaoUf;
+import com.intuitivecare.transformacao.model.EvolucaoTrimestral;
+import com.intuitivecare.transformacao.model.OperadoraAcimaMedia;
+import com.intuitivecare.transformacao.util.CnpjValidator;
+import com.intuitivecare.transformacao.util.DespesasColunares;
+import com.intuitivecare.transformacao.util.LongIntHashMap;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.intuitivecare.transformacao.service.CargaBancoService.ANO_MAXIMO;
+import static com.intuitivecare.transformacao.service.CargaBancoService.ANO_MINIMO;
+
+/**
+ * Serviço de Análise em Memória (queries do 03_queries_analiticas.sql)
+ *
+ * Responde às análises do Desafio 3 sem banco de dados: top 5 crescimento,
+ * distribuição por UF, operadoras acima da média em 2 ou mais trimestres e
+ * evolução trimestral. O CSV enriquecido é carregado uma vez em colunas
+ * primitivas (DespesasColunares) com as mesmas regras da carga em
+ * despesas_consolidadas (CargaBancoService): CNPJ obrigatório, chave
+ * (cnpj, trimestre, ano) única, UF com 2 letras ou NULL. As respostas
+ * equivalem às queries sobre a tabela carregada.
+ *
+ * Trade-off: LAÇOS SOBRE ARRAYS EM VEZ DE SQL
+ * - Cada consulta é uma passada sobre os arrays com acumuladores indexados
+ *   por grupo, UF ou período; sem joins, hash por linha nem boxing
+ * - Valores em centavos (long): somas exatas; médias e percentuais são
+ *   arredondados como o ROUND(..., 2) das queries (HALF_UP)
+ * - Como (cnpj, período) é único, contar linhas de um grupo equivale ao
+ *   COUNT(DISTINCT) de trimestres/CNPJs das queries
+ * - Desvantagem: a tabela inteira fica em memória (19 bytes por linha)
+ */
+public class AnaliseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnaliseService.class);
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+    private static final int ESCALA = 2;
+
+    private final ApplicationConfig config;
+    private DespesasColunares despesas;
+
+    public AnaliseService(ApplicationConfig config) {
+        this.config = config;
+    } // AnaliseService
+
+    /**
+     * Carrega o CSV enriquecido em colunas, substituindo dados anteriores
+     *
+     * @return Quantidade de linhas carregadas
+     */
+    public int carregar(Path csvEnriquecido) throws IOException {
+        DespesasColunares colunas = new DespesasColunares(1 << 16);
+        LongIntHashMap chaves = new LongIntHashMap();
+        long descartadas = 0;
+
+        try (Reader reader = Files.newBufferedReader(csvEnriquecido, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, CargaBancoService.formatoLeitura())) {
+
+            for (CSVRecord record : parser) {
+                long cnpj = CnpjValidator.toLong(record.get("CNPJ"));
+                int trimestre = CargaBancoService.numeroTrimestre(record.get("Trimestre"));
+                Integer ano = CargaBancoService.inteiroOuNulo(record.get("Ano"));
+                BigDecimal valor = CargaBancoService.decimalOuNulo(record.get("ValorDespesas"));
+
+                if (cnpj == CnpjValidator.CNPJ_INVALIDO || trimestre == 0
+                        || ano == null || ano < ANO_MINIMO || ano > ANO_MAXIMO || valor == null) {
+                    descartadas++;
+                    continue;
+                } // if
+
+                long chave = CargaBancoService.chaveDespesa(cnpj, ano, trimestre);
+                if (chaves.get(chave) != LongIntHashMap.AUSENTE) {
+                    descartadas++;
+                    continue;
+                } // if
+                chaves.put(chave, 0);
+
+                String razaoSocial = record.get("RazaoSocial");
+                colunas.adicionar(
+                    cnpj,
+                    razaoSocial.isBlank() ? CargaBancoService.RAZAO_NAO_INFORMADA : razaoSocial,
+                    ano,
+                    trimestre,
+                    valor.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                    CargaBancoService.ufOuNula(record.get("UF")));
+            } // for
+        } // try
+
+        this.despesas = colunas;
+        logger.info("Análise: {} despesas carregadas em colunas ({} operadoras, {} descartadas)",
+            colunas.getQuantidade(), colunas.getQuantidadeGrupos(), descartadas);
+        return colunas.getQuantidade();
+    } // carregar
+
+    /**
+     * Carrega o CSV enriquecido do output e registra as quatro análises no log
+     */
+    public void executarAnalises() throws IOException {
+        carregar(config.getDiretorioOutput().resolve("consolidado_enriquecido.csv"));
+
+        long inicio = System.nanoTime();
+        List<CrescimentoOperadora> crescimento = topCrescimento(5);
+        long fimCrescimento = System.nanoTime();
+        List<DistribuicaoUf> distribuicao = distribuicaoPorUf(5);
+        long fimDistribuicao = System.nanoTime();
+        int acimaMedia = contarAcimaDaMedia(2);
+        long fimAcimaMedia = System.nanoTime();
+        List<EvolucaoTrimestral> evolucao = evolucaoTrimestral();
+        long fimEvolucao = System.nanoTime();
+
+        logger.info("Top 5 crescimento ({} µs):", (fimCrescimento - inicio) / 1000);
+        crescimento.forEach(c -> logger.info("  {}", c));
+        logger.info("Top 5 UFs por despesas ({} µs):", (fimDistribuicao - fimCrescimento) / 1000);
+        distribuicao.forEach(d -> logger.info("  {}", d));
+        logger.info("Operadoras acima da média em >= 2 trimestres: {} ({} µs)",
+            acimaMedia, (fimAcimaMedia - fimDistribuicao) / 1000);
+        logger.info("Evolução trimestral ({} µs):", (fimEvolucao - fimAcimaMedia) / 1000);
+        evolucao.forEach(e -> logger.info("  {}", e));
+    } // executarAnalises
+
+    /**
+     * Query 1: operadoras com maior crescimento percentual entre o primeiro e
+     * o último trimestre com valor positivo (mínimo de 2 trimestres)
+     */
+    public List<CrescimentoOperadora> topCrescimento(int limite) {
+        DespesasColunares d = exigirCarregado();
+        int n = d.getQuantidade();
+        int quantidadeGrupos = d.getQuantidadeGrupos();
+        int[] grupos = d.getGrupos();
+        short[] periodos = d.getPeriodos();
+        long[] centavos = d.getCentavos();
+
+        int[] contagem = new int[quantidadeGrupos];
+        int[] primeiro = new int[quantidadeGrupos];
+        int[] ultimo = new int[quantidadeGrupos];
+        long[] valorPrimeiro = new long[quantidadeGrupos];
+        long[] valorUltimo = new long[quantidadeGrupos];
+        Arrays.fill(primeiro, Integer.MAX_VALUE);
+        Arrays.fill(ultimo, -1);
+
+        for (int i = 0; i < n; i++) {
+            long valor = centavos[i];
+            if (valor <= 0) {
+                continue;
+            } // if
+            int grupo = grupos[i];
+            int periodo = periodos[i];
+            contagem[grupo]++;
+            if (periodo < primeiro[grupo]) {
+                primeiro[grupo] = periodo;
+                valorPrimeiro[grupo] = valor;
+            } // if
+            if (periodo > ultimo[grupo]) {
+                ultimo[grupo] = periodo;
+                valorUltimo[grupo] = valor;
+            } // if
+        } // for
+
+        Ranking ranking = new Ranking(limite);
+        for (int grupo = 0; grupo < quantidadeGrupos; grupo++) {
+            if (contagem[grupo] >= 2 && valorUltimo[grupo] > valorPrimeiro[grupo]) {
+                ranking.oferecer(grupo, (double) (valorUltimo[grupo] - valorPrimeiro[grupo]) / valorPrimeiro[grupo]);
+            } // if
+        } // for
+
+        List<CrescimentoOperadora> resultado = new ArrayList<>(ranking.tamanho);
+        for (int i = 0; i < ranking.tamanho; i++) {
+            int grupo = ranking.ids[i];
+            long inicial = valorPrimeiro[grupo];
+            long fim = valorUltimo[grupo];
+            BigDecimal percentual = BigDecimal.valueOf(fim - inicial).multiply(CEM)
+                .divide(BigDecimal.valueOf(inicial), ESCALA, RoundingMode.HALF_UP);
+            resultado.add(new CrescimentoOperadora(
+                d.getCnpjGrupo(grupo), d.getRazaoSocialGrupo(grupo),
+                BigDecimal.valueOf(inicial, ESCALA), formatarPeriodo(primeiro[grupo]),
+                BigDecimal.valueOf(fim, ESCALA), formatarPeriodo(ultimo[grupo]),
+                percentual));
+        } // for
+        return resultado;
+    } // topCrescimento
+
+    /**
+     * Query 2: UFs com maior total de despesas, com médias por registro e por operadora
+     */
+    public List<DistribuicaoUf> distribuicaoPorUf(int limite) {
+        DespesasColunares d = exigirCarregado();
+        int n = d.getQuantidade();
+        int quantidadeUfs = d.getQuantidadeUfs();
+        int quantidadeCnpjs = d.getQuantidadeCnpjs();
+        byte[] ufs = d.getUfs();
+        int[] cnpjs = d.getCnpjs();
+        long[] centavos = d.getCentavos();
+
+        long[] soma = new long[quantidadeUfs];
+        int[] contagem = new int[quantidadeUfs];
+        long[] menor = new long[quantidadeUfs];
+        long[] maior = new long[quantidadeUfs];
+        int[] operadoras = new int[quantidadeUfs];
+        Arrays.fill(menor, Long.MAX_VALUE);
+        Arrays.fill(maior, Long.MIN_VALUE);
+
+        // Bitmap (UF x CNPJ) para o COUNT(DISTINCT cnpj) por UF
+        long[] vistos = new long[(int) (((long) quantidadeUfs * quantidadeCnpjs + 63) >>> 6)];
+
+        for (int i = 0; i < n; i++) {
+            int uf = ufs[i];
+            if (uf == DespesasColunares.UF_NULA) {
+                continue;
+            } // if
+            long valor = centavos[i];
+            soma[uf] += valor;
+            contagem[uf]++;
+            menor[uf] = Math.min(menor[uf], valor);
+            maior[uf] = Math.max(maior[uf], valor);
+
+            long bit = (long) uf * quantidadeCnpjs + cnpjs[i];
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            if ((vistos[palavra] & mascara) == 0) {
+                vistos[palavra] |= mascara;
+                operadoras[uf]++;
+            } // if
+        } // for
+
+        Ranking ranking = new Ranking(limite);
+        for (int uf = 0; uf < quantidadeUfs; uf++) {
+            if (contagem[uf] > 0) {
+                ranking.oferecer(uf, soma[uf]);
+            } // if
+        } // for
+
+        List<DistribuicaoUf> resultado = new ArrayList<>(ranking.tamanho);
+        for (int i = 0; i < ranking.tamanho; i++) {
+            int uf = ranking.ids[i];
+            resultado.add(new DistribuicaoUf(
+                d.getSiglaUf(uf),
+                operadoras[uf],
+                BigDecimal.valueOf(soma[uf], ESCALA),
+                media(soma[uf], contagem[uf]),
+                media(soma[uf], operadoras[uf]),
+                BigDecimal.valueOf(menor[uf], ESCALA),
+                BigDecimal.valueOf(maior[uf], ESCALA)));
+        } // for
+        return resultado;
+    } // distribuicaoPorUf
+
+    /**
+     * Query 3: quantidade de operadoras com despesa acima da média geral
+     * (registros com valor positivo) em pelo menos minimoTrimestres trimestres
+     */
+    public int contarAcimaDaMedia(int minimoTrimestres) {
+        ContagemAcimaMedia contagem = contarTrimestresAcimaDaMedia();
+        int quantidade = 0;
+        for (int acima : contagem.acima) {
+            if (acima >= minimoTrimestres) {
+                quantidade++;
+            } // if
+        } // for
+        return quantidade;
+    } // contarAcimaDaMedia
+
+    /**
+     * Query 3 detalhada: operadoras acima da média em pelo menos
+     * minimoTrimestres trimestres, por média de despesas decrescente
+     */
+    public List<OperadoraAcimaMedia> operadorasAcimaDaMedia(int minimoTrimestres, int limite) {
+        DespesasColunares d = exigirCarregado();
+        ContagemAcimaMedia contagem = contarTrimestresAcimaDaMedia();
+
+        Ranking ranking = new Ranking(limite);
+        for (int grupo = 0; grupo < contagem.acima.length; grupo++) {
+            if (contagem.acima[grupo] >= minimoTrimestres) {
+                ranking.oferecer(grupo, (double) contagem.soma[grupo] / contagem.total[grupo]);
+            } // if
+        } // for
+
+        BigDecimal mediaGeral = media(contagem.somaGeral, contagem.quantidadeGeral);
+        List<OperadoraAcimaMedia> resultado = new ArrayList<>(ranking.tamanho);
+        for (int i = 0; i < ranking.tamanho; i++) {
+            int grupo = ranking.ids[i];
+            resultado.add(new OperadoraAcimaMedia(
+                d.getCnpjGrupo(grupo), d.getRazaoSocialGrupo(grupo),
+                contagem.total[grupo], contagem.acima[grupo],
+                media(contagem.soma[grupo], contagem.total[grupo]),
+                mediaGeral));
+        } // for
+        return resultado;
+    } // operadorasAcimaDaMedia
+
+    /**
+     * Evolução trimestral: operadoras, total e média por trimestre, em ordem cronológica
+     */
+    public List<EvolucaoTrimestral> evolucaoTrimestral() {
+        DespesasColunares d = exigirCarregado();
+        int n = d.getQuantidade();
+        short[] periodos = d.getPeriodos();
+        long[] centavos = d.getCentavos();
+
+        long[] soma = new long[DespesasColunares.QUANTIDADE_PERIODOS];
+        int[] contagem = new int[DespesasColunares.QUANTIDADE_PERIODOS];
+        for (int i = 0; i < n; i++) {
+            int periodo = periodos[i];
+            soma[periodo] += centavos[i];
+            contagem[periodo]++;
+        } // for
+
+        List<EvolucaoTrimestral> resultado = new ArrayList<>();
+        for (int periodo = 0; periodo < contagem.length; periodo++) {
+            if (contagem[periodo] > 0) {
+                resultado.add(new EvolucaoTrimestral(
+                    DespesasColunares.anoDoPeriodo(periodo),
+                    "Q" + DespesasColunares.trimestreDoPeriodo(periodo),
+                    contagem[periodo],
+                    BigDecimal.valueOf(soma[periodo], ESCALA),
+                    media(soma[periodo], contagem[periodo])));
+            } // if
+        } // for
+        return resultado;
+    } // evolucaoTrimestral
+
+    /**
+     * Uma passada para a média geral e outra para contar, por grupo, os
+     * trimestres com valor acima dela
+     *
+     * Com valores inteiros (centavos), v > soma / n equivale a
+     * v > floor(soma / n): a comparação é exata e sem divisão por linha.
+     */
+    private ContagemAcimaMedia contarTrimestresAcimaDaMedia() {
+        DespesasColunares d = exigirCarregado();
+        int n = d.getQuantidade();
+        int[] grupos = d.getGrupos();
+        long[] centavos = d.getCentavos();
+        ContagemAcimaMedia contagem = new ContagemAcimaMedia(d.getQuantidadeGrupos());
+
+        for (int i = 0; i < n; i++) {
+            long valor = centavos[i];
+            if (valor > 0) {
+                contagem.somaGeral += valor;
+                contagem.quantidadeGeral++;
+            } // if
+        } // for
+        if (contagem.quantidadeGeral == 0) {
+            return contagem;
+        } // if
+
+        // Sem desvios: o resultado de valor > limiar é imprevisível linha a
+        // linha, e (limiar - valor) >>> 63 vale 1 exatamente quando é verdadeiro
+        long limiar = Math.floorDiv(contagem.somaGeral, contagem.quantidadeGeral);
+        int[] total = contagem.total;
+        int[] acima = contagem.acima;
+        long[] soma = contagem.soma;
+        for (int i = 0; i < n; i++) {
+            long valor = centavos[i];
+            int positivo = (int) (-valor >>> 63);
+            int grupo = grupos[i];
+            total[grupo] += positivo;
+            soma[grupo] += valor & -positivo;
+            acima[grupo] += (int) ((limiar - valor) >>> 63) & positivo;
+        } // for
+        return contagem;
+    } // contarTrimestresAcimaDaMedia
+
+    private DespesasColunares exigirCarregado() {
+        if (despesas == null) {
+            throw new IllegalStateException("Dados não carregados: chame carregar() antes das análises");
+        } // if
+        return despesas;
+    } // exigirCarregado
+
+    /**
+     * Média de centavos em reais, 2 casas (HALF_UP, como ROUND do SQL)
+     */
+    private static BigDecimal media(long somaCentavos, long quantidade) {
+        return BigDecimal.valueOf(somaCentavos, ESCALA)
+            .divide(BigDecimal.valueOf(quantidade), ESCALA, RoundingMode.HALF_UP);
+    } // media
+
+    private static String formatarPeriodo(int periodo) {
+        return "Q" + DespesasColunares.trimestreDoPeriodo(periodo) + "/" + DespesasColunares.anoDoPeriodo(periodo);
+    } // formatarPeriodo
+
+    /**
+     * Os K maiores ids por chave, em ordem decrescente (inserção em array
+     * ordenado: K é pequeno e a maioria dos candidatos é descartada na
+     * primeira comparação)
+     */
+    private static final class Ranking {
+        final int[] ids;
+        final double[] chaves;
+        int tamanho;
+
+        Ranking(int limite) {
+            this.ids = new int[Math.max(limite, 0)];
+            this.chaves = new double[ids.length];
+        } // Ranking
+
+        void oferecer(int id, double chave) {
+            int limite = ids.length;
+            if (limite == 0 || (tamanho == limite && chave <= chaves[limite - 1])) {
+                return;
+            } // if
+            int posicao = tamanho < limite ? tamanho++ : limite - 1;
+            while (posicao > 0 && chaves[posicao - 1] < chave) {
+                ids[posicao] = ids[posicao - 1];
+                chaves[posicao] = chaves[posicao - 1];
+                posicao--;
+            } // while
+            ids[posicao] = id;
+            chaves[posicao] = chave;
+        } // oferecer
+    } // Ranking
+
+    private static final class ContagemAcimaMedia {
+        final int[] total;
+        final int[] acima;
+        final long[] soma;
+        long somaGeral;
+        long quantidadeGeral;
+
+        ContagemAcimaMedia(int grupos) {
+            this.total = new int[grupos];
+            this.acima = new int[grupos];
+            this.soma = new long[grupos];
+        } // ContagemAcimaMedia
+    } // ContagemAcimaMedia
+} // AnaliseService
@@ -0,0 +1,355 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.ResultadoCarga;
+import com.intuitivecare.transformacao.util.CarregadorJdbc;
+import com.intuitivecare.transformacao.util.CnpjValidator;
+import com.intuitivecare.transformacao.util.LongIntHashMap;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serviço de Carga no Banco de Dados (tabelas do Desafio 3)
+ *
+ * Substitui o script 02_importacao_dados.sql: em vez de importar os CSVs
+ * para tabelas de staging e normalizá-los com INSERT ... SELECT, as saídas
+ * do desafio são lidas em streaming e gravadas direto nas tabelas finais
+ * (criadas pelo 01_ddl_criar_tabelas.sql), com as mesmas regras:
+ * - CNPJ normalizado para 14 dígitos; despesas sem CNPJ são rejeitadas
+ * - UF com 2 letras, senão NULL (inclui "N/A" da agregação)
+ * - Flags SIM/NAO convertidas para BOOLEAN
+ *
+ * consolidado_enriquecido.csv alimenta despesas_consolidadas e, com a
+ * primeira ocorrência de cada operadora, operadoras_cadastro; as duas
+ * tabelas são gravadas ao mesmo tempo. despesas_agregadas.csv alimenta
+ * despesas_agregadas. Cada carga é registrada em log_importacao.
+ *
+ * Trade-off: INSERÇÃO SIMPLES EM VEZ DE UPSERT
+ * - COPY e INSERT em lote não têm ON CONFLICT portável; chaves repetidas
+ *   no arquivo (cnpj, trimestre, ano) são descartadas antes do envio e
+ *   contadas como rejeitadas (a primeira ocorrência prevalece)
+ * - As tabelas devem estar vazias para as chaves carregadas: recargas
+ *   exigem TRUNCATE prévio, como em uma carga inicial
+ *
+ * Vazão: lotes de carga.tamanhoLote linhas, carga.escritores conexões por
+ * tabela; em PostgreSQL via COPY FROM STDIN. Para INSERT em lote no
+ * PostgreSQL (sem COPY), reWriteBatchedInserts=true na URL ajuda.
+ */
+public class CargaBancoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaBancoService.class);
+
+    private static final String TABELA_OPERADORAS = "operadoras_cadastro";
+    private static final String TABELA_DESPESAS = "despesas_consolidadas";
+    private static final String TABELA_AGREGADAS = "despesas_agregadas";
+
+    private static final String[] COLUNAS_OPERADORAS = {
+        "registro_ans", "cnpj", "razao_social", "modalidade", "uf"
+    };
+    private static final int[] TIPOS_OPERADORAS = {
+        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.CHAR
+    };
+
+    private static final String[] COLUNAS_DESPESAS = {
+        "cnpj", "razao_social", "trimestre", "ano", "valor_despesas", "cnpj_valido",
+        "valor_valido", "match_cadastro", "registro_ans", "modalidade", "uf"
+    };
+    private static final int[] TIPOS_DESPESAS = {
+        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.DECIMAL, Types.BOOLEAN,
+        Types.BOOLEAN, Types.BOOLEAN, Types.VARCHAR, Types.VARCHAR, Types.CHAR
+    };
+
+    private static final String[] COLUNAS_AGREGADAS = {
+        "razao_social", "uf", "total_despesas", "media_por_trimestre", "desvio_padrao", "quantidade_trimestres"
+    };
+    private static final int[] TIPOS_AGREGADAS = {
+        Types.VARCHAR, Types.CHAR, Types.DECIMAL, Types.DECIMAL, Types.DECIMAL, Types.INTEGER
+    };
+
+    private static final String SQL_LOG = "INSERT INTO log_importacao (tabela_destino, arquivo_origem, "
+        + "registros_processados, registros_importados, registros_rejeitados, observacoes) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SIM = "SIM";
+
+    // Mesmo padrão do COALESCE do script de importação
+    static final String RAZAO_NAO_INFORMADA = "NAO INFORMADA";
+
+    // Limites do CHECK de despesas_consolidadas (ck_despesa_ano)
+    static final int ANO_MINIMO = 2000;
+    static final int ANO_MAXIMO = 2100;
+
+    private final ApplicationConfig config;
+    private final CarregadorJdbc.FonteConexao fonte;
+
+    public CargaBancoService(ApplicationConfig config) {
+        this(config, () -> DriverManager.getConnection(
+            config.getCargaJdbcUrl(), config.getCargaUsuario(), config.getCargaSenha()));
+    } // CargaBancoService
+
+    /**
+     * @param fonte Origem das conexões (ex.: banco embarcado ou DataSource)
+     */
+    public CargaBancoService(ApplicationConfig config, CarregadorJdbc.FonteConexao fonte) {
+        this.config = config;
+        this.fonte = fonte;
+    } // CargaBancoService
+
+    /**
+     * Carrega as saídas existentes no diretório de output
+     *
+     * @return Resultado de cada tabela carregada
+     */
+    public List<ResultadoCarga> carregarSaidas() throws IOException, SQLException {
+        Path output = config.getDiretorioOutput();
+        List<ResultadoCarga> resultados = new ArrayList<>();
+
+        Path csvEnriquecido = output.resolve("consolidado_enriquecido.csv");
+        if (Files.exists(csvEnriquecido)) {
+            resultados.addAll(carregarDespesas(csvEnriquecido));
+        } else {
+            logger.warn("Saída não encontrada para carga: {}", csvEnriquecido);
+        } // if
+
+        Path csvAgregado = output.resolve("despesas_agregadas.csv");
+        if (Files.exists(csvAgregado)) {
+            resultados.add(carregarAgregadas(csvAgregado));
+        } else {
+            logger.warn("Saída não encontrada para carga: {}", csvAgregado);
+        } // if
+
+        registrarLog(resultados);
+        for (ResultadoCarga resultado : resultados) {
+            logger.info("Carga concluída: {}", resultado);
+        } // for
+        return resultados;
+    } // carregarSaidas
+
+    /**
+     * Carrega despesas_consolidadas e operadoras_cadastro a partir do CSV enriquecido
+     *
+     * @return Resultados de despesas_consolidadas e operadoras_cadastro
+     */
+    public List<ResultadoCarga> carregarDespesas(Path csvEnriquecido) throws IOException, SQLException {
+        long inicio = System.currentTimeMillis();
+        String origem = csvEnriquecido.getFileName().toString();
+        long processadas = 0;
+        long rejeitadas = 0;
+        long operadorasProcessadas = 0;
+        long operadorasRejeitadas = 0;
+
+        // Chaves (cnpj, ano, trimestre) já enviadas, codificadas em um long
+        LongIntHashMap chavesDespesas = new LongIntHashMap();
+        Set<String> registrosVistos = new HashSet<>();
+        Set<String> cnpjsOperadoras = new HashSet<>();
+
+        try (Reader reader = Files.newBufferedReader(csvEnriquecido, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, formatoLeitura());
+             CarregadorJdbc despesas = novoCarregador(TABELA_DESPESAS, COLUNAS_DESPESAS, TIPOS_DESPESAS);
+             CarregadorJdbc operadoras = novoCarregador(TABELA_OPERADORAS, COLUNAS_OPERADORAS, TIPOS_OPERADORAS)) {
+
+            for (CSVRecord record : parser) {
+                processadas++;
+                long cnpj = CnpjValidator.toLong(record.get("CNPJ"));
+                int trimestre = numeroTrimestre(record.get("Trimestre"));
+                Integer ano = inteiroOuNulo(record.get("Ano"));
+                BigDecimal valor = decimalOuNulo(record.get("ValorDespesas"));
+
+                if (cnpj == CnpjValidator.CNPJ_INVALIDO || trimestre == 0
+                        || ano == null || ano < ANO_MINIMO || ano > ANO_MAXIMO || valor == null) {
+                    rejeitadas++;
+                    continue;
+                } // if
+
+                long chave = chaveDespesa(cnpj, ano, trimestre);
+                if (chavesDespesas.get(chave) != LongIntHashMap.AUSENTE) {
+                    rejeitadas++;
+                    continue;
+                } // if
+                chavesDespesas.put(chave, 0);
+
+                String cnpjNormalizado = CnpjValidator.fromLong(cnpj);
+                String registroAns = textoOuNulo(record.get("RegistroANS"));
+                String razaoSocial = record.get("RazaoSocial");
+                String modalidade = textoOuNulo(record.get("Modalidade"));
+                String uf = ufOuNula(record.get("UF"));
+
+                despesas.adicionar(
+                    cnpjNormalizado,
+                    razaoSocial.isBlank() ? RAZAO_NAO_INFORMADA : razaoSocial,
+                    "Q" + trimestre,
+                    ano,
+                    valor,
+                    SIM.equalsIgnoreCase(record.get("CnpjValido")),
+                    Boolean.TRUE, // valores já validados na etapa 2.1
+                    SIM.equalsIgnoreCase(record.get("MatchCadastro")),
+                    registroAns,
+                    modalidade,
+                    uf
+                );
+
+                // Primeira ocorrência de cada operadora com cadastro
+                if (registroAns != null && SIM.equalsIgnoreCase(record.get("MatchCadastro"))
+                        && registrosVistos.add(registroAns)) {
+                    operadorasProcessadas++;
+                    if (razaoSocial.isBlank() || !cnpjsOperadoras.add(cnpjNormalizado)) {
+                        operadorasRejeitadas++;
+                    } else {
+                        operadoras.adicionar(registroAns, cnpjNormalizado, razaoSocial, modalidade, uf);
+                    } // if
+                } // if
+            } // for
+
+            despesas.close();
+            operadoras.close();
+            long duracao = System.currentTimeMillis() - inicio;
+
+            return List.of(
+                new ResultadoCarga(TABELA_DESPESAS, origem, processadas,
+                    despesas.getLinhasImportadas(), rejeitadas, duracao),
+                new ResultadoCarga(TABELA_OPERADORAS, origem, operadorasProcessadas,
+                    operadoras.getLinhasImportadas(), operadorasRejeitadas, duracao));
+        } // try
+    } // carregarDespesas
+
+    /**
+     * Carrega despesas_agregadas a partir do CSV agregado
+     */
+    public ResultadoCarga carregarAgregadas(Path csvAgregado) throws IOException, SQLException {
+        long inicio = System.currentTimeMillis();
+        long processadas = 0;
+        long rejeitadas = 0;
+        Set<String> grupos = new HashSet<>();
+
+        try (Reader reader = Files.newBufferedReader(csvAgregado, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, formatoLeitura());
+             CarregadorJdbc agregadas = novoCarregador(TABELA_AGREGADAS, COLUNAS_AGREGADAS, TIPOS_AGREGADAS)) {
+
+            for (CSVRecord record : parser) {
+                processadas++;
+                String razaoSocial = record.get("RazaoSocial");
+                String uf = ufOuNula(record.get("UF"));
+                BigDecimal total = decimalOuNulo(record.get("TotalDespesas"));
+                BigDecimal media = decimalOuNulo(record.get("MediaPorTrimestre"));
+                BigDecimal desvio = decimalOuNulo(record.get("DesvioPadrao"));
+                Integer trimestres = inteiroOuNulo(record.get("QuantidadeTrimestres"));
+
+                if (razaoSocial.isBlank() || total == null || media == null || desvio == null
+                        || trimestres == null || !grupos.add(razaoSocial + '\u0000' + uf)) {
+                    rejeitadas++;
+                    continue;
+                } // if
+
+                agregadas.adicionar(razaoSocial, uf, total, media, desvio, trimestres);
+            } // for
+
+            agregadas.close();
+            return new ResultadoCarga(TABELA_AGREGADAS, csvAgregado.getFileName().toString(), processadas,
+                agregadas.getLinhasImportadas(), rejeitadas, System.currentTimeMillis() - inicio);
+        } // try
+    } // carregarAgregadas
+
+    /**
+     * Registra as cargas em log_importacao (mesmo papel do INSERT final do script)
+     */
+    private void registrarLog(List<ResultadoCarga> resultados) throws SQLException {
+        if (resultados.isEmpty()) {
+            return;
+        } // if
+
+        try (Connection conexao = fonte.abrir();
+             PreparedStatement stmt = conexao.prepareStatement(SQL_LOG)) {
+            for (ResultadoCarga resultado : resultados) {
+                stmt.setString(1, resultado.getTabela());
+                stmt.setString(2, resultado.getArquivoOrigem());
+                stmt.setLong(3, resultado.getRegistrosProcessados());
+                stmt.setLong(4, resultado.getRegistrosImportados());
+                stmt.setLong(5, resultado.getRegistrosRejeitados());
+                stmt.setString(6, String.format("Carga JDBC em %d ms (%d linhas/s)",
+                    resultado.getDuracaoMs(), resultado.getLinhasPorSegundo()));
+                stmt.addBatch();
+            } // for
+            stmt.executeBatch();
+            if (!conexao.getAutoCommit()) {
+                conexao.commit();
+            } // if
+        } // try
+    } // registrarLog
+
+    private CarregadorJdbc novoCarregador(String tabela, String[] colunas, int[] tipos) {
+        return new CarregadorJdbc(fonte, tabela, colunas, tipos,
+            config.getCargaTamanhoLote(), config.getCargaEscritores());
+    } // novoCarregador
+
+    /**
+     * Chave única de despesas_consolidadas (cnpj, ano, trimestre) em um long:
+     * cnpj < 10^14 (47 bits), ano em 7 bits, trimestre em 2 bits
+     */
+    static long chaveDespesa(long cnpj, int ano, int trimestre) {
+        return (cnpj << 9) | ((long) (ano - ANO_MINIMO) << 2) | (trimestre - 1);
+    } // chaveDespesa
+
+    static CSVFormat formatoLeitura() {
+        return CSVFormat.DEFAULT.builder()
+            .setDelimiter(';')
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+    } // formatoLeitura
+
+    /**
+     * Número do trimestre ("Q1".."Q4"), ou 0 se fora do formato
+     */
+    static int numeroTrimestre(String trimestre) {
+        if (trimestre.length() != 2 || Character.toUpperCase(trimestre.charAt(0)) != 'Q') {
+            return 0;
+        } // if
+        int numero = trimestre.charAt(1) - '0';
+        return numero >= 1 && numero <= 4 ? numero : 0;
+    } // numeroTrimestre
+
+    private static String textoOuNulo(String valor) {
+        return valor.isBlank() ? null : valor;
+    } // textoOuNulo
+
+    static String ufOuNula(String uf) {
+        return uf.length() == 2 ? uf.toUpperCase(Locale.ROOT) : null;
+    } // ufOuNula
+
+    static Integer inteiroOuNulo(String valor) {
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            return null;
+        } // try-catch
+    } // inteiroOuNulo
+
+    static BigDecimal decimalOuNulo(String valor) {
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            return null;
+        } // try-catch
+    } // decimalOuNulo
+} // CargaBancoService
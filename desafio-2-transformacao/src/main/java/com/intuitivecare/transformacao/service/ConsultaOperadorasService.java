@@ -0,0 +1,354 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.model.EstatisticasGerais;
+import com.intuitivecare.transformacao.model.OperadoraResumo;
+import com.intuitivecare.transformacao.model.PaginaOperadoras;
+import com.intuitivecare.transformacao.model.ParticipacaoUf;
+import com.intuitivecare.transformacao.util.CnpjValidator;
+import com.intuitivecare.transformacao.util.IndiceBusca;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviço de Consulta de Operadoras (dados servidos pela API)
+ *
+ * Carrega o CSV enriquecido uma única vez e mantém estruturas prontas
+ * para as consultas, equivalentes ao data_service do backend Python:
+ * - Operadoras (agrupadas por CNPJ) ordenadas por total de despesas
+ * - Índices por CNPJ (detalhe e histórico) e por UF (filtro da listagem)
+ * - Índice de busca por razão social/CNPJ (IndiceBusca), salvo ao lado do
+ *   CSV e reaproveitado enquanto os dados não mudam
+ * - Estatísticas gerais e distribuição por UF pré-calculadas
+ *
+ * Trade-off: DADOS IMUTÁVEIS APÓS A CARGA
+ * - Consultas concorrentes sem locks: as estruturas são publicadas uma vez
+ *   (campo volatile) e nunca alteradas; uma recarga troca o conjunto todo
+ * - Sem cache com expiração: os dados só mudam quando o pipeline roda de
+ *   novo, e então basta recarregar
+ */
+public class ConsultaOperadorasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaOperadorasService.class);
+
+    private static final int ESCALA = 2;
+    private static final String ARQUIVO_INDICE = "indice_busca.idx";
+
+    private volatile Dados dados = new Dados(new OperadoraResumo[0],
+        IndiceBusca.construir(new String[0], new String[0]), Map.of(), Map.of(),
+        new EstatisticasGerais(BigDecimal.ZERO, BigDecimal.ZERO, 0, List.of(), List.of()));
+
+    /**
+     * Carrega (ou recarrega) o CSV enriquecido
+     *
+     * @return Quantidade de operadoras carregadas
+     */
+    public int carregar(Path csvEnriquecido) throws IOException {
+        Map<String, Acumulador> porCnpj = new LinkedHashMap<>();
+        Map<String, long[]> totaisGrupo = new LinkedHashMap<>();
+        Map<String, long[]> totaisUf = new LinkedHashMap<>();
+        Map<String, Set<String>> cnpjsUf = new HashMap<>();
+        long somaGeral = 0;
+        long registros = 0;
+
+        try (Reader reader = Files.newBufferedReader(csvEnriquecido, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, CargaBancoService.formatoLeitura())) {
+
+            for (CSVRecord record : parser) {
+                BigDecimal valor = CargaBancoService.decimalOuNulo(record.get("ValorDespesas"));
+                Integer ano = CargaBancoService.inteiroOuNulo(record.get("Ano"));
+                int trimestre = CargaBancoService.numeroTrimestre(record.get("Trimestre"));
+                if (valor == null || ano == null || trimestre == 0) {
+                    continue;
+                } // if
+
+                long centavos = valor.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                somaGeral += centavos;
+                registros++;
+
+                String cnpj = normalizarCnpj(record.get("CNPJ"));
+                String razaoSocial = record.get("RazaoSocial");
+                String uf = record.get("UF");
+
+                if (!uf.isEmpty()) {
+                    totaisUf.computeIfAbsent(uf, chave -> new long[1])[0] += centavos;
+                    if (!cnpj.isEmpty()) {
+                        cnpjsUf.computeIfAbsent(uf, chave -> new HashSet<>()).add(cnpj);
+                    } // if
+                } // if
+
+                if (cnpj.isEmpty()) {
+                    continue;
+                } // if
+
+                porCnpj.computeIfAbsent(cnpj, Acumulador::new)
+                    .adicionar(razaoSocial, record.get("RegistroANS"), record.get("Modalidade"), uf,
+                        ano, trimestre, centavos);
+
+                // Ranking por (CNPJ, razão social, UF), como o groupby do backend Python
+                if (!razaoSocial.isEmpty() && !uf.isEmpty()) {
+                    totaisGrupo.computeIfAbsent(cnpj + '\u0000' + razaoSocial + '\u0000' + uf,
+                        chave -> new long[1])[0] += centavos;
+                } // if
+            } // for
+        } // try
+
+        // Operadoras por total decrescente (ordenação estável: empates na ordem do arquivo)
+        OperadoraResumo[] operadoras = porCnpj.values().stream()
+            .map(Acumulador::construir)
+            .sorted(Comparator.comparingLong(OperadoraResumo::getTotalCentavos).reversed())
+            .toArray(OperadoraResumo[]::new);
+
+        String[] cnpjs = new String[operadoras.length];
+        String[] razoesSociais = new String[operadoras.length];
+        Map<String, OperadoraResumo> indiceCnpj = new HashMap<>(operadoras.length * 2);
+        Map<String, List<OperadoraResumo>> listasUf = new HashMap<>();
+        for (int i = 0; i < operadoras.length; i++) {
+            OperadoraResumo operadora = operadoras[i];
+            cnpjs[i] = operadora.getCnpj();
+            razoesSociais[i] = operadora.getRazaoSocial();
+            indiceCnpj.put(operadora.getCnpj(), operadora);
+            if (operadora.getUf() != null) {
+                listasUf.computeIfAbsent(operadora.getUf().toUpperCase(Locale.ROOT), chave -> new ArrayList<>())
+                    .add(operadora);
+            } // if
+        } // for
+        Map<String, OperadoraResumo[]> indiceUf = new HashMap<>();
+        listasUf.forEach((uf, lista) -> indiceUf.put(uf, lista.toArray(OperadoraResumo[]::new)));
+
+        EstatisticasGerais estatisticas = calcularEstatisticas(somaGeral, registros, operadoras.length,
+            totaisGrupo, totaisUf, cnpjsUf);
+
+        IndiceBusca indiceBusca = obterIndiceBusca(csvEnriquecido.resolveSibling(ARQUIVO_INDICE), cnpjs, razoesSociais);
+
+        this.dados = new Dados(operadoras, indiceBusca, indiceCnpj, indiceUf, estatisticas);
+        logger.info("API: {} operadoras carregadas de {} ({} registros)", operadoras.length, csvEnriquecido, registros);
+        return operadoras.length;
+    } // carregar
+
+    /**
+     * Lista operadoras com filtros e paginação
+     *
+     * Sem busca, por total decrescente; com busca, por relevância (ver
+     * IndiceBusca) e, em empates, por total decrescente.
+     *
+     * @param busca Trecho da razão social (sem diferenciar maiúsculas nem acentos) ou do CNPJ; null para todas
+     * @param uf Sigla da UF; null para todas
+     */
+    public PaginaOperadoras listar(int pagina, int limite, String busca, String uf) {
+        Dados atual = this.dados;
+        boolean filtrarUf = uf != null && !uf.isEmpty();
+        // long: page chega a Integer.MAX_VALUE e o produto estouraria int
+        long inicio = (long) (pagina - 1) * limite;
+        List<OperadoraResumo> selecionadas = new ArrayList<>(limite);
+        int total = 0;
+
+        if (busca != null && !busca.isEmpty()) {
+            for (int documento : atual.indiceBusca.buscar(busca)) {
+                OperadoraResumo operadora = atual.operadoras[documento];
+                if (filtrarUf && !uf.equalsIgnoreCase(operadora.getUf())) {
+                    continue;
+                } // if
+                if (total >= inicio && selecionadas.size() < limite) {
+                    selecionadas.add(operadora);
+                } // if
+                total++;
+            } // for
+            return new PaginaOperadoras(selecionadas, total, pagina, limite);
+        } // if
+
+        OperadoraResumo[] candidatas = filtrarUf
+            ? atual.porUf.getOrDefault(uf.toUpperCase(Locale.ROOT), new OperadoraResumo[0])
+            : atual.operadoras;
+        total = candidatas.length;
+        if (inicio >= total) {
+            return new PaginaOperadoras(selecionadas, total, pagina, limite);
+        } // if
+        for (int i = (int) inicio; i < Math.min(total, inicio + limite); i++) {
+            selecionadas.add(candidatas[i]);
+        } // for
+        return new PaginaOperadoras(selecionadas, total, pagina, limite);
+    } // listar
+
+    /**
+     * Operadora pelo CNPJ, aceitando pontuação (".", "/" e "-")
+     *
+     * @return Operadora ou null se não encontrada
+     */
+    public OperadoraResumo buscarPorCnpj(String cnpj) {
+        return dados.porCnpj.get(normalizarCnpj(cnpj));
+    } // buscarPorCnpj
+
+    /**
+     * CNPJ só com dígitos (14, com zeros à esquerda), como no índice e no
+     * detalhe; vazio continua vazio (linha sem cadastro)
+     */
+    private static String normalizarCnpj(String cnpj) {
+        return cnpj.isEmpty() ? cnpj : CnpjValidator.normalize(cnpj);
+    } // normalizarCnpj
+
+    public EstatisticasGerais getEstatisticas() {
+        return dados.estatisticas;
+    } // getEstatisticas
+
+    public int getQuantidadeOperadoras() {
+        return dados.operadoras.length;
+    } // getQuantidadeOperadoras
+
+    /**
+     * Índice de busca salvo em disco, se corresponder aos dados; senão monta
+     * e salva (falha ao salvar não impede a carga)
+     */
+    private static IndiceBusca obterIndiceBusca(Path arquivo, String[] cnpjs, String[] razoesSociais) {
+        long impressaoDigital = IndiceBusca.impressaoDigital(cnpjs, razoesSociais);
+        if (Files.exists(arquivo)) {
+            try {
+                IndiceBusca salvo = IndiceBusca.carregar(arquivo);
+                if (salvo.getImpressaoDigital() == impressaoDigital) {
+                    logger.info("Índice de busca carregado de {}", arquivo);
+                    return salvo;
+                } // if
+                logger.info("Índice de busca em {} desatualizado, reconstruindo", arquivo);
+            } catch (IOException e) {
+                logger.warn("Índice de busca ilegível em {}: {}", arquivo, e.getMessage());
+            } // try-catch
+        } // if
+
+        long inicio = System.nanoTime();
+        IndiceBusca indice = IndiceBusca.construir(cnpjs, razoesSociais);
+        logger.info("Índice de busca montado: {} operadoras, {} palavras em {} ms", indice.getQuantidadeDocumentos(),
+            indice.getQuantidadePalavras(), (System.nanoTime() - inicio) / 1_000_000);
+        try {
+            indice.salvar(arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível salvar o índice de busca em {}: {}", arquivo, e.getMessage());
+        } // try-catch
+        return indice;
+    } // obterIndiceBusca
+
+    private static EstatisticasGerais calcularEstatisticas(long somaGeral, long registros, int totalOperadoras,
+                                                           Map<String, long[]> totaisGrupo,
+                                                           Map<String, long[]> totaisUf,
+                                                           Map<String, Set<String>> cnpjsUf) {
+        BigDecimal total = BigDecimal.valueOf(somaGeral, ESCALA);
+        BigDecimal media = registros > 0
+            ? total.divide(BigDecimal.valueOf(registros), ESCALA, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+
+        List<OperadoraResumo> ranking = new ArrayList<>(totaisGrupo.size());
+        totaisGrupo.forEach((chave, soma) -> {
+            String[] partes = chave.split("\u0000", -1);
+            ranking.add(new OperadoraResumo(partes[0], partes[1], null, null, partes[2], soma[0],
+                new int[0], new byte[0], new long[0]));
+        });
+        ranking.sort(Comparator.comparingLong(OperadoraResumo::getTotalCentavos).reversed());
+
+        List<ParticipacaoUf> distribuicao = new ArrayList<>(totaisUf.size());
+        totaisUf.forEach((uf, soma) -> {
+            double percentual = somaGeral != 0 ? Math.round(soma[0] * 10000.0 / somaGeral) / 100.0 : 0;
+            distribuicao.add(new ParticipacaoUf(uf, BigDecimal.valueOf(soma[0], ESCALA),
+                cnpjsUf.getOrDefault(uf, Set.of()).size(), percentual));
+        });
+        distribuicao.sort(Comparator.comparing(ParticipacaoUf::getTotal).reversed());
+
+        return new EstatisticasGerais(total, media, totalOperadoras, List.copyOf(ranking), List.copyOf(distribuicao));
+    } // calcularEstatisticas
+
+    /**
+     * Conjunto imutável publicado para as consultas
+     */
+    private record Dados(OperadoraResumo[] operadoras, IndiceBusca indiceBusca,
+                         Map<String, OperadoraResumo> porCnpj, Map<String, OperadoraResumo[]> porUf,
+                         EstatisticasGerais estatisticas) {
+    } // Dados
+
+    /**
+     * Dados de uma operadora durante a carga (primeiro valor não vazio de
+     * cada campo, como o "first" do pandas)
+     */
+    private static final class Acumulador {
+        final String cnpj;
+        String razaoSocial = "";
+        String registroAns = "";
+        String modalidade = "";
+        String uf = "";
+        long total;
+        int quantidade;
+        long[] despesas = new long[4];
+
+        Acumulador(String cnpj) {
+            this.cnpj = cnpj;
+        } // Acumulador
+
+        void adicionar(String razaoSocial, String registroAns, String modalidade, String uf,
+                       int ano, int trimestre, long centavos) {
+            if (this.razaoSocial.isEmpty()) {
+                this.razaoSocial = razaoSocial;
+            } // if
+            if (this.registroAns.isEmpty()) {
+                this.registroAns = registroAns;
+            } // if
+            if (this.modalidade.isEmpty()) {
+                this.modalidade = modalidade;
+            } // if
+            if (this.uf.isEmpty()) {
+                this.uf = uf;
+            } // if
+
+            total += centavos;
+            if (2 * quantidade + 2 > despesas.length) {
+                despesas = Arrays.copyOf(despesas, despesas.length * 2);
+            } // if
+            despesas[2 * quantidade] = ano * 4L + (trimestre - 1);
+            despesas[2 * quantidade + 1] = centavos;
+            quantidade++;
+        } // adicionar
+
+        /**
+         * Congela o acumulador com o histórico em ordem cronológica (estável)
+         */
+        OperadoraResumo construir() {
+            Integer[] ordem = new Integer[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                ordem[i] = i;
+            } // for
+            Arrays.sort(ordem, Comparator.comparingLong(i -> despesas[2 * i]));
+
+            int[] anos = new int[quantidade];
+            byte[] trimestres = new byte[quantidade];
+            long[] valores = new long[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                long periodo = despesas[2 * ordem[i]];
+                anos[i] = (int) (periodo / 4);
+                trimestres[i] = (byte) (periodo % 4 + 1);
+                valores[i] = despesas[2 * ordem[i] + 1];
+            } // for
+
+            return new OperadoraResumo(cnpj, razaoSocial, textoOuNulo(registroAns), textoOuNulo(modalidade),
+                textoOuNulo(uf), total, anos, trimestres, valores);
+        } // construir
+
+        private static String textoOuNulo(String valor) {
+            return valor.isEmpty() ? null : valor;
+        } // textoOuNulo
+    } // Acumulador
+} // ConsultaOperadorasService
@@ -1,6 +1,11 @@
 package com.intuitivecare.transformacao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
 import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.CuboDespesas;
+import com.intuitivecare.transformacao.util.CuboDespesasCsv;
+import com.intuitivecare.transformacao.util.EventosJfr;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
@@ -14,6 +19,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -24,6 +30,11 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Serviço de Enriquecimento de Dados
@@ -34,20 +45,57 @@ import java.util.*;
  * Trade-off: JOIN EM MEMÓRIA COM HASHMAP
  * - Carrega cadastro em HashMap (chave: Registro_ANS)
  * - Lookup O(1) para cada registro de despesa
+ * 
+ * Paralelismo: o CSV validado é lido sequencialmente e dividido em lotes,
+ * que são processados em paralelo contra o cadastro (somente leitura após a
+ * carga). Os resultados são consumidos na ordem de submissão, preservando a
+ * ordem original dos registros.
+ * 
+ * Streaming: cada lote é renderizado diretamente como texto CSV em um buffer
+ * reutilizável e escrito em ordem no arquivo de saída, sem materializar um
+ * objeto por registro nem a lista completa de registros enriquecidos.
+ * 
+ * Validação cruzada: cada registro recebe as flags CnpjValido (CNPJ do
+ * cadastro com dígitos verificadores corretos, memoizado no ValidacaoService)
+ * e MatchCadastro (RegistroANS encontrado no cadastro), como SIM/NAO.
+ * 
+ * Rollup: na mesma passada, cada lote acumula um CuboDespesas parcial
+ * (UF x Modalidade x Ano x Trimestre), somado ao cubo geral na escrita do
+ * lote. O cubo consolidado é gravado em cubo_despesas.csv, ao lado de
+ * despesas_agregadas.csv, para o dashboard ler fatias sem varrer os dados.
  */
 public class EnriquecimentoService {
 
     private static final Logger logger = LoggerFactory.getLogger(EnriquecimentoService.class);
 
+    // Quantidade de registros por lote do join paralelo
+    private static final int TAMANHO_LOTE = 8192;
+
+    // Campos lidos do CSV validado por registro
+    private static final int CAMPOS_ENTRADA = 4;
+
+    private static final String[] CABECALHO_ENRIQUECIDO = {
+        "CNPJ", "RegistroANS", "RazaoSocial", "Modalidade", "UF", "Trimestre", "Ano", "ValorDespesas",
+        "CnpjValido", "MatchCadastro"
+    };
+
+    private static final String RAZAO_NAO_ENCONTRADA = "OPERADORA NÃO ENCONTRADA";
+
+    // Valores das flags de validação no CSV
+    private static final String SIM = "SIM";
+    private static final String NAO = "NAO";
+
     private final ApplicationConfig config;
+    private final ValidacaoService validacaoService;
     private final HttpClient httpClient;
     
-    // Estatísticas
-    private int registrosComMatch = 0;
-    private int registrosSemMatch = 0;
+    // Estatísticas (atualizadas concorrentemente pelos lotes)
+    private final LongAdder registrosComMatch = new LongAdder();
+    private final LongAdder registrosSemMatch = new LongAdder();
 
-    public EnriquecimentoService(ApplicationConfig config) {
+    public EnriquecimentoService(ApplicationConfig config, ValidacaoService validacaoService) {
         this.config = config;
+        this.validacaoService = validacaoService;
         this.httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(30))
             .followRedirects(HttpClient.Redirect.NORMAL)
@@ -58,34 +106,45 @@ public class EnriquecimentoService {
      * Enriquece dados do CSV validado com informações cadastrais
      */
     public Path enriquecerDados(Path csvValidado) throws Exception {
+        return enriquecerDados(csvValidado, baixarArquivoCadastro());
+    } // enriquecerDados
+
+    /**
+     * Enriquece dados do CSV validado com um cadastro já baixado (o
+     * orquestrador baixa o cadastro em paralelo às etapas anteriores)
+     */
+    public Path enriquecerDados(Path csvValidado, Path arquivoCadastro) throws Exception {
         logger.info("Iniciando enriquecimento de dados");
         
-        // 1. Baixar e carregar dados cadastrais
-        Map<String, OperadoraInfo> cadastroMap = carregarCadastroOperadoras();
+        // 1. Carregar dados cadastrais
+        Map<String, OperadoraInfo> cadastroMap = carregarCadastroOperadoras(arquivoCadastro);
         logger.info("Cadastro carregado: {} operadoras", cadastroMap.size());
         
-        // 2. Processar CSV validado e fazer join
-        List<DespesaEnriquecida> despesasEnriquecidas = processarJoin(csvValidado, cadastroMap);
-        
-        // 3. Salvar resultado
+        // 2. Processar CSV validado, fazer join e salvar resultado
         Path csvOutput = config.getDiretorioOutput().resolve("consolidado_enriquecido.csv");
-        escreverCsvEnriquecido(despesasEnriquecidas, csvOutput);
+        CuboDespesas cubo = new CuboDespesas();
+        processarJoin(csvValidado, cadastroMap, csvOutput, cubo);
+        
+        // 3. Gravar o cubo de rollup
+        cubo.consolidar();
+        Path csvCubo = config.getDiretorioOutput().resolve("cubo_despesas.csv");
+        int celulas = CuboDespesasCsv.escrever(cubo, csvCubo);
+        logger.info("Cubo de despesas: {} ({} células, {} células base)", csvCubo, celulas,
+            cubo.getQuantidadeCelulasBase());
         
         // Log estatísticas
         logger.info("=== Relatório de Enriquecimento ===");
-        logger.info("Registros com match: {}", registrosComMatch);
-        logger.info("Registros sem match: {}", registrosSemMatch);
+        logger.info("Registros com match: {}", registrosComMatch.sum());
+        logger.info("Registros sem match: {}", registrosSemMatch.sum());
         logger.info("===================================");
         
         return csvOutput;
     } // enriquecerDados
 
     /**
-     * Baixa e carrega dados cadastrais das operadoras
+     * Carrega dados cadastrais das operadoras
      */
-    private Map<String, OperadoraInfo> carregarCadastroOperadoras() throws Exception {
-        Path arquivoCadastro = baixarArquivoCadastro();
-        
+    private Map<String, OperadoraInfo> carregarCadastroOperadoras(Path arquivoCadastro) throws Exception {
         Map<String, OperadoraInfo> mapa = new HashMap<>();
         
         // Tentar diferentes delimitadores
@@ -171,9 +230,16 @@ public class EnriquecimentoService {
     }
 
     /**
-     * Baixa o arquivo de cadastro de operadoras
+     * Baixa o arquivo de cadastro de operadoras (ou usa o do cache em temp/)
      */
-    private Path baixarArquivoCadastro() throws Exception {
+    public Path baixarArquivoCadastro() throws Exception {
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("download_cadastro");
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar()) {
+            return baixarArquivoCadastro(etapa);
+        } // try
+    } // baixarArquivoCadastro
+
+    private Path baixarArquivoCadastro(MetricasPipeline.Etapa etapa) throws Exception {
         Files.createDirectories(config.getDiretorioTemp());
         
         String urlArquivo = buscarUrlArquivoCadastro();
@@ -201,7 +267,8 @@ public class EnriquecimentoService {
         }
         
         try (InputStream is = response.body()) {
-            Files.copy(is, arquivoDestino, StandardCopyOption.REPLACE_EXISTING);
+            // Só conta bytes de downloads reais (cache não entra na vazão)
+            etapa.registrarBytes(Files.copy(is, arquivoDestino, StandardCopyOption.REPLACE_EXISTING), 0);
         }
         
         logger.info("Download concluído: {}", arquivoDestino);
@@ -252,12 +319,18 @@ public class EnriquecimentoService {
     }
 
     /**
-     * Processa join entre despesas e cadastro
+     * Processa join entre despesas e cadastro, escrevendo o CSV enriquecido
+     * 
+     * A leitura do CSV é sequencial; cada lote de registros é enriquecido em
+     * uma thread do pool. No máximo 2x o número de threads de lotes ficam em
+     * voo, e os lotes já escritos voltam para reutilização, de modo que a
+     * memória ocupada independe do tamanho da entrada.
+     * 
+     * Package-private para os benchmarks (módulo benchmarks)
      */
-    private List<DespesaEnriquecida> processarJoin(Path csvValidado, Map<String, OperadoraInfo> cadastro) throws IOException {
-        List<DespesaEnriquecida> resultado = new ArrayList<>();
-        
-        CSVFormat format = CSVFormat.DEFAULT.builder()
+    void processarJoin(Path csvValidado, Map<String, OperadoraInfo> cadastro, Path arquivo,
+                               CuboDespesas cubo) throws IOException {
+        CSVFormat formatLeitura = CSVFormat.DEFAULT.builder()
             .setDelimiter(';')
             .setHeader()
             .setSkipHeaderRecord(true)
@@ -265,75 +338,203 @@ public class EnriquecimentoService {
             .setTrim(true)
             .build();
         
-        try (Reader reader = Files.newBufferedReader(csvValidado, StandardCharsets.UTF_8);
-             CSVParser parser = new CSVParser(reader, format)) {
+        CSVFormat formatEscrita = CSVFormat.DEFAULT.builder()
+            .setDelimiter(';')
+            .build();
+        
+        int threads = config.getThreadsProcessamento();
+        int janela = threads * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<LoteEnriquecimento>> pendentes = new ArrayDeque<>();
+        Deque<LoteEnriquecimento> livres = new ArrayDeque<>();
+        long totalRegistros = 0;
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("enriquecimento");
+        EventosJfr.Enriquecimento evento = new EventosJfr.Enriquecimento();
+        evento.begin();
+        
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar();
+             RelatorioProgresso.Progresso progresso = config.getProgresso()
+                 .iniciar("enriquecimento", csvValidado.getFileName().toString(), Files.size(csvValidado));
+             Reader reader = progresso.abrirLeitor(csvValidado);
+             CSVParser parser = new CSVParser(reader, formatLeitura);
+             Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            
+            formatEscrita.printRecord(writer, (Object[]) CABECALHO_ENRIQUECIDO);
+            
+            LoteEnriquecimento lote = obterLote(livres);
             
             for (CSVRecord record : parser) {
-                String registroAns = record.get("RegistroANS");
-                String trimestre = record.get("Trimestre");
-                String ano = record.get("Ano");
-                String valorStr = record.get("ValorDespesas");
-                
-                OperadoraInfo info = cadastro.get(registroAns);
-                
-                DespesaEnriquecida despesa = new DespesaEnriquecida();
-                despesa.registroAns = registroAns;
-                despesa.trimestre = trimestre;
-                despesa.ano = Integer.parseInt(ano);
-                despesa.valorDespesas = new BigDecimal(valorStr);
+                lote.adicionar(
+                    record.get("RegistroANS"),
+                    record.get("Trimestre"),
+                    record.get("Ano"),
+                    record.get("ValorDespesas")
+                );
+                totalRegistros++;
+                progresso.avancarLinha();
                 
-                if (info != null) {
-                    despesa.cnpj = info.cnpj;
-                    despesa.razaoSocial = info.razaoSocial;
-                    despesa.modalidade = info.modalidade;
-                    despesa.uf = info.uf;
-                    registrosComMatch++;
-                } else {
-                    despesa.cnpj = "";
-                    despesa.razaoSocial = "OPERADORA NÃO ENCONTRADA";
-                    despesa.modalidade = "";
-                    despesa.uf = "";
-                    registrosSemMatch++;
+                if (lote.cheio()) {
+                    LoteEnriquecimento loteAtual = lote;
+                    pendentes.addLast(executor.submit(() -> enriquecerLote(loteAtual, cadastro, formatEscrita)));
+                    
+                    // Escrever o lote mais antigo quando a janela estiver cheia
+                    if (pendentes.size() >= janela) {
+                        escreverLote(aguardarLote(pendentes.removeFirst()), writer, cubo, livres);
+                    }
+                    lote = obterLote(livres);
                 }
-                
-                resultado.add(despesa);
             }
+            
+            if (lote.tamanho > 0) {
+                LoteEnriquecimento loteAtual = lote;
+                pendentes.addLast(executor.submit(() -> enriquecerLote(loteAtual, cadastro, formatEscrita)));
+            }
+            
+            while (!pendentes.isEmpty()) {
+                escreverLote(aguardarLote(pendentes.removeFirst()), writer, cubo, livres);
+            }
+        } finally {
+            executor.shutdownNow();
         }
         
-        return resultado;
+        // Registros sem match também são escritos (com a flag), nada é descartado
+        etapa.registrarLinhas(totalRegistros, totalRegistros, 0);
+        etapa.registrarBytes(Files.size(csvValidado), Files.size(arquivo));
+        
+        if (evento.shouldCommit()) {
+            evento.arquivo = csvValidado.getFileName().toString();
+            evento.bytesLidos = Files.size(csvValidado);
+            evento.bytesEscritos = Files.size(arquivo);
+            evento.registros = totalRegistros;
+            evento.operadorasCadastro = cadastro.size();
+            evento.commit();
+        } // if
+        logger.info("CSV enriquecido: {} ({} registros)", arquivo, totalRegistros);
     } // processarJoin
 
+    private LoteEnriquecimento obterLote(Deque<LoteEnriquecimento> livres) {
+        LoteEnriquecimento lote = livres.pollFirst();
+        return lote != null ? lote : new LoteEnriquecimento();
+    } // obterLote
+
     /**
-     * Escreve CSV enriquecido
+     * Escreve um lote já renderizado, soma seu cubo parcial ao geral e o
+     * devolve para reutilização
      */
-    private void escreverCsvEnriquecido(List<DespesaEnriquecida> despesas, Path arquivo) throws IOException {
-        CSVFormat format = CSVFormat.DEFAULT.builder()
-            .setDelimiter(';')
-            .setHeader("CNPJ", "RegistroANS", "RazaoSocial", "Modalidade", "UF", "Trimestre", "Ano", "ValorDespesas")
-            .build();
+    private void escreverLote(LoteEnriquecimento lote, Writer writer, CuboDespesas cubo,
+                              Deque<LoteEnriquecimento> livres) throws IOException {
+        writer.append(lote.saida);
+        cubo.combinar(lote.cubo);
+        lote.limpar();
+        livres.addLast(lote);
+    } // escreverLote
+
+    /**
+     * Enriquece um lote de registros (executado em paralelo), renderizando
+     * as linhas do CSV de saída no buffer do próprio lote
+     */
+    private LoteEnriquecimento enriquecerLote(LoteEnriquecimento lote, Map<String, OperadoraInfo> cadastro,
+                                              CSVFormat format) throws IOException {
+        EventosJfr.EnriquecimentoLote evento = new EventosJfr.EnriquecimentoLote();
+        evento.begin();
+        StringBuilder saida = lote.saida;
+        String[] campos = lote.campos;
+        int comMatch = 0;
+        int cnpjValidos = 0;
         
-        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8);
-             CSVPrinter printer = new CSVPrinter(writer, format)) {
+        for (int i = 0; i < lote.tamanho; i++) {
+            int base = i * CAMPOS_ENTRADA;
+            String registroAns = campos[base];
+            String trimestre = campos[base + 1];
+            String ano = campos[base + 2];
+            String valor = campos[base + 3];
             
-            for (DespesaEnriquecida d : despesas) {
-                printer.printRecord(
-                    d.cnpj,
-                    d.registroAns,
-                    d.razaoSocial,
-                    d.modalidade,
-                    d.uf,
-                    d.trimestre,
-                    d.ano,
-                    d.valorDespesas.toPlainString()
-                );
+            // Ano deve ser numérico; ValorDespesas já vem normalizado da validação
+            int anoNumero = Integer.parseInt(ano);
+            
+            OperadoraInfo info = cadastro.get(registroAns);
+            boolean cnpjValido = false;
+            if (info != null) {
+                comMatch++;
+                cnpjValido = validacaoService.validarCnpj(info.cnpj);
+                if (cnpjValido) {
+                    cnpjValidos++;
+                }
+            }
+            
+            format.print(info != null ? info.cnpj : "", saida, true);
+            format.print(registroAns, saida, false);
+            format.print(info != null ? info.razaoSocial : RAZAO_NAO_ENCONTRADA, saida, false);
+            format.print(info != null ? info.modalidade : "", saida, false);
+            format.print(info != null ? info.uf : "", saida, false);
+            format.print(trimestre, saida, false);
+            format.print(ano, saida, false);
+            format.print(valor, saida, false);
+            format.print(cnpjValido ? SIM : NAO, saida, false);
+            format.print(info != null ? SIM : NAO, saida, false);
+            format.println(saida);
+            
+            int numeroTrimestre = CargaBancoService.numeroTrimestre(trimestre);
+            if (numeroTrimestre > 0) {
+                lote.cubo.adicionar(info != null ? info.uf : "", info != null ? info.modalidade : "",
+                    anoNumero, numeroTrimestre, centavos(valor));
             }
         }
         
-        logger.info("CSV enriquecido: {} ({} registros)", arquivo, despesas.size());
-    } // escreverCsvEnriquecido
+        registrosComMatch.add(comMatch);
+        registrosSemMatch.add(lote.tamanho - comMatch);
+        validacaoService.registrarValidacaoCnpj(cnpjValidos, comMatch - cnpjValidos, lote.tamanho - comMatch);
+        
+        if (evento.shouldCommit()) {
+            evento.registros = lote.tamanho;
+            evento.comMatch = comMatch;
+            evento.cnpjValidos = cnpjValidos;
+            evento.caracteres = saida.length();
+            evento.commit();
+        } // if
+        return lote;
+    } // enriquecerLote
+
+    /**
+     * Valor normalizado ("1234.5", "-10.00") em centavos, sem BigDecimal no
+     * caso comum de até 2 casas decimais
+     */
+    static long centavos(String valor) {
+        int ponto = valor.indexOf('.');
+        int casas = ponto < 0 ? 0 : valor.length() - ponto - 1;
+        if (casas <= 2 && valor.length() <= 15) {
+            try {
+                long inteiro = ponto < 0 ? Long.parseLong(valor) : Long.parseLong(valor.substring(0, ponto));
+                long fracao = casas == 0 ? 0 : Long.parseLong(valor.substring(ponto + 1)) * (casas == 1 ? 10 : 1);
+                boolean negativo = valor.startsWith("-");
+                return inteiro * 100 + (negativo ? -fracao : fracao);
+            } catch (NumberFormatException e) {
+                // Formato fora do caso comum: cai para o BigDecimal
+            }
+        }
+        return new BigDecimal(valor).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    } // centavos
 
-    // Classes internas
-    private static class OperadoraInfo {
+    /**
+     * Aguarda a conclusão de um lote, propagando falhas de processamento
+     */
+    private <T> T aguardarLote(Future<T> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Enriquecimento interrompido", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Erro ao enriquecer lote: " + causa.getMessage(), causa);
+        }
+    } // aguardarLote
+
+    // Classes internas (OperadoraInfo visível no pacote para os benchmarks)
+    static class OperadoraInfo {
         String cnpj;
         String razaoSocial;
         String modalidade;
@@ -347,14 +548,33 @@ public class EnriquecimentoService {
         }
     }
     
-    private static class DespesaEnriquecida {
-        String cnpj;
-        String registroAns;
-        String razaoSocial;
-        String modalidade;
-        String uf;
-        String trimestre;
-        int ano;
-        BigDecimal valorDespesas;
+    /**
+     * Lote reutilizável: campos de entrada em um array plano e buffer de saída
+     */
+    private static class LoteEnriquecimento {
+        final String[] campos = new String[TAMANHO_LOTE * CAMPOS_ENTRADA];
+        final StringBuilder saida = new StringBuilder(TAMANHO_LOTE * 128);
+        final CuboDespesas cubo = new CuboDespesas();
+        int tamanho;
+        
+        void adicionar(String registroAns, String trimestre, String ano, String valor) {
+            int base = tamanho * CAMPOS_ENTRADA;
+            campos[base] = registroAns;
+            campos[base + 1] = trimestre;
+            campos[base + 2] = ano;
+            campos[base + 3] = valor;
+            tamanho++;
+        }
+        
+        boolean cheio() {
+            return tamanho == TAMANHO_LOTE;
+        }
+        
+        void limpar() {
+            Arrays.fill(campos, 0, tamanho * CAMPOS_ENTRADA, null);
+            saida.setLength(0);
+            cubo.limpar();
+            tamanho = 0;
+        }
     }
 } // EnriquecimentoService
@@ -0,0 +1,169 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.util.ArquivoParquetWriter;
+import com.intuitivecare.transformacao.util.ArquivoParquetWriter.Coluna;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serviço de Exportação em Parquet
+ * 
+ * Converte as três saídas do desafio (validado, enriquecido e agregado) para
+ * Apache Parquet, ao lado dos CSVs. Cargas e consultas posteriores (ex.: as
+ * queries analíticas do Desafio 3 via DuckDB/Spark/pyarrow) leem apenas as
+ * colunas e grupos de linhas necessários, em vez de importar o CSV inteiro.
+ * 
+ * Trade-off: COLUNAS TIPADAS
+ * - RegistroANS, Ano e QuantidadeTrimestres como INT32
+ * - Valores monetários como DECIMAL(18,2) em INT64 (centavos), sem perda
+ * - Texto (razão social, UF, modalidade, trimestre) codificado por
+ *   dicionário: poucas operadoras e UFs para milhões de linhas
+ */
+public class ExportacaoParquetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacaoParquetService.class);
+
+    private static final int ESCALA_MONETARIA = 2;
+
+    private static final List<Coluna> ESQUEMA_VALIDADO = List.of(
+        Coluna.inteiro("RegistroANS"),
+        Coluna.texto("Trimestre"),
+        Coluna.inteiro("Ano"),
+        Coluna.decimal("ValorDespesas", ESCALA_MONETARIA)
+    );
+
+    private static final List<Coluna> ESQUEMA_ENRIQUECIDO = List.of(
+        Coluna.texto("CNPJ"),
+        Coluna.inteiro("RegistroANS"),
+        Coluna.texto("RazaoSocial"),
+        Coluna.texto("Modalidade"),
+        Coluna.texto("UF"),
+        Coluna.texto("Trimestre"),
+        Coluna.inteiro("Ano"),
+        Coluna.decimal("ValorDespesas", ESCALA_MONETARIA),
+        Coluna.texto("CnpjValido"),
+        Coluna.texto("MatchCadastro")
+    );
+
+    private static final List<Coluna> ESQUEMA_AGREGADO = List.of(
+        Coluna.texto("RazaoSocial"),
+        Coluna.texto("UF"),
+        Coluna.decimal("TotalDespesas", ESCALA_MONETARIA),
+        Coluna.decimal("MediaPorTrimestre", ESCALA_MONETARIA),
+        Coluna.decimal("DesvioPadrao", ESCALA_MONETARIA),
+        Coluna.inteiro("QuantidadeTrimestres"),
+        Coluna.decimal("P50", ESCALA_MONETARIA),
+        Coluna.decimal("P90", ESCALA_MONETARIA),
+        Coluna.decimal("P99", ESCALA_MONETARIA)
+    );
+
+    private final ApplicationConfig config;
+
+    public ExportacaoParquetService(ApplicationConfig config) {
+        this.config = config;
+    } // ExportacaoParquetService
+
+    /**
+     * Exporta as saídas existentes no diretório de output para Parquet
+     * 
+     * @return Arquivos Parquet gerados
+     */
+    public List<Path> exportarSaidas() throws IOException {
+        Path output = config.getDiretorioOutput();
+        List<Path> gerados = new ArrayList<>();
+        
+        exportarSeExistir(output.resolve("consolidado_validado.csv"), ESQUEMA_VALIDADO, gerados);
+        exportarSeExistir(output.resolve("consolidado_enriquecido.csv"), ESQUEMA_ENRIQUECIDO, gerados);
+        exportarSeExistir(output.resolve("despesas_agregadas.csv"), ESQUEMA_AGREGADO, gerados);
+        
+        return gerados;
+    } // exportarSaidas
+
+    private void exportarSeExistir(Path csv, List<Coluna> esquema, List<Path> gerados) throws IOException {
+        if (!Files.exists(csv)) {
+            logger.debug("Saída não encontrada para exportação: {}", csv);
+            return;
+        } // if
+        
+        String nome = csv.getFileName().toString().replace(".csv", ".parquet");
+        gerados.add(exportarCsv(csv, esquema, csv.resolveSibling(nome)));
+    } // exportarSeExistir
+
+    /**
+     * Converte um CSV (delimitado por ';', com cabeçalho) para Parquet,
+     * localizando as colunas do esquema pelo nome
+     */
+    public Path exportarCsv(Path csv, List<Coluna> esquema, Path parquet) throws IOException {
+        CSVFormat formatLeitura = CSVFormat.DEFAULT.builder()
+            .setDelimiter(';')
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .build();
+        
+        try {
+            converter(csv, formatLeitura, esquema, parquet);
+        } catch (IOException | RuntimeException e) {
+            // Não deixar um Parquet válido porém incompleto
+            Files.deleteIfExists(parquet);
+            throw e;
+        } // try-catch
+        
+        return parquet;
+    } // exportarCsv
+
+    private void converter(Path csv, CSVFormat formatLeitura, List<Coluna> esquema, Path parquet) throws IOException {
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, formatLeitura);
+             ArquivoParquetWriter writer = new ArquivoParquetWriter(parquet, esquema)) {
+            
+            int[] indices = new int[esquema.size()];
+            for (int i = 0; i < esquema.size(); i++) {
+                Integer indice = parser.getHeaderMap().get(esquema.get(i).getNome());
+                if (indice == null) {
+                    throw new IOException("Coluna " + esquema.get(i).getNome() + " ausente em " + csv);
+                }
+                indices[i] = indice;
+            }
+            
+            String[] valores = new String[esquema.size()];
+            for (CSVRecord record : parser) {
+                for (int i = 0; i < indices.length; i++) {
+                    valores[i] = record.get(indices[i]);
+                }
+                try {
+                    writer.adicionarLinha(valores);
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    throw new IOException("Registro " + record.getRecordNumber() + " de " + csv
+                        + " incompatível com o esquema Parquet: " + e.getMessage(), e);
+                }
+            }
+            
+            logger.info("Parquet gerado: {} ({} registros)", parquet, writer.getTotalLinhas());
+        } // try
+    } // converter
+
+    public static List<Coluna> getEsquemaValidado() {
+        return ESQUEMA_VALIDADO;
+    } // getEsquemaValidado
+
+    public static List<Coluna> getEsquemaEnriquecido() {
+        return ESQUEMA_ENRIQUECIDO;
+    } // getEsquemaEnriquecido
+
+    public static List<Coluna> getEsquemaAgregado() {
+        return ESQUEMA_AGREGADO;
+    } // getEsquemaAgregado
+} // ExportacaoParquetService
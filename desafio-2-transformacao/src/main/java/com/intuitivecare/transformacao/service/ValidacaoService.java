@@ -1,6 +1,10 @@
 package com.intuitivecare.transformacao.service;
 
+import com.intuitivecare.compartilhado.util.MetricasPipeline;
+import com.intuitivecare.compartilhado.util.RelatorioProgresso;
 import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.util.CnpjValidator;
+import com.intuitivecare.transformacao.util.ConsolidadoColunarReader;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
@@ -17,6 +21,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Serviço de Validação de Dados
@@ -26,6 +33,16 @@ import java.util.List;
  * - Trimestre: Q1, Q2, Q3 ou Q4
  * - Ano: Ano do registro
  * - ValorDespesas: Valor das despesas
+ * 
+ * A entrada pode ser o CSV ou o consolidado binário colunar (.bin), lido
+ * por mapeamento em memória sem parsing de texto (ver ConsolidadoColunarReader).
+ * 
+ * Etapa de CNPJ: durante o enriquecimento, o CNPJ de cada registro com match
+ * no cadastro é validado (dígitos verificadores). O resultado é memoizado por
+ * CNPJ distinto: são ~1.500 operadoras para milhões de registros, então o
+ * cálculo do checksum ocorre uma vez por operadora e os demais registros
+ * custam apenas um lookup em um ConcurrentHashMap (seguro para os lotes
+ * paralelos do enriquecimento).
  */
 public class ValidacaoService {
 
@@ -38,6 +55,12 @@ public class ValidacaoService {
     private int registrosValidos = 0;
     private int registrosInvalidos = 0;
 
+    // Validação de CNPJ (memoizada por CNPJ distinto)
+    private final Map<String, Boolean> cacheCnpj = new ConcurrentHashMap<>();
+    private final LongAdder registrosCnpjValido = new LongAdder();
+    private final LongAdder registrosCnpjInvalido = new LongAdder();
+    private final LongAdder registrosSemCadastro = new LongAdder();
+
     public ValidacaoService(ApplicationConfig config) {
         this.config = config;
     } // ValidacaoService
@@ -59,7 +82,39 @@ public class ValidacaoService {
         Path csvOutput = config.getDiretorioOutput().resolve("consolidado_validado.csv");
         
         List<String[]> registrosValidados = new ArrayList<>();
+        MetricasPipeline.Etapa etapa = config.getMetricas().etapa("validacao");
+        int totalAntes = totalRegistros;
+        int validosAntes = registrosValidos;
+        int invalidosAntes = registrosInvalidos;
+        
+        try (MetricasPipeline.Cronometro cronometro = etapa.iniciar()) {
+            if (csvInput.getFileName().toString().endsWith(".bin")) {
+                validarColunar(csvInput, registrosValidados);
+            } else {
+                validarCsv(csvInput, registrosValidados);
+            }
+            
+            // Escrever CSV validado
+            escreverCsv(registrosValidados, csvOutput);
+        } // try
+        etapa.registrarLinhas(totalRegistros - totalAntes, registrosValidos - validosAntes,
+            registrosInvalidos - invalidosAntes);
+        etapa.registrarBytes(Files.size(csvInput), Files.size(csvOutput));
         
+        // Log estatísticas
+        logger.info("=== Relatório de Validação ===");
+        logger.info("Total de registros: {}", totalRegistros);
+        logger.info("Registros válidos: {}", registrosValidos);
+        logger.info("Registros inválidos: {}", registrosInvalidos);
+        logger.info("==============================");
+        
+        return csvOutput;
+    } // validarDados
+
+    /**
+     * Valida o CSV consolidado
+     */
+    private void validarCsv(Path csvInput, List<String[]> registrosValidados) throws IOException {
         CSVFormat formatLeitura = CSVFormat.DEFAULT.builder()
             .setDelimiter(';')
             .setHeader()
@@ -68,11 +123,14 @@ public class ValidacaoService {
             .setTrim(true)
             .build();
         
-        try (Reader reader = Files.newBufferedReader(csvInput, StandardCharsets.UTF_8);
+        try (RelatorioProgresso.Progresso progresso = config.getProgresso()
+                 .iniciar("validacao", csvInput.getFileName().toString(), Files.size(csvInput));
+             Reader reader = progresso.abrirLeitor(csvInput);
              CSVParser parser = new CSVParser(reader, formatLeitura)) {
             
             for (CSVRecord record : parser) {
                 totalRegistros++;
+                progresso.avancarLinha();
                 
                 String registroAns = getValorSeguro(record, "RegistroANS");
                 String trimestre = getValorSeguro(record, "Trimestre");
@@ -99,19 +157,80 @@ public class ValidacaoService {
                 });
             } // for
         } // try
+    } // validarCsv
+
+    /**
+     * Valida o consolidado colunar com as mesmas regras do CSV: RegistroANS,
+     * trimestre e ano presentes e valor positivo
+     */
+    private void validarColunar(Path arquivo, List<String[]> registrosValidados) throws IOException {
+        ConsolidadoColunarReader colunar = ConsolidadoColunarReader.abrir(arquivo);
+        int escala = colunar.getEscala();
         
-        // Escrever CSV validado
-        escreverCsv(registrosValidados, csvOutput);
-        
-        // Log estatísticas
-        logger.info("=== Relatório de Validação ===");
-        logger.info("Total de registros: {}", totalRegistros);
-        logger.info("Registros válidos: {}", registrosValidos);
-        logger.info("Registros inválidos: {}", registrosInvalidos);
-        logger.info("==============================");
+        for (int i = 0; i < colunar.getQuantidade(); i++) {
+            totalRegistros++;
+            
+            int registroAns = colunar.getRegistroAns(i);
+            int trimestre = colunar.getTrimestre(i);
+            int ano = colunar.getAno(i);
+            long centavos = colunar.getCentavos(i);
+            
+            if (registroAns <= 0 || trimestre < 1 || trimestre > 4 || ano <= 0 || centavos <= 0) {
+                registrosInvalidos++;
+                continue;
+            }
+            
+            registrosValidos++;
+            registrosValidados.add(new String[]{
+                Integer.toString(registroAns), "Q" + trimestre, Integer.toString(ano),
+                BigDecimal.valueOf(centavos, escala).toPlainString()
+            });
+        } // for
+    } // validarColunar
+
+    /**
+     * Valida o CNPJ (formato e dígitos verificadores), reaproveitando o
+     * resultado de chamadas anteriores para o mesmo CNPJ
+     */
+    public boolean validarCnpj(String cnpj) {
+        if (cnpj == null) {
+            return false;
+        } // if
+
+        Boolean valido = cacheCnpj.get(cnpj);
+        if (valido == null) {
+            valido = CnpjValidator.isValid(cnpj);
+            cacheCnpj.putIfAbsent(cnpj, valido);
+        } // if
+        return valido;
+    } // validarCnpj
+
+    /**
+     * Contabiliza o resultado da validação de CNPJ de um lote de registros
+     * 
+     * @param cnpjValido Registros com match no cadastro e CNPJ válido
+     * @param cnpjInvalido Registros com match no cadastro e CNPJ inválido
+     * @param semCadastro Registros sem match no cadastro (CNPJ não verificável)
+     */
+    public void registrarValidacaoCnpj(int cnpjValido, int cnpjInvalido, int semCadastro) {
+        registrosCnpjValido.add(cnpjValido);
+        registrosCnpjInvalido.add(cnpjInvalido);
+        registrosSemCadastro.add(semCadastro);
+    } // registrarValidacaoCnpj
+
+    /**
+     * Loga o relatório da etapa de validação de CNPJ
+     */
+    public void logRelatorioCnpj() {
+        long invalidosDistintos = cacheCnpj.values().stream().filter(v -> !v).count();
         
-        return csvOutput;
-    } // validarDados
+        logger.info("=== Relatório de Validação de CNPJ ===");
+        logger.info("CNPJs distintos verificados: {} ({} inválidos)", cacheCnpj.size(), invalidosDistintos);
+        logger.info("Registros com CNPJ válido: {}", registrosCnpjValido.sum());
+        logger.info("Registros com CNPJ inválido: {}", registrosCnpjInvalido.sum());
+        logger.info("Registros sem match no cadastro: {}", registrosSemCadastro.sum());
+        logger.info("======================================");
+    } // logRelatorioCnpj
 
     private void escreverCsv(List<String[]> registros, Path arquivo) throws IOException {
         CSVFormat format = CSVFormat.DEFAULT.builder()
@@ -138,7 +257,8 @@ public class ValidacaoService {
         }
     } // getValorSeguro
 
-    private BigDecimal parseValor(String valorStr) {
+    // Package-private para os benchmarks (módulo benchmarks)
+    BigDecimal parseValor(String valorStr) {
         if (valorStr == null || valorStr.isBlank()) {
             return null;
         }
@@ -0,0 +1,699 @@
+package com.intuitivecare.transformacao.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escrita de arquivos Apache Parquet sem dependências externas
+ *
+ * Implementa o subconjunto do formato necessário para as saídas do desafio:
+ * colunas obrigatórias (sem nulos) dos tipos texto (BYTE_ARRAY/UTF8),
+ * inteiro (INT32) e decimal (INT64 com escala fixa, ex.: centavos).
+ *
+ * - Grupos de linhas de {@link #LINHAS_POR_GRUPO} linhas, cada coluna em uma
+ *   página de dados por grupo
+ * - Texto com codificação por dicionário (RLE_DICTIONARY) por grupo; se o
+ *   dicionário passar de {@link #MAXIMO_DICIONARIO} entradas a coluna usa PLAIN
+ * - Páginas comprimidas com GZIP (java.util.zip) no nível mais rápido: ~5%
+ *   maior que o nível padrão, com ~25% menos tempo de exportação
+ * - Estatísticas min/max por coluna e grupo, que permitem aos leitores
+ *   descartar grupos inteiros em filtros
+ *
+ * Trade-off: a biblioteca oficial (parquet-java) depende do Hadoop, o que
+ * multiplicaria o tamanho do JAR; o formato em si (páginas + rodapé Thrift
+ * compact) é pequeno o bastante para ser escrito diretamente.
+ */
+public final class ArquivoParquetWriter implements Closeable {
+
+    public static final int LINHAS_POR_GRUPO = 262_144;
+    public static final int MAXIMO_DICIONARIO = 65_536;
+
+    private static final byte[] MAGIC = {'P', 'A', 'R', '1'};
+    private static final String CRIADO_POR = "intuitive-care-challenges version 1.0.0";
+
+    // Enums do parquet-format
+    private static final int TIPO_INT32 = 1;
+    private static final int TIPO_INT64 = 2;
+    private static final int TIPO_BYTE_ARRAY = 6;
+    private static final int REPETICAO_REQUIRED = 0;
+    private static final int CONVERTIDO_UTF8 = 0;
+    private static final int CONVERTIDO_DECIMAL = 5;
+    private static final int CODIFICACAO_PLAIN = 0;
+    private static final int CODIFICACAO_RLE = 3;
+    private static final int CODIFICACAO_RLE_DICTIONARY = 8;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGINA_DADOS = 0;
+    private static final int PAGINA_DICIONARIO = 2;
+    private static final int PRECISAO_DECIMAL = 18;
+
+    /**
+     * Tipos de coluna suportados
+     */
+    public enum TipoColuna {
+        TEXTO, INTEIRO, DECIMAL
+    } // TipoColuna
+
+    /**
+     * Definição de uma coluna (nome, tipo e, para decimais, a escala)
+     */
+    public static final class Coluna {
+        private final String nome;
+        private final TipoColuna tipo;
+        private final int escala;
+
+        private Coluna(String nome, TipoColuna tipo, int escala) {
+            this.nome = nome;
+            this.tipo = tipo;
+            this.escala = escala;
+        } // Coluna
+
+        public static Coluna texto(String nome) {
+            return new Coluna(nome, TipoColuna.TEXTO, 0);
+        } // texto
+
+        public static Coluna inteiro(String nome) {
+            return new Coluna(nome, TipoColuna.INTEIRO, 0);
+        } // inteiro
+
+        public static Coluna decimal(String nome, int escala) {
+            return new Coluna(nome, TipoColuna.DECIMAL, escala);
+        } // decimal
+
+        public String getNome() {
+            return nome;
+        } // getNome
+
+        public TipoColuna getTipo() {
+            return tipo;
+        } // getTipo
+    } // Coluna
+
+    private final List<Coluna> colunas;
+    private final SaidaContada saida;
+
+    // Buffers do grupo de linhas atual (por coluna, conforme o tipo)
+    private final String[][] textos;
+    private final int[][] inteiros;
+    private final long[][] decimais;
+    private int linhasGrupo;
+
+    private long totalLinhas;
+    private final List<byte[]> gruposSerializados = new ArrayList<>();
+
+    public ArquivoParquetWriter(Path arquivo, List<Coluna> colunas) throws IOException {
+        this.colunas = List.copyOf(colunas);
+        this.textos = new String[colunas.size()][];
+        this.inteiros = new int[colunas.size()][];
+        this.decimais = new long[colunas.size()][];
+        for (int i = 0; i < colunas.size(); i++) {
+            switch (colunas.get(i).tipo) {
+                case TEXTO -> textos[i] = new String[LINHAS_POR_GRUPO];
+                case INTEIRO -> inteiros[i] = new int[LINHAS_POR_GRUPO];
+                case DECIMAL -> decimais[i] = new long[LINHAS_POR_GRUPO];
+            } // switch
+        } // for
+
+        this.saida = new SaidaContada(new BufferedOutputStream(Files.newOutputStream(arquivo), 1 << 16));
+        saida.write(MAGIC);
+    } // ArquivoParquetWriter
+
+    /**
+     * Adiciona uma linha a partir dos valores em texto (um por coluna)
+     *
+     * @throws IllegalArgumentException se um valor não puder ser convertido ao tipo da coluna
+     */
+    public void adicionarLinha(String... valores) throws IOException {
+        if (valores.length != colunas.size()) {
+            throw new IllegalArgumentException("Esperados " + colunas.size() + " valores, recebidos " + valores.length);
+        } // if
+
+        for (int i = 0; i < valores.length; i++) {
+            Coluna coluna = colunas.get(i);
+            String valor = valores[i] != null ? valores[i] : "";
+            switch (coluna.tipo) {
+                case TEXTO -> textos[i][linhasGrupo] = valor;
+                case INTEIRO -> inteiros[i][linhasGrupo] = Integer.parseInt(valor.trim());
+                case DECIMAL -> decimais[i][linhasGrupo] = new BigDecimal(valor.trim())
+                    .setScale(coluna.escala, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+            } // switch
+        } // for
+
+        linhasGrupo++;
+        if (linhasGrupo == LINHAS_POR_GRUPO) {
+            escreverGrupo();
+        } // if
+    } // adicionarLinha
+
+    public long getTotalLinhas() {
+        return totalLinhas + linhasGrupo;
+    } // getTotalLinhas
+
+    /**
+     * Escreve o grupo pendente e o rodapé (FileMetaData)
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (linhasGrupo > 0) {
+                escreverGrupo();
+            } // if
+
+            byte[] rodape = serializarRodape();
+            saida.write(rodape);
+            escreverInt32(saida, rodape.length);
+            saida.write(MAGIC);
+        } finally {
+            saida.close();
+        } // try-finally
+    } // close
+
+    // ========================================================================
+    // Grupos de linhas e páginas
+    // ========================================================================
+
+    /**
+     * Metadados de uma coluna escrita em um grupo (ColumnMetaData)
+     */
+    private static final class MetadadosColuna {
+        long inicio;
+        long offsetDicionario = -1;
+        long offsetDados;
+        long tamanhoDescomprimido;
+        long tamanhoComprimido;
+        boolean dicionario;
+        byte[] minimo;
+        byte[] maximo;
+    } // MetadadosColuna
+
+    private void escreverGrupo() throws IOException {
+        List<MetadadosColuna> metadados = new ArrayList<>(colunas.size());
+        for (int i = 0; i < colunas.size(); i++) {
+            MetadadosColuna meta = new MetadadosColuna();
+            meta.inicio = saida.posicao;
+            switch (colunas.get(i).tipo) {
+                case TEXTO -> escreverColunaTexto(textos[i], meta);
+                case INTEIRO -> escreverColunaInteiro(inteiros[i], meta);
+                case DECIMAL -> escreverColunaDecimal(decimais[i], meta);
+            } // switch
+            metadados.add(meta);
+        } // for
+
+        gruposSerializados.add(serializarGrupo(metadados, linhasGrupo));
+        totalLinhas += linhasGrupo;
+
+        for (String[] coluna : textos) {
+            if (coluna != null) {
+                Arrays.fill(coluna, 0, linhasGrupo, null);
+            } // if
+        } // for
+        linhasGrupo = 0;
+    } // escreverGrupo
+
+    private void escreverColunaTexto(String[] valores, MetadadosColuna meta) throws IOException {
+        // Dicionário na ordem de primeira ocorrência
+        Map<String, Integer> ids = new HashMap<>();
+        List<byte[]> entradas = new ArrayList<>();
+        int[] indices = new int[linhasGrupo];
+        boolean usarDicionario = true;
+
+        for (int i = 0; i < linhasGrupo; i++) {
+            Integer id = ids.get(valores[i]);
+            if (id == null) {
+                if (entradas.size() == MAXIMO_DICIONARIO) {
+                    usarDicionario = false;
+                    break;
+                } // if
+                id = entradas.size();
+                ids.put(valores[i], id);
+                entradas.add(valores[i].getBytes(StandardCharsets.UTF_8));
+            } // if
+            indices[i] = id;
+        } // for
+
+        ByteArrayOutputStream plano = new ByteArrayOutputStream();
+        if (usarDicionario) {
+            for (byte[] entrada : entradas) {
+                escreverByteArray(plano, entrada);
+                atualizarMinMaxTexto(meta, entrada);
+            } // for
+            meta.dicionario = true;
+            meta.offsetDicionario = saida.posicao;
+            escreverPagina(PAGINA_DICIONARIO, plano.toByteArray(), entradas.size(), CODIFICACAO_PLAIN, meta);
+
+            meta.offsetDados = saida.posicao;
+            byte[] dados = codificarIndices(indices, linhasGrupo, larguraBits(entradas.size() - 1));
+            escreverPagina(PAGINA_DADOS, dados, linhasGrupo, CODIFICACAO_RLE_DICTIONARY, meta);
+        } else {
+            for (int i = 0; i < linhasGrupo; i++) {
+                byte[] valor = valores[i].getBytes(StandardCharsets.UTF_8);
+                escreverByteArray(plano, valor);
+                atualizarMinMaxTexto(meta, valor);
+            } // for
+            meta.offsetDados = saida.posicao;
+            escreverPagina(PAGINA_DADOS, plano.toByteArray(), linhasGrupo, CODIFICACAO_PLAIN, meta);
+        } // if-else
+    } // escreverColunaTexto
+
+    private void escreverColunaInteiro(int[] valores, MetadadosColuna meta) throws IOException {
+        ByteArrayOutputStream plano = new ByteArrayOutputStream(linhasGrupo * Integer.BYTES);
+        int minimo = Integer.MAX_VALUE;
+        int maximo = Integer.MIN_VALUE;
+        for (int i = 0; i < linhasGrupo; i++) {
+            escreverInt32(plano, valores[i]);
+            minimo = Math.min(minimo, valores[i]);
+            maximo = Math.max(maximo, valores[i]);
+        } // for
+        if (linhasGrupo > 0) {
+            meta.minimo = bytesInt32(minimo);
+            meta.maximo = bytesInt32(maximo);
+        } // if
+
+        meta.offsetDados = saida.posicao;
+        escreverPagina(PAGINA_DADOS, plano.toByteArray(), linhasGrupo, CODIFICACAO_PLAIN, meta);
+    } // escreverColunaInteiro
+
+    private void escreverColunaDecimal(long[] valores, MetadadosColuna meta) throws IOException {
+        ByteArrayOutputStream plano = new ByteArrayOutputStream(linhasGrupo * Long.BYTES);
+        long minimo = Long.MAX_VALUE;
+        long maximo = Long.MIN_VALUE;
+        for (int i = 0; i < linhasGrupo; i++) {
+            escreverInt64(plano, valores[i]);
+            minimo = Math.min(minimo, valores[i]);
+            maximo = Math.max(maximo, valores[i]);
+        } // for
+        if (linhasGrupo > 0) {
+            meta.minimo = bytesInt64(minimo);
+            meta.maximo = bytesInt64(maximo);
+        } // if
+
+        meta.offsetDados = saida.posicao;
+        escreverPagina(PAGINA_DADOS, plano.toByteArray(), linhasGrupo, CODIFICACAO_PLAIN, meta);
+    } // escreverColunaDecimal
+
+    /**
+     * Comprime o corpo da página e a escreve precedida do PageHeader
+     */
+    private void escreverPagina(int tipoPagina, byte[] corpo, int quantidadeValores, int codificacao,
+                                MetadadosColuna meta) throws IOException {
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(corpo.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            gzip.write(corpo);
+        } // try
+        byte[] corpoComprimido = comprimido.toByteArray();
+
+        Thrift cabecalho = new Thrift();
+        cabecalho.iniciar();
+        cabecalho.i32(1, tipoPagina);
+        cabecalho.i32(2, corpo.length);
+        cabecalho.i32(3, corpoComprimido.length);
+        if (tipoPagina == PAGINA_DADOS) {
+            cabecalho.iniciarStruct(5);
+            cabecalho.i32(1, quantidadeValores);
+            cabecalho.i32(2, codificacao);
+            cabecalho.i32(3, CODIFICACAO_RLE);
+            cabecalho.i32(4, CODIFICACAO_RLE);
+            cabecalho.fimStruct();
+        } else {
+            cabecalho.iniciarStruct(7);
+            cabecalho.i32(1, quantidadeValores);
+            cabecalho.i32(2, codificacao);
+            cabecalho.fimStruct();
+        } // if-else
+        cabecalho.fimStruct();
+        byte[] bytesCabecalho = cabecalho.bytes();
+
+        saida.write(bytesCabecalho);
+        saida.write(corpoComprimido);
+        meta.tamanhoDescomprimido += bytesCabecalho.length + corpo.length;
+        meta.tamanhoComprimido += bytesCabecalho.length + corpoComprimido.length;
+    } // escreverPagina
+
+    /**
+     * Índices do dicionário: largura em bits (1 byte) seguida de uma corrida
+     * bit-packed do híbrido RLE/bit-packing (grupos de 8 valores, LSB primeiro)
+     */
+    private static byte[] codificarIndices(int[] indices, int quantidade, int largura) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(quantidade * largura / 8 + 16);
+        saida.write(largura);
+
+        int grupos = (quantidade + 7) / 8;
+        escreverVarint(saida, ((long) grupos << 1) | 1);
+
+        long acumulado = 0;
+        int bits = 0;
+        for (int i = 0; i < grupos * 8; i++) {
+            long valor = i < quantidade ? indices[i] : 0;
+            acumulado |= valor << bits;
+            bits += largura;
+            while (bits >= 8) {
+                saida.write((int) (acumulado & 0xFF));
+                acumulado >>>= 8;
+                bits -= 8;
+            } // while
+        } // for
+        return saida.toByteArray();
+    } // codificarIndices
+
+    private static int larguraBits(int maiorValor) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maiorValor));
+    } // larguraBits
+
+    /**
+     * Min/max de texto pela ordem de bytes sem sinal (ordem do tipo UTF8)
+     */
+    private static void atualizarMinMaxTexto(MetadadosColuna meta, byte[] valor) {
+        if (meta.minimo == null || Arrays.compareUnsigned(valor, meta.minimo) < 0) {
+            meta.minimo = valor;
+        } // if
+        if (meta.maximo == null || Arrays.compareUnsigned(valor, meta.maximo) > 0) {
+            meta.maximo = valor;
+        } // if
+    } // atualizarMinMaxTexto
+
+    // ========================================================================
+    // Metadados (Thrift compact protocol)
+    // ========================================================================
+
+    /**
+     * RowGroup com os ColumnChunk de cada coluna
+     */
+    private byte[] serializarGrupo(List<MetadadosColuna> metadados, int linhas) {
+        Thrift t = new Thrift();
+        t.iniciar();
+        t.lista(1, Thrift.STRUCT, metadados.size());
+        long totalDescomprimido = 0;
+        long totalComprimido = 0;
+        for (int i = 0; i < metadados.size(); i++) {
+            MetadadosColuna meta = metadados.get(i);
+            Coluna coluna = colunas.get(i);
+            totalDescomprimido += meta.tamanhoDescomprimido;
+            totalComprimido += meta.tamanhoComprimido;
+
+            // ColumnChunk
+            t.iniciar();
+            t.i64(2, meta.inicio);
+            t.iniciarStruct(3);
+
+            // ColumnMetaData
+            t.i32(1, tipoFisico(coluna));
+            if (meta.dicionario) {
+                t.lista(2, Thrift.I32, 2);
+                t.elementoI32(CODIFICACAO_PLAIN);
+                t.elementoI32(CODIFICACAO_RLE_DICTIONARY);
+            } else {
+                t.lista(2, Thrift.I32, 1);
+                t.elementoI32(CODIFICACAO_PLAIN);
+            } // if-else
+            t.lista(3, Thrift.BINARY, 1);
+            t.elementoBinario(coluna.nome.getBytes(StandardCharsets.UTF_8));
+            t.i32(4, CODEC_GZIP);
+            t.i64(5, linhas);
+            t.i64(6, meta.tamanhoDescomprimido);
+            t.i64(7, meta.tamanhoComprimido);
+            t.i64(9, meta.offsetDados);
+            if (meta.dicionario) {
+                t.i64(11, meta.offsetDicionario);
+            } // if
+
+            // Statistics
+            t.iniciarStruct(12);
+            t.i64(3, 0);
+            if (meta.minimo != null) {
+                t.binario(5, meta.maximo);
+                t.binario(6, meta.minimo);
+            } // if
+            t.fimStruct();
+
+            t.fimStruct(); // ColumnMetaData
+            t.fimStruct(); // ColumnChunk
+        } // for
+        t.i64(2, totalDescomprimido);
+        t.i64(3, linhas);
+        if (!metadados.isEmpty()) {
+            t.i64(5, metadados.get(0).inicio);
+        } // if
+        t.i64(6, totalComprimido);
+        t.i16(7, gruposSerializados.size());
+        t.fimStruct();
+        return t.bytes();
+    } // serializarGrupo
+
+    /**
+     * FileMetaData: esquema, grupos de linhas e ordem de comparação das colunas
+     */
+    private byte[] serializarRodape() {
+        Thrift t = new Thrift();
+        t.iniciar();
+        t.i32(1, 1);
+
+        // Esquema: raiz + uma folha por coluna
+        t.lista(2, Thrift.STRUCT, colunas.size() + 1);
+        t.iniciar();
+        t.binario(4, "schema".getBytes(StandardCharsets.UTF_8));
+        t.i32(5, colunas.size());
+        t.fimStruct();
+        for (Coluna coluna : colunas) {
+            t.iniciar();
+            t.i32(1, tipoFisico(coluna));
+            t.i32(3, REPETICAO_REQUIRED);
+            t.binario(4, coluna.nome.getBytes(StandardCharsets.UTF_8));
+            if (coluna.tipo == TipoColuna.TEXTO) {
+                t.i32(6, CONVERTIDO_UTF8);
+                t.iniciarStruct(10);
+                t.iniciarStruct(1); // StringType
+                t.fimStruct();
+                t.fimStruct();
+            } else if (coluna.tipo == TipoColuna.DECIMAL) {
+                t.i32(6, CONVERTIDO_DECIMAL);
+                t.i32(7, coluna.escala);
+                t.i32(8, PRECISAO_DECIMAL);
+                t.iniciarStruct(10);
+                t.iniciarStruct(5); // DecimalType
+                t.i32(1, coluna.escala);
+                t.i32(2, PRECISAO_DECIMAL);
+                t.fimStruct();
+                t.fimStruct();
+            } // if-else
+            t.fimStruct();
+        } // for
+
+        t.i64(3, totalLinhas);
+
+        t.lista(4, Thrift.STRUCT, gruposSerializados.size());
+        for (byte[] grupo : gruposSerializados) {
+            t.bruto(grupo);
+        } // for
+
+        t.binario(6, CRIADO_POR.getBytes(StandardCharsets.UTF_8));
+
+        // ColumnOrder: TypeDefinedOrder para todas as colunas
+        t.lista(7, Thrift.STRUCT, colunas.size());
+        for (int i = 0; i < colunas.size(); i++) {
+            t.iniciar();
+            t.iniciarStruct(1);
+            t.fimStruct();
+            t.fimStruct();
+        } // for
+
+        t.fimStruct();
+        return t.bytes();
+    } // serializarRodape
+
+    private static int tipoFisico(Coluna coluna) {
+        return switch (coluna.tipo) {
+            case TEXTO -> TIPO_BYTE_ARRAY;
+            case INTEIRO -> TIPO_INT32;
+            case DECIMAL -> TIPO_INT64;
+        };
+    } // tipoFisico
+
+    /**
+     * Codificador mínimo do Thrift compact protocol (structs, listas, i16/i32/i64 e binário)
+     */
+    private static final class Thrift {
+        static final int I16 = 4;
+        static final int I32 = 5;
+        static final int I64 = 6;
+        static final int BINARY = 8;
+        static final int LIST = 9;
+        static final int STRUCT = 12;
+
+        private final ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        private final int[] pilha = new int[32];
+        private int nivel;
+        private int ultimoCampo;
+
+        /**
+         * Inicia uma struct de nível superior ou elemento de lista
+         */
+        void iniciar() {
+            pilha[nivel++] = ultimoCampo;
+            ultimoCampo = 0;
+        } // iniciar
+
+        void iniciarStruct(int id) {
+            campo(id, STRUCT);
+            iniciar();
+        } // iniciarStruct
+
+        void fimStruct() {
+            saida.write(0);
+            ultimoCampo = pilha[--nivel];
+        } // fimStruct
+
+        void i16(int id, int valor) {
+            campo(id, I16);
+            escreverVarint(saida, zigzag(valor));
+        } // i16
+
+        void i32(int id, int valor) {
+            campo(id, I32);
+            escreverVarint(saida, zigzag(valor));
+        } // i32
+
+        void i64(int id, long valor) {
+            campo(id, I64);
+            escreverVarint(saida, zigzag(valor));
+        } // i64
+
+        void binario(int id, byte[] valor) {
+            campo(id, BINARY);
+            elementoBinario(valor);
+        } // binario
+
+        void lista(int id, int tipoElemento, int tamanho) {
+            campo(id, LIST);
+            if (tamanho < 15) {
+                saida.write((tamanho << 4) | tipoElemento);
+            } else {
+                saida.write(0xF0 | tipoElemento);
+                escreverVarint(saida, tamanho);
+            } // if-else
+        } // lista
+
+        void elementoI32(int valor) {
+            escreverVarint(saida, zigzag(valor));
+        } // elementoI32
+
+        void elementoBinario(byte[] valor) {
+            escreverVarint(saida, valor.length);
+            saida.write(valor, 0, valor.length);
+        } // elementoBinario
+
+        /**
+         * Bytes já serializados (ex.: struct completa de um elemento de lista)
+         */
+        void bruto(byte[] bytes) {
+            saida.write(bytes, 0, bytes.length);
+        } // bruto
+
+        byte[] bytes() {
+            return saida.toByteArray();
+        } // bytes
+
+        private void campo(int id, int tipo) {
+            int delta = id - ultimoCampo;
+            if (delta > 0 && delta <= 15) {
+                saida.write((delta << 4) | tipo);
+            } else {
+                saida.write(tipo);
+                escreverVarint(saida, zigzag(id));
+            } // if-else
+            ultimoCampo = id;
+        } // campo
+
+        private static long zigzag(long valor) {
+            return (valor << 1) ^ (valor >> 63);
+        } // zigzag
+    } // Thrift
+
+    // ========================================================================
+    // Primitivas little-endian e varint
+    // ========================================================================
+
+    private static void escreverVarint(ByteArrayOutputStream saida, long valor) {
+        long restante = valor;
+        while ((restante & ~0x7FL) != 0) {
+            saida.write((int) ((restante & 0x7F) | 0x80));
+            restante >>>= 7;
+        } // while
+        saida.write((int) restante);
+    } // escreverVarint
+
+    private static void escreverByteArray(ByteArrayOutputStream saida, byte[] valor) throws IOException {
+        escreverInt32(saida, valor.length);
+        saida.write(valor);
+    } // escreverByteArray
+
+    private static void escreverInt32(OutputStream saida, int valor) throws IOException {
+        saida.write(valor);
+        saida.write(valor >>> 8);
+        saida.write(valor >>> 16);
+        saida.write(valor >>> 24);
+    } // escreverInt32
+
+    private static void escreverInt64(OutputStream saida, long valor) throws IOException {
+        escreverInt32(saida, (int) valor);
+        escreverInt32(saida, (int) (valor >>> 32));
+    } // escreverInt64
+
+    private static byte[] bytesInt32(int valor) {
+        return new byte[]{(byte) valor, (byte) (valor >>> 8), (byte) (valor >>> 16), (byte) (valor >>> 24)};
+    } // bytesInt32
+
+    private static byte[] bytesInt64(long valor) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[i] = (byte) (valor >>> (8 * i));
+        } // for
+        return bytes;
+    } // bytesInt64
+
+    /**
+     * OutputStream que acompanha a posição no arquivo (offsets das páginas)
+     */
+    private static final class SaidaContada extends OutputStream {
+        private final OutputStream destino;
+        long posicao;
+
+        SaidaContada(OutputStream destino) {
+            this.destino = destino;
+        } // SaidaContada
+
+        @Override
+        public void write(int b) throws IOException {
+            destino.write(b);
+            posicao++;
+        } // write
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            destino.write(b, off, len);
+            posicao += len;
+        } // write
+
+        @Override
+        public void close() throws IOException {
+            destino.close();
+        } // close
+    } // SaidaContada
+} // ArquivoParquetWriter
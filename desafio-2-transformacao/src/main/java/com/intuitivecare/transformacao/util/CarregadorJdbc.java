@@ -0,0 +1,300 @@
+package com.intuitivecare.transformacao.util;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Carga em massa de linhas em uma tabela via JDBC, com escritores paralelos
+ *
+ * A thread chamadora acumula linhas em lotes; cada lote cheio entra em uma
+ * fila limitada e é gravado por um dos escritores, cada um com sua própria
+ * conexão e um commit por lote. Em PostgreSQL o lote é enviado com
+ * COPY ... FROM STDIN (CSV); nos demais bancos (H2, SQLite etc.) com
+ * PreparedStatement.addBatch/executeBatch.
+ *
+ * Trade-off: COMMIT POR LOTE
+ * - Memória e duração das transações limitadas pelo tamanho do lote
+ * - Escritores não disputam a mesma transação
+ * - Uma falha interrompe a carga, mas os lotes já confirmados permanecem
+ *   (a carga não é atômica; recarregar exige limpar a tabela antes)
+ */
+public final class CarregadorJdbc implements AutoCloseable {
+
+    /**
+     * Origem das conexões dos escritores (ex.: DriverManager ou DataSource)
+     */
+    @FunctionalInterface
+    public interface FonteConexao {
+        Connection abrir() throws SQLException;
+    } // FonteConexao
+
+    // Marcador de fim da fila (um por escritor)
+    private static final Lote FIM = new Lote(0);
+
+    private final FonteConexao fonte;
+    private final String tabela;
+    private final int[] tipos;
+    private final String sqlInsert;
+    private final String sqlCopy;
+    private final int tamanhoLote;
+
+    private final BlockingQueue<Lote> fila;
+    private final ExecutorService executor;
+    private final List<Future<Long>> escritores = new ArrayList<>();
+    private final AtomicReference<Exception> falha = new AtomicReference<>();
+
+    private Lote loteAtual;
+    private long linhasImportadas;
+    private boolean fechado;
+
+    /**
+     * @param colunas Colunas de destino, na ordem dos valores de cada linha
+     * @param tipos Tipos java.sql.Types das colunas (usados em valores nulos)
+     * @param tamanhoLote Linhas por lote (e por commit)
+     * @param quantidadeEscritores Conexões gravando em paralelo
+     */
+    public CarregadorJdbc(FonteConexao fonte, String tabela, String[] colunas, int[] tipos,
+                          int tamanhoLote, int quantidadeEscritores) {
+        if (colunas.length != tipos.length) {
+            throw new IllegalArgumentException("Colunas e tipos com tamanhos diferentes em " + tabela);
+        } // if
+        if (tamanhoLote < 1 || quantidadeEscritores < 1) {
+            throw new IllegalArgumentException("Tamanho de lote e escritores devem ser positivos");
+        } // if
+
+        this.fonte = fonte;
+        this.tabela = tabela;
+        this.tipos = tipos.clone();
+        this.tamanhoLote = tamanhoLote;
+
+        String listaColunas = String.join(", ", colunas);
+        this.sqlInsert = "INSERT INTO " + tabela + " (" + listaColunas + ") VALUES ("
+            + "?, ".repeat(colunas.length - 1) + "?)";
+        this.sqlCopy = "COPY " + tabela + " (" + listaColunas + ") FROM STDIN WITH (FORMAT csv)";
+
+        // Fila com folga de um lote por escritor: a leitura não espera o banco
+        this.fila = new ArrayBlockingQueue<>(quantidadeEscritores * 2);
+        this.executor = Executors.newFixedThreadPool(quantidadeEscritores);
+        for (int i = 0; i < quantidadeEscritores; i++) {
+            escritores.add(executor.submit(this::executarEscritor));
+        } // for
+        this.loteAtual = new Lote(tamanhoLote);
+    } // CarregadorJdbc
+
+    /**
+     * Adiciona uma linha (valores na ordem das colunas; null vira NULL)
+     *
+     * @throws SQLException se algum escritor já falhou (a carga deve parar)
+     */
+    public void adicionar(Object... valores) throws SQLException {
+        if (valores.length != tipos.length) {
+            throw new IllegalArgumentException("Linha com " + valores.length + " valores; "
+                + tabela + " espera " + tipos.length);
+        } // if
+
+        loteAtual.linhas[loteAtual.tamanho++] = valores;
+        if (loteAtual.tamanho == tamanhoLote) {
+            enfileirar(loteAtual);
+            loteAtual = new Lote(tamanhoLote);
+        } // if
+    } // adicionar
+
+    /**
+     * Envia o último lote, aguarda os escritores e propaga a primeira falha
+     */
+    @Override
+    public void close() throws SQLException {
+        if (fechado) {
+            return;
+        } // if
+        fechado = true;
+
+        try {
+            if (loteAtual.tamanho > 0 && falha.get() == null) {
+                fila.put(loteAtual);
+            } // if
+            for (int i = 0; i < escritores.size(); i++) {
+                fila.put(FIM);
+            } // for
+            for (Future<Long> escritor : escritores) {
+                linhasImportadas += escritor.get();
+            } // for
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Carga de " + tabela + " interrompida", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Erro inesperado na carga de " + tabela, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        } // try-catch
+
+        lancarFalha();
+    } // close
+
+    /**
+     * Linhas confirmadas no banco (definitivo após close)
+     */
+    public long getLinhasImportadas() {
+        return linhasImportadas;
+    } // getLinhasImportadas
+
+    public String getTabela() {
+        return tabela;
+    } // getTabela
+
+    private void enfileirar(Lote lote) throws SQLException {
+        lancarFalha();
+        try {
+            fila.put(lote);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Carga de " + tabela + " interrompida", e);
+        } // try-catch
+    } // enfileirar
+
+    /**
+     * Lança a falha registrada; sempre uma nova exceção, pois adicionar e
+     * close podem lançá-la no mesmo try-with-resources
+     */
+    private void lancarFalha() throws SQLException {
+        Exception causa = falha.get();
+        if (causa != null) {
+            String estado = causa instanceof SQLException sqlException ? sqlException.getSQLState() : null;
+            throw new SQLException("Erro na carga de " + tabela + ": " + causa.getMessage(), estado, causa);
+        } // if
+    } // lancarFalha
+
+    /**
+     * Laço de um escritor; após uma falha (própria ou de outro escritor)
+     * apenas esvazia a fila, para que a leitura nunca fique bloqueada.
+     * RuntimeException do driver (ou da conversão de um valor) conta como
+     * falha da carga: sem isso o escritor morreria sem registrá-la e o
+     * fila.put de adicionar/close esperaria para sempre.
+     */
+    private long executarEscritor() throws InterruptedException {
+        long gravadas = 0;
+        boolean fimRecebido = false;
+        try (Connection conexao = fonte.abrir()) {
+            conexao.setAutoCommit(false);
+            CopyManager copy = conexao.isWrapperFor(PGConnection.class)
+                ? conexao.unwrap(PGConnection.class).getCopyAPI()
+                : null;
+
+            try (PreparedStatement stmt = copy == null ? conexao.prepareStatement(sqlInsert) : null) {
+                StringBuilder csv = copy != null ? new StringBuilder(tamanhoLote * 128) : null;
+                Lote lote;
+                while ((lote = fila.take()) != FIM) {
+                    if (falha.get() != null) {
+                        continue;
+                    } // if
+                    try {
+                        if (copy != null) {
+                            gravarCopy(copy, lote, csv);
+                        } else {
+                            gravarBatch(stmt, lote);
+                        } // if
+                        conexao.commit();
+                        gravadas += lote.tamanho;
+                    } catch (SQLException | IOException | RuntimeException e) {
+                        falha.compareAndSet(null, e);
+                        conexao.rollback();
+                    } // try-catch
+                } // while
+                fimRecebido = true;
+            } // try
+        } catch (SQLException | RuntimeException e) {
+            falha.compareAndSet(null, e);
+            // Falha ao fechar a conexão: o marcador deste escritor já foi consumido
+            if (!fimRecebido) {
+                drenar();
+            } // if
+        } // try-catch
+        return gravadas;
+    } // executarEscritor
+
+    private void drenar() throws InterruptedException {
+        while (fila.take() != FIM) {
+            // descartar
+        } // while
+    } // drenar
+
+    private void gravarBatch(PreparedStatement stmt, Lote lote) throws SQLException {
+        for (int i = 0; i < lote.tamanho; i++) {
+            Object[] linha = lote.linhas[i];
+            for (int c = 0; c < linha.length; c++) {
+                if (linha[c] == null) {
+                    stmt.setNull(c + 1, tipos[c]);
+                } else {
+                    stmt.setObject(c + 1, linha[c], tipos[c]);
+                } // if
+            } // for
+            stmt.addBatch();
+        } // for
+        stmt.executeBatch();
+    } // gravarBatch
+
+    /**
+     * Renderiza o lote em CSV (campo vazio sem aspas = NULL) e envia via COPY
+     */
+    private void gravarCopy(CopyManager copy, Lote lote, StringBuilder csv) throws SQLException, IOException {
+        csv.setLength(0);
+        for (int i = 0; i < lote.tamanho; i++) {
+            Object[] linha = lote.linhas[i];
+            for (int c = 0; c < linha.length; c++) {
+                if (c > 0) {
+                    csv.append(',');
+                } // if
+                acrescentarCampoCsv(linha[c], csv);
+            } // for
+            csv.append('\n');
+        } // for
+        copy.copyIn(sqlCopy, new StringReader(csv.toString()));
+    } // gravarCopy
+
+    private static void acrescentarCampoCsv(Object valor, StringBuilder csv) {
+        if (valor == null) {
+            return;
+        } // if
+        if (valor instanceof BigDecimal decimal) {
+            csv.append(decimal.toPlainString());
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            csv.append(valor);
+        } else {
+            String texto = valor.toString();
+            csv.append('"');
+            for (int i = 0; i < texto.length(); i++) {
+                char ch = texto.charAt(i);
+                if (ch == '"') {
+                    csv.append('"');
+                } // if
+                csv.append(ch);
+            } // for
+            csv.append('"');
+        } // if
+    } // acrescentarCampoCsv
+
+    private static final class Lote {
+        final Object[][] linhas;
+        int tamanho;
+
+        Lote(int capacidade) {
+            this.linhas = new Object[capacidade][];
+        } // Lote
+    } // Lote
+} // CarregadorJdbc
@@ -1,8 +1,20 @@
 package com.intuitivecare.transformacao.util;
 
+import java.nio.CharBuffer;
+import java.util.List;
+
 /**
  * Utilitário para validação de CNPJ
  * Implementa validação completa com dígitos verificadores
+ * 
+ * A validação percorre os caracteres uma única vez, ignorando não dígitos
+ * e acumulando as duas somas ponderadas ao mesmo tempo (sem regex e sem
+ * alocação). Para grandes volumes há uma API em lote sobre arrays
+ * empacotados (char[] com offsets, ou byte[] com 14 dígitos por CNPJ).
+ * 
+ * normalize/format também evitam regex; as variantes normalizeTo/formatTo
+ * escrevem em um char[]/StringBuilder do chamador, e toLong/fromLong
+ * representam o CNPJ (14 dígitos) como um long, útil como chave de hash.
  */
 public final class CnpjValidator {
 
@@ -12,6 +24,17 @@ public final class CnpjValidator {
     // Pesos para cálculo do segundo dígito verificador
     private static final int[] PESOS_SEGUNDO = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
 
+    private static final int TAMANHO_CNPJ = 14;
+
+    // Tamanho do CNPJ formatado (XX.XXX.XXX/XXXX-XX)
+    private static final int TAMANHO_FORMATADO = 18;
+
+    // Valor de toLong para entradas sem dígitos ou que não cabem em 14 dígitos
+    public static final long CNPJ_INVALIDO = -1L;
+
+    // Dígito verificador esperado para cada resto possível da soma (mod 11)
+    private static final int[] DIGITO_POR_RESTO = {0, 0, 9, 8, 7, 6, 5, 4, 3, 2, 1};
+
     private CnpjValidator() {
         // Construtor privado para classe utilitária
     } // CnpjValidator
@@ -27,21 +50,7 @@ public final class CnpjValidator {
             return false;
         } // if
 
-        // Remover caracteres não numéricos
-        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
-
-        // Verificar tamanho
-        if (cnpjNumerico.length() != 14) {
-            return false;
-        } // if
-
-        // Verificar se todos os dígitos são iguais (CNPJs inválidos conhecidos)
-        if (todosDigitosIguais(cnpjNumerico)) {
-            return false;
-        } // if
-
-        // Calcular e verificar dígitos verificadores
-        return verificarDigitos(cnpjNumerico);
+        return validarIntervalo(cnpj, 0, cnpj.length());
     } // isValid
 
     /**
@@ -52,10 +61,91 @@ public final class CnpjValidator {
             return false;
         } // if
 
-        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
-        return cnpjNumerico.length() == 14;
+        return contarDigitos(cnpj) == TAMANHO_CNPJ;
     } // hasValidFormat
 
+    /**
+     * Valida um lote de CNPJs empacotados em um único char[]
+     * 
+     * O CNPJ i ocupa packed[offsets[i], offsets[i + 1]) e pode conter pontuação.
+     * 
+     * @param packed  Caracteres de todos os CNPJs, concatenados
+     * @param offsets Início de cada CNPJ (count + 1 posições)
+     * @param count   Quantidade de CNPJs
+     * @param results Recebe o resultado de cada CNPJ (tamanho >= count)
+     */
+    public static void validateBatch(char[] packed, int[] offsets, int count, boolean[] results) {
+        // Uma visão CharSequence do array para todo o lote (sem cópia)
+        CharSequence caracteres = CharBuffer.wrap(packed);
+        for (int i = 0; i < count; i++) {
+            results[i] = validarIntervalo(caracteres, offsets[i], offsets[i + 1]);
+        } // for
+    } // validateBatch
+
+    /**
+     * Valida um lote de CNPJs já normalizados em largura fixa
+     * 
+     * O CNPJ i ocupa digits[i * 14, i * 14 + 14), em ASCII ('0'..'9').
+     * 
+     * @param digits  14 dígitos ASCII por CNPJ
+     * @param count   Quantidade de CNPJs
+     * @param results Recebe o resultado de cada CNPJ (tamanho >= count)
+     */
+    public static void validateDigitsBatch(byte[] digits, int count, boolean[] results) {
+        for (int i = 0; i < count; i++) {
+            int base = i * TAMANHO_CNPJ;
+            int soma1 = 0;
+            int soma2 = 0;
+            boolean digitosValidos = true;
+            boolean todosIguais = true;
+            int primeiro = digits[base];
+
+            for (int j = 0; j < 12; j++) {
+                int d = digits[base + j] - '0';
+                digitosValidos &= (d >= 0 && d <= 9);
+                todosIguais &= (digits[base + j] == primeiro);
+                soma1 += d * PESOS_PRIMEIRO[j];
+                soma2 += d * PESOS_SEGUNDO[j];
+            } // for
+
+            int dv1 = digits[base + 12] - '0';
+            int dv2 = digits[base + 13] - '0';
+            digitosValidos &= (dv1 >= 0 && dv1 <= 9) && (dv2 >= 0 && dv2 <= 9);
+            todosIguais &= (digits[base + 12] == primeiro) && (digits[base + 13] == primeiro);
+            soma2 += dv1 * PESOS_SEGUNDO[12];
+
+            results[i] = digitosValidos && !todosIguais
+                && DIGITO_POR_RESTO[soma1 % 11] == dv1
+                && DIGITO_POR_RESTO[soma2 % 11] == dv2;
+        } // for
+    } // validateDigitsBatch
+
+    /**
+     * Conveniência: empacota e valida uma lista de CNPJs
+     */
+    public static boolean[] validateBatch(List<String> cnpjs) {
+        int count = cnpjs.size();
+        int[] offsets = new int[count + 1];
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            String cnpj = cnpjs.get(i);
+            total += cnpj != null ? cnpj.length() : 0;
+            offsets[i + 1] = total;
+        } // for
+
+        char[] packed = new char[total];
+        for (int i = 0; i < count; i++) {
+            String cnpj = cnpjs.get(i);
+            if (cnpj != null) {
+                cnpj.getChars(0, cnpj.length(), packed, offsets[i]);
+            } // if
+        } // for
+
+        boolean[] results = new boolean[count];
+        validateBatch(packed, offsets, count, results);
+        return results;
+    } // validateBatch
+
     /**
      * Formata CNPJ para exibição (XX.XXX.XXX/XXXX-XX)
      */
@@ -64,20 +154,38 @@ public final class CnpjValidator {
             return "";
         } // if
 
-        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
-        
-        if (cnpjNumerico.length() != 14) {
+        if (contarDigitos(cnpj) != TAMANHO_CNPJ) {
             return cnpj; // Retorna original se não puder formatar
         } // if
 
-        return String.format("%s.%s.%s/%s-%s",
-            cnpjNumerico.substring(0, 2),
-            cnpjNumerico.substring(2, 5),
-            cnpjNumerico.substring(5, 8),
-            cnpjNumerico.substring(8, 12),
-            cnpjNumerico.substring(12, 14));
+        char[] formatado = new char[TAMANHO_FORMATADO];
+        escreverFormatado(cnpj, formatado);
+        return new String(formatado);
     } // format
 
+    /**
+     * Formata CNPJ (XX.XXX.XXX/XXXX-XX) acrescentando ao StringBuilder do chamador
+     * 
+     * @return true se formatado; false se não tiver 14 dígitos (nada é escrito)
+     */
+    public static boolean formatTo(CharSequence cnpj, StringBuilder destino) {
+        if (cnpj == null || contarDigitos(cnpj) != TAMANHO_CNPJ) {
+            return false;
+        } // if
+
+        int posicao = 0;
+        for (int i = 0; i < cnpj.length(); i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            } // if
+            acrescentarSeparador(destino, posicao);
+            destino.append(c);
+            posicao++;
+        } // for
+        return true;
+    } // formatTo
+
     /**
      * Normaliza CNPJ (apenas números, com padding de zeros à esquerda)
      */
@@ -86,62 +194,184 @@ public final class CnpjValidator {
             return "";
         } // if
 
-        String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
-        
-        // Adicionar zeros à esquerda se necessário
-        while (cnpjNumerico.length() < 14) {
-            cnpjNumerico = "0" + cnpjNumerico;
-        } // while
-
-        return cnpjNumerico;
+        int digitos = contarDigitos(cnpj);
+        char[] normalizado = new char[Math.max(digitos, TAMANHO_CNPJ)];
+        escreverNormalizado(cnpj, digitos, normalizado, 0, normalizado.length);
+        return new String(normalizado);
     } // normalize
 
     /**
-     * Verifica se todos os dígitos são iguais
+     * Normaliza CNPJ escrevendo 14 dígitos em destino[offset, offset + 14)
+     * 
+     * @return true se normalizado; false se tiver mais de 14 dígitos (nada é escrito)
      */
-    private static boolean todosDigitosIguais(String cnpj) {
-        char primeiro = cnpj.charAt(0);
-        for (int i = 1; i < cnpj.length(); i++) {
-            if (cnpj.charAt(i) != primeiro) {
-                return false;
+    public static boolean normalizeTo(CharSequence cnpj, char[] destino, int offset) {
+        int digitos = cnpj != null ? contarDigitos(cnpj) : 0;
+        if (digitos > TAMANHO_CNPJ) {
+            return false;
+        } // if
+
+        escreverNormalizado(cnpj, digitos, destino, offset, TAMANHO_CNPJ);
+        return true;
+    } // normalizeTo
+
+    /**
+     * Representação compacta do CNPJ normalizado (até 14 dígitos) em um long
+     * 
+     * @return Valor numérico do CNPJ, ou CNPJ_INVALIDO se nulo, sem nenhum dígito
+     *         ("", "abc") ou com mais de 14 dígitos
+     */
+    public static long toLong(CharSequence cnpj) {
+        if (cnpj == null) {
+            return CNPJ_INVALIDO;
+        } // if
+
+        long valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cnpj.length(); i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            } // if
+            if (++digitos > TAMANHO_CNPJ) {
+                return CNPJ_INVALIDO;
             } // if
+            valor = valor * 10 + (c - '0');
         } // for
-        return true;
-    } // todosDigitosIguais
+        return digitos == 0 ? CNPJ_INVALIDO : valor;
+    } // toLong
 
     /**
-     * Verifica os dígitos verificadores do CNPJ
+     * Escreve os 14 dígitos de um CNPJ obtido por toLong em destino[offset, offset + 14)
      */
-    private static boolean verificarDigitos(String cnpj) {
-        try {
-            // Calcular primeiro dígito verificador
-            int soma1 = 0;
-            for (int i = 0; i < 12; i++) {
-                soma1 += Character.getNumericValue(cnpj.charAt(i)) * PESOS_PRIMEIRO[i];
-            } // for
-            
-            int resto1 = soma1 % 11;
-            int digito1 = (resto1 < 2) ? 0 : (11 - resto1);
-            
-            // Verificar primeiro dígito
-            if (Character.getNumericValue(cnpj.charAt(12)) != digito1) {
-                return false;
+    public static void fromLong(long cnpj, char[] destino, int offset) {
+        long restante = cnpj;
+        for (int i = offset + TAMANHO_CNPJ - 1; i >= offset; i--) {
+            destino[i] = (char) ('0' + (restante % 10));
+            restante /= 10;
+        } // for
+    } // fromLong
+
+    /**
+     * CNPJ normalizado (14 dígitos) a partir da representação de toLong
+     */
+    public static String fromLong(long cnpj) {
+        char[] digitos = new char[TAMANHO_CNPJ];
+        fromLong(cnpj, digitos, 0);
+        return new String(digitos);
+    } // fromLong
+
+    /**
+     * Copia os dígitos alinhados à direita em destino[offset, offset + largura),
+     * preenchendo à esquerda com zeros
+     */
+    private static void escreverNormalizado(CharSequence cnpj, int digitos, char[] destino, int offset, int largura) {
+        int posicao = offset;
+        for (int i = digitos; i < largura; i++) {
+            destino[posicao++] = '0';
+        } // for
+        if (cnpj == null) {
+            return;
+        } // if
+        for (int i = 0; i < cnpj.length(); i++) {
+            char c = cnpj.charAt(i);
+            if (c >= '0' && c <= '9') {
+                destino[posicao++] = c;
             } // if
+        } // for
+    } // escreverNormalizado
 
-            // Calcular segundo dígito verificador
-            int soma2 = 0;
-            for (int i = 0; i < 13; i++) {
-                soma2 += Character.getNumericValue(cnpj.charAt(i)) * PESOS_SEGUNDO[i];
-            } // for
-            
-            int resto2 = soma2 % 11;
-            int digito2 = (resto2 < 2) ? 0 : (11 - resto2);
-            
-            // Verificar segundo dígito
-            return Character.getNumericValue(cnpj.charAt(13)) == digito2;
-            
-        } catch (Exception e) {
-            return false;
-        } // try-catch
-    } // verificarDigitos
+    /**
+     * Escreve os 14 dígitos com a pontuação do CNPJ em destino[0, 18)
+     */
+    private static void escreverFormatado(CharSequence cnpj, char[] destino) {
+        int posicao = 0;
+        int escrito = 0;
+        for (int i = 0; i < cnpj.length(); i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            } // if
+            if (posicao == 2 || posicao == 5) {
+                destino[escrito++] = '.';
+            } else if (posicao == 8) {
+                destino[escrito++] = '/';
+            } else if (posicao == 12) {
+                destino[escrito++] = '-';
+            } // if-else
+            destino[escrito++] = c;
+            posicao++;
+        } // for
+    } // escreverFormatado
+
+    private static void acrescentarSeparador(StringBuilder destino, int posicao) {
+        if (posicao == 2 || posicao == 5) {
+            destino.append('.');
+        } else if (posicao == 8) {
+            destino.append('/');
+        } else if (posicao == 12) {
+            destino.append('-');
+        } // if-else
+    } // acrescentarSeparador
+
+    /**
+     * Conta os dígitos ASCII de uma sequência
+     */
+    private static int contarDigitos(CharSequence cnpj) {
+        int quantidade = 0;
+        for (int i = 0; i < cnpj.length(); i++) {
+            char c = cnpj.charAt(i);
+            if (c >= '0' && c <= '9') {
+                quantidade++;
+            } // if
+        } // for
+        return quantidade;
+    } // contarDigitos
+
+    /**
+     * Valida os caracteres [inicio, fim) em uma única passada: ignora não
+     * dígitos e acumula as duas somas ponderadas simultaneamente
+     */
+    private static boolean validarIntervalo(CharSequence cnpj, int inicio, int fim) {
+        int posicao = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int dv1 = 0;
+        int dv2 = 0;
+        char primeiro = 0;
+        boolean todosIguais = true;
+
+        for (int i = inicio; i < fim; i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            } // if
+            if (posicao == TAMANHO_CNPJ) {
+                return false; // Mais de 14 dígitos
+            } // if
+
+            int d = c - '0';
+            if (posicao == 0) {
+                primeiro = c;
+            } else if (c != primeiro) {
+                todosIguais = false;
+            } // if-else
+
+            if (posicao < 12) {
+                soma1 += d * PESOS_PRIMEIRO[posicao];
+                soma2 += d * PESOS_SEGUNDO[posicao];
+            } else if (posicao == 12) {
+                dv1 = d;
+                soma2 += d * PESOS_SEGUNDO[12];
+            } else {
+                dv2 = d;
+            } // if-else
+            posicao++;
+        } // for
+
+        return posicao == TAMANHO_CNPJ
+            && !todosIguais
+            && DIGITO_POR_RESTO[soma1 % 11] == dv1
+            && DIGITO_POR_RESTO[soma2 % 11] == dv2;
+    } // validarIntervalo
 } // CnpjValidator
@@ -0,0 +1,106 @@
+package com.intuitivecare.transformacao.util;
+
+import com.intuitivecare.compartilhado.util.LayoutConsolidadoColunar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitura do consolidado em formato binário colunar (gerado pelo Desafio 1)
+ *
+ * O arquivo é mapeado em memória (somente leitura) e os campos são lidos
+ * por acesso absoluto nas colunas, sem parsing de texto nem cópia: o custo
+ * da entrada é praticamente o de paginar o arquivo.
+ *
+ * Layout em {@link LayoutConsolidadoColunar}, compartilhado com o
+ * ConsolidadoColunarWriter do Desafio 1.
+ */
+public final class ConsolidadoColunarReader {
+
+    private final ByteBuffer buffer;
+    private final int quantidade;
+    private final int escala;
+
+    // Offsets das colunas
+    private final int inicioCentavos;
+    private final int inicioRegistros;
+    private final int inicioAnos;
+    private final int inicioTrimestres;
+
+    private ConsolidadoColunarReader(ByteBuffer buffer, int quantidade, int escala) {
+        this.buffer = buffer;
+        this.quantidade = quantidade;
+        this.escala = escala;
+        this.inicioCentavos = LayoutConsolidadoColunar.inicioCentavos();
+        this.inicioRegistros = LayoutConsolidadoColunar.inicioRegistrosAns(quantidade);
+        this.inicioAnos = LayoutConsolidadoColunar.inicioAnos(quantidade);
+        this.inicioTrimestres = LayoutConsolidadoColunar.inicioTrimestres(quantidade);
+    } // ConsolidadoColunarReader
+
+    /**
+     * Mapeia o arquivo e valida o cabeçalho
+     *
+     * O mapeamento permanece válido após o retorno (o canal é fechado) e é
+     * liberado quando o reader deixa de ser referenciado.
+     */
+    public static ConsolidadoColunarReader abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < LayoutConsolidadoColunar.TAMANHO_CABECALHO || tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Tamanho inválido para consolidado colunar: " + tamanho + " bytes");
+            } // if
+
+            ByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho)
+                .order(LayoutConsolidadoColunar.ORDEM);
+
+            if (buffer.getInt(0) != LayoutConsolidadoColunar.MAGIC) {
+                throw new IOException("Arquivo não é um consolidado colunar: " + arquivo);
+            } // if
+            int versao = buffer.getInt(LayoutConsolidadoColunar.POSICAO_VERSAO);
+            if (versao != LayoutConsolidadoColunar.VERSAO) {
+                throw new IOException("Versão do consolidado colunar não suportada: " + versao);
+            } // if
+
+            int quantidade = buffer.getInt(LayoutConsolidadoColunar.POSICAO_QUANTIDADE);
+            int escala = buffer.getInt(LayoutConsolidadoColunar.POSICAO_ESCALA);
+            if (quantidade < 0 || LayoutConsolidadoColunar.tamanhoArquivo(quantidade) != tamanho) {
+                throw new IOException("Consolidado colunar truncado ou corrompido: " + arquivo);
+            } // if
+
+            return new ConsolidadoColunarReader(buffer, quantidade, escala);
+        } // try
+    } // abrir
+
+    public int getQuantidade() {
+        return quantidade;
+    } // getQuantidade
+
+    /**
+     * Casas decimais dos valores (2 = centavos)
+     */
+    public int getEscala() {
+        return escala;
+    } // getEscala
+
+    public long getCentavos(int indice) {
+        return buffer.getLong(inicioCentavos + indice * Long.BYTES);
+    } // getCentavos
+
+    public int getRegistroAns(int indice) {
+        return buffer.getInt(inicioRegistros + indice * Integer.BYTES);
+    } // getRegistroAns
+
+    public int getAno(int indice) {
+        return buffer.getShort(inicioAnos + indice * Short.BYTES);
+    } // getAno
+
+    /**
+     * Trimestre de 1 a 4
+     */
+    public int getTrimestre(int indice) {
+        return buffer.get(inicioTrimestres + indice);
+    } // getTrimestre
+} // ConsolidadoColunarReader
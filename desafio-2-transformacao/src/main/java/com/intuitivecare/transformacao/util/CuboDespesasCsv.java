@@ -0,0 +1,108 @@
+package com.intuitivecare.transformacao.util;
+
+import com.intuitivecare.transformacao.model.CuboDespesas;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Leitura e escrita do cubo de despesas em CSV
+ *
+ * Layout: UF;Modalidade;Ano;Trimestre;Quantidade;TotalDespesas, uma linha
+ * por célula consolidada com quantidade > 0, com "*" nas dimensões em
+ * "todos" (ex.: "SP;*;2024;*" = SP em 2024). O arquivo serve direto a
+ * consultas externas (planilha, SQL); na leitura, só as células base (sem
+ * "*") são usadas, e o rollup é refeito.
+ */
+public final class CuboDespesasCsv {
+
+    private static final String[] CABECALHO = {
+        "UF", "Modalidade", "Ano", "Trimestre", "Quantidade", "TotalDespesas"
+    };
+
+    private CuboDespesasCsv() {
+    } // CuboDespesasCsv
+
+    /**
+     * Grava o cubo (consolidado) e retorna a quantidade de linhas
+     */
+    public static int escrever(CuboDespesas cubo, Path arquivo) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+            .setHeader(CABECALHO)
+            .setDelimiter(';')
+            .build();
+
+        int[] linhas = {0};
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8);
+             CSVPrinter printer = new CSVPrinter(writer, format)) {
+
+            cubo.paraCadaCelula((uf, modalidade, ano, trimestre, quantidade, centavos) -> {
+                try {
+                    printer.printRecord(
+                        uf != null ? uf : CuboDespesas.TODOS,
+                        modalidade != null ? modalidade : CuboDespesas.TODOS,
+                        ano != null ? ano.toString() : CuboDespesas.TODOS,
+                        trimestre != null ? "Q" + trimestre : CuboDespesas.TODOS,
+                        quantidade,
+                        BigDecimal.valueOf(centavos, 2).toPlainString()
+                    );
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } // try-catch
+                linhas[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } // try-catch
+        return linhas[0];
+    } // escrever
+
+    /**
+     * Lê um cubo gravado por escrever(), já consolidado
+     */
+    public static CuboDespesas ler(Path arquivo) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+            .setDelimiter(';')
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .build();
+
+        CuboDespesas cubo = new CuboDespesas();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, format)) {
+
+            for (CSVRecord record : parser) {
+                String uf = record.get("UF");
+                String modalidade = record.get("Modalidade");
+                String ano = record.get("Ano");
+                String trimestre = record.get("Trimestre");
+                if (CuboDespesas.TODOS.equals(uf) || CuboDespesas.TODOS.equals(modalidade)
+                        || CuboDespesas.TODOS.equals(ano) || CuboDespesas.TODOS.equals(trimestre)) {
+                    continue;
+                } // if
+
+                try {
+                    cubo.acumular(uf, modalidade, Integer.parseInt(ano), Integer.parseInt(trimestre.substring(1)),
+                        Long.parseLong(record.get("Quantidade")),
+                        new BigDecimal(record.get("TotalDespesas")).movePointRight(2).longValueExact());
+                } catch (RuntimeException e) {
+                    throw new IOException("Linha inválida no cubo " + arquivo + ": " + record, e);
+                } // try-catch
+            } // for
+        } // try
+
+        cubo.consolidar();
+        return cubo;
+    } // ler
+} // CuboDespesasCsv
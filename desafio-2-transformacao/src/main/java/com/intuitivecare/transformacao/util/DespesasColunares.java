@@ -0,0 +1,206 @@
+package com.intuitivecare.transformacao.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Despesas consolidadas em colunas de tipos primitivos, para consultas
+ * analíticas em memória
+ *
+ * Cada linha ocupa 19 bytes em cinco arrays paralelos: grupo (cnpj, razão
+ * social) e cnpj como ids de dicionário, período como short, UF como byte e
+ * valor em centavos. As consultas percorrem os arrays sequencialmente em
+ * laços simples, sem objetos nem hash por linha.
+ *
+ * Período: (ano - 2000) * 4 + (trimestre - 1), de 0 a 403; a ordem numérica
+ * é a cronológica, e agregações por período usam arrays de tamanho fixo.
+ * Os arrays retornados pelos getters são os internos (sem cópia) e podem ter
+ * capacidade maior que getQuantidade().
+ */
+public final class DespesasColunares {
+
+    public static final int ANO_BASE = 2000;
+    public static final int QUANTIDADE_PERIODOS = 101 * 4;
+    public static final byte UF_NULA = -1;
+
+    private int[] grupos;
+    private int[] cnpjs;
+    private short[] periodos;
+    private byte[] ufs;
+    private long[] centavos;
+    private int quantidade;
+
+    // Dicionário de CNPJs (valor numérico <-> id)
+    private final LongIntHashMap idsCnpj = new LongIntHashMap();
+    private long[] valoresCnpj = new long[64];
+
+    // Dicionário de razões sociais
+    private final Map<String, Integer> idsRazaoSocial = new HashMap<>();
+    private final List<String> razoesSociais = new ArrayList<>();
+
+    // Grupos (id do cnpj << 32 | id da razão social) -> id do grupo
+    private final LongIntHashMap idsGrupo = new LongIntHashMap();
+    private int[] cnpjGrupo = new int[64];
+    private int[] razaoSocialGrupo = new int[64];
+
+    // Dicionário de UFs
+    private final Map<String, Byte> idsUf = new HashMap<>();
+    private final List<String> siglasUf = new ArrayList<>();
+
+    public DespesasColunares(int capacidadeEsperada) {
+        int capacidade = Math.max(capacidadeEsperada, 16);
+        this.grupos = new int[capacidade];
+        this.cnpjs = new int[capacidade];
+        this.periodos = new short[capacidade];
+        this.ufs = new byte[capacidade];
+        this.centavos = new long[capacidade];
+    } // DespesasColunares
+
+    /**
+     * Adiciona uma despesa
+     *
+     * @param cnpj CNPJ na representação de CnpjValidator.toLong
+     * @param uf Sigla da UF ou null
+     * @param centavos Valor em centavos
+     */
+    public void adicionar(long cnpj, String razaoSocial, int ano, int trimestre, long centavos, String uf) {
+        if (ano < ANO_BASE || ano >= ANO_BASE + QUANTIDADE_PERIODOS / 4 || trimestre < 1 || trimestre > 4) {
+            throw new IllegalArgumentException("Período fora do intervalo suportado: Q" + trimestre + "/" + ano);
+        } // if
+
+        if (quantidade == this.centavos.length) {
+            int capacidade = quantidade * 2;
+            grupos = Arrays.copyOf(grupos, capacidade);
+            cnpjs = Arrays.copyOf(cnpjs, capacidade);
+            periodos = Arrays.copyOf(periodos, capacidade);
+            ufs = Arrays.copyOf(ufs, capacidade);
+            this.centavos = Arrays.copyOf(this.centavos, capacidade);
+        } // if
+
+        int idCnpj = idCnpj(cnpj);
+        cnpjs[quantidade] = idCnpj;
+        grupos[quantidade] = idGrupo(idCnpj, idRazaoSocial(razaoSocial));
+        periodos[quantidade] = (short) periodo(ano, trimestre);
+        ufs[quantidade] = uf != null ? idUf(uf) : UF_NULA;
+        this.centavos[quantidade] = centavos;
+        quantidade++;
+    } // adicionar
+
+    public static int periodo(int ano, int trimestre) {
+        return (ano - ANO_BASE) * 4 + (trimestre - 1);
+    } // periodo
+
+    public static int anoDoPeriodo(int periodo) {
+        return ANO_BASE + periodo / 4;
+    } // anoDoPeriodo
+
+    public static int trimestreDoPeriodo(int periodo) {
+        return periodo % 4 + 1;
+    } // trimestreDoPeriodo
+
+    public int getQuantidade() {
+        return quantidade;
+    } // getQuantidade
+
+    public int[] getGrupos() {
+        return grupos;
+    } // getGrupos
+
+    public int[] getCnpjs() {
+        return cnpjs;
+    } // getCnpjs
+
+    public short[] getPeriodos() {
+        return periodos;
+    } // getPeriodos
+
+    public byte[] getUfs() {
+        return ufs;
+    } // getUfs
+
+    public long[] getCentavos() {
+        return centavos;
+    } // getCentavos
+
+    public int getQuantidadeGrupos() {
+        return idsGrupo.size();
+    } // getQuantidadeGrupos
+
+    public int getQuantidadeCnpjs() {
+        return idsCnpj.size();
+    } // getQuantidadeCnpjs
+
+    public int getQuantidadeUfs() {
+        return siglasUf.size();
+    } // getQuantidadeUfs
+
+    /**
+     * CNPJ (14 dígitos) do grupo
+     */
+    public String getCnpjGrupo(int grupo) {
+        return CnpjValidator.fromLong(valoresCnpj[cnpjGrupo[grupo]]);
+    } // getCnpjGrupo
+
+    public String getRazaoSocialGrupo(int grupo) {
+        return razoesSociais.get(razaoSocialGrupo[grupo]);
+    } // getRazaoSocialGrupo
+
+    public String getSiglaUf(int id) {
+        return siglasUf.get(id);
+    } // getSiglaUf
+
+    private int idCnpj(long cnpj) {
+        int id = idsCnpj.get(cnpj);
+        if (id == LongIntHashMap.AUSENTE) {
+            id = idsCnpj.size();
+            idsCnpj.put(cnpj, id);
+            if (id == valoresCnpj.length) {
+                valoresCnpj = Arrays.copyOf(valoresCnpj, id * 2);
+            } // if
+            valoresCnpj[id] = cnpj;
+        } // if
+        return id;
+    } // idCnpj
+
+    private int idRazaoSocial(String razaoSocial) {
+        Integer id = idsRazaoSocial.get(razaoSocial);
+        if (id == null) {
+            id = razoesSociais.size();
+            idsRazaoSocial.put(razaoSocial, id);
+            razoesSociais.add(razaoSocial);
+        } // if
+        return id;
+    } // idRazaoSocial
+
+    private int idGrupo(int idCnpj, int idRazaoSocial) {
+        long chave = ((long) idCnpj << 32) | idRazaoSocial;
+        int id = idsGrupo.get(chave);
+        if (id == LongIntHashMap.AUSENTE) {
+            id = idsGrupo.size();
+            idsGrupo.put(chave, id);
+            if (id == cnpjGrupo.length) {
+                cnpjGrupo = Arrays.copyOf(cnpjGrupo, id * 2);
+                razaoSocialGrupo = Arrays.copyOf(razaoSocialGrupo, id * 2);
+            } // if
+            cnpjGrupo[id] = idCnpj;
+            razaoSocialGrupo[id] = idRazaoSocial;
+        } // if
+        return id;
+    } // idGrupo
+
+    private byte idUf(String uf) {
+        Byte id = idsUf.get(uf);
+        if (id == null) {
+            if (siglasUf.size() == Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("UFs distintas demais: " + uf);
+            } // if
+            id = (byte) siglasUf.size();
+            idsUf.put(uf, id);
+            siglasUf.add(uf);
+        } // if
+        return id;
+    } // idUf
+} // DespesasColunares
@@ -0,0 +1,105 @@
+package com.intuitivecare.transformacao.util;
+
+import com.intuitivecare.compartilhado.util.EventoJfr;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eventos do JDK Flight Recorder nos caminhos quentes do Desafio 2
+ *
+ * Join do enriquecimento (um evento pelo arquivo e um por lote, este na
+ * thread do pool que o processou) e agregação (um evento por arquivo lido
+ * e um pela geração do resultado). Com -XX:StartFlightRecording os lotes
+ * mostram o trabalho paralelo (lookup no cadastro, validação de CNPJ,
+ * renderização) separado da leitura sequencial do CSV no evento do join.
+ *
+ * Categoria, stack trace desligado e o trade-off de custo vêm de EventoJfr
+ * (compartilhado/).
+ */
+public final class EventosJfr {
+
+    private EventosJfr() {
+    } // EventosJfr
+
+    /**
+     * Base dos eventos do Desafio 2: subcategoria no JMC
+     */
+    @Category({EventoJfr.CATEGORIA, "Desafio 2"})
+    public abstract static class Evento extends EventoJfr {
+    } // Evento
+
+    @Name("com.intuitivecare.transformacao.Enriquecimento")
+    @Label("Enriquecimento")
+    @Description("Join do CSV validado com o cadastro de operadoras")
+    public static class Enriquecimento extends Evento {
+        @Label("Arquivo")
+        public String arquivo;
+
+        @Label("Bytes lidos")
+        @DataAmount
+        public long bytesLidos;
+
+        @Label("Bytes escritos")
+        @DataAmount
+        public long bytesEscritos;
+
+        @Label("Registros")
+        public long registros;
+
+        @Label("Operadoras no cadastro")
+        public int operadorasCadastro;
+    } // Enriquecimento
+
+    @Name("com.intuitivecare.transformacao.EnriquecimentoLote")
+    @Label("Lote de enriquecimento")
+    @Description("Enriquecimento de um lote em uma thread do pool")
+    public static class EnriquecimentoLote extends Evento {
+        @Label("Registros")
+        public int registros;
+
+        @Label("Com match")
+        public int comMatch;
+
+        @Label("CNPJs válidos")
+        public int cnpjValidos;
+
+        @Label("Caracteres renderizados")
+        public int caracteres;
+    } // EnriquecimentoLote
+
+    @Name("com.intuitivecare.transformacao.Agregacao")
+    @Label("Agregação de arquivo")
+    @Description("Leitura e agrupamento de um CSV enriquecido")
+    public static class Agregacao extends Evento {
+        @Label("Arquivo")
+        public String arquivo;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Linhas")
+        public long linhas;
+
+        @Label("Grupos")
+        public int grupos;
+    } // Agregacao
+
+    @Name("com.intuitivecare.transformacao.AgregacaoResultado")
+    @Label("Resultado da agregação")
+    @Description("Estatísticas, ordenação/top-K e escrita do CSV agregado")
+    public static class AgregacaoResultado extends Evento {
+        @Label("Grupos")
+        public int grupos;
+
+        @Label("Linhas escritas")
+        public int linhas;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    } // AgregacaoResultado
+} // EventosJfr
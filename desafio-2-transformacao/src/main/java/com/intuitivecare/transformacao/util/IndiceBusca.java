@@ -0,0 +1,689 @@
+package com.intuitivecare.transformacao.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Índice de busca por razão social e CNPJ (estático, montado uma vez)
+ *
+ * Documentos são identificados pela posição (0..n-1) na ordem de
+ * construção; o chamador monta o índice na ordem em que quer os empates
+ * (ex.: operadoras por total decrescente). Três estruturas, todas em
+ * arrays primitivos no formato CSR (início por chave + documentos em
+ * ordem crescente):
+ * - Dicionário de palavras ordenado: prefixo vira um intervalo contíguo
+ *   achado por busca binária (o papel de uma trie, sem nós)
+ * - Trigramas da razão social normalizada: trecho com 3+ caracteres vira a
+ *   interseção das listas dos seus trigramas, confirmada com contains
+ * - Trigramas dos dígitos do CNPJ, para busca por CNPJ parcial
+ *
+ * Normalização: sem acentos, minúsculas, e qualquer caractere fora de
+ * [a-z0-9] vira um único espaço ("Saúde S.A." -> "saude s a").
+ *
+ * Ranking: CNPJ exato, depois nome (ou CNPJ) começando pelo termo, depois
+ * todas as palavras do termo como prefixo de palavras do nome, depois
+ * trecho em qualquer posição; empates pela ordem dos documentos.
+ *
+ * Trade-off: ÍNDICE IMUTÁVEL
+ * - Consultas concorrentes sem sincronização; qualquer mudança nos dados
+ *   exige reconstruir (milissegundos para milhares de operadoras) ou
+ *   recarregar do disco (salvar/carregar)
+ * - Trechos com menos de 3 caracteres não têm trigrama e varrem os textos
+ */
+public final class IndiceBusca {
+
+    private static final int MAGICO = 0x49425553; // "IBUS"
+    private static final int VERSAO = 2; // 2: CRC32 no fim do arquivo
+
+    // Alfabeto dos trigramas de texto: espaço, a-z, 0-9
+    private static final int SIMBOLOS = 37;
+    private static final int TRIGRAMAS_TEXTO = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+    private static final int TRIGRAMAS_CNPJ = 1000;
+
+    private static final byte NIVEL_CNPJ_EXATO = 0;
+    private static final byte NIVEL_INICIO = 1;
+    private static final byte NIVEL_PALAVRAS = 2;
+    private static final byte NIVEL_TRECHO = 3;
+    private static final byte SEM_MATCH = Byte.MAX_VALUE;
+
+    private static final int[] VAZIO = new int[0];
+
+    private final long impressaoDigital;
+    private final String[] cnpjs;
+    private final String[] textos;
+
+    private final String[] palavras;
+    private final int[] inicioPalavra;
+    private final int[] documentosPalavra;
+
+    private final int[] inicioTrigrama;
+    private final int[] documentosTrigrama;
+
+    private final int[] inicioTrigramaCnpj;
+    private final int[] documentosTrigramaCnpj;
+
+    private IndiceBusca(long impressaoDigital, String[] cnpjs, String[] textos, String[] palavras,
+                        int[][] listasPalavra, int[][] listasTrigrama, int[][] listasTrigramaCnpj) {
+        this.impressaoDigital = impressaoDigital;
+        this.cnpjs = cnpjs;
+        this.textos = textos;
+        this.palavras = palavras;
+        this.inicioPalavra = listasPalavra[0];
+        this.documentosPalavra = listasPalavra[1];
+        this.inicioTrigrama = listasTrigrama[0];
+        this.documentosTrigrama = listasTrigrama[1];
+        this.inicioTrigramaCnpj = listasTrigramaCnpj[0];
+        this.documentosTrigramaCnpj = listasTrigramaCnpj[1];
+    } // IndiceBusca
+
+    /**
+     * Monta o índice
+     *
+     * @param cnpjs CNPJ de cada documento (só dígitos)
+     * @param razoesSociais Razão social de cada documento, como no cadastro
+     */
+    public static IndiceBusca construir(String[] cnpjs, String[] razoesSociais) {
+        int quantidade = cnpjs.length;
+        String[] textos = new String[quantidade];
+        for (int doc = 0; doc < quantidade; doc++) {
+            textos[doc] = normalizar(razoesSociais[doc]);
+        } // for
+
+        // Dicionário de palavras em ordem lexicográfica
+        Map<String, Integer> idsPalavra = new HashMap<>();
+        for (String texto : textos) {
+            for (String palavra : palavras(texto)) {
+                idsPalavra.putIfAbsent(palavra, 0);
+            } // for
+        } // for
+        String[] palavras = idsPalavra.keySet().toArray(String[]::new);
+        Arrays.sort(palavras);
+        for (int i = 0; i < palavras.length; i++) {
+            idsPalavra.put(palavras[i], i);
+        } // for
+
+        int[][] codigosPalavra = new int[quantidade][];
+        int[][] codigosTrigrama = new int[quantidade][];
+        int[][] codigosTrigramaCnpj = new int[quantidade][];
+        for (int doc = 0; doc < quantidade; doc++) {
+            String[] palavrasDoc = palavras(textos[doc]);
+            int[] codigos = new int[palavrasDoc.length];
+            for (int i = 0; i < palavrasDoc.length; i++) {
+                codigos[i] = idsPalavra.get(palavrasDoc[i]);
+            } // for
+            codigosPalavra[doc] = distintos(codigos);
+            codigosTrigrama[doc] = trigramasTexto(textos[doc]);
+            codigosTrigramaCnpj[doc] = trigramasCnpj(cnpjs[doc]);
+        } // for
+
+        return new IndiceBusca(impressaoDigital(cnpjs, razoesSociais), cnpjs.clone(), textos, palavras,
+            montarListas(palavras.length, codigosPalavra),
+            montarListas(TRIGRAMAS_TEXTO, codigosTrigrama),
+            montarListas(TRIGRAMAS_CNPJ, codigosTrigramaCnpj));
+    } // construir
+
+    /**
+     * Hash dos documentos de origem, para saber se um índice salvo em disco
+     * ainda corresponde aos dados
+     */
+    public static long impressaoDigital(String[] cnpjs, String[] razoesSociais) {
+        long hash = 0xcbf29ce484222325L;
+        for (int doc = 0; doc < cnpjs.length; doc++) {
+            hash = misturar(hash, cnpjs[doc]);
+            hash = misturar(hash, razoesSociais[doc]);
+        } // for
+        return hash ^ cnpjs.length;
+    } // impressaoDigital
+
+    /**
+     * Texto sem acentos, em minúsculas, com separadores reduzidos a um espaço
+     */
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        } // if
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder saida = new StringBuilder(decomposto.length());
+        boolean espacoPendente = false;
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            } // if
+            c = Character.toLowerCase(c);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (espacoPendente && saida.length() > 0) {
+                    saida.append(' ');
+                } // if
+                espacoPendente = false;
+                saida.append(c);
+            } else {
+                espacoPendente = true;
+            } // if
+        } // for
+        return saida.toString();
+    } // normalizar
+
+    /**
+     * Documentos que casam com a consulta, do mais para o menos relevante
+     */
+    public int[] buscar(String consulta) {
+        String termo = normalizar(consulta);
+        if (termo.isEmpty()) {
+            return VAZIO;
+        } // if
+
+        byte[] niveis = new byte[cnpjs.length];
+        Arrays.fill(niveis, SEM_MATCH);
+        ListaDocumentos encontrados = new ListaDocumentos();
+
+        // Trecho (e início) da razão social
+        int[] candidatos = termo.length() >= 3
+            ? intersecao(trigramasTexto(termo), inicioTrigrama, documentosTrigrama)
+            : null;
+        int limite = candidatos != null ? candidatos.length : textos.length;
+        for (int i = 0; i < limite; i++) {
+            int doc = candidatos != null ? candidatos[i] : i;
+            String texto = textos[doc];
+            if (texto.startsWith(termo)) {
+                marcar(niveis, encontrados, doc, NIVEL_INICIO);
+            } else if (texto.contains(termo)) {
+                marcar(niveis, encontrados, doc, NIVEL_TRECHO);
+            } // if
+        } // for
+
+        // Todas as palavras da consulta como prefixo de palavras do nome
+        String[] palavrasConsulta = palavras(termo);
+        if (palavrasConsulta.length == 1) {
+            int ate = limiteInferior(sucessor(termo));
+            for (int p = limiteInferior(termo); p < ate; p++) {
+                for (int i = inicioPalavra[p]; i < inicioPalavra[p + 1]; i++) {
+                    marcar(niveis, encontrados, documentosPalavra[i], NIVEL_PALAVRAS);
+                } // for
+            } // for
+        } else {
+            BitSet porPalavras = prefixosPalavras(palavrasConsulta);
+            for (int doc = porPalavras.nextSetBit(0); doc >= 0; doc = porPalavras.nextSetBit(doc + 1)) {
+                marcar(niveis, encontrados, doc, NIVEL_PALAVRAS);
+            } // for
+        } // if
+
+        // CNPJ parcial ou completo (consulta só com dígitos e pontuação de CNPJ)
+        String digitos = digitosCnpj(consulta);
+        if (digitos != null) {
+            candidatos = digitos.length() >= 3
+                ? intersecao(trigramasCnpj(digitos), inicioTrigramaCnpj, documentosTrigramaCnpj)
+                : null;
+            limite = candidatos != null ? candidatos.length : cnpjs.length;
+            for (int i = 0; i < limite; i++) {
+                int doc = candidatos != null ? candidatos[i] : i;
+                String cnpj = cnpjs[doc];
+                if (cnpj.equals(digitos)) {
+                    marcar(niveis, encontrados, doc, NIVEL_CNPJ_EXATO);
+                } else if (cnpj.startsWith(digitos)) {
+                    marcar(niveis, encontrados, doc, NIVEL_INICIO);
+                } else if (cnpj.contains(digitos)) {
+                    marcar(niveis, encontrados, doc, NIVEL_TRECHO);
+                } // if
+            } // for
+        } // if
+
+        return ordenar(niveis, encontrados);
+    } // buscar
+
+    /**
+     * Documentos encontrados por (nível, documento): com muitos resultados,
+     * duas passadas lineares sobre os níveis (contagem por nível e
+     * distribuição); com poucos, ordenação das chaves
+     */
+    private static int[] ordenar(byte[] niveis, ListaDocumentos encontrados) {
+        if ((long) encontrados.tamanho * 16 > niveis.length) {
+            int[] posicao = new int[NIVEL_TRECHO + 2];
+            for (byte nivel : niveis) {
+                if (nivel != SEM_MATCH) {
+                    posicao[nivel + 1]++;
+                } // if
+            } // for
+            for (int nivel = 1; nivel < posicao.length; nivel++) {
+                posicao[nivel] += posicao[nivel - 1];
+            } // for
+            int[] resultado = new int[encontrados.tamanho];
+            for (int doc = 0; doc < niveis.length; doc++) {
+                if (niveis[doc] != SEM_MATCH) {
+                    resultado[posicao[niveis[doc]]++] = doc;
+                } // if
+            } // for
+            return resultado;
+        } // if
+
+        long[] chaves = new long[encontrados.tamanho];
+        for (int i = 0; i < chaves.length; i++) {
+            int doc = encontrados.documentos[i];
+            chaves[i] = ((long) niveis[doc] << 32) | doc;
+        } // for
+        Arrays.sort(chaves);
+        int[] resultado = new int[chaves.length];
+        for (int i = 0; i < chaves.length; i++) {
+            resultado[i] = (int) chaves[i];
+        } // for
+        return resultado;
+    } // ordenar
+
+    public int getQuantidadeDocumentos() {
+        return cnpjs.length;
+    } // getQuantidadeDocumentos
+
+    public int getQuantidadePalavras() {
+        return palavras.length;
+    } // getQuantidadePalavras
+
+    public String getCnpj(int documento) {
+        return cnpjs[documento];
+    } // getCnpj
+
+    public long getImpressaoDigital() {
+        return impressaoDigital;
+    } // getImpressaoDigital
+
+    /**
+     * Grava o índice (listas em deltas varint, CRC32 de todo o conteúdo no
+     * fim); escreve em arquivo temporário e renomeia, para nunca deixar um
+     * índice pela metade
+     */
+    public void salvar(Path arquivo) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        CheckedOutputStream verificado = new CheckedOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temporario), 1 << 16), new CRC32());
+        try (DataOutputStream saida = new DataOutputStream(verificado)) {
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+            saida.writeLong(impressaoDigital);
+            saida.writeInt(cnpjs.length);
+            for (int doc = 0; doc < cnpjs.length; doc++) {
+                saida.writeUTF(cnpjs[doc]);
+                saida.writeUTF(textos[doc]);
+            } // for
+            saida.writeInt(palavras.length);
+            for (String palavra : palavras) {
+                saida.writeUTF(palavra);
+            } // for
+            escreverListas(saida, inicioPalavra, documentosPalavra);
+            escreverListas(saida, inicioTrigrama, documentosTrigrama);
+            escreverListas(saida, inicioTrigramaCnpj, documentosTrigramaCnpj);
+            saida.writeLong(verificado.getChecksum().getValue());
+        } // try
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } // salvar
+
+    /**
+     * Carrega um índice gravado por salvar
+     *
+     * Arquivo de outra versão, truncado ou corrompido é recusado com
+     * IOException (nunca com um índice inconsistente): os tamanhos e ids
+     * lidos são conferidos antes de alocar ou usar, e o CRC32 no fim cobre
+     * os textos.
+     */
+    public static IndiceBusca carregar(Path arquivo) throws IOException {
+        // Cada documento ou palavra ocupa ao menos 2 bytes: limita as alocações
+        long limite = Files.size(arquivo) / 2;
+        CheckedInputStream verificado = new CheckedInputStream(
+            new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16), new CRC32());
+        try (DataInputStream entrada = new DataInputStream(verificado)) {
+            if (entrada.readInt() != MAGICO || entrada.readInt() != VERSAO) {
+                throw new IOException("Arquivo não é um índice de busca compatível: " + arquivo);
+            } // if
+            long impressaoDigital = entrada.readLong();
+            int quantidade = lerQuantidade(entrada, limite);
+            String[] cnpjs = new String[quantidade];
+            String[] textos = new String[quantidade];
+            for (int doc = 0; doc < quantidade; doc++) {
+                cnpjs[doc] = entrada.readUTF();
+                textos[doc] = entrada.readUTF();
+            } // for
+            String[] palavras = new String[lerQuantidade(entrada, limite)];
+            for (int i = 0; i < palavras.length; i++) {
+                palavras[i] = entrada.readUTF();
+            } // for
+            int[][] listasPalavra = lerListas(entrada, palavras.length, quantidade);
+            int[][] listasTrigrama = lerListas(entrada, TRIGRAMAS_TEXTO, quantidade);
+            int[][] listasTrigramaCnpj = lerListas(entrada, TRIGRAMAS_CNPJ, quantidade);
+
+            long crc = verificado.getChecksum().getValue();
+            if (entrada.readLong() != crc || entrada.read() != -1) {
+                throw new IOException("Índice de busca corrompido: " + arquivo);
+            } // if
+            return new IndiceBusca(impressaoDigital, cnpjs, textos, palavras,
+                listasPalavra, listasTrigrama, listasTrigramaCnpj);
+        } // try
+    } // carregar
+
+    private static int lerQuantidade(DataInputStream entrada, long limite) throws IOException {
+        int quantidade = entrada.readInt();
+        if (quantidade < 0 || quantidade > limite) {
+            throw new IOException("Quantidade inválida no índice de busca: " + quantidade);
+        } // if
+        return quantidade;
+    } // lerQuantidade
+
+    private static void marcar(byte[] niveis, ListaDocumentos encontrados, int doc, byte nivel) {
+        if (niveis[doc] == SEM_MATCH) {
+            encontrados.adicionar(doc);
+        } // if
+        if (nivel < niveis[doc]) {
+            niveis[doc] = nivel;
+        } // if
+    } // marcar
+
+    /**
+     * Documentos em que cada palavra da consulta é prefixo de alguma palavra
+     */
+    private BitSet prefixosPalavras(String[] palavrasConsulta) {
+        BitSet acumulado = null;
+        for (String prefixo : palavrasConsulta) {
+            int de = limiteInferior(prefixo);
+            int ate = limiteInferior(sucessor(prefixo));
+            BitSet documentos = new BitSet(cnpjs.length);
+            for (int p = de; p < ate; p++) {
+                for (int i = inicioPalavra[p]; i < inicioPalavra[p + 1]; i++) {
+                    documentos.set(documentosPalavra[i]);
+                } // for
+            } // for
+            if (acumulado == null) {
+                acumulado = documentos;
+            } else {
+                acumulado.and(documentos);
+            } // if
+            if (acumulado.isEmpty()) {
+                break;
+            } // if
+        } // for
+        return acumulado != null ? acumulado : new BitSet();
+    } // prefixosPalavras
+
+    /**
+     * Primeira posição do dicionário com palavra >= chave
+     */
+    private int limiteInferior(String chave) {
+        int baixo = 0;
+        int alto = palavras.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (palavras[meio].compareTo(chave) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            } // if
+        } // while
+        return baixo;
+    } // limiteInferior
+
+    /**
+     * Menor string maior que todas as que começam com o prefixo
+     */
+    private static String sucessor(String prefixo) {
+        char ultimo = prefixo.charAt(prefixo.length() - 1);
+        return prefixo.substring(0, prefixo.length() - 1) + (char) (ultimo + 1);
+    } // sucessor
+
+    /**
+     * Interseção das listas dos códigos, começando pela menor
+     */
+    private static int[] intersecao(int[] codigos, int[] inicio, int[] documentos) {
+        int menor = codigos[0];
+        for (int codigo : codigos) {
+            if (inicio[codigo + 1] - inicio[codigo] < inicio[menor + 1] - inicio[menor]) {
+                menor = codigo;
+            } // if
+        } // for
+
+        int[] resultado = Arrays.copyOfRange(documentos, inicio[menor], inicio[menor + 1]);
+        int tamanho = resultado.length;
+        for (int codigo : codigos) {
+            if (codigo == menor || tamanho == 0) {
+                continue;
+            } // if
+            int novo = 0;
+            int j = inicio[codigo];
+            int fim = inicio[codigo + 1];
+            for (int i = 0; i < tamanho && j < fim; i++) {
+                int doc = resultado[i];
+                j = avancar(documentos, j, fim, doc);
+                if (j < fim && documentos[j] == doc) {
+                    resultado[novo++] = doc;
+                } // if
+            } // for
+            tamanho = novo;
+        } // for
+        return tamanho == resultado.length ? resultado : Arrays.copyOf(resultado, tamanho);
+    } // intersecao
+
+    /**
+     * Primeira posição em [de, fim) com documento >= alvo, por busca
+     * exponencial (a lista maior é percorrida aos saltos)
+     */
+    private static int avancar(int[] documentos, int de, int fim, int alvo) {
+        if (de >= fim || documentos[de] >= alvo) {
+            return de;
+        } // if
+        int passo = 1;
+        int baixo = de;
+        while (baixo + passo < fim && documentos[baixo + passo] < alvo) {
+            baixo += passo;
+            passo <<= 1;
+        } // while
+        int alto = Math.min(baixo + passo, fim);
+        baixo++;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (documentos[meio] < alvo) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            } // if
+        } // while
+        return baixo;
+    } // avancar
+
+    /**
+     * Listas por código (CSR): {início por código, documentos}, sem
+     * repetição de documento na mesma lista
+     */
+    private static int[][] montarListas(int quantidadeCodigos, int[][] codigosPorDocumento) {
+        int[] inicio = new int[quantidadeCodigos + 1];
+        for (int[] codigos : codigosPorDocumento) {
+            for (int codigo : codigos) {
+                inicio[codigo + 1]++;
+            } // for
+        } // for
+        for (int c = 0; c < quantidadeCodigos; c++) {
+            inicio[c + 1] += inicio[c];
+        } // for
+
+        int[] documentos = new int[inicio[quantidadeCodigos]];
+        int[] proxima = Arrays.copyOf(inicio, quantidadeCodigos);
+        for (int doc = 0; doc < codigosPorDocumento.length; doc++) {
+            for (int codigo : codigosPorDocumento[doc]) {
+                documentos[proxima[codigo]++] = doc;
+            } // for
+        } // for
+        return new int[][] {inicio, documentos};
+    } // montarListas
+
+    private static String[] palavras(String texto) {
+        return texto.isEmpty() ? new String[0] : texto.split(" ");
+    } // palavras
+
+    private static int[] trigramasTexto(String texto) {
+        int[] codigos = new int[Math.max(0, texto.length() - 2)];
+        for (int i = 0; i < codigos.length; i++) {
+            codigos[i] = (simbolo(texto.charAt(i)) * SIMBOLOS + simbolo(texto.charAt(i + 1))) * SIMBOLOS
+                + simbolo(texto.charAt(i + 2));
+        } // for
+        return distintos(codigos);
+    } // trigramasTexto
+
+    /**
+     * Trigramas dos dígitos do CNPJ; o que não é dígito é ignorado, para que
+     * um CNPJ formatado ou malformado não gere códigos fora de [0, 1000)
+     */
+    private static int[] trigramasCnpj(String cnpj) {
+        int[] codigos = new int[Math.max(0, cnpj.length() - 2)];
+        int quantidade = 0;
+        int janela = 0;
+        int digitos = 0;
+        for (int i = 0; i < cnpj.length(); i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            } // if
+            janela = janela % 100 * 10 + (c - '0');
+            if (++digitos >= 3) {
+                codigos[quantidade++] = janela;
+            } // if
+        } // for
+        return distintos(quantidade == codigos.length ? codigos : Arrays.copyOf(codigos, quantidade));
+    } // trigramasCnpj
+
+    private static int simbolo(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        } // if
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        } // if
+        return 0;
+    } // simbolo
+
+    private static int[] distintos(int[] codigos) {
+        if (codigos.length < 2) {
+            return codigos;
+        } // if
+        Arrays.sort(codigos);
+        int tamanho = 1;
+        for (int i = 1; i < codigos.length; i++) {
+            if (codigos[i] != codigos[tamanho - 1]) {
+                codigos[tamanho++] = codigos[i];
+            } // if
+        } // for
+        return tamanho == codigos.length ? codigos : Arrays.copyOf(codigos, tamanho);
+    } // distintos
+
+    /**
+     * Dígitos da consulta se ela só tem dígitos e pontuação de CNPJ; senão null
+     */
+    private static String digitosCnpj(String consulta) {
+        StringBuilder digitos = new StringBuilder(14);
+        for (int i = 0; i < consulta.length(); i++) {
+            char c = consulta.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            } else if (c != '.' && c != '/' && c != '-' && c != ' ') {
+                return null;
+            } // if
+        } // for
+        return digitos.length() > 0 ? digitos.toString() : null;
+    } // digitosCnpj
+
+    private static long misturar(long hash, String texto) {
+        String valor = texto != null ? texto : "";
+        for (int i = 0; i < valor.length(); i++) {
+            hash = (hash ^ valor.charAt(i)) * 0x100000001b3L;
+        } // for
+        return (hash ^ 0xFF) * 0x100000001b3L;
+    } // misturar
+
+    private static void escreverListas(DataOutputStream saida, int[] inicio, int[] documentos) throws IOException {
+        for (int c = 0; c + 1 < inicio.length; c++) {
+            escreverVarint(saida, inicio[c + 1] - inicio[c]);
+            int anterior = 0;
+            for (int i = inicio[c]; i < inicio[c + 1]; i++) {
+                escreverVarint(saida, documentos[i] - anterior);
+                anterior = documentos[i];
+            } // for
+        } // for
+    } // escreverListas
+
+    /**
+     * Lê as listas de escreverListas, conferindo que cada uma tem ids
+     * crescentes e menores que a quantidade de documentos
+     */
+    private static int[][] lerListas(DataInputStream entrada, int quantidadeCodigos, int quantidadeDocumentos)
+        throws IOException {
+        int[] inicio = new int[quantidadeCodigos + 1];
+        List<int[]> listas = new ArrayList<>(quantidadeCodigos);
+        for (int c = 0; c < quantidadeCodigos; c++) {
+            int tamanho = lerVarint(entrada);
+            if (tamanho < 0 || tamanho > quantidadeDocumentos) {
+                throw new IOException("Lista inválida no índice de busca: " + tamanho + " documentos");
+            } // if
+            int[] lista = new int[tamanho];
+            int anterior = 0;
+            for (int i = 0; i < lista.length; i++) {
+                int delta = lerVarint(entrada);
+                if (delta < (i == 0 ? 0 : 1) || anterior + delta >= quantidadeDocumentos || anterior + delta < 0) {
+                    throw new IOException("Documento inválido no índice de busca");
+                } // if
+                anterior += delta;
+                lista[i] = anterior;
+            } // for
+            listas.add(lista);
+            inicio[c + 1] = inicio[c] + lista.length;
+        } // for
+        int[] documentos = new int[inicio[quantidadeCodigos]];
+        for (int c = 0; c < quantidadeCodigos; c++) {
+            System.arraycopy(listas.get(c), 0, documentos, inicio[c], listas.get(c).length);
+        } // for
+        return new int[][] {inicio, documentos};
+    } // lerListas
+
+    private static void escreverVarint(DataOutputStream saida, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            saida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        } // while
+        saida.writeByte(valor);
+    } // escreverVarint
+
+    private static int lerVarint(DataInputStream entrada) throws IOException {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 32; deslocamento += 7) {
+            int b = entrada.readUnsignedByte();
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            } // if
+        } // for
+        throw new IOException("Varint inválido no índice de busca");
+    } // lerVarint
+
+    /**
+     * Lista de ids de documento (sem boxing)
+     */
+    private static final class ListaDocumentos {
+        int[] documentos = new int[64];
+        int tamanho;
+
+        void adicionar(int doc) {
+            if (tamanho == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamanho * 2);
+            } // if
+            documentos[tamanho++] = doc;
+        } // adicionar
+    } // ListaDocumentos
+} // IndiceBusca
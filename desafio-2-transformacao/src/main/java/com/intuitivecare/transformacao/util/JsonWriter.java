@@ -0,0 +1,184 @@
+package com.intuitivecare.transformacao.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escrita incremental de JSON em um StringBuilder, sem árvore intermediária
+ *
+ * Vírgulas entre membros são inseridas automaticamente; o chamador só abre
+ * e fecha objetos/arrays e escreve nomes e valores na ordem. Não valida a
+ * estrutura (uso interno, respostas montadas por código).
+ */
+public final class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int PROFUNDIDADE_MAXIMA = 32;
+
+    private final StringBuilder saida;
+
+    // Por nível: true se o próximo valor é o primeiro do objeto/array
+    private final boolean[] primeiro = new boolean[PROFUNDIDADE_MAXIMA];
+    private int nivel;
+    private boolean aposNome;
+
+    public JsonWriter() {
+        this(new StringBuilder(256));
+    } // JsonWriter
+
+    public JsonWriter(StringBuilder saida) {
+        this.saida = saida;
+        this.primeiro[0] = true;
+    } // JsonWriter
+
+    public JsonWriter inicioObjeto() {
+        separar();
+        saida.append('{');
+        abrirNivel();
+        return this;
+    } // inicioObjeto
+
+    public JsonWriter fimObjeto() {
+        nivel--;
+        saida.append('}');
+        return this;
+    } // fimObjeto
+
+    public JsonWriter inicioArray() {
+        separar();
+        saida.append('[');
+        abrirNivel();
+        return this;
+    } // inicioArray
+
+    public JsonWriter fimArray() {
+        nivel--;
+        saida.append(']');
+        return this;
+    } // fimArray
+
+    /**
+     * Nome do próximo membro do objeto
+     */
+    public JsonWriter nome(String nome) {
+        separar();
+        escreverTexto(nome);
+        saida.append(':');
+        aposNome = true;
+        return this;
+    } // nome
+
+    public JsonWriter valor(String texto) {
+        separar();
+        if (texto == null) {
+            saida.append("null");
+        } else {
+            escreverTexto(texto);
+        } // if
+        return this;
+    } // valor
+
+    public JsonWriter valor(long numero) {
+        separar();
+        saida.append(numero);
+        return this;
+    } // valor
+
+    public JsonWriter valor(double numero) {
+        separar();
+        if (Double.isFinite(numero)) {
+            saida.append(numero);
+        } else {
+            saida.append("null");
+        } // if
+        return this;
+    } // valor
+
+    public JsonWriter valor(boolean logico) {
+        separar();
+        saida.append(logico);
+        return this;
+    } // valor
+
+    /**
+     * Número decimal em notação simples (sem expoente)
+     */
+    public JsonWriter valor(BigDecimal numero) {
+        separar();
+        saida.append(numero == null ? "null" : numero.toPlainString());
+        return this;
+    } // valor
+
+    public JsonWriter campo(String nome, String texto) {
+        return nome(nome).valor(texto);
+    } // campo
+
+    public JsonWriter campo(String nome, long numero) {
+        return nome(nome).valor(numero);
+    } // campo
+
+    public JsonWriter campo(String nome, double numero) {
+        return nome(nome).valor(numero);
+    } // campo
+
+    public JsonWriter campo(String nome, boolean logico) {
+        return nome(nome).valor(logico);
+    } // campo
+
+    public JsonWriter campo(String nome, BigDecimal numero) {
+        return nome(nome).valor(numero);
+    } // campo
+
+    public StringBuilder getSaida() {
+        return saida;
+    } // getSaida
+
+    public byte[] toBytes() {
+        return saida.toString().getBytes(StandardCharsets.UTF_8);
+    } // toBytes
+
+    @Override
+    public String toString() {
+        return saida.toString();
+    } // toString
+
+    private void abrirNivel() {
+        if (++nivel == PROFUNDIDADE_MAXIMA) {
+            throw new IllegalStateException("JSON com aninhamento acima de " + PROFUNDIDADE_MAXIMA + " níveis");
+        } // if
+        primeiro[nivel] = true;
+    } // abrirNivel
+
+    private void separar() {
+        if (aposNome) {
+            aposNome = false;
+            return;
+        } // if
+        if (!primeiro[nivel]) {
+            saida.append(',');
+        } // if
+        primeiro[nivel] = false;
+    } // separar
+
+    private void escreverTexto(String texto) {
+        saida.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> saida.append("\\\"");
+                case '\\' -> saida.append("\\\\");
+                case '\n' -> saida.append("\\n");
+                case '\r' -> saida.append("\\r");
+                case '\t' -> saida.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        saida.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        saida.append(c);
+                    } // if
+                }
+            } // switch
+        } // for
+        saida.append('"');
+    } // escreverTexto
+} // JsonWriter
@@ -0,0 +1,123 @@
+package com.intuitivecare.transformacao.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Tabela hash de chaves long para valores int (endereçamento aberto)
+ *
+ * Evita o boxing de chaves e valores e a alocação de uma entrada por
+ * elemento do HashMap. Usada com chaves compostas codificadas em um long.
+ * Valores devem ser não negativos; -1 indica chave ausente.
+ */
+public final class LongIntHashMap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int AUSENTE = -1;
+
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+    private int mascara;
+
+    public LongIntHashMap() {
+        this(CAPACIDADE_INICIAL);
+    } // LongIntHashMap
+
+    public LongIntHashMap(int capacidadeEsperada) {
+        int capacidade = Integer.highestOneBit(Math.max(capacidadeEsperada * 2, CAPACIDADE_INICIAL) - 1) << 1;
+        alocar(capacidade);
+    } // LongIntHashMap
+
+    /**
+     * Retorna o valor associado à chave ou {@link #AUSENTE}
+     */
+    public int get(long chave) {
+        int posicao = espalhar(chave) & mascara;
+        while (true) {
+            int valor = valores[posicao];
+            if (valor == AUSENTE) {
+                return AUSENTE;
+            } // if
+            if (chaves[posicao] == chave) {
+                return valor;
+            } // if
+            posicao = (posicao + 1) & mascara;
+        } // while
+    } // get
+
+    /**
+     * Associa um valor (não negativo) à chave, substituindo o anterior
+     */
+    public void put(long chave, int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor deve ser não negativo: " + valor);
+        } // if
+
+        int posicao = espalhar(chave) & mascara;
+        while (valores[posicao] != AUSENTE) {
+            if (chaves[posicao] == chave) {
+                valores[posicao] = valor;
+                return;
+            } // if
+            posicao = (posicao + 1) & mascara;
+        } // while
+
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        tamanho++;
+
+        // Fator de carga máximo de 50%
+        if (tamanho * 2 > chaves.length) {
+            redimensionar();
+        } // if
+    } // put
+
+    public int size() {
+        return tamanho;
+    } // size
+
+    /**
+     * Remove todas as chaves, mantendo a capacidade atual
+     */
+    public void clear() {
+        Arrays.fill(valores, AUSENTE);
+        tamanho = 0;
+    } // clear
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        Arrays.fill(valores, AUSENTE);
+        mascara = capacidade - 1;
+        tamanho = 0;
+    } // alocar
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(chavesAntigas.length * 2);
+
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (valoresAntigos[i] != AUSENTE) {
+                put(chavesAntigas[i], valoresAntigos[i]);
+            } // if
+        } // for
+    } // redimensionar
+
+    /**
+     * Mistura os bits da chave (finalizador do MurmurHash3)
+     */
+    private static int espalhar(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53ec34dL;
+        h ^= h >>> 33;
+        return (int) h;
+    } // espalhar
+} // LongIntHashMap
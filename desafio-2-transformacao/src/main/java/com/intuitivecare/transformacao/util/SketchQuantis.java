@@ -0,0 +1,228 @@
+package com.intuitivecare.transformacao.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Sketch de quantis em memória limitada (estilo KLL)
+ *
+ * Os valores entram no nível 0; quando o total de itens excede a capacidade,
+ * o nível mais baixo cheio é ordenado e compactado: metade dos itens (posições
+ * alternadas) sobe para o nível seguinte com o dobro do peso. As capacidades
+ * decaem geometricamente (fator 2/3) dos níveis altos para os baixos, o que
+ * limita a memória a O(k) itens e o erro de rank a ~1,7/k (k = 200: ~1%).
+ *
+ * Enquanto nenhuma compactação ocorreu (n pequeno) os quantis são exatos.
+ * A compactação alterna o deslocamento de forma determinística, então a
+ * mesma entrada sempre gera o mesmo resultado. Sketches com o mesmo k são
+ * combináveis (merge).
+ */
+public final class SketchQuantis implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int K_PADRAO = 200;
+
+    private static final double FATOR_CAPACIDADE = 2.0 / 3.0;
+    private static final int CAPACIDADE_MINIMA = 2;
+    private static final int TAMANHO_INICIAL_NIVEL = 8;
+
+    private final int k;
+    private double[][] niveis;
+    private int[] tamanhos;
+    private int quantidadeNiveis;
+    private long quantidade;
+    private boolean deslocamento;
+
+    // Capacidades por nível (recalculadas quando o número de níveis muda)
+    private transient int[] capacidades;
+    private transient int capacidadeTotal;
+
+    public SketchQuantis() {
+        this(K_PADRAO);
+    } // SketchQuantis
+
+    public SketchQuantis(int k) {
+        if (k < CAPACIDADE_MINIMA) {
+            throw new IllegalArgumentException("k deve ser >= " + CAPACIDADE_MINIMA + ": " + k);
+        } // if
+        this.k = k;
+        this.niveis = new double[1][];
+        this.tamanhos = new int[1];
+        this.quantidadeNiveis = 1;
+        this.quantidade = 0;
+    } // SketchQuantis
+
+    /**
+     * Adiciona um valor ao sketch
+     */
+    public void adicionar(double valor) {
+        inserir(0, valor);
+        quantidade++;
+        compactarSeNecessario();
+    } // adicionar
+
+    /**
+     * Combina outro sketch (mesmo k) neste
+     */
+    public void combinar(SketchQuantis outro) {
+        if (outro.k != k) {
+            throw new IllegalArgumentException("Sketches com k diferentes: " + k + " e " + outro.k);
+        } // if
+
+        for (int nivel = 0; nivel < outro.quantidadeNiveis; nivel++) {
+            for (int i = 0; i < outro.tamanhos[nivel]; i++) {
+                inserir(nivel, outro.niveis[nivel][i]);
+            } // for
+        } // for
+        quantidade += outro.quantidade;
+        compactarSeNecessario();
+    } // combinar
+
+    public long getQuantidade() {
+        return quantidade;
+    } // getQuantidade
+
+    /**
+     * Quantil q (0 < q <= 1) pelo critério do rank mais próximo (nearest rank):
+     * o menor valor cujo peso acumulado atinge ceil(q * n)
+     */
+    public double getQuantil(double q) {
+        return getQuantis(q)[0];
+    } // getQuantil
+
+    /**
+     * Calcula vários quantis com uma única ordenação dos itens
+     *
+     * @return Quantis na ordem pedida (NaN se o sketch estiver vazio)
+     */
+    public double[] getQuantis(double... qs) {
+        double[] resultado = new double[qs.length];
+        if (quantidade == 0) {
+            Arrays.fill(resultado, Double.NaN);
+            return resultado;
+        } // if
+
+        // Itens de todos os níveis com seus pesos (2^nivel), ordenados por valor
+        int total = tamanhoTotal();
+        double[] valores = new double[total];
+        int[] pesoLog = new int[total];
+        Integer[] indices = new Integer[total];
+        int pos = 0;
+        for (int nivel = 0; nivel < quantidadeNiveis; nivel++) {
+            for (int i = 0; i < tamanhos[nivel]; i++) {
+                valores[pos] = niveis[nivel][i];
+                pesoLog[pos] = nivel;
+                indices[pos] = pos;
+                pos++;
+            } // for
+        } // for
+        Arrays.sort(indices, (a, b) -> Double.compare(valores[a], valores[b]));
+
+        for (int j = 0; j < qs.length; j++) {
+            double q = qs[j];
+            if (q <= 0.0 || q > 1.0) {
+                throw new IllegalArgumentException("Quantil deve estar em (0, 1]: " + q);
+            } // if
+
+            long alvo = Math.max(1, (long) Math.ceil(q * quantidade));
+            long acumulado = 0;
+            double valor = valores[indices[total - 1]];
+            for (int i = 0; i < total; i++) {
+                acumulado += 1L << pesoLog[indices[i]];
+                if (acumulado >= alvo) {
+                    valor = valores[indices[i]];
+                    break;
+                } // if
+            } // for
+            resultado[j] = valor;
+        } // for
+
+        return resultado;
+    } // getQuantis
+
+    private void inserir(int nivel, double valor) {
+        garantirNivel(nivel);
+        double[] buffer = niveis[nivel];
+        if (buffer == null) {
+            buffer = new double[TAMANHO_INICIAL_NIVEL];
+            niveis[nivel] = buffer;
+        } else if (tamanhos[nivel] == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            niveis[nivel] = buffer;
+        } // if-else
+        buffer[tamanhos[nivel]++] = valor;
+    } // inserir
+
+    private void garantirNivel(int nivel) {
+        if (nivel < quantidadeNiveis) {
+            return;
+        } // if
+        if (nivel >= niveis.length) {
+            niveis = Arrays.copyOf(niveis, nivel + 1);
+            tamanhos = Arrays.copyOf(tamanhos, nivel + 1);
+        } // if
+        quantidadeNiveis = nivel + 1;
+        capacidades = null;
+    } // garantirNivel
+
+    private void compactarSeNecessario() {
+        while (tamanhoTotal() > capacidadeTotal()) {
+            for (int nivel = 0; nivel < quantidadeNiveis; nivel++) {
+                if (tamanhos[nivel] >= capacidades[nivel]) {
+                    compactar(nivel);
+                    break;
+                } // if
+            } // for
+        } // while
+    } // compactarSeNecessario
+
+    /**
+     * Ordena o nível e promove metade dos itens (posições alternadas) ao nível
+     * seguinte. Com quantidade ímpar, o maior item permanece no nível.
+     */
+    private void compactar(int nivel) {
+        double[] buffer = niveis[nivel];
+        int tamanho = tamanhos[nivel];
+        Arrays.sort(buffer, 0, tamanho);
+
+        int pares = tamanho & ~1;
+        int inicio = deslocamento ? 1 : 0;
+        deslocamento = !deslocamento;
+
+        garantirNivel(nivel + 1);
+        for (int i = inicio; i < pares; i += 2) {
+            inserir(nivel + 1, buffer[i]);
+        } // for
+
+        // Mantém o item excedente (se houver) no nível atual
+        if (pares < tamanho) {
+            buffer[0] = buffer[tamanho - 1];
+            tamanhos[nivel] = 1;
+        } else {
+            tamanhos[nivel] = 0;
+        } // if-else
+    } // compactar
+
+    private int tamanhoTotal() {
+        int total = 0;
+        for (int nivel = 0; nivel < quantidadeNiveis; nivel++) {
+            total += tamanhos[nivel];
+        } // for
+        return total;
+    } // tamanhoTotal
+
+    private int capacidadeTotal() {
+        if (capacidades == null || capacidades.length != quantidadeNiveis) {
+            capacidades = new int[quantidadeNiveis];
+            capacidadeTotal = 0;
+            for (int nivel = 0; nivel < quantidadeNiveis; nivel++) {
+                int profundidade = quantidadeNiveis - nivel - 1;
+                capacidades[nivel] = Math.max(CAPACIDADE_MINIMA,
+                    (int) Math.ceil(k * Math.pow(FATOR_CAPACIDADE, profundidade)));
+                capacidadeTotal += capacidades[nivel];
+            } // for
+        } // if
+        return capacidadeTotal;
+    } // capacidadeTotal
+} // SketchQuantis
@@ -0,0 +1,241 @@
+package com.intuitivecare.transformacao.model;
+
+import com.intuitivecare.transformacao.util.CuboDespesasCsv;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CuboDespesas contra um group-by por força bruta sobre despesas sintéticas:
+ * todas as células consolidadas (com "todos" em qualquer dimensão), cubos
+ * parciais combinados, ida e volta pelo CSV e consultas com valores
+ * desconhecidos ou TODOS
+ */
+class CuboDespesasTest {
+
+    private static final int DESPESAS = 20_000;
+
+    // "" = despesa sem match no cadastro (UF e modalidade vazias)
+    private static final String[] UFS = {"SP", "RJ", "MG", "AP", ""};
+    private static final String[] MODALIDADES = {
+        "Medicina de Grupo", "Cooperativa Médica", "Odontologia de Grupo", "Autogestão", ""
+    };
+    private static final int[] ANOS = {2023, 2024, 2025};
+
+    // Dimensões das consultas: cada valor conhecido, "todos" (null) e desconhecidos
+    private static final List<String> CONSULTA_UFS = Arrays.asList("SP", "RJ", "MG", "AP", "", null, "ZZ", "sp");
+    private static final List<String> CONSULTA_MODALIDADES = Arrays.asList(
+        "Medicina de Grupo", "Cooperativa Médica", "Odontologia de Grupo", "Autogestão", "", null, "Filantropia");
+    private static final List<Integer> CONSULTA_ANOS = Arrays.asList(2023, 2024, 2025, null, 2022);
+    private static final List<Integer> CONSULTA_TRIMESTRES = Arrays.asList(1, 2, 3, 4, null, 0, 5);
+
+    @TempDir
+    Path diretorio;
+
+    private List<Despesa> despesas;
+    private CuboDespesas cubo;
+
+    @BeforeEach
+    void preparar() {
+        Random random = new Random(44L);
+        despesas = new ArrayList<>();
+        for (int i = 0; i < DESPESAS; i++) {
+            // "AP" só em 2025 e "Autogestão" nunca em "MG": fatias vazias entre valores conhecidos
+            String uf = UFS[random.nextInt(UFS.length)];
+            int ano = uf.equals("AP") ? 2025 : ANOS[random.nextInt(ANOS.length)];
+            String modalidade = MODALIDADES[random.nextInt(MODALIDADES.length)];
+            if (uf.equals("MG") && modalidade.equals("Autogestão")) {
+                modalidade = "Medicina de Grupo";
+            } // if
+            long centavos = random.nextInt(10) == 0
+                ? -random.nextInt(1_000_000)
+                : (long) random.nextInt(Integer.MAX_VALUE) * random.nextInt(100);
+            despesas.add(new Despesa(uf, modalidade, ano, 1 + random.nextInt(4), centavos));
+        } // for
+
+        cubo = new CuboDespesas();
+        for (Despesa despesa : despesas) {
+            despesa.adicionarEm(cubo);
+        } // for
+        cubo.consolidar();
+    } // preparar
+
+    @Test
+    void celulasIguaisAoGroupByPorForcaBruta() {
+        assertEquals(forcaBruta(despesas), celulas(cubo));
+
+        // 5 UFs x 5 modalidades x 3 anos x 4 trimestres, sem AP em 2023/2024 (2 x 5 x 4)
+        // e sem MG/Autogestão (3 x 4)
+        assertEquals(300 - 40 - 12, cubo.getQuantidadeCelulasBase());
+
+        long total = despesas.stream().mapToLong(Despesa::centavos).sum();
+        assertEquals(DESPESAS, cubo.getQuantidade(null, null, null, null));
+        assertEquals(total, cubo.getTotalCentavos(null, null, null, null));
+        assertEquals(BigDecimal.valueOf(total, 2), cubo.getTotalDespesas(null, null, null, null));
+    } // celulasIguaisAoGroupByPorForcaBruta
+
+    @Test
+    void consultasIguaisAoGroupByPorForcaBruta() {
+        Map<String, String> esperado = forcaBruta(despesas);
+        for (String uf : CONSULTA_UFS) {
+            for (String modalidade : CONSULTA_MODALIDADES) {
+                for (Integer ano : CONSULTA_ANOS) {
+                    for (Integer trimestre : CONSULTA_TRIMESTRES) {
+                        String fatia = chave(uf, modalidade, ano, trimestre);
+                        String celula = esperado.getOrDefault(fatia, "0 0");
+                        assertEquals(celula, cubo.getQuantidade(uf, modalidade, ano, trimestre)
+                            + " " + cubo.getTotalCentavos(uf, modalidade, ano, trimestre), fatia);
+
+                        // TODOS equivale a null nas dimensões de texto
+                        String todosUf = uf == null ? CuboDespesas.TODOS : uf;
+                        String todosModalidade = modalidade == null ? CuboDespesas.TODOS : modalidade;
+                        assertEquals(celula, cubo.getQuantidade(todosUf, todosModalidade, ano, trimestre)
+                            + " " + cubo.getTotalCentavos(todosUf, todosModalidade, ano, trimestre), fatia);
+                    } // for
+                } // for
+            } // for
+        } // for
+
+        // Valores desconhecidos não caem em "todos"
+        assertEquals(0, cubo.getQuantidade("ZZ", null, null, null));
+        assertEquals(0, cubo.getQuantidade(null, null, 2022, null));
+        assertEquals(0, cubo.getQuantidade(null, null, null, 5));
+        assertEquals(0, cubo.getQuantidade("AP", null, 2024, null));
+        assertEquals(0, cubo.getQuantidade("MG", "Autogestão", null, null));
+        assertTrue(cubo.getQuantidade("", "", null, null) > 0);
+    } // consultasIguaisAoGroupByPorForcaBruta
+
+    @Test
+    void parciaisCombinadasIguaisAoCuboUnico() {
+        Map<String, String> esperado = celulas(cubo);
+
+        // Lotes de tamanhos diferentes; o mesmo cubo parcial reaproveitado com limpar(),
+        // como nos lotes do enriquecimento (dicionários com ids diferentes a cada lote)
+        CuboDespesas combinado = new CuboDespesas();
+        CuboDespesas parcial = new CuboDespesas();
+        int inicio = 0;
+        for (int tamanho : new int[] {1, 999, 7_000, 3, 11_997}) {
+            parcial.limpar();
+            for (Despesa despesa : despesas.subList(inicio, inicio + tamanho)) {
+                despesa.adicionarEm(parcial);
+            } // for
+            combinado.combinar(parcial);
+            inicio += tamanho;
+        } // for
+        assertEquals(DESPESAS, inicio);
+        combinado.consolidar();
+        assertEquals(esperado, celulas(combinado));
+
+        // Duas metades montadas em ordem inversa
+        CuboDespesas fim = new CuboDespesas();
+        CuboDespesas comeco = new CuboDespesas();
+        for (int i = DESPESAS - 1; i >= 0; i--) {
+            despesas.get(i).adicionarEm(i >= DESPESAS / 2 ? fim : comeco);
+        } // for
+        fim.combinar(comeco);
+        fim.consolidar();
+        assertEquals(esperado, celulas(fim));
+    } // parciaisCombinadasIguaisAoCuboUnico
+
+    @Test
+    void csvIdaEVolta() throws Exception {
+        Path arquivo = diretorio.resolve("cubo_despesas.csv");
+        int linhas = CuboDespesasCsv.escrever(cubo, arquivo);
+        assertEquals(celulas(cubo).size(), linhas);
+        assertEquals(linhas + 1, Files.readAllLines(arquivo, StandardCharsets.UTF_8).size());
+
+        CuboDespesas lido = CuboDespesasCsv.ler(arquivo);
+        assertEquals(celulas(cubo), celulas(lido));
+        assertEquals(cubo.getQuantidadeCelulasBase(), lido.getQuantidadeCelulasBase());
+
+        // Gravado de novo a partir do lido: mesmas linhas (a ordem segue os dicionários)
+        Path regravado = diretorio.resolve("regravado.csv");
+        assertEquals(linhas, CuboDespesasCsv.escrever(lido, regravado));
+        List<String> original = new ArrayList<>(Files.readAllLines(arquivo, StandardCharsets.UTF_8));
+        List<String> copia = new ArrayList<>(Files.readAllLines(regravado, StandardCharsets.UTF_8));
+        original.sort(null);
+        copia.sort(null);
+        assertEquals(original, copia);
+    } // csvIdaEVolta
+
+    @Test
+    void usoInvalidoRecusado() {
+        CuboDespesas novo = new CuboDespesas();
+        assertThrows(IllegalArgumentException.class, () -> novo.adicionar("SP", "Autogestão", 2024, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> novo.adicionar("SP", "Autogestão", 2024, 5, 100));
+
+        novo.adicionar("SP", "Autogestão", 2024, 1, 100);
+        assertThrows(IllegalStateException.class, () -> novo.getQuantidade(null, null, null, null));
+        novo.consolidar();
+        assertEquals(1, novo.getQuantidade(null, null, null, null));
+
+        // Nova adição invalida a consolidação anterior
+        novo.adicionar("RJ", "Autogestão", 2024, 1, 50);
+        assertThrows(IllegalStateException.class, () -> novo.getTotalCentavos("SP", null, null, null));
+        novo.consolidar();
+        assertEquals(150, novo.getTotalCentavos(null, "Autogestão", 2024, 1));
+    } // usoInvalidoRecusado
+
+    /**
+     * Group-by de cada combinação de dimensões com "todos", direto nas
+     * despesas: chave -> "quantidade centavos"
+     */
+    private static Map<String, String> forcaBruta(List<Despesa> despesas) {
+        Map<String, long[]> celulas = new HashMap<>();
+        for (Despesa despesa : despesas) {
+            for (int mascara = 0; mascara < 16; mascara++) {
+                long[] celula = celulas.computeIfAbsent(chave(
+                    (mascara & 1) != 0 ? null : despesa.uf(),
+                    (mascara & 2) != 0 ? null : despesa.modalidade(),
+                    (mascara & 4) != 0 ? null : despesa.ano(),
+                    (mascara & 8) != 0 ? null : despesa.trimestre()), c -> new long[2]);
+                celula[0]++;
+                celula[1] += despesa.centavos();
+            } // for
+        } // for
+        Map<String, String> resultado = new TreeMap<>();
+        celulas.forEach((chave, celula) -> resultado.put(chave, celula[0] + " " + celula[1]));
+        return resultado;
+    } // forcaBruta
+
+    /**
+     * Células consolidadas do cubo: chave -> "quantidade centavos"
+     */
+    private static Map<String, String> celulas(CuboDespesas cubo) {
+        Map<String, String> celulas = new TreeMap<>();
+        cubo.paraCadaCelula((uf, modalidade, ano, trimestre, quantidade, centavos) -> {
+            String anterior = celulas.put(chave(uf, modalidade, ano, trimestre), quantidade + " " + centavos);
+            assertNull(anterior, "célula repetida");
+        });
+        return celulas;
+    } // celulas
+
+    private static String chave(String uf, String modalidade, Integer ano, Integer trimestre) {
+        return (uf == null ? "*" : "[" + uf + "]") + ";" + (modalidade == null ? "*" : "[" + modalidade + "]")
+            + ";" + (ano == null ? "*" : ano) + ";" + (trimestre == null ? "*" : "Q" + trimestre);
+    } // chave
+
+    private record Despesa(String uf, String modalidade, int ano, int trimestre, long centavos) {
+
+        void adicionarEm(CuboDespesas cubo) {
+            cubo.adicionar(uf, modalidade, ano, trimestre, centavos);
+        } // adicionarEm
+    } // Despesa
+} // CuboDespesasTest
@@ -0,0 +1,146 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.AgregacaoParcial;
+import com.intuitivecare.transformacao.model.DespesaAgregada;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Agregação dividida em parciais (uma por arquivo), salvas e recarregadas por
+ * serialização e combinadas em ordens diferentes: o CSV agregado deve ser
+ * byte a byte o da agregação em uma passada, inclusive o desvio padrão
+ * (Welford por parcial, Chan na combinação) e os percentis
+ */
+class AgregacaoServiceTest {
+
+    private static final int ARQUIVOS = 4;
+
+    // Grupos com muitos valores (abaixo da capacidade do sketch: percentis exatos)
+    private static final int GRUPOS_GRANDES = 3;
+    private static final int VALORES_POR_GRUPO_GRANDE = 150;
+
+    @TempDir
+    Path diretorio;
+
+    private AgregacaoService service;
+    private Path completo;
+    private List<Path> partes;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        service = new AgregacaoService(new ApplicationConfig(diretorio));
+
+        Path sinteticos = diretorio.resolve("entrada/sinteticos.csv");
+        DespesasSinteticas.gerar(sinteticos, 500, 29L);
+        List<String> linhas = new ArrayList<>(Files.readAllLines(sinteticos, StandardCharsets.UTF_8));
+        linhas.remove(0);
+
+        Random random = new Random(29L);
+        for (int i = 0; i < VALORES_POR_GRUPO_GRANDE; i++) {
+            for (int grupo = 0; grupo < GRUPOS_GRANDES; grupo++) {
+                long centavos = 1 + random.nextInt(2_000_000_000) * 7L;
+                String valor = BigDecimal.valueOf(random.nextInt(10) == 0 ? -centavos : centavos, 2).toPlainString();
+                linhas.add(DespesasSinteticas.linha(1_000 + grupo, "AC", "Q" + (i % 4 + 1), 2024, valor));
+            } // for
+        } // for
+        // Totais empatados em grupos que caem em arquivos diferentes
+        for (int operadora = 2_000; operadora < 2_000 + ARQUIVOS + 1; operadora++) {
+            linhas.add(DespesasSinteticas.linha(operadora, "AP", "Q1", 2024, "12345.67"));
+        } // for
+
+        completo = diretorio.resolve("entrada/consolidado_enriquecido.csv");
+        DespesasSinteticas.escrever(completo, linhas);
+
+        // Linhas distribuídas alternadamente: cada grupo aparece em vários arquivos
+        List<List<String>> divididas = new ArrayList<>();
+        for (int parte = 0; parte < ARQUIVOS; parte++) {
+            divididas.add(new ArrayList<>());
+        } // for
+        for (int i = 0; i < linhas.size(); i++) {
+            divididas.get(i % ARQUIVOS).add(linhas.get(i));
+        } // for
+        partes = new ArrayList<>();
+        for (int parte = 0; parte < ARQUIVOS; parte++) {
+            Path arquivo = diretorio.resolve("entrada/parte_" + parte + ".csv");
+            DespesasSinteticas.escrever(arquivo, divididas.get(parte));
+            partes.add(arquivo);
+        } // for
+    } // preparar
+
+    @Test
+    void parciaisCombinadasEmQualquerOrdemIguaisAUmaPassada() throws Exception {
+        String esperado = Files.readString(service.agregarDados(completo), StandardCharsets.UTF_8);
+        assertTrue(esperado.contains("OPERADORA 1001 LTDA;AC;"), esperado);
+
+        // Parciais salvas e recarregadas (como entre nós distintos)
+        List<Path> serializadas = new ArrayList<>();
+        for (int parte = 0; parte < ARQUIVOS; parte++) {
+            Path arquivo = diretorio.resolve("parcial_" + parte + ".ser");
+            service.salvarParcial(service.agregarParcial(partes.get(parte)), arquivo);
+            serializadas.add(arquivo);
+        } // for
+
+        int[][] ordens = {{0, 1, 2, 3}, {3, 2, 1, 0}, {2, 0, 3, 1}, {1, 3, 0, 2}};
+        for (int[] ordem : ordens) {
+            AgregacaoParcial combinada = new AgregacaoParcial();
+            for (int parte : ordem) {
+                combinada.combinar(service.carregarParcial(serializadas.get(parte)));
+            } // for
+            assertEquals(esperado, csv(combinada), "ordem " + Arrays.toString(ordem));
+        } // for
+
+        // Em árvore: (3 + 1) + (0 + 2)
+        AgregacaoParcial esquerda = service.carregarParcial(serializadas.get(3));
+        esquerda.combinar(service.carregarParcial(serializadas.get(1)));
+        AgregacaoParcial direita = service.carregarParcial(serializadas.get(0));
+        direita.combinar(service.carregarParcial(serializadas.get(2)));
+        direita.combinar(esquerda);
+        assertEquals(esperado, csv(direita), "árvore");
+
+        // Combinada também depois de serializada
+        Path combinadaSerializada = diretorio.resolve("combinada.ser");
+        service.salvarParcial(direita, combinadaSerializada);
+        assertEquals(esperado, csv(service.carregarParcial(combinadaSerializada)), "combinada serializada");
+
+        // Caminho paralelo do serviço (um arquivo por tarefa)
+        assertEquals(esperado, Files.readString(service.agregarDados(partes), StandardCharsets.UTF_8), "paralelo");
+    } // parciaisCombinadasEmQualquerOrdemIguaisAUmaPassada
+
+    @Test
+    void topKNaMesmaOrdemDaListagemCompleta() throws Exception {
+        List<String> listagem = Files.readAllLines(service.agregarDados(completo), StandardCharsets.UTF_8);
+
+        AgregacaoParcial combinada = new AgregacaoParcial();
+        for (int parte = ARQUIVOS - 1; parte >= 0; parte--) {
+            combinada.combinar(service.agregarParcial(partes.get(parte)));
+        } // for
+
+        // Heap com todos os grupos menos um (inclui os empates de 12345.67)
+        List<DespesaAgregada> topK = service.selecionarTopK(combinada, listagem.size() - 2);
+        assertEquals(listagem.size() - 2, topK.size());
+        for (int i = 0; i < topK.size(); i++) {
+            DespesaAgregada agregada = topK.get(i);
+            String prefixo = agregada.getRazaoSocial() + ";" + agregada.getUf() + ";"
+                + agregada.getTotalDespesas().toPlainString() + ";";
+            assertTrue(listagem.get(i + 1).startsWith(prefixo), "posição " + i + ": " + listagem.get(i + 1));
+        } // for
+    } // topKNaMesmaOrdemDaListagemCompleta
+
+    private String csv(AgregacaoParcial agregacao) throws Exception {
+        return Files.readString(service.gerarResultado(agregacao), StandardCharsets.UTF_8);
+    } // csv
+} // AgregacaoServiceTest
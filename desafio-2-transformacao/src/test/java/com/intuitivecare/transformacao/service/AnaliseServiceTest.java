@@ -0,0 +1,167 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.CrescimentoOperadora;
+import com.intuitivecare.transformacao.model.DistribuicaoUf;
+import com.intuitivecare.transformacao.model.EvolucaoTrimestral;
+import com.intuitivecare.transformacao.model.OperadoraAcimaMedia;
+import com.intuitivecare.transformacao.util.CarregadorJdbc;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * AnaliseService contra as queries do 03_queries_analiticas.sql
+ *
+ * O mesmo CSV enriquecido é carregado no H2 (CargaBancoService, tabelas do
+ * 01_ddl_criar_tabelas.sql) e em memória; cada análise deve devolver as
+ * mesmas linhas que a query correspondente, na mesma ordem.
+ */
+class AnaliseServiceTest {
+
+    private static final String QUERIES = "03_queries_analiticas.sql";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void mesmasRespostasQueAsQueriesSobreDadosSinteticos() throws Exception {
+        Path csv = diretorio.resolve("consolidado_enriquecido.csv");
+        DespesasSinteticas.gerar(csv, 400, 11L);
+        comparar(csv, "analise_sinteticos");
+    } // mesmasRespostasQueAsQueriesSobreDadosSinteticos
+
+    /**
+     * Média geral com fração de centavo (8000,04 / 8 = 1000,005): valores
+     * iguais a floor(soma / n) não estão acima da média, 1000,01 está; zeros
+     * e estornos não entram na média nem nas contagens
+     */
+    @Test
+    void comparacaoComMediaFracionaria() throws Exception {
+        Path csv = diretorio.resolve("consolidado_enriquecido.csv");
+        DespesasSinteticas.escrever(csv, List.of(
+            DespesasSinteticas.linha(0, "SP", "Q1", 2024, "1000.00"),
+            DespesasSinteticas.linha(0, "SP", "Q2", 2024, "1000.00"),
+            DespesasSinteticas.linha(0, "SP", "Q3", 2024, "1000.01"),
+            DespesasSinteticas.linha(1, "RJ", "Q1", 2024, "1000.01"),
+            DespesasSinteticas.linha(1, "RJ", "Q2", 2024, "1000.01"),
+            DespesasSinteticas.linha(1, "RJ", "Q3", 2024, "999.99"),
+            DespesasSinteticas.linha(1, "RJ", "Q4", 2024, "-10.00"),
+            DespesasSinteticas.linha(2, "MG", "Q1", 2024, "1000.00"),
+            DespesasSinteticas.linha(2, "MG", "Q2", 2024, "-50.00"),
+            DespesasSinteticas.linha(2, "MG", "Q3", 2024, "0.00"),
+            DespesasSinteticas.linha(3, "SP", "Q1", 2024, "1000.02")));
+
+        AnaliseService analise = comparar(csv, "analise_media");
+
+        // Só a operadora 2 (índice 1) fica acima da média em 2 trimestres
+        assertEquals(1, analise.contarAcimaDaMedia(2));
+        OperadoraAcimaMedia operadora = analise.operadorasAcimaDaMedia(2, 20).get(0);
+        assertEquals(3, operadora.getTotalTrimestres());
+        assertEquals(2, operadora.getTrimestresAcimaMedia());
+        assertEquals(new BigDecimal("1000.00"), operadora.getMediaDespesasOperadora());
+        assertEquals(new BigDecimal("1000.01"), operadora.getMediaGeral());
+    } // comparacaoComMediaFracionaria
+
+    /**
+     * Carrega o CSV no H2 e em memória e compara cada análise com sua query
+     */
+    private AnaliseService comparar(Path csv, String banco) throws Exception {
+        ApplicationConfig config = new ApplicationConfig(diretorio);
+        CarregadorJdbc.FonteConexao fonte = BancoH2.criar(banco);
+        new CargaBancoService(config, fonte).carregarDespesas(csv);
+
+        AnaliseService analise = new AnaliseService(config);
+        analise.carregar(csv);
+
+        try (Connection conexao = fonte.abrir();
+             Statement stmt = conexao.createStatement()) {
+            List<List<String>> crescimento = consultar(stmt, "-- QUERY 1");
+            assertFalse(crescimento.isEmpty());
+            assertEquals(crescimento, linhasCrescimento(analise.topCrescimento(5)));
+
+            assertEquals(consultar(stmt, "-- QUERY 2"), linhasDistribuicao(analise.distribuicaoPorUf(5)));
+
+            List<String> contagem = consultar(stmt, "-- QUERY 3").get(0);
+            assertEquals(contagem.get(0), Integer.toString(analise.contarAcimaDaMedia(2)));
+
+            assertEquals(consultar(stmt, "-- QUERY 3 Detalhada"),
+                linhasAcimaMedia(analise.operadorasAcimaDaMedia(2, 20)));
+
+            assertEquals(consultar(stmt, "-- Query evolução"), linhasEvolucao(analise.evolucaoTrimestral()));
+        } // try
+        return analise;
+    } // comparar
+
+    private static List<List<String>> consultar(Statement stmt, String marcador) throws Exception {
+        List<List<String>> linhas = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery(BancoH2.consulta(QUERIES, marcador))) {
+            int colunas = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                List<String> linha = new ArrayList<>(colunas);
+                for (int c = 1; c <= colunas; c++) {
+                    linha.add(texto(rs.getObject(c)));
+                } // for
+                linhas.add(linha);
+            } // while
+        } // try
+        return linhas;
+    } // consultar
+
+    private static List<List<String>> linhasCrescimento(List<CrescimentoOperadora> resultado) {
+        List<List<String>> linhas = new ArrayList<>();
+        for (CrescimentoOperadora c : resultado) {
+            linhas.add(List.of(c.getCnpj(), c.getRazaoSocial(), texto(c.getValorPrimeiro()), c.getPeriodoInicial(),
+                texto(c.getValorUltimo()), c.getPeriodoFinal(), texto(c.getCrescimentoPercentual())));
+        } // for
+        return linhas;
+    } // linhasCrescimento
+
+    private static List<List<String>> linhasDistribuicao(List<DistribuicaoUf> resultado) {
+        List<List<String>> linhas = new ArrayList<>();
+        for (DistribuicaoUf d : resultado) {
+            linhas.add(List.of(d.getUf(), texto(d.getQuantidadeOperadoras()), texto(d.getTotalDespesas()),
+                texto(d.getMediaPorRegistro()), texto(d.getMediaPorOperadora()), texto(d.getMenorDespesa()),
+                texto(d.getMaiorDespesa())));
+        } // for
+        return linhas;
+    } // linhasDistribuicao
+
+    private static List<List<String>> linhasAcimaMedia(List<OperadoraAcimaMedia> resultado) {
+        List<List<String>> linhas = new ArrayList<>();
+        for (OperadoraAcimaMedia o : resultado) {
+            linhas.add(List.of(o.getCnpj(), o.getRazaoSocial(), texto(o.getTotalTrimestres()),
+                texto(o.getTrimestresAcimaMedia()), texto(o.getMediaDespesasOperadora()), texto(o.getMediaGeral())));
+        } // for
+        return linhas;
+    } // linhasAcimaMedia
+
+    private static List<List<String>> linhasEvolucao(List<EvolucaoTrimestral> resultado) {
+        List<List<String>> linhas = new ArrayList<>();
+        for (EvolucaoTrimestral e : resultado) {
+            linhas.add(List.of(texto(e.getAno()), e.getTrimestre(), texto(e.getOperadoras()),
+                texto(e.getTotalDespesas()), texto(e.getMediaDespesas())));
+        } // for
+        return linhas;
+    } // linhasEvolucao
+
+    /**
+     * Valor comparável entre SQL e Java: decimais sem zeros à direita
+     */
+    private static String texto(Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().toPlainString();
+        } // if
+        return String.valueOf(valor);
+    } // texto
+} // AnaliseServiceTest
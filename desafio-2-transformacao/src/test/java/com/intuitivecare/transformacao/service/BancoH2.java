@@ -0,0 +1,83 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.util.CarregadorJdbc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banco H2 em memória (modo PostgreSQL) com as tabelas do Desafio 3
+ *
+ * Os scripts são lidos de desafio-3-banco-dados/scripts, relativo ao
+ * diretório do módulo (onde o Maven executa os testes).
+ */
+final class BancoH2 {
+
+    private static final Path SCRIPTS = Paths.get("../desafio-3-banco-dados/scripts");
+
+    private BancoH2() {
+        // Construtor privado para classe utilitária
+    } // BancoH2
+
+    /**
+     * Cria o banco e executa 01_ddl_criar_tabelas.sql
+     *
+     * @param nome Nome do banco (um por teste; mantido enquanto a JVM viver)
+     */
+    static CarregadorJdbc.FonteConexao criar(String nome) throws IOException, SQLException {
+        String url = "jdbc:h2:mem:" + nome + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        CarregadorJdbc.FonteConexao fonte = () -> DriverManager.getConnection(url, "sa", "");
+        try (Connection conexao = fonte.abrir();
+             Statement stmt = conexao.createStatement()) {
+            for (String comando : comandos("01_ddl_criar_tabelas.sql")) {
+                stmt.execute(comando);
+            } // for
+        } // try
+        return fonte;
+    } // criar
+
+    /**
+     * Comandos de um script, sem comentários, separados por ";"
+     */
+    static List<String> comandos(String script) throws IOException {
+        List<String> comandos = new ArrayList<>();
+        for (String comando : semComentarios(lerScript(script)).split(";")) {
+            if (!comando.isBlank()) {
+                comandos.add(comando.trim());
+            } // if
+        } // for
+        return comandos;
+    } // comandos
+
+    /**
+     * Comando de um script identificado pelo comentário que o segue
+     * (ex.: "-- QUERY 1" no 03_queries_analiticas.sql)
+     */
+    static String consulta(String script, String marcador) throws IOException {
+        String[] partes = lerScript(script).split(";");
+        for (int i = 0; i + 1 < partes.length; i++) {
+            String seguinte = partes[i + 1].stripLeading();
+            if (seguinte.lines().findFirst().orElse("").strip().equals(marcador)) {
+                return semComentarios(partes[i]).trim();
+            } // if
+        } // for
+        throw new IllegalArgumentException("Comando não encontrado em " + script + ": " + marcador);
+    } // consulta
+
+    private static String lerScript(String script) throws IOException {
+        return Files.readString(SCRIPTS.resolve(script), StandardCharsets.UTF_8);
+    } // lerScript
+
+    private static String semComentarios(String sql) {
+        return sql.replaceAll("(?s)/\\*.*?\\*/", "").replaceAll("--[^\\n]*", "");
+    } // semComentarios
+} // BancoH2
@@ -0,0 +1,139 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.model.ResultadoCarga;
+import com.intuitivecare.transformacao.util.CarregadorJdbc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Carga das saídas do Desafio 2 nas tabelas do 01_ddl_criar_tabelas.sql,
+ * em H2 (modo PostgreSQL, caminho INSERT em lote do CarregadorJdbc)
+ */
+class CargaBancoServiceTest {
+
+    private static final int OPERADORAS = 300;
+
+    @TempDir
+    Path diretorio;
+
+    private ApplicationConfig config;
+    private DespesasSinteticas.Resumo resumo;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        // Lotes pequenos e vários escritores: exercita a fila e os commits por lote
+        System.setProperty("carga.tamanhoLote", "16");
+        System.setProperty("carga.escritores", "3");
+        try {
+            config = new ApplicationConfig(diretorio);
+        } finally {
+            System.clearProperty("carga.tamanhoLote");
+            System.clearProperty("carga.escritores");
+        } // try-finally
+
+        resumo = DespesasSinteticas.gerar(
+            config.getDiretorioOutput().resolve("consolidado_enriquecido.csv"), OPERADORAS, 7L);
+        Files.writeString(config.getDiretorioOutput().resolve("despesas_agregadas.csv"), String.join("\n",
+            "RazaoSocial;UF;TotalDespesas;MediaPorTrimestre;DesvioPadrao;QuantidadeTrimestres;P50;P90;P99",
+            "OPERADORA 1 LTDA;SP;3000.00;1000.00;100.00;3;1000.00;1100.00;1100.00",
+            "OPERADORA 2 LTDA;N/A;500.50;500.50;0.00;1;500.50;500.50;500.50",
+            "OPERADORA 3 LTDA;rj;900.00;450.00;50.00;2;450.00;500.00;500.00",
+            "OPERADORA 1 LTDA;SP;1.00;1.00;0.00;1;1.00;1.00;1.00",
+            ";SP;1.00;1.00;0.00;1;1.00;1.00;1.00") + "\n", StandardCharsets.UTF_8);
+    } // preparar
+
+    @Test
+    void carregaSaidasComAsRegrasDoScriptDeImportacao() throws Exception {
+        CarregadorJdbc.FonteConexao fonte = BancoH2.criar("carga");
+        List<ResultadoCarga> resultados = new CargaBancoService(config, fonte).carregarSaidas();
+
+        Map<String, ResultadoCarga> porTabela = new HashMap<>();
+        for (ResultadoCarga resultado : resultados) {
+            porTabela.put(resultado.getTabela(), resultado);
+        } // for
+        assertEquals(3, porTabela.size());
+
+        ResultadoCarga despesas = porTabela.get("despesas_consolidadas");
+        assertEquals(resumo.linhas(), despesas.getRegistrosProcessados());
+        assertEquals(resumo.validas(), despesas.getRegistrosImportados());
+        assertEquals(resumo.rejeitadas(), despesas.getRegistrosRejeitados());
+        assertEquals(OPERADORAS, porTabela.get("operadoras_cadastro").getRegistrosImportados());
+
+        ResultadoCarga agregadas = porTabela.get("despesas_agregadas");
+        assertEquals(5, agregadas.getRegistrosProcessados());
+        assertEquals(3, agregadas.getRegistrosImportados());
+        assertEquals(2, agregadas.getRegistrosRejeitados());
+
+        try (Connection conexao = fonte.abrir();
+             Statement stmt = conexao.createStatement()) {
+            assertEquals(resumo.validas(), inteiro(stmt, "SELECT COUNT(*) FROM despesas_consolidadas"));
+            assertEquals(0, resumo.soma().compareTo(
+                decimal(stmt, "SELECT SUM(valor_despesas) FROM despesas_consolidadas")));
+            assertEquals(OPERADORAS, inteiro(stmt, "SELECT COUNT(*) FROM operadoras_cadastro"));
+
+            // Chave repetida: a primeira ocorrência prevalece
+            String primeiroCnpj = DespesasSinteticas.cnpj(10_000_000);
+            assertEquals(0, inteiro(stmt, "SELECT COUNT(*) FROM despesas_consolidadas WHERE cnpj = '"
+                + primeiroCnpj + "' AND valor_despesas = 999999.99"));
+
+            // CNPJ formatado no arquivo chega normalizado
+            String formatado = DespesasSinteticas.cnpj(10_000_000 + 7_919);
+            assertEquals(1, inteiro(stmt, "SELECT COUNT(*) FROM operadoras_cadastro WHERE cnpj = '"
+                + formatado + "'"));
+
+            // UF vazia vira NULL; "N/A" e caixa baixa na agregada
+            assertEquals(0, inteiro(stmt, "SELECT COUNT(*) FROM despesas_consolidadas WHERE uf = ''"));
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT uf FROM despesas_agregadas WHERE razao_social = 'OPERADORA 2 LTDA'")) {
+                rs.next();
+                assertNull(rs.getString(1));
+            } // try
+            assertEquals(1, inteiro(stmt, "SELECT COUNT(*) FROM despesas_agregadas WHERE uf = 'RJ'"));
+
+            // Uma linha de log_importacao por tabela, com as contagens da carga
+            try (ResultSet rs = stmt.executeQuery("SELECT tabela_destino, arquivo_origem, registros_processados, "
+                    + "registros_importados, registros_rejeitados FROM log_importacao ORDER BY id")) {
+                int linhas = 0;
+                while (rs.next()) {
+                    ResultadoCarga esperado = porTabela.get(rs.getString(1));
+                    assertEquals(esperado.getArquivoOrigem(), rs.getString(2));
+                    assertEquals(esperado.getRegistrosProcessados(), rs.getLong(3));
+                    assertEquals(esperado.getRegistrosImportados(), rs.getLong(4));
+                    assertEquals(esperado.getRegistrosRejeitados(), rs.getLong(5));
+                    linhas++;
+                } // while
+                assertEquals(3, linhas);
+            } // try
+        } // try
+    } // carregaSaidasComAsRegrasDoScriptDeImportacao
+
+    private static long inteiro(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        } // try
+    } // inteiro
+
+    private static BigDecimal decimal(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getBigDecimal(1);
+        } // try
+    } // decimal
+} // CargaBancoServiceTest
@@ -0,0 +1,96 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.model.OperadoraResumo;
+import com.intuitivecare.transformacao.model.PaginaOperadoras;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consultas da API sobre um consolidado_enriquecido.csv sintético: paginação
+ * e CNPJ fora do formato só com dígitos
+ */
+class ConsultaOperadorasServiceTest {
+
+    private static final int OPERADORAS = 250;
+    private static final String MALFORMADO = "12.345.678/0001-9X";
+
+    @TempDir
+    Path diretorio;
+
+    private ConsultaOperadorasService service;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        List<String> linhas = new ArrayList<>(OPERADORAS);
+        for (int i = 0; i < OPERADORAS; i++) {
+            linhas.add(DespesasSinteticas.linha(i, i % 2 == 0 ? "SP" : "RJ", "Q1", 2024, (1000 + i) + ".00"));
+        } // for
+        // Uma operadora com CNPJ formatado e outra com CNPJ malformado
+        String cnpj = DespesasSinteticas.cnpj(10_000_000 + 7_919);
+        linhas.set(1, DespesasSinteticas.formatar(cnpj) + linhas.get(1).substring(cnpj.length()));
+        linhas.set(2, MALFORMADO + linhas.get(2).substring(cnpj.length()));
+        Path csv = diretorio.resolve("consolidado_enriquecido.csv");
+        DespesasSinteticas.escrever(csv, linhas);
+
+        service = new ConsultaOperadorasService();
+        assertEquals(OPERADORAS, service.carregar(csv));
+    } // preparar
+
+    @Test
+    void cnpjFormatadoOuMalformadoNormalizado() {
+        String cnpj = DespesasSinteticas.cnpj(10_000_000 + 7_919);
+        OperadoraResumo formatada = service.buscarPorCnpj(DespesasSinteticas.formatar(cnpj));
+        assertNotNull(formatada);
+        assertEquals(cnpj, formatada.getCnpj());
+        assertEquals(formatada, service.buscarPorCnpj(cnpj));
+
+        // Busca por trecho do CNPJ (índice de trigramas) com e sem pontuação
+        assertEquals(formatada, service.listar(1, 10, cnpj.substring(2), null).getOperadoras().get(0));
+        assertEquals(formatada, service.listar(1, 10, DespesasSinteticas.formatar(cnpj), null)
+            .getOperadoras().get(0));
+
+        OperadoraResumo malformada = service.buscarPorCnpj(MALFORMADO);
+        assertNotNull(malformada);
+        assertEquals("01234567800019", malformada.getCnpj());
+        assertEquals(malformada, service.listar(1, 10, "345.678", null).getOperadoras().get(0));
+    } // cnpjFormatadoOuMalformadoNormalizado
+
+    @Test
+    void ultimaPaginaIncompleta() {
+        PaginaOperadoras pagina = service.listar(3, 100, null, null);
+        assertEquals(OPERADORAS, pagina.getTotal());
+        assertEquals(50, pagina.getOperadoras().size());
+
+        PaginaOperadoras busca = service.listar(3, 100, "operadora", null);
+        assertEquals(OPERADORAS, busca.getTotal());
+        assertEquals(50, busca.getOperadoras().size());
+    } // ultimaPaginaIncompleta
+
+    @Test
+    void paginaAlemDoFimVemVazia() {
+        // (page - 1) * limit não cabe em int: antes, índice negativo na listagem
+        // e primeira página na busca
+        for (int pagina : new int[] {4, 30_000_000, Integer.MAX_VALUE}) {
+            PaginaOperadoras listagem = service.listar(pagina, 100, null, null);
+            assertEquals(OPERADORAS, listagem.getTotal());
+            assertTrue(listagem.getOperadoras().isEmpty(), "listagem, página " + pagina);
+
+            PaginaOperadoras porUf = service.listar(pagina, 100, null, "sp");
+            assertEquals(OPERADORAS / 2, porUf.getTotal());
+            assertTrue(porUf.getOperadoras().isEmpty(), "UF, página " + pagina);
+
+            PaginaOperadoras busca = service.listar(pagina, 100, "operadora", null);
+            assertEquals(OPERADORAS, busca.getTotal());
+            assertTrue(busca.getOperadoras().isEmpty(), "busca, página " + pagina);
+        } // for
+    } // paginaAlemDoFimVemVazia
+} // ConsultaOperadorasServiceTest
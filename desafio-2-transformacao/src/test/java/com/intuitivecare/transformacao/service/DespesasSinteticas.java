@@ -0,0 +1,160 @@
+package com.intuitivecare.transformacao.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * consolidado_enriquecido.csv sintético, com semente fixa, no formato do
+ * EnriquecimentoService
+ *
+ * Cada operadora tem de 1 a 3 trimestres de 2024 (alguns com valor zero ou
+ * negativo) e ao final entram linhas que a carga deve rejeitar: chave
+ * (cnpj, trimestre, ano) repetida, CNPJ vazio (sem cadastro), ano fora do
+ * CHECK e trimestre inválido. Uma operadora usa o CNPJ formatado.
+ */
+final class DespesasSinteticas {
+
+    static final String CABECALHO =
+        "CNPJ;RegistroANS;RazaoSocial;Modalidade;UF;Trimestre;Ano;ValorDespesas;CnpjValido;MatchCadastro";
+
+    private static final String[] UFS = {"SP", "RJ", "MG", "RS", "PR", "BA", "SC", "PE", ""};
+    private static final String[] MODALIDADES = {"Medicina de Grupo", "Cooperativa Médica", "Autogestão"};
+    private static final int[] PESOS_PRIMEIRO = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_SEGUNDO = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    /**
+     * Totais esperados após a carga em despesas_consolidadas
+     */
+    record Resumo(int linhas, int validas, int rejeitadas, int operadoras, BigDecimal soma) {
+    } // Resumo
+
+    private DespesasSinteticas() {
+        // Construtor privado para classe utilitária
+    } // DespesasSinteticas
+
+    static Resumo gerar(Path arquivo, int operadoras, long semente) throws IOException {
+        Random random = new Random(semente);
+        Set<String> chaves = new HashSet<>();
+        int linhas = 0;
+        int validas = 0;
+        BigDecimal soma = BigDecimal.ZERO;
+        String primeira = null;
+
+        Files.createDirectories(arquivo.getParent());
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            writer.write(CABECALHO + "\n");
+            for (int i = 0; i < operadoras; i++) {
+                String cnpj = cnpj(10_000_000 + i * 7_919);
+                String uf = UFS[random.nextInt(UFS.length)];
+
+                for (int trimestre = 1; trimestre <= 3; trimestre++) {
+                    if (trimestre > 1 && random.nextInt(5) == 0) {
+                        continue;
+                    } // if
+                    BigDecimal valor = valor(random);
+                    String linha = linha(i, uf, "Q" + trimestre, 2024, valor.toPlainString());
+                    if (i == 1) {
+                        linha = formatar(cnpj) + linha.substring(cnpj.length());
+                    } // if
+                    writer.write(linha + "\n");
+                    linhas++;
+                    validas++;
+                    soma = soma.add(valor);
+                    chaves.add(cnpj + "Q" + trimestre);
+                    if (primeira == null) {
+                        primeira = linha;
+                    } // if
+                } // for
+            } // for
+
+            // Rejeitadas: chave repetida (a primeira ocorrência prevalece), sem CNPJ,
+            // ano fora do CHECK e trimestre fora do formato
+            String[] rejeitadas = {
+                primeira.replaceFirst(";2024;[^;]+;", ";2024;999999.99;"),
+                ";399999;OPERADORA NÃO ENCONTRADA;;;Q1;2024;1000.00;NAO;NAO",
+                cnpj(99_999_999) + ";399998;OPERADORA ANTIGA;Autogestão;SP;Q1;1999;500.00;SIM;SIM",
+                cnpj(99_999_998) + ";399997;OPERADORA SEM TRIMESTRE;Autogestão;SP;T5;2024;500.00;SIM;SIM"
+            };
+            for (String linha : rejeitadas) {
+                writer.write(linha + "\n");
+                linhas++;
+            } // for
+        } // try
+
+        return new Resumo(linhas, validas, linhas - validas, operadoras, soma);
+    } // gerar
+
+    /**
+     * Grava o CSV com as linhas dadas (já no formato do cabeçalho)
+     */
+    static void escrever(Path arquivo, List<String> linhas) throws IOException {
+        Files.createDirectories(arquivo.getParent());
+        List<String> conteudo = new ArrayList<>(linhas.size() + 1);
+        conteudo.add(CABECALHO);
+        conteudo.addAll(linhas);
+        Files.write(arquivo, conteudo, StandardCharsets.UTF_8);
+    } // escrever
+
+    /**
+     * Linha de uma operadora com cadastro (CNPJ válido, match SIM)
+     */
+    static String linha(int operadora, String uf, String trimestre, int ano, String valor) {
+        return String.join(";", cnpj(10_000_000 + operadora * 7_919), Integer.toString(300_000 + operadora),
+            "OPERADORA " + (operadora + 1) + " LTDA", MODALIDADES[operadora % MODALIDADES.length], uf,
+            trimestre, Integer.toString(ano), valor, "SIM", "SIM");
+    } // linha
+
+    /**
+     * Valor com 2 casas: maioria positiva, alguns zeros e estornos (negativos)
+     */
+    private static BigDecimal valor(Random random) {
+        int tipo = random.nextInt(20);
+        if (tipo == 0) {
+            return new BigDecimal("0.00");
+        } // if
+        long centavos = 100_000L + (long) (random.nextDouble() * 5_000_000_000L);
+        return BigDecimal.valueOf(tipo == 1 ? -centavos : centavos, 2);
+    } // valor
+
+    /**
+     * CNPJ de 14 dígitos (matriz 0001) com dígitos verificadores corretos
+     */
+    static String cnpj(int raiz) {
+        String base = String.format("%08d0001", raiz);
+        int[] digitos = new int[14];
+        for (int i = 0; i < 12; i++) {
+            digitos[i] = base.charAt(i) - '0';
+        } // for
+        digitos[12] = digitoVerificador(digitos, PESOS_PRIMEIRO);
+        digitos[13] = digitoVerificador(digitos, PESOS_SEGUNDO);
+
+        StringBuilder cnpj = new StringBuilder(14);
+        for (int digito : digitos) {
+            cnpj.append(digito);
+        } // for
+        return cnpj.toString();
+    } // cnpj
+
+    static String formatar(String cnpj) {
+        return cnpj.substring(0, 2) + "." + cnpj.substring(2, 5) + "." + cnpj.substring(5, 8) + "/"
+            + cnpj.substring(8, 12) + "-" + cnpj.substring(12);
+    } // formatar
+
+    private static int digitoVerificador(int[] digitos, int[] pesos) {
+        int soma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            soma += digitos[i] * pesos[i];
+        } // for
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    } // digitoVerificador
+} // DespesasSinteticas
@@ -0,0 +1,316 @@
+package com.intuitivecare.transformacao.service;
+
+import com.intuitivecare.transformacao.config.ApplicationConfig;
+import com.intuitivecare.transformacao.util.ArquivoParquetWriter;
+import com.intuitivecare.transformacao.util.ArquivoParquetWriter.Coluna;
+import com.intuitivecare.transformacao.util.ArquivoParquetWriter.TipoColuna;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida e volta das três saídas em Parquet: escritas pelo ArquivoParquetWriter
+ * e lidas pelo DuckDB (leitor independente), comparando esquema,
+ * codificação, estatísticas por grupo de linhas e todos os valores com os
+ * CSVs de origem
+ */
+class ExportacaoParquetServiceTest {
+
+    // Um grupo cheio e um parcial
+    private static final int LINHAS_VALIDADO = ArquivoParquetWriter.LINHAS_POR_GRUPO + 1_000;
+    private static final String[] TEXTOS_DICIONARIO = {"RazaoSocial", "UF", "Modalidade"};
+
+    @TempDir
+    Path diretorio;
+
+    private ApplicationConfig config;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        config = new ApplicationConfig(diretorio);
+        Path output = config.getDiretorioOutput();
+        Files.createDirectories(output);
+
+        // Valores com mais de 2 casas (arredondados HALF_EVEN), negativos e zeros
+        Random random = new Random(5L);
+        try (Writer writer = Files.newBufferedWriter(output.resolve("consolidado_validado.csv"),
+                StandardCharsets.UTF_8)) {
+            writer.write("RegistroANS;Trimestre;Ano;ValorDespesas\n");
+            for (int i = 0; i < LINHAS_VALIDADO; i++) {
+                BigDecimal valor = BigDecimal.valueOf(random.nextLong() % 10_000_000_000L, 1 + random.nextInt(3));
+                writer.write((300_000 + random.nextInt(2_000)) + ";Q" + (1 + random.nextInt(4)) + ";"
+                    + (2020 + random.nextInt(6)) + ";" + (random.nextInt(50) == 0 ? "0" : valor.toPlainString())
+                    + "\n");
+            } // for
+        } // try
+
+        DespesasSinteticas.gerar(output.resolve("consolidado_enriquecido.csv"), 300, 11L);
+
+        Files.writeString(output.resolve("despesas_agregadas.csv"), String.join("\n",
+            "RazaoSocial;UF;TotalDespesas;MediaPorTrimestre;DesvioPadrao;QuantidadeTrimestres;P50;P90;P99",
+            "BRADESCO SAÚDE S.A.;RJ;47154607705.88;15718202568.63;8330278647.06;3;15580421309.02;24116517223.00;24116517223.00",
+            "ÁGUA VIVA SAÚDE LTDA;SP;-10.50;-5.25;0.00;2;-5.25;-5.25;-5.25",
+            "OPERADORA 3 LTDA;MG;900.005;450.0025;50.015;2;450.00;500.00;500.00",
+            "ZURICH SAÚDE;N/A;0;0;0;1;0;0;0") + "\n", StandardCharsets.UTF_8);
+    } // preparar
+
+    @Test
+    void tresSaidasIdaEVolta() throws Exception {
+        List<Path> gerados = new ExportacaoParquetService(config).exportarSaidas();
+        Path output = config.getDiretorioOutput();
+        assertEquals(List.of(output.resolve("consolidado_validado.parquet"),
+            output.resolve("consolidado_enriquecido.parquet"), output.resolve("despesas_agregadas.parquet")), gerados);
+
+        try (Connection conexao = DriverManager.getConnection("jdbc:duckdb:")) {
+            verificar(conexao, output.resolve("consolidado_validado.csv"), gerados.get(0),
+                ExportacaoParquetService.getEsquemaValidado(), List.of(ArquivoParquetWriter.LINHAS_POR_GRUPO, 1_000));
+            verificar(conexao, output.resolve("consolidado_enriquecido.csv"), gerados.get(1),
+                ExportacaoParquetService.getEsquemaEnriquecido(), null);
+            verificar(conexao, output.resolve("despesas_agregadas.csv"), gerados.get(2),
+                ExportacaoParquetService.getEsquemaAgregado(), List.of(4));
+
+            // Razão social, UF e modalidade sempre por dicionário
+            for (Path parquet : gerados.subList(1, 3)) {
+                try (Statement statement = conexao.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT path_in_schema, encodings, dictionary_page_offset"
+                         + " FROM parquet_metadata(" + literal(parquet) + ")")) {
+                    int textos = 0;
+                    while (rs.next()) {
+                        if (Arrays.asList(TEXTOS_DICIONARIO).contains(rs.getString(1))) {
+                            assertTrue(rs.getString(2).contains("RLE_DICTIONARY"), parquet + " " + rs.getString(1));
+                            assertNotNull(rs.getObject(3));
+                            textos++;
+                        } // if
+                    } // while
+                    assertTrue(textos >= 2, parquet.toString());
+                } // try
+            } // for
+        } // try
+    } // tresSaidasIdaEVolta
+
+    @Test
+    void textoAcimaDoLimiteDoDicionarioUsaPlain() throws Exception {
+        Path parquet = diretorio.resolve("distintos.parquet");
+        int linhas = ArquivoParquetWriter.MAXIMO_DICIONARIO + 10;
+        try (ArquivoParquetWriter writer = new ArquivoParquetWriter(parquet,
+                List.of(Coluna.texto("Texto"), Coluna.inteiro("Numero")))) {
+            for (int i = 0; i < linhas; i++) {
+                writer.adicionarLinha("valor-" + i, Integer.toString(-i));
+            } // for
+        } // try
+
+        try (Connection conexao = DriverManager.getConnection("jdbc:duckdb:");
+             Statement statement = conexao.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT encodings, dictionary_page_offset, stats_min_value,"
+                    + " stats_max_value FROM parquet_metadata(" + literal(parquet) + ") WHERE path_in_schema = 'Texto'")) {
+                assertTrue(rs.next());
+                assertEquals("PLAIN", rs.getString(1));
+                assertNull(rs.getObject(2));
+                assertEquals("valor-0", rs.getString(3));
+                assertEquals("valor-9999", rs.getString(4));
+            } // try
+            try (ResultSet rs = statement.executeQuery("SELECT count(*), count(DISTINCT Texto), sum(Numero)"
+                    + " FROM read_parquet(" + literal(parquet) + ")")) {
+                assertTrue(rs.next());
+                assertEquals(linhas, rs.getLong(1));
+                assertEquals(linhas, rs.getLong(2));
+                assertEquals(-(long) linhas * (linhas - 1) / 2, rs.getLong(3));
+            } // try
+        } // try
+    } // textoAcimaDoLimiteDoDicionarioUsaPlain
+
+    /**
+     * Esquema, valores (na ordem do arquivo) e metadados de cada grupo de linhas
+     *
+     * @param grupos Linhas esperadas por grupo; null para não verificar
+     */
+    private static void verificar(Connection conexao, Path csv, Path parquet, List<Coluna> esquema,
+                                  List<Integer> grupos) throws Exception {
+        List<String[]> linhas = lerCsv(csv, esquema);
+        String arquivo = literal(parquet);
+
+        try (Statement statement = conexao.createStatement()) {
+            // Esquema: raiz + uma folha obrigatória por coluna, na ordem
+            try (ResultSet rs = statement.executeQuery("SELECT name, type, repetition_type, converted_type, scale,"
+                    + " precision FROM parquet_schema(" + arquivo + ")")) {
+                assertTrue(rs.next());
+                assertEquals("schema", rs.getString(1));
+                for (Coluna coluna : esquema) {
+                    assertTrue(rs.next(), coluna.getNome());
+                    assertEquals(coluna.getNome(), rs.getString(1));
+                    assertEquals("REQUIRED", rs.getString(3));
+                    switch (coluna.getTipo()) {
+                        case TEXTO -> {
+                            assertEquals("BYTE_ARRAY", rs.getString(2));
+                            assertEquals("UTF8", rs.getString(4));
+                        }
+                        case INTEIRO -> {
+                            assertEquals("INT32", rs.getString(2));
+                            assertNull(rs.getString(4));
+                        }
+                        case DECIMAL -> {
+                            assertEquals("INT64", rs.getString(2));
+                            assertEquals("DECIMAL", rs.getString(4));
+                            assertEquals(2, rs.getInt(5));
+                            assertEquals(18, rs.getInt(6));
+                        }
+                    } // switch
+                } // for
+                assertFalse(rs.next());
+            } // try
+
+            // Todos os valores, na ordem do CSV
+            try (ResultSet rs = statement.executeQuery("SELECT * EXCLUDE (file_row_number) FROM read_parquet("
+                    + arquivo + ", file_row_number = true) ORDER BY file_row_number")) {
+                int linha = 0;
+                while (rs.next()) {
+                    String[] esperado = linhas.get(linha);
+                    for (int i = 0; i < esquema.size(); i++) {
+                        String contexto = parquet.getFileName() + " linha " + linha + " " + esquema.get(i).getNome();
+                        switch (esquema.get(i).getTipo()) {
+                            case TEXTO -> assertEquals(esperado[i], rs.getString(i + 1), contexto);
+                            case INTEIRO -> assertEquals(Integer.parseInt(esperado[i]), rs.getInt(i + 1), contexto);
+                            case DECIMAL -> assertEquals(decimal(esperado[i]), rs.getBigDecimal(i + 1), contexto);
+                        } // switch
+                    } // for
+                    linha++;
+                } // while
+                assertEquals(linhas.size(), linha);
+            } // try
+
+            // Grupos de linhas: quantidade, min/max e nulos por coluna
+            try (ResultSet rs = statement.executeQuery("SELECT row_group_id, row_group_num_rows, column_id,"
+                    + " path_in_schema, stats_min_value, stats_max_value, stats_null_count, compression, encodings"
+                    + " FROM parquet_metadata(" + arquivo + ") ORDER BY row_group_id, column_id")) {
+                List<Integer> tamanhos = new ArrayList<>();
+                int inicioGrupo = 0;
+                int grupoAtual = -1;
+                int tamanhoGrupo = 0;
+                while (rs.next()) {
+                    if (rs.getInt(1) != grupoAtual) {
+                        inicioGrupo += tamanhoGrupo;
+                        grupoAtual = rs.getInt(1);
+                        tamanhoGrupo = rs.getInt(2);
+                        tamanhos.add(tamanhoGrupo);
+                    } // if
+                    int coluna = rs.getInt(3);
+                    Coluna definicao = esquema.get(coluna);
+                    String contexto = parquet.getFileName() + " grupo " + grupoAtual + " " + definicao.getNome();
+                    assertEquals(definicao.getNome(), rs.getString(4));
+                    assertEquals(0, rs.getLong(7), contexto);
+                    assertEquals("GZIP", rs.getString(8), contexto);
+
+                    List<String[]> fatia = linhas.subList(inicioGrupo, inicioGrupo + tamanhoGrupo);
+                    String[] minMax = minMax(fatia, coluna, definicao.getTipo());
+                    if (definicao.getTipo() == TipoColuna.DECIMAL) {
+                        assertEquals(new BigDecimal(minMax[0]), new BigDecimal(rs.getString(5)), contexto);
+                        assertEquals(new BigDecimal(minMax[1]), new BigDecimal(rs.getString(6)), contexto);
+                    } else {
+                        assertEquals(minMax[0], rs.getString(5), contexto);
+                        assertEquals(minMax[1], rs.getString(6), contexto);
+                    } // if-else
+
+                    if (definicao.getTipo() == TipoColuna.TEXTO) {
+                        assertEquals("PLAIN, RLE_DICTIONARY", rs.getString(9), contexto);
+                    } else {
+                        assertEquals("PLAIN", rs.getString(9), contexto);
+                    } // if-else
+                } // while
+                assertEquals(linhas.size(), tamanhos.stream().mapToInt(Integer::intValue).sum());
+                if (grupos != null) {
+                    assertEquals(grupos, tamanhos);
+                } // if
+            } // try
+        } // try
+    } // verificar
+
+    /**
+     * Min/max esperados: texto pela ordem dos bytes UTF-8 sem sinal, números pelo valor
+     */
+    private static String[] minMax(List<String[]> linhas, int coluna, TipoColuna tipo) {
+        String minimo = null;
+        String maximo = null;
+        for (String[] linha : linhas) {
+            String valor = linha[coluna];
+            if (minimo == null) {
+                minimo = valor;
+                maximo = valor;
+            } else if (tipo == TipoColuna.TEXTO) {
+                byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+                if (Arrays.compareUnsigned(bytes, minimo.getBytes(StandardCharsets.UTF_8)) < 0) {
+                    minimo = valor;
+                } // if
+                if (Arrays.compareUnsigned(bytes, maximo.getBytes(StandardCharsets.UTF_8)) > 0) {
+                    maximo = valor;
+                } // if
+            } else {
+                BigDecimal numero = decimal(valor);
+                if (numero.compareTo(decimal(minimo)) < 0) {
+                    minimo = valor;
+                } // if
+                if (numero.compareTo(decimal(maximo)) > 0) {
+                    maximo = valor;
+                } // if
+            } // if-else
+        } // for
+        if (tipo == TipoColuna.DECIMAL) {
+            return new String[] {decimal(minimo).toPlainString(), decimal(maximo).toPlainString()};
+        } // if
+        return new String[] {minimo, maximo};
+    } // minMax
+
+    /**
+     * Valor como gravado: 2 casas, HALF_EVEN
+     */
+    private static BigDecimal decimal(String valor) {
+        return new BigDecimal(valor.trim()).setScale(2, RoundingMode.HALF_EVEN);
+    } // decimal
+
+    /**
+     * Linhas do CSV com as colunas na ordem do esquema
+     */
+    private static List<String[]> lerCsv(Path csv, List<Coluna> esquema) throws Exception {
+        List<String[]> linhas = new ArrayList<>();
+        CSVFormat formato = CSVFormat.DEFAULT.builder().setDelimiter(';').setHeader().setSkipHeaderRecord(true).build();
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, formato)) {
+            for (CSVRecord record : parser) {
+                String[] linha = new String[esquema.size()];
+                for (int i = 0; i < linha.length; i++) {
+                    linha[i] = record.get(esquema.get(i).getNome());
+                } // for
+                linhas.add(linha);
+            } // for
+        } // try
+        return linhas;
+    } // lerCsv
+
+    private static String literal(Path arquivo) {
+        return "'" + arquivo.toAbsolutePath().toString().replace("'", "''") + "'";
+    } // literal
+} // ExportacaoParquetServiceTest
@@ -0,0 +1,134 @@
+package com.intuitivecare.transformacao.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Escritores paralelos do CarregadorJdbc em H2 (caminho INSERT em lote),
+ * inclusive com o driver lançando RuntimeException
+ */
+class CarregadorJdbcTest {
+
+    private static final int LINHAS = 1_000;
+
+    // Bem mais lotes que a fila comporta: um escritor morto bloquearia a leitura
+    private static final int TAMANHO_LOTE = 10;
+    private static final int ESCRITORES = 2;
+
+    private static final Duration LIMITE = Duration.ofSeconds(30);
+
+    @Test
+    void cargaCompleta() throws Exception {
+        CarregadorJdbc.FonteConexao fonte = banco("carregador_completa");
+
+        try (CarregadorJdbc carregador = carregador(fonte)) {
+            for (int i = 0; i < LINHAS; i++) {
+                carregador.adicionar(i, i % 7 == 0 ? null : "linha " + i);
+            } // for
+            carregador.close();
+            assertEquals(LINHAS, carregador.getLinhasImportadas());
+        } // try
+
+        assertEquals(LINHAS, contar(fonte));
+    } // cargaCompleta
+
+    @Test
+    void runtimeExceptionDoStatementInterrompeCarga() throws Exception {
+        CarregadorJdbc.FonteConexao fonte = banco("carregador_statement");
+        IllegalStateException erro = new IllegalStateException("executeBatch simulado");
+        CarregadorJdbc.FonteConexao comFalha = () -> statementQueLanca(fonte.abrir(), erro);
+
+        SQLException falha = assertTimeoutPreemptively(LIMITE,
+            () -> assertThrows(SQLException.class, () -> carregar(comFalha)));
+        assertEquals(erro, falha.getCause());
+        assertEquals(0, contar(fonte));
+    } // runtimeExceptionDoStatementInterrompeCarga
+
+    @Test
+    void runtimeExceptionAoAbrirConexaoInterrompeCarga() throws Exception {
+        CarregadorJdbc.FonteConexao comFalha = () -> {
+            throw new IllegalArgumentException("URL inválida simulada");
+        };
+
+        SQLException falha = assertTimeoutPreemptively(LIMITE,
+            () -> assertThrows(SQLException.class, () -> carregar(comFalha)));
+        assertInstanceOf(IllegalArgumentException.class, falha.getCause());
+    } // runtimeExceptionAoAbrirConexaoInterrompeCarga
+
+    private static CarregadorJdbc carregador(CarregadorJdbc.FonteConexao fonte) {
+        return new CarregadorJdbc(fonte, "linhas", new String[] {"id", "texto"},
+            new int[] {Types.INTEGER, Types.VARCHAR}, TAMANHO_LOTE, ESCRITORES);
+    } // carregador
+
+    private static void carregar(CarregadorJdbc.FonteConexao fonte) throws SQLException {
+        try (CarregadorJdbc carregador = carregador(fonte)) {
+            for (int i = 0; i < LINHAS; i++) {
+                carregador.adicionar(i, "linha " + i);
+            } // for
+        } // try
+    } // carregar
+
+    private static CarregadorJdbc.FonteConexao banco(String nome) throws SQLException {
+        String url = "jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1";
+        CarregadorJdbc.FonteConexao fonte = () -> DriverManager.getConnection(url, "sa", "");
+        try (Connection conexao = fonte.abrir();
+             Statement stmt = conexao.createStatement()) {
+            stmt.execute("CREATE TABLE linhas (id INTEGER PRIMARY KEY, texto VARCHAR(32))");
+        } // try
+        return fonte;
+    } // banco
+
+    private static long contar(CarregadorJdbc.FonteConexao fonte) throws SQLException {
+        try (Connection conexao = fonte.abrir();
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM linhas")) {
+            rs.next();
+            return rs.getLong(1);
+        } // try
+    } // contar
+
+    /**
+     * Conexão real cujos PreparedStatement lançam o erro em executeBatch
+     */
+    private static Connection statementQueLanca(Connection conexao, RuntimeException erro) {
+        return (Connection) Proxy.newProxyInstance(CarregadorJdbcTest.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, metodo, argumentos) -> {
+                Object resultado = invocar(conexao, metodo, argumentos);
+                if (!(resultado instanceof PreparedStatement stmt)) {
+                    return resultado;
+                } // if
+                return Proxy.newProxyInstance(CarregadorJdbcTest.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (p, m, a) -> {
+                        if (m.getName().equals("executeBatch")) {
+                            throw erro;
+                        } // if
+                        return invocar(stmt, m, a);
+                    });
+            });
+    } // statementQueLanca
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos)
+        throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } // try-catch
+    } // invocar
+} // CarregadorJdbcTest
@@ -0,0 +1,211 @@
+package com.intuitivecare.transformacao.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CnpjValidator contra a implementação original (regex), sobre CNPJs
+ * aleatórios válidos e inválidos, formatados, curtos, longos, com dígitos
+ * repetidos e com lixo; as APIs individual e em lote devem concordar, e
+ * toLong recusa entradas sem nenhum dígito
+ */
+class CnpjValidatorTest {
+
+    private static final int ALEATORIOS = 5_000;
+
+    private static List<String> entradas;
+
+    @BeforeAll
+    static void gerarEntradas() {
+        Random random = new Random(33L);
+        entradas = new ArrayList<>();
+        for (int i = 0; i < ALEATORIOS; i++) {
+            String valido = Legado.completar(digitos(random, 12));
+            entradas.add(valido);
+            entradas.add(Legado.format(valido));
+            // Dígito verificador trocado
+            char dv = valido.charAt(13 - random.nextInt(2));
+            entradas.add(valido.substring(0, 12) + (char) ('0' + (dv - '0' + 1 + random.nextInt(9)) % 10)
+                + valido.substring(13));
+            entradas.add(digitos(random, 14));
+            entradas.add(digitos(random, random.nextInt(14)));
+            entradas.add(digitos(random, 15 + random.nextInt(6)));
+            entradas.add(" " + valido.substring(0, 8) + "-" + valido.substring(8) + "x");
+        } // for
+        for (char d = '0'; d <= '9'; d++) {
+            String repetido = String.valueOf(d).repeat(14);
+            entradas.add(repetido);
+            entradas.add(Legado.format(repetido));
+            entradas.add(String.valueOf(d).repeat(13));
+        } // for
+        entradas.addAll(Arrays.asList("", "   ", "abc", "../-", "11.222.333/0001-81", "11222333000181",
+            "11.222.333/0001-8", "011.222.333/0001-81", "11222333000181 0", "١٢", null));
+    } // gerarEntradas
+
+    @Test
+    void individualIgualAoLegado() {
+        for (String cnpj : entradas) {
+            assertEquals(Legado.isValid(cnpj), CnpjValidator.isValid(cnpj), "isValid " + cnpj);
+            assertEquals(Legado.hasValidFormat(cnpj), CnpjValidator.hasValidFormat(cnpj), "hasValidFormat " + cnpj);
+            assertEquals(Legado.format(cnpj), CnpjValidator.format(cnpj), "format " + cnpj);
+            assertEquals(Legado.normalize(cnpj), CnpjValidator.normalize(cnpj), "normalize " + cnpj);
+        } // for
+        assertTrue(CnpjValidator.isValid("11.222.333/0001-81"));
+        assertFalse(CnpjValidator.isValid("11.111.111/1111-11"));
+    } // individualIgualAoLegado
+
+    @Test
+    void loteIgualAoLegado() {
+        boolean[] esperado = new boolean[entradas.size()];
+        for (int i = 0; i < esperado.length; i++) {
+            esperado[i] = Legado.isValid(entradas.get(i));
+        } // for
+
+        assertTrue(Arrays.equals(esperado, CnpjValidator.validateBatch(entradas)), "validateBatch(List)");
+
+        // Todos em um único char[], CNPJ i em [offsets[i], offsets[i + 1])
+        int[] offsets = new int[entradas.size() + 1];
+        StringBuilder empacotado = new StringBuilder();
+        for (int i = 0; i < entradas.size(); i++) {
+            String cnpj = entradas.get(i);
+            empacotado.append(cnpj != null ? cnpj : "");
+            offsets[i + 1] = empacotado.length();
+        } // for
+        boolean[] resultados = new boolean[entradas.size()];
+        CnpjValidator.validateBatch(empacotado.toString().toCharArray(), offsets, entradas.size(), resultados);
+        for (int i = 0; i < resultados.length; i++) {
+            assertEquals(esperado[i], resultados[i], "validateBatch empacotado " + entradas.get(i));
+        } // for
+    } // loteIgualAoLegado
+
+    @Test
+    void loteDeDigitosIgualAoLegado() {
+        // Largura fixa: entradas com até 14 dígitos normalizadas, e trechos
+        // brutos de 14 caracteres (com pontuação ou letras: inválidos)
+        List<String> larguraFixa = new ArrayList<>();
+        for (String cnpj : entradas) {
+            if (cnpj == null) {
+                continue;
+            } // if
+            String normalizado = Legado.normalize(cnpj);
+            if (normalizado.length() == 14) {
+                larguraFixa.add(normalizado);
+            } // if
+            if (cnpj.length() >= 14) {
+                larguraFixa.add(cnpj.substring(cnpj.length() - 14));
+            } // if
+        } // for
+
+        byte[] digitos = String.join("", larguraFixa).getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(larguraFixa.size() * 14, digitos.length);
+        boolean[] resultados = new boolean[larguraFixa.size()];
+        CnpjValidator.validateDigitsBatch(digitos, larguraFixa.size(), resultados);
+        for (int i = 0; i < resultados.length; i++) {
+            assertEquals(Legado.isValid(larguraFixa.get(i)), resultados[i], "validateDigitsBatch " + larguraFixa.get(i));
+        } // for
+    } // loteDeDigitosIgualAoLegado
+
+    @Test
+    void toLongIdaEVolta() {
+        for (String cnpj : entradas) {
+            long valor = CnpjValidator.toLong(cnpj);
+            String normalizado = Legado.normalize(cnpj);
+            int digitos = cnpj == null ? 0 : cnpj.replaceAll("[^0-9]", "").length();
+            if (digitos == 0 || digitos > 14) {
+                assertEquals(CnpjValidator.CNPJ_INVALIDO, valor, "toLong " + cnpj);
+            } else {
+                assertEquals(normalizado, CnpjValidator.fromLong(valor), "fromLong " + cnpj);
+            } // if-else
+        } // for
+
+        // Sem dígitos não vira o CNPJ 00000000000000
+        assertEquals(CnpjValidator.CNPJ_INVALIDO, CnpjValidator.toLong(""));
+        assertEquals(CnpjValidator.CNPJ_INVALIDO, CnpjValidator.toLong("abc"));
+        assertEquals(CnpjValidator.CNPJ_INVALIDO, CnpjValidator.toLong("../-"));
+        assertEquals(0L, CnpjValidator.toLong("00.000.000/0000-00"));
+        assertEquals(11222333000181L, CnpjValidator.toLong("11.222.333/0001-81"));
+    } // toLongIdaEVolta
+
+    private static String digitos(Random random, int quantidade) {
+        StringBuilder digitos = new StringBuilder(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            digitos.append((char) ('0' + random.nextInt(10)));
+        } // for
+        return digitos.toString();
+    } // digitos
+
+    /**
+     * Implementação original (replaceAll, Character.getNumericValue,
+     * String.format), como a CnpjValidatorLegado dos benchmarks
+     */
+    private static final class Legado {
+
+        private static final int[] PESOS_PRIMEIRO = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+        private static final int[] PESOS_SEGUNDO = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+        static boolean isValid(String cnpj) {
+            if (cnpj == null) {
+                return false;
+            } // if
+            String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
+            if (cnpjNumerico.length() != 14 || cnpjNumerico.chars().distinct().count() == 1) {
+                return false;
+            } // if
+            return completar(cnpjNumerico.substring(0, 12)).equals(cnpjNumerico);
+        } // isValid
+
+        static boolean hasValidFormat(String cnpj) {
+            return cnpj != null && cnpj.replaceAll("[^0-9]", "").length() == 14;
+        } // hasValidFormat
+
+        static String format(String cnpj) {
+            if (cnpj == null) {
+                return "";
+            } // if
+            String n = cnpj.replaceAll("[^0-9]", "");
+            if (n.length() != 14) {
+                return cnpj;
+            } // if
+            return String.format("%s.%s.%s/%s-%s",
+                n.substring(0, 2), n.substring(2, 5), n.substring(5, 8), n.substring(8, 12), n.substring(12, 14));
+        } // format
+
+        static String normalize(String cnpj) {
+            if (cnpj == null) {
+                return "";
+            } // if
+            String cnpjNumerico = cnpj.replaceAll("[^0-9]", "");
+            while (cnpjNumerico.length() < 14) {
+                cnpjNumerico = "0" + cnpjNumerico;
+            } // while
+            return cnpjNumerico;
+        } // normalize
+
+        /**
+         * Base de 12 dígitos acrescida dos dois dígitos verificadores
+         */
+        static String completar(String base) {
+            String comPrimeiro = base + digito(base, PESOS_PRIMEIRO);
+            return comPrimeiro + digito(comPrimeiro, PESOS_SEGUNDO);
+        } // completar
+
+        private static int digito(String digitos, int[] pesos) {
+            int soma = 0;
+            for (int i = 0; i < pesos.length; i++) {
+                soma += Character.getNumericValue(digitos.charAt(i)) * pesos[i];
+            } // for
+            int resto = soma % 11;
+            return resto < 2 ? 0 : 11 - resto;
+        } // digito
+    } // Legado
+} // CnpjValidatorTest
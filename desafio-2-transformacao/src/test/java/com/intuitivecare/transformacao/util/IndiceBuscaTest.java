@@ -0,0 +1,153 @@
+package com.intuitivecare.transformacao.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IndiceBusca salvo e recarregado: mesmas respostas que o índice montado em
+ * memória, e arquivos de outra versão, truncados ou corrompidos recusados
+ * com IOException (a consulta então reconstrói o índice)
+ */
+class IndiceBuscaTest {
+
+    private static final int DOCUMENTOS = 600;
+
+    private static final String[] PALAVRAS = {
+        "Unimed", "Saúde", "Assistência", "Médica", "Cooperativa", "Odontológica", "Seguros",
+        "Amil", "São", "Paulo", "Hospital", "Clínica", "Vida", "Bradesco", "Sul", "América"
+    };
+    private static final String[] SUFIXOS = {"LTDA", "S.A.", "S/A", "EIRELI", ""};
+
+    @TempDir
+    Path diretorio;
+
+    private String[] cnpjs;
+    private String[] razoesSociais;
+    private IndiceBusca montado;
+    private Path arquivo;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        Random random = new Random(43L);
+        cnpjs = new String[DOCUMENTOS];
+        razoesSociais = new String[DOCUMENTOS];
+        for (int doc = 0; doc < DOCUMENTOS; doc++) {
+            StringBuilder cnpj = new StringBuilder(14);
+            for (int i = 0; i < 14; i++) {
+                cnpj.append(random.nextInt(10));
+            } // for
+            cnpjs[doc] = cnpj.toString();
+
+            StringBuilder razao = new StringBuilder();
+            int palavras = 1 + random.nextInt(4);
+            for (int i = 0; i < palavras; i++) {
+                razao.append(PALAVRAS[random.nextInt(PALAVRAS.length)]).append(i == 0 ? " - " : " ");
+            } // for
+            razao.append(SUFIXOS[random.nextInt(SUFIXOS.length)]).append(' ').append(doc);
+            razoesSociais[doc] = razao.toString();
+        } // for
+        cnpjs[7] = "12345678000199";
+
+        montado = IndiceBusca.construir(cnpjs, razoesSociais);
+        arquivo = diretorio.resolve("indice_busca.idx");
+        montado.salvar(arquivo);
+    } // preparar
+
+    @Test
+    void carregadoRespondeComoMontado() throws Exception {
+        IndiceBusca carregado = IndiceBusca.carregar(arquivo);
+        assertEquals(montado.getQuantidadeDocumentos(), carregado.getQuantidadeDocumentos());
+        assertEquals(montado.getQuantidadePalavras(), carregado.getQuantidadePalavras());
+        assertEquals(IndiceBusca.impressaoDigital(cnpjs, razoesSociais), carregado.getImpressaoDigital());
+        for (int doc = 0; doc < DOCUMENTOS; doc++) {
+            assertEquals(cnpjs[doc], carregado.getCnpj(doc));
+        } // for
+
+        List<String> consultas = List.of(
+            // Prefixo
+            "uni", "SAUDE", "Saú", "hosp",
+            // Várias palavras (prefixos de palavras do nome)
+            "saude assist", "coop med", "sao paulo", "vida s a",
+            // Trecho com trigramas, fora do início das palavras
+            "ssist", "eguro", "dontol", "ulo hosp",
+            // Curtas (< 3 caracteres: varredura dos textos)
+            "s", "sa", "a b", "1",
+            // CNPJ parcial, formatado e completo
+            cnpjs[3].substring(4, 10), "12.345", "345.678/0001", "12.345.678/0001-99", cnpjs[500],
+            // Sem resultado
+            "xyzw", "", "  ..  ");
+
+        for (String consulta : consultas) {
+            assertArrayEquals(montado.buscar(consulta), carregado.buscar(consulta), "consulta \"" + consulta + "\"");
+        } // for
+
+        // As consultas de fato encontram documentos (comparação não trivial)
+        for (String consulta : List.of("uni", "saude assist", "ssist", "sa", cnpjs[3].substring(4, 10), "12.345")) {
+            assertTrue(carregado.buscar(consulta).length > 0, consulta);
+        } // for
+        assertEquals(7, carregado.buscar("12.345.678/0001-99")[0]);
+        assertEquals(0, carregado.buscar("xyzw").length);
+    } // carregadoRespondeComoMontado
+
+    @Test
+    void versaoAnteriorOuOutroArquivoRecusado() throws Exception {
+        byte[] bytes = Files.readAllBytes(arquivo);
+
+        // Versão 1 (sem CRC no fim)
+        byte[] versaoAnterior = bytes.clone();
+        ByteBuffer.wrap(versaoAnterior).putInt(4, 1);
+        assertRecusado(versaoAnterior, "versão anterior");
+
+        byte[] outroMagico = bytes.clone();
+        ByteBuffer.wrap(outroMagico).putInt(0, 0x504B0304);
+        assertRecusado(outroMagico, "outro mágico");
+
+        assertRecusado(new byte[0], "vazio");
+    } // versaoAnteriorOuOutroArquivoRecusado
+
+    @Test
+    void truncadoOuCorrompidoRecusado() throws Exception {
+        byte[] bytes = Files.readAllBytes(arquivo);
+        int passo = Math.max(1, bytes.length / 150);
+
+        for (int tamanho = 0; tamanho < bytes.length; tamanho += passo) {
+            assertRecusado(Arrays.copyOf(bytes, tamanho), "truncado em " + tamanho);
+        } // for
+        assertRecusado(Arrays.copyOf(bytes, bytes.length - 1), "sem o último byte");
+        assertRecusado(Arrays.copyOf(bytes, bytes.length + 1), "byte extra");
+
+        // Um bit trocado em qualquer posição após o cabeçalho
+        for (int posicao = 8; posicao < bytes.length; posicao += passo) {
+            for (int bit : new int[] {0x01, 0x80}) {
+                byte[] corrompido = bytes.clone();
+                corrompido[posicao] ^= (byte) bit;
+                assertRecusado(corrompido, "bit " + bit + " na posição " + posicao);
+            } // for
+        } // for
+
+        // Quantidades absurdas não chegam a alocar
+        byte[] quantidade = bytes.clone();
+        ByteBuffer.wrap(quantidade).putInt(16, Integer.MAX_VALUE);
+        assertRecusado(quantidade, "quantidade de documentos");
+    } // truncadoOuCorrompidoRecusado
+
+    private void assertRecusado(byte[] conteudo, String caso) throws IOException {
+        Path corrompido = diretorio.resolve("corrompido.idx");
+        Files.write(corrompido, conteudo);
+        assertThrows(IOException.class, () -> IndiceBusca.carregar(corrompido), caso);
+    } // assertRecusado
+} // IndiceBuscaTest
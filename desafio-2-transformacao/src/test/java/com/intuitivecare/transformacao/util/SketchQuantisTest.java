@@ -0,0 +1,146 @@
+package com.intuitivecare.transformacao.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Precisão do SketchQuantis contra o cálculo exato (cópia ordenada) sobre
+ * dados sintéticos com semente fixa
+ */
+class SketchQuantisTest {
+
+    private static final double[] QUANTIS = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0};
+
+    // Erro de rank normalizado aceito para k = 200 (garantia documentada: ~1%)
+    private static final double ERRO_MAXIMO = 0.01;
+
+    @Test
+    void exatoSemCompactacao() {
+        Random random = new Random(42);
+        for (int n = 1; n <= 150; n++) {
+            double[] valores = new double[n];
+            SketchQuantis sketch = new SketchQuantis();
+            for (int i = 0; i < n; i++) {
+                valores[i] = Math.round(random.nextDouble() * 1_000_000) / 100.0;
+                sketch.adicionar(valores[i]);
+            } // for
+            Arrays.sort(valores);
+
+            for (double q : QUANTIS) {
+                int rank = (int) Math.max(1, Math.ceil(q * n));
+                assertEquals(valores[rank - 1], sketch.getQuantil(q), "n=" + n + " q=" + q);
+            } // for
+        } // for
+    } // exatoSemCompactacao
+
+    @Test
+    void erroDeRankComDistribuicaoUniforme() {
+        Random random = new Random(1);
+        double[] valores = new double[200_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = random.nextDouble() * 1_000_000;
+        } // for
+        verificarErroDeRank(valores);
+    } // erroDeRankComDistribuicaoUniforme
+
+    @Test
+    void erroDeRankComDistribuicaoLognormal() {
+        // Cauda longa, como os valores de despesa por operadora
+        Random random = new Random(2);
+        double[] valores = new double[200_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = Math.exp(10 + 2 * random.nextGaussian());
+        } // for
+        verificarErroDeRank(valores);
+    } // erroDeRankComDistribuicaoLognormal
+
+    @Test
+    void erroDeRankComEntradaOrdenada() {
+        // Pior caso para compactação determinística
+        double[] valores = new double[200_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = i;
+        } // for
+        verificarErroDeRank(valores);
+    } // erroDeRankComEntradaOrdenada
+
+    @Test
+    void erroDeRankAposCombinar() {
+        Random random = new Random(3);
+        double[] valores = new double[160_000];
+        SketchQuantis combinado = new SketchQuantis();
+        int partes = 8;
+        int porParte = valores.length / partes;
+        for (int parte = 0; parte < partes; parte++) {
+            SketchQuantis sketch = new SketchQuantis();
+            for (int i = parte * porParte; i < (parte + 1) * porParte; i++) {
+                // Partes com escalas diferentes, como agregações parciais por arquivo
+                valores[i] = Math.exp(8 + parte * 0.5 + random.nextGaussian());
+                sketch.adicionar(valores[i]);
+            } // for
+            combinado.combinar(sketch);
+        } // for
+
+        assertEquals(valores.length, combinado.getQuantidade());
+        Arrays.sort(valores);
+        verificarErroDeRank(valores, combinado);
+    } // erroDeRankAposCombinar
+
+    @Test
+    void vazioRetornaNaN() {
+        assertTrue(Double.isNaN(new SketchQuantis().getQuantil(0.5)));
+    } // vazioRetornaNaN
+
+    private static void verificarErroDeRank(double[] valores) {
+        SketchQuantis sketch = new SketchQuantis();
+        for (double valor : valores) {
+            sketch.adicionar(valor);
+        } // for
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        verificarErroDeRank(ordenados, sketch);
+    } // verificarErroDeRank
+
+    /**
+     * Compara o rank (no conjunto exato) do valor devolvido pelo sketch com o
+     * rank pedido, ceil(q * n)
+     */
+    private static void verificarErroDeRank(double[] ordenados, SketchQuantis sketch) {
+        int n = ordenados.length;
+        double[] estimados = sketch.getQuantis(QUANTIS);
+        for (int j = 0; j < QUANTIS.length; j++) {
+            long alvo = Math.max(1, (long) Math.ceil(QUANTIS[j] * n));
+            // Ranks ocupados pelo valor estimado: (menores, menores ou iguais]
+            long menores = limite(ordenados, estimados[j], false);
+            long menoresOuIguais = limite(ordenados, estimados[j], true);
+            assertTrue(menoresOuIguais > menores, "Valor estimado não pertence à entrada: " + estimados[j]);
+
+            long distancia = alvo <= menores ? menores + 1 - alvo
+                : alvo > menoresOuIguais ? alvo - menoresOuIguais : 0;
+            double erro = (double) distancia / n;
+            assertTrue(erro <= ERRO_MAXIMO, "q=" + QUANTIS[j] + " erro de rank " + erro);
+        } // for
+    } // verificarErroDeRank
+
+    /**
+     * Quantidade de valores menores (ou menores ou iguais) que o dado
+     */
+    private static long limite(double[] ordenados, double valor, boolean incluirIguais) {
+        int baixo = 0;
+        int alto = ordenados.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenados[meio] < valor || (incluirIguais && ordenados[meio] == valor)) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            } // if-else
+        } // while
+        return baixo;
+    } // limite
+} // SketchQuantisTest
@@ -37,18 +37,18 @@ CREATE TEMP TABLE IF NOT EXISTS stg_operadoras (
     data_registro TEXT
 ); -- stg_operadoras
 
--- Staging para despesas
+-- Staging para despesas (mesma ordem das colunas de consolidado_enriquecido.csv:
+-- CNPJ;RegistroANS;RazaoSocial;Modalidade;UF;Trimestre;Ano;ValorDespesas;CnpjValido;MatchCadastro)
 CREATE TEMP TABLE IF NOT EXISTS stg_despesas (
     cnpj TEXT,
+    registro_ans TEXT,
     razao_social TEXT,
+    modalidade TEXT,
+    uf TEXT,
     trimestre TEXT,
     ano TEXT,
     valor_despesas TEXT,
-    registro_ans TEXT,
-    modalidade TEXT,
-    uf TEXT,
     cnpj_valido TEXT,
-    valor_valido TEXT,
     match_cadastro TEXT
 ); -- stg_despesas
 
@@ -59,7 +59,10 @@ CREATE TEMP TABLE IF NOT EXISTS stg_agregadas (
     total_despesas TEXT,
     media_por_trimestre TEXT,
     desvio_padrao TEXT,
-    quantidade_trimestres TEXT
+    quantidade_trimestres TEXT,
+    p50 TEXT,
+    p90 TEXT,
+    p99 TEXT
 ); -- stg_agregadas
 
 -- ============================================================================
@@ -78,6 +81,12 @@ CREATE TEMP TABLE IF NOT EXISTS stg_agregadas (
 -- COPY stg_agregadas FROM '/path/to/despesas_agregadas.csv' 
 --     WITH (FORMAT csv, HEADER true, DELIMITER ';', ENCODING 'UTF8', NULL '');
 
+-- Alternativa: saídas em Parquet (Desafio 2 com -Dexportacao.parquet=true).
+-- Colunas já tipadas (valores em DECIMAL(18,2)); leitores colunares leem só
+-- as colunas usadas e descartam grupos de linhas pelas estatísticas min/max.
+-- Ex. via DuckDB:
+--   SELECT * FROM read_parquet('/path/to/consolidado_enriquecido.parquet');
+
 -- ============================================================================
 -- IMPORTAÇÃO MySQL (usando LOAD DATA)
 -- ============================================================================
@@ -201,7 +210,7 @@ SELECT
     
     -- Flags de validação
     UPPER(TRIM(cnpj_valido)) = 'SIM' AS cnpj_valido,
-    UPPER(TRIM(valor_valido)) = 'SIM' AS valor_valido,
+    TRUE AS valor_valido, -- valores já validados na etapa 2.1
     UPPER(TRIM(match_cadastro)) = 'SIM' AS match_cadastro,
     
     -- Dados do cadastro
@@ -0,0 +1,83 @@
+package com.intuitivecare.orquestrador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Orquestrador dos Desafios 1 e 2 como um único DAG de etapas
+ *
+ * Uso: java -jar orquestrador.jar [diretorio-trabalho] (padrão: trabalho)
+ *
+ * Propriedades:
+ * - -Dorquestrador.threads=N: etapas em paralelo (padrão 4)
+ * - -Dorquestrador.forcar=true: executa tudo, ignorando o estado anterior
+ * - As mesmas dos desafios (ans.baseUrl, consolidado.colunar,
+ *   agregacao.topK, metricas.intervalo, progresso.intervalo...)
+ *
+ * Os Application de cada desafio continuam funcionando isoladamente.
+ */
+public class Application {
+
+    private static final Logger logger = LoggerFactory.getLogger(Application.class);
+
+    public static void main(String[] args) {
+        logger.info("=== Iniciando orquestrador - Desafios 1 e 2 ===");
+
+        Path trabalho = Paths.get(args.length > 0 ? args[0] : "trabalho");
+        com.intuitivecare.integracao.config.ApplicationConfig configIntegracao =
+            new com.intuitivecare.integracao.config.ApplicationConfig(trabalho.resolve("desafio-1"));
+        com.intuitivecare.transformacao.config.ApplicationConfig configTransformacao =
+            new com.intuitivecare.transformacao.config.ApplicationConfig(trabalho.resolve("desafio-2"));
+        configIntegracao.getMetricas().iniciarExportacaoPeriodica(configIntegracao.getDiretorioOutput(),
+            configIntegracao.getIntervaloMetricasSegundos());
+        configTransformacao.getMetricas().iniciarExportacaoPeriodica(configTransformacao.getDiretorioOutput(),
+            configTransformacao.getIntervaloMetricasSegundos());
+
+        boolean sucesso = false;
+        try {
+            EstadoEtapas estado = new EstadoEtapas(trabalho);
+            OrquestradorDag dag = new OrquestradorDag(
+                new PipelineAns(configIntegracao, configTransformacao).etapas(),
+                estado,
+                Integer.getInteger("orquestrador.threads", 4),
+                Boolean.getBoolean("orquestrador.forcar"));
+
+            long inicio = System.nanoTime();
+            Map<String, OrquestradorDag.Resultado> resultados = dag.executar();
+            estado.salvarHashes();
+
+            logger.info("=== Resumo das etapas ===");
+            sucesso = true;
+            for (OrquestradorDag.Resultado resultado : resultados.values()) {
+                logger.info(String.format("%-24s %-10s %8d ms  %d saídas", resultado.etapa(), resultado.status(),
+                    resultado.duracaoMs(), resultado.saidas().size()));
+                if (resultado.status() == OrquestradorDag.Status.FALHOU
+                        || resultado.status() == OrquestradorDag.Status.CANCELADA) {
+                    sucesso = false;
+                } // if
+            } // for
+            logger.info("Tempo total: {} ms", (System.nanoTime() - inicio) / 1_000_000);
+
+            if (sucesso) {
+                logger.info("=== Orquestrador concluído com sucesso! ===");
+                resultados.get(PipelineAns.COMPACTACAO_RESULTADO).saidas()
+                    .forEach(saida -> logger.info("Arquivo gerado: {}", saida.toAbsolutePath()));
+            } // if
+        } catch (Exception e) {
+            logger.error("Erro durante a execução do orquestrador: {}", e.getMessage(), e);
+        } finally {
+            configIntegracao.getProgresso().encerrar();
+            configTransformacao.getProgresso().encerrar();
+            configIntegracao.getMetricas().encerrar(configIntegracao.getDiretorioOutput());
+            configTransformacao.getMetricas().encerrar(configTransformacao.getDiretorioOutput());
+        } // try-finally
+
+        if (!sucesso) {
+            System.exit(1);
+        } // if
+    } // main
+} // Application
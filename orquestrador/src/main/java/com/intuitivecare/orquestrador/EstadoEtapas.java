@@ -0,0 +1,210 @@
+package com.intuitivecare.orquestrador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado das etapas entre execuções (diretório .estado do trabalho)
+ *
+ * Por etapa, um {etapa}.properties com a chave das entradas e o caminho e
+ * hash SHA-256 de cada saída. Uma etapa está atualizada quando a chave
+ * calculada agora é a registrada e todas as saídas ainda existem com o
+ * mesmo hash (arquivo apagado ou editado à mão força a reexecução).
+ *
+ * Trade-off: HASH DE CONTEÚDO COM CACHE POR TAMANHO + DATA
+ * - Hash de conteúdo (e não data de modificação) pula etapas mesmo quando
+ *   um arquivo é regravado com o mesmo conteúdo, ex.: um download refeito
+ *   ou uma etapa anterior reexecutada sem mudança de resultado
+ * - Hashear os CSVs extraídos (centenas de MB) a cada execução custaria
+ *   segundos; hashes.properties guarda o hash de cada arquivo com tamanho
+ *   e data, e só arquivos alterados são lidos de novo
+ * - Caminhos gravados relativos ao diretório de trabalho, que pode ser
+ *   movido sem invalidar o estado
+ */
+public class EstadoEtapas {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadoEtapas.class);
+
+    private static final String DIRETORIO_ESTADO = ".estado";
+    private static final String ARQUIVO_HASHES = "hashes.properties";
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final Path diretorioTrabalho;
+    private final Path diretorioEstado;
+
+    // Caminho relativo -> "tamanho:modificacao:hash"
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    public EstadoEtapas(Path diretorioTrabalho) throws IOException {
+        this.diretorioTrabalho = diretorioTrabalho.toAbsolutePath().normalize();
+        this.diretorioEstado = this.diretorioTrabalho.resolve(DIRETORIO_ESTADO);
+        Files.createDirectories(diretorioEstado);
+        carregarHashes();
+    } // EstadoEtapas
+
+    /**
+     * Chave de cache da etapa: nome, parâmetros e hash de cada entrada, por
+     * dependência na ordem declarada
+     */
+    public String calcularChave(Etapa etapa, Map<String, List<Path>> entradas) throws IOException {
+        MessageDigest digest = novoDigest();
+        atualizar(digest, etapa.getNome());
+        atualizar(digest, etapa.getParametros());
+        for (String dependencia : etapa.getDependencias()) {
+            atualizar(digest, dependencia);
+            for (Path entrada : entradas.get(dependencia)) {
+                atualizar(digest, relativo(entrada));
+                atualizar(digest, hash(entrada));
+            } // for
+        } // for
+        return HexFormat.of().formatHex(digest.digest());
+    } // calcularChave
+
+    /**
+     * Saídas registradas da etapa, se a chave bate e as saídas estão intactas
+     *
+     * @return Saídas da execução anterior, ou null se a etapa precisa executar
+     */
+    public List<Path> saidasAtualizadas(Etapa etapa, String chave) throws IOException {
+        Path arquivo = arquivoEtapa(etapa);
+        if (!Files.exists(arquivo)) {
+            return null;
+        } // if
+        Properties propriedades = new Properties();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            propriedades.load(reader);
+        } // try
+        if (!chave.equals(propriedades.getProperty("chave"))) {
+            return null;
+        } // if
+
+        int quantidade = Integer.parseInt(propriedades.getProperty("saidas", "0"));
+        List<Path> saidas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Path saida = diretorioTrabalho.resolve(propriedades.getProperty("saida." + i + ".caminho"));
+            if (!Files.isRegularFile(saida) || !hash(saida).equals(propriedades.getProperty("saida." + i + ".hash"))) {
+                logger.info("Saída alterada ou ausente, reexecutando {}: {}", etapa.getNome(), saida);
+                return null;
+            } // if
+            saidas.add(saida);
+        } // for
+        return saidas;
+    } // saidasAtualizadas
+
+    /**
+     * Registra a execução bem-sucedida da etapa
+     */
+    public void registrar(Etapa etapa, String chave, List<Path> saidas) throws IOException {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("chave", chave);
+        propriedades.setProperty("saidas", Integer.toString(saidas.size()));
+        for (int i = 0; i < saidas.size(); i++) {
+            propriedades.setProperty("saida." + i + ".caminho", relativo(saidas.get(i)));
+            propriedades.setProperty("saida." + i + ".hash", hash(saidas.get(i)));
+        } // for
+        gravarAtomico(arquivoEtapa(etapa), propriedades, "Etapa " + etapa.getNome());
+    } // registrar
+
+    /**
+     * Remove o registro da etapa (falhou: executa de novo na próxima vez)
+     */
+    public void invalidar(Etapa etapa) throws IOException {
+        Files.deleteIfExists(arquivoEtapa(etapa));
+    } // invalidar
+
+    /**
+     * Grava o cache de hashes (chamar ao final da execução)
+     */
+    public void salvarHashes() throws IOException {
+        Properties propriedades = new Properties();
+        propriedades.putAll(new TreeMap<>(hashes));
+        gravarAtomico(diretorioEstado.resolve(ARQUIVO_HASHES), propriedades, "tamanho:modificacao:sha256");
+    } // salvarHashes
+
+    /**
+     * SHA-256 do conteúdo do arquivo (do cache, se tamanho e data não mudaram)
+     */
+    public String hash(Path arquivo) throws IOException {
+        String caminho = relativo(arquivo);
+        String assinatura = Files.size(arquivo) + ":" + Files.getLastModifiedTime(arquivo).toMillis() + ":";
+        String registrado = hashes.get(caminho);
+        if (registrado != null && registrado.startsWith(assinatura)) {
+            return registrado.substring(assinatura.length());
+        } // if
+
+        MessageDigest digest = novoDigest();
+        byte[] buffer = new byte[TAMANHO_BUFFER];
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            int lidos;
+            while ((lidos = entrada.read(buffer)) > 0) {
+                digest.update(buffer, 0, lidos);
+            } // while
+        } // try
+        String hash = HexFormat.of().formatHex(digest.digest());
+        hashes.put(caminho, assinatura + hash);
+        return hash;
+    } // hash
+
+    private void carregarHashes() throws IOException {
+        Path arquivo = diretorioEstado.resolve(ARQUIVO_HASHES);
+        if (!Files.exists(arquivo)) {
+            return;
+        } // if
+        Properties propriedades = new Properties();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            propriedades.load(reader);
+        } // try
+        for (String caminho : propriedades.stringPropertyNames()) {
+            hashes.put(caminho, propriedades.getProperty(caminho));
+        } // for
+    } // carregarHashes
+
+    private Path arquivoEtapa(Etapa etapa) {
+        return diretorioEstado.resolve(etapa.getNome() + ".properties");
+    } // arquivoEtapa
+
+    private String relativo(Path arquivo) {
+        // Separador "/" em qualquer sistema, para o estado ser portável
+        return diretorioTrabalho.relativize(arquivo.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    } // relativo
+
+    private static void gravarAtomico(Path arquivo, Properties propriedades, String comentario) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            propriedades.store(writer, comentario);
+        } // try
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } // gravarAtomico
+
+    private static void atualizar(MessageDigest digest, String valor) {
+        digest.update(valor.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    } // atualizar
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 é obrigatório em toda JVM
+            throw new IllegalStateException(e);
+        } // try-catch
+    } // novoDigest
+} // EstadoEtapas
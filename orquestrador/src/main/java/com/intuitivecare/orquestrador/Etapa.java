@@ -0,0 +1,114 @@
+package com.intuitivecare.orquestrador;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Etapa do DAG: nome, etapas de que depende e a ação que produz as saídas
+ *
+ * As entradas de uma etapa são as saídas (arquivos) das suas dependências,
+ * e as saídas são os arquivos que a ação devolve. A chave de cache de uma
+ * etapa é o hash dessas entradas somado aos parâmetros declarados (ex.:
+ * topK da agregação), então uma mudança em qualquer arquivo de entrada ou
+ * parâmetro invalida a etapa e, em cascata, as que dependem dela.
+ *
+ * Etapas "sempre executar" consultam a fonte externa (listagem da ANS,
+ * cadastro), que não tem como ser verificada por hash local; os próprios
+ * serviços reaproveitam os arquivos já baixados.
+ */
+public final class Etapa {
+
+    /**
+     * Ação de uma etapa: recebe as saídas das dependências e devolve as
+     * próprias saídas
+     */
+    @FunctionalInterface
+    public interface Acao {
+        List<Path> executar(Entradas entradas) throws Exception;
+    } // Acao
+
+    private final String nome;
+    private final List<String> dependencias;
+    private final String parametros;
+    private final boolean sempreExecutar;
+    private final Acao acao;
+
+    /**
+     * @param parametros Configuração que altera as saídas (entra na chave de cache)
+     * @param sempreExecutar Ignora o cache (etapas que leem a fonte remota)
+     */
+    public Etapa(String nome, List<String> dependencias, String parametros, boolean sempreExecutar, Acao acao) {
+        this.nome = nome;
+        this.dependencias = List.copyOf(dependencias);
+        this.parametros = parametros;
+        this.sempreExecutar = sempreExecutar;
+        this.acao = acao;
+    } // Etapa
+
+    public String getNome() {
+        return nome;
+    } // getNome
+
+    public List<String> getDependencias() {
+        return dependencias;
+    } // getDependencias
+
+    public String getParametros() {
+        return parametros;
+    } // getParametros
+
+    public boolean isSempreExecutar() {
+        return sempreExecutar;
+    } // isSempreExecutar
+
+    public Acao getAcao() {
+        return acao;
+    } // getAcao
+
+    /**
+     * Saídas das dependências de uma etapa, por nome da dependência
+     */
+    public static final class Entradas {
+        private final Map<String, List<Path>> porEtapa;
+
+        Entradas(Map<String, List<Path>> porEtapa) {
+            this.porEtapa = porEtapa;
+        } // Entradas
+
+        /**
+         * Saídas de uma dependência declarada
+         */
+        public List<Path> de(String etapa) {
+            List<Path> saidas = porEtapa.get(etapa);
+            if (saidas == null) {
+                throw new IllegalStateException("Etapa não declarada como dependência: " + etapa);
+            } // if
+            return saidas;
+        } // de
+
+        /**
+         * Saídas de várias dependências, na ordem dada
+         */
+        public List<Path> de(List<String> etapas) {
+            List<Path> saidas = new ArrayList<>();
+            for (String etapa : etapas) {
+                saidas.addAll(de(etapa));
+            } // for
+            return saidas;
+        } // de
+
+        /**
+         * Arquivo de uma dependência pelo nome (ex.: consolidado_despesas.csv)
+         */
+        public Path arquivo(String etapa, String nomeArquivo) {
+            for (Path saida : de(etapa)) {
+                if (saida.getFileName().toString().equals(nomeArquivo)) {
+                    return saida;
+                } // if
+            } // for
+            throw new IllegalStateException("Etapa " + etapa + " não produziu " + nomeArquivo);
+        } // arquivo
+    } // Entradas
+} // Etapa
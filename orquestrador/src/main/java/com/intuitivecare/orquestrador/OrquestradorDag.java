@@ -0,0 +1,215 @@
+package com.intuitivecare.orquestrador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa um DAG de etapas: cada etapa começa assim que todas as suas
+ * dependências terminam, e etapas independentes rodam em paralelo
+ *
+ * Antes de executar uma etapa, a chave das entradas (EstadoEtapas) é
+ * comparada com a da execução anterior; se bate e as saídas estão
+ * intactas, a etapa é pulada e as saídas registradas seguem adiante.
+ *
+ * Uma falha cancela só as etapas que dependem (direta ou indiretamente) da
+ * que falhou; ramos independentes vão até o fim, e o registro da etapa com
+ * falha é removido para ela executar de novo na próxima vez.
+ *
+ * Trade-off: COMPLETABLEFUTURE POR ETAPA
+ * - O DAG tem uma dúzia de etapas, todas de segundos a minutos: um futuro
+ *   encadeado por etapa (allOf das dependências) dispara cada etapa sem
+ *   fila de prontas; a ordem topológica só valida o DAG (dependência
+ *   inexistente, ciclo) e define a ordem de montagem dos futuros
+ * - O paralelismo é limitado pelo pool (-Dorquestrador.threads); etapas
+ *   que já paralelizam por dentro (enriquecimento) disputam os mesmos
+ *   núcleos, o que é aceitável porque elas raramente coincidem com outras
+ *   etapas pesadas
+ */
+public class OrquestradorDag {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrquestradorDag.class);
+
+    /**
+     * Situação final de uma etapa
+     */
+    public enum Status {
+        EXECUTADA, ATUALIZADA, FALHOU, CANCELADA
+    } // Status
+
+    /**
+     * Resultado de uma etapa (saídas vazias se falhou ou foi cancelada)
+     */
+    public record Resultado(String etapa, Status status, long duracaoMs, List<Path> saidas, Throwable erro) {
+    } // Resultado
+
+    private final Map<String, Etapa> etapas = new LinkedHashMap<>();
+    private final EstadoEtapas estado;
+    private final int threads;
+    private final boolean forcar;
+
+    /**
+     * @param forcar Executa todas as etapas, ignorando o estado anterior
+     */
+    public OrquestradorDag(List<Etapa> etapas, EstadoEtapas estado, int threads, boolean forcar) {
+        for (Etapa etapa : etapas) {
+            if (this.etapas.put(etapa.getNome(), etapa) != null) {
+                throw new IllegalArgumentException("Etapa duplicada: " + etapa.getNome());
+            } // if
+        } // for
+        this.estado = estado;
+        this.threads = threads;
+        this.forcar = forcar;
+        ordenar();
+    } // OrquestradorDag
+
+    /**
+     * Executa o DAG até o fim (ou até todas as etapas alcançáveis falharem)
+     *
+     * @return Resultado por etapa, em ordem topológica
+     */
+    public Map<String, Resultado> executar() {
+        List<String> ordem = ordenar();
+        Map<String, Resultado> resultados = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<List<Path>>> futuros = new HashMap<>();
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "etapa-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (String nome : ordem) {
+                Etapa etapa = etapas.get(nome);
+                // Futuros das dependências capturados aqui: o mapa só é usado por esta thread
+                List<CompletableFuture<List<Path>>> dependencias = new ArrayList<>();
+                for (String dependencia : etapa.getDependencias()) {
+                    dependencias.add(futuros.get(dependencia));
+                } // for
+                CompletableFuture<Void> todas = CompletableFuture.allOf(dependencias.toArray(new CompletableFuture[0]));
+                futuros.put(nome, todas.thenApplyAsync(ignorado -> {
+                    Map<String, List<Path>> entradas = new LinkedHashMap<>();
+                    for (int i = 0; i < dependencias.size(); i++) {
+                        entradas.put(etapa.getDependencias().get(i), dependencias.get(i).join());
+                    } // for
+                    Resultado resultado = executarEtapa(etapa, entradas);
+                    resultados.put(nome, resultado);
+                    if (resultado.status() == Status.FALHOU) {
+                        throw new CompletionException(resultado.erro());
+                    } // if
+                    return resultado.saidas();
+                }, executor));
+            } // for
+
+            // Espera todas, inclusive as canceladas por falha de uma dependência
+            for (String nome : ordem) {
+                try {
+                    futuros.get(nome).join();
+                } catch (CompletionException e) {
+                    resultados.computeIfAbsent(nome, n -> {
+                        logger.warn("Etapa {} cancelada: dependência falhou", n);
+                        return new Resultado(n, Status.CANCELADA, 0, List.of(), e.getCause());
+                    });
+                } // try-catch
+            } // for
+        } finally {
+            executor.shutdownNow();
+        } // try-finally
+
+        Map<String, Resultado> ordenados = new LinkedHashMap<>();
+        for (String nome : ordem) {
+            ordenados.put(nome, resultados.get(nome));
+        } // for
+        return ordenados;
+    } // executar
+
+    private Resultado executarEtapa(Etapa etapa, Map<String, List<Path>> entradas) {
+        long inicio = System.nanoTime();
+        try {
+            String chave = estado.calcularChave(etapa, entradas);
+            if (!forcar && !etapa.isSempreExecutar()) {
+                List<Path> saidas = estado.saidasAtualizadas(etapa, chave);
+                if (saidas != null) {
+                    logger.info("Etapa {} atualizada, pulando ({} saídas)", etapa.getNome(), saidas.size());
+                    return new Resultado(etapa.getNome(), Status.ATUALIZADA, decorridoMs(inicio), saidas, null);
+                } // if
+            } // if
+
+            logger.info("Executando etapa {}", etapa.getNome());
+            List<Path> saidas = List.copyOf(etapa.getAcao().executar(new Etapa.Entradas(entradas)));
+            estado.registrar(etapa, chave, saidas);
+            long duracao = decorridoMs(inicio);
+            logger.info("Etapa {} concluída em {} ms ({} saídas)", etapa.getNome(), duracao, saidas.size());
+            return new Resultado(etapa.getNome(), Status.EXECUTADA, duracao, saidas, null);
+        } catch (Exception e) {
+            logger.error("Etapa {} falhou: {}", etapa.getNome(), e.getMessage(), e);
+            try {
+                estado.invalidar(etapa);
+            } catch (Exception invalidacao) {
+                logger.warn("Não foi possível invalidar o estado de {}: {}", etapa.getNome(), invalidacao.getMessage());
+            } // try-catch
+            return new Resultado(etapa.getNome(), Status.FALHOU, decorridoMs(inicio), List.of(), e);
+        } // try-catch
+    } // executarEtapa
+
+    /**
+     * Ordem topológica (Kahn), validando dependências e ciclos
+     */
+    private List<String> ordenar() {
+        Map<String, Integer> grauEntrada = new LinkedHashMap<>();
+        Map<String, List<String>> dependentes = new HashMap<>();
+        for (Etapa etapa : etapas.values()) {
+            grauEntrada.put(etapa.getNome(), etapa.getDependencias().size());
+            for (String dependencia : etapa.getDependencias()) {
+                if (!etapas.containsKey(dependencia)) {
+                    throw new IllegalArgumentException(
+                        "Etapa " + etapa.getNome() + " depende de etapa inexistente: " + dependencia);
+                } // if
+                dependentes.computeIfAbsent(dependencia, d -> new ArrayList<>()).add(etapa.getNome());
+            } // for
+        } // for
+
+        Deque<String> prontas = new ArrayDeque<>();
+        grauEntrada.forEach((nome, grau) -> {
+            if (grau == 0) {
+                prontas.add(nome);
+            } // if
+        });
+        List<String> ordem = new ArrayList<>(etapas.size());
+        while (!prontas.isEmpty()) {
+            String nome = prontas.poll();
+            ordem.add(nome);
+            for (String dependente : dependentes.getOrDefault(nome, List.of())) {
+                if (grauEntrada.merge(dependente, -1, Integer::sum) == 0) {
+                    prontas.add(dependente);
+                } // if
+            } // for
+        } // while
+
+        if (ordem.size() != etapas.size()) {
+            List<String> emCiclo = new ArrayList<>(etapas.keySet());
+            emCiclo.removeAll(ordem);
+            throw new IllegalArgumentException("Ciclo entre as etapas: " + emCiclo);
+        } // if
+        return ordem;
+    } // ordenar
+
+    private static long decorridoMs(long inicio) {
+        return (System.nanoTime() - inicio) / 1_000_000;
+    } // decorridoMs
+} // OrquestradorDag
@@ -0,0 +1,166 @@
+package com.intuitivecare.orquestrador;
+
+import com.intuitivecare.integracao.service.AnsDataService;
+import com.intuitivecare.integracao.service.ConsolidacaoService;
+import com.intuitivecare.integracao.service.DownloadService;
+import com.intuitivecare.integracao.service.ProcessamentoService;
+import com.intuitivecare.transformacao.service.AgregacaoService;
+import com.intuitivecare.transformacao.service.EnriquecimentoService;
+import com.intuitivecare.transformacao.service.ValidacaoService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAG dos Desafios 1 e 2 sobre os serviços existentes
+ *
+ * descoberta ──> download_N ──> extracao_N ──┐ (N = 1..3, um por trimestre)
+ *                                            v
+ *                                      classificacao ──> consolidacao ──> compactacao_consolidado
+ *                                                             │
+ *                                                             v
+ * download_cadastro ─────────────────> enriquecimento <── validacao
+ *                                           │
+ *                                           v
+ *                                      agregacao ──> compactacao_resultado
+ *
+ * O cadastro de operadoras é baixado junto com os ZIPs trimestrais; a
+ * extração de um trimestre começa assim que o seu download termina, sem
+ * esperar os demais; e a compactação do consolidado corre junto com a
+ * validação. O consolidado passa do Desafio 1 ao 2 como saída declarada da
+ * etapa de consolidação, não pelo caminho relativo ../desafio-1-integracao-api.
+ *
+ * Diretórios: {trabalho}/desafio-1 e {trabalho}/desafio-2, com o mesmo
+ * layout de cada aplicação (downloads, extraidos, output / output, temp).
+ */
+public class PipelineAns {
+
+    public static final String DESCOBERTA = "descoberta";
+    public static final String DOWNLOAD = "download_";
+    public static final String EXTRACAO = "extracao_";
+    public static final String DOWNLOAD_CADASTRO = "download_cadastro";
+    public static final String CLASSIFICACAO = "classificacao";
+    public static final String CONSOLIDACAO = "consolidacao";
+    public static final String COMPACTACAO_CONSOLIDADO = "compactacao_consolidado";
+    public static final String VALIDACAO = "validacao";
+    public static final String ENRIQUECIMENTO = "enriquecimento";
+    public static final String AGREGACAO = "agregacao";
+    public static final String COMPACTACAO_RESULTADO = "compactacao_resultado";
+
+    private static final String ARQUIVO_TRIMESTRES = "trimestres.txt";
+    private static final String CONSOLIDADO_CSV = "consolidado_despesas.csv";
+    private static final String CONSOLIDADO_COLUNAR = "consolidado_despesas.bin";
+    private static final String RELATORIO_INCONSISTENCIAS = "relatorio_inconsistencias.txt";
+    private static final String VALIDADO_CSV = "consolidado_validado.csv";
+    private static final String ENRIQUECIDO_CSV = "consolidado_enriquecido.csv";
+    private static final String CUBO_CSV = "cubo_despesas.csv";
+
+    private final com.intuitivecare.integracao.config.ApplicationConfig configIntegracao;
+    private final com.intuitivecare.transformacao.config.ApplicationConfig configTransformacao;
+
+    public PipelineAns(com.intuitivecare.integracao.config.ApplicationConfig configIntegracao,
+                       com.intuitivecare.transformacao.config.ApplicationConfig configTransformacao) {
+        this.configIntegracao = configIntegracao;
+        this.configTransformacao = configTransformacao;
+    } // PipelineAns
+
+    /**
+     * Etapas do DAG (serviços compartilhados entre as etapas)
+     */
+    public List<Etapa> etapas() {
+        AnsDataService ansDataService = new AnsDataService(configIntegracao);
+        DownloadService downloadService = new DownloadService(configIntegracao);
+        ProcessamentoService processamentoService = new ProcessamentoService(configIntegracao);
+        ConsolidacaoService consolidacaoService = new ConsolidacaoService(configIntegracao);
+        ValidacaoService validacaoService = new ValidacaoService(configTransformacao);
+        EnriquecimentoService enriquecimentoService = new EnriquecimentoService(configTransformacao, validacaoService);
+        AgregacaoService agregacaoService = new AgregacaoService(configTransformacao);
+
+        List<Etapa> etapas = new ArrayList<>();
+        String origem = "ans=" + configIntegracao.getAnsBaseUrl();
+
+        // Listagem remota: sempre consultada; a lista gravada só muda (e só
+        // invalida os downloads) quando sai um trimestre novo
+        etapas.add(new Etapa(DESCOBERTA, List.of(), origem, true, entradas -> {
+            List<String> trimestres = ansDataService.identificarUltimosTrimestres(
+                configIntegracao.getQuantidadeTrimestres());
+            Path arquivo = configIntegracao.getDiretorioOutput().resolveSibling(ARQUIVO_TRIMESTRES);
+            Files.createDirectories(arquivo.getParent());
+            Files.write(arquivo, trimestres, StandardCharsets.UTF_8);
+            return List.of(arquivo);
+        }));
+
+        etapas.add(new Etapa(DOWNLOAD_CADASTRO, List.of(), "ans=" + configTransformacao.getAnsBaseUrl(), true,
+            entradas -> List.of(enriquecimentoService.baixarArquivoCadastro())));
+
+        // Um download e uma extração por posição na lista de trimestres; ambos
+        // estritos: um ZIP com falha falha a etapa (e invalida o estado) em vez
+        // de guardar uma lista incompleta como se estivesse atualizada
+        List<String> extracoes = new ArrayList<>();
+        for (int i = 1; i <= configIntegracao.getQuantidadeTrimestres(); i++) {
+            int posicao = i - 1;
+            String download = DOWNLOAD + i;
+            String extracao = EXTRACAO + i;
+            etapas.add(new Etapa(download, List.of(DESCOBERTA), origem, false, entradas -> {
+                String trimestre = trimestre(entradas, posicao);
+                return trimestre == null ? List.of() : downloadService.baixarTrimestre(trimestre);
+            }));
+            etapas.add(new Etapa(extracao, List.of(DESCOBERTA, download), "", false, entradas -> {
+                String trimestre = trimestre(entradas, posicao);
+                return trimestre == null ? List.of()
+                    : downloadService.extrairTrimestre(entradas.de(download), trimestre);
+            }));
+            extracoes.add(extracao);
+        } // for
+
+        etapas.add(new Etapa(CLASSIFICACAO, extracoes, "", false,
+            entradas -> processamentoService.filtrarArquivosDespesas(entradas.de(extracoes))));
+
+        etapas.add(new Etapa(CONSOLIDACAO, List.of(CLASSIFICACAO), "colunar=" + configIntegracao.isFormatoColunar(),
+            false, entradas -> {
+                Path csv = consolidacaoService.consolidarDados(entradas.de(CLASSIFICACAO));
+                List<Path> saidas = new ArrayList<>(List.of(csv, csv.resolveSibling(RELATORIO_INCONSISTENCIAS)));
+                if (configIntegracao.isFormatoColunar()) {
+                    saidas.add(csv.resolveSibling(CONSOLIDADO_COLUNAR));
+                } // if
+                return saidas;
+            }));
+
+        etapas.add(new Etapa(COMPACTACAO_CONSOLIDADO, List.of(CONSOLIDACAO), "", false,
+            entradas -> List.of(consolidacaoService.compactarCsv(entradas.arquivo(CONSOLIDACAO, CONSOLIDADO_CSV)))));
+
+        etapas.add(new Etapa(VALIDACAO, List.of(CONSOLIDACAO), "colunar=" + configTransformacao.isEntradaColunar(),
+            false, entradas -> List.of(validacaoService.validarDados(entradas.arquivo(CONSOLIDACAO,
+                configTransformacao.isEntradaColunar() ? CONSOLIDADO_COLUNAR : CONSOLIDADO_CSV)))));
+
+        etapas.add(new Etapa(ENRIQUECIMENTO, List.of(VALIDACAO, DOWNLOAD_CADASTRO), "", false, entradas -> {
+            Path enriquecido = enriquecimentoService.enriquecerDados(
+                entradas.arquivo(VALIDACAO, VALIDADO_CSV), entradas.de(DOWNLOAD_CADASTRO).get(0));
+            validacaoService.logRelatorioCnpj();
+            return List.of(enriquecido, enriquecido.resolveSibling(CUBO_CSV));
+        }));
+
+        etapas.add(new Etapa(AGREGACAO, List.of(ENRIQUECIMENTO),
+            "topK=" + configTransformacao.getTopKAgregacao() + ",porUf=" + configTransformacao.isTopKPorUf(), false,
+            entradas -> List.of(agregacaoService.agregarDados(entradas.arquivo(ENRIQUECIMENTO, ENRIQUECIDO_CSV)))));
+
+        // O ZIP final inclui também o validado e o enriquecido
+        etapas.add(new Etapa(COMPACTACAO_RESULTADO, List.of(AGREGACAO, ENRIQUECIMENTO, VALIDACAO), "", false,
+            entradas -> List.of(agregacaoService.compactarResultado(entradas.de(AGREGACAO).get(0)))));
+
+        return etapas;
+    } // etapas
+
+    /**
+     * Trimestre na posição dada da lista da descoberta (null se a ANS
+     * publicou menos trimestres)
+     */
+    private static String trimestre(Etapa.Entradas entradas, int posicao) throws IOException {
+        List<String> trimestres = Files.readAllLines(entradas.de(DESCOBERTA).get(0), StandardCharsets.UTF_8);
+        return posicao < trimestres.size() ? trimestres.get(posicao) : null;
+    } // trimestre
+} // PipelineAns
@@ -0,0 +1,126 @@
+package com.intuitivecare.orquestrador;
+
+import com.intuitivecare.compartilhado.util.LayoutConsolidadoColunar;
+import com.intuitivecare.integracao.util.ConsolidadoColunarWriter;
+import com.intuitivecare.transformacao.util.ConsolidadoColunarReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consolidado colunar gravado pelo writer do Desafio 1 e lido pelo reader do
+ * Desafio 2 (os dois módulos só se encontram aqui, na mesma compilação)
+ */
+class ConsolidadoColunarTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void idaEVolta() throws Exception {
+        // valor informado -> centavos esperados (HALF_EVEN acima de 2 casas)
+        String[][] casos = {
+            {"1234.56", "123456"},
+            {"0", "0"},
+            {"-987.65", "-98765"},
+            {"-0.01", "-1"},
+            {"1.005", "100"},
+            {"1.015", "102"},
+            {"-2.675", "-268"},
+            {"0.125", "12"},
+            {"0.135", "14"},
+            {"92233720368547758.07", "9223372036854775807"},
+            {"-92233720368547758.08", "-9223372036854775808"}
+        };
+        // Mais registros que a capacidade inicial: exercita o crescimento das colunas
+        int quantidade = casos.length * 4;
+        ConsolidadoColunarWriter writer = new ConsolidadoColunarWriter(1);
+        for (int i = 0; i < quantidade; i++) {
+            writer.adicionar(Integer.toString(300_000 + i), "Q" + (i % 4 + 1), 2023 + i % 3,
+                new BigDecimal(casos[i % casos.length][0]));
+        } // for
+        Path arquivo = diretorio.resolve("consolidado.bin");
+        writer.gravar(arquivo);
+        assertEquals(LayoutConsolidadoColunar.tamanhoArquivo(quantidade), Files.size(arquivo));
+
+        ConsolidadoColunarReader reader = ConsolidadoColunarReader.abrir(arquivo);
+        assertEquals(quantidade, reader.getQuantidade());
+        assertEquals(LayoutConsolidadoColunar.ESCALA, reader.getEscala());
+        for (int i = 0; i < quantidade; i++) {
+            assertEquals(Long.parseLong(casos[i % casos.length][1]), reader.getCentavos(i), casos[i % casos.length][0]);
+            assertEquals(300_000 + i, reader.getRegistroAns(i));
+            assertEquals(2023 + i % 3, reader.getAno(i));
+            assertEquals(i % 4 + 1, reader.getTrimestre(i));
+        } // for
+    } // idaEVolta
+
+    @Test
+    void arquivoVazio() throws Exception {
+        Path arquivo = diretorio.resolve("vazio.bin");
+        new ConsolidadoColunarWriter(0).gravar(arquivo);
+        assertEquals(LayoutConsolidadoColunar.TAMANHO_CABECALHO, Files.size(arquivo));
+
+        ConsolidadoColunarReader reader = ConsolidadoColunarReader.abrir(arquivo);
+        assertEquals(0, reader.getQuantidade());
+        assertEquals(LayoutConsolidadoColunar.ESCALA, reader.getEscala());
+    } // arquivoVazio
+
+    @Test
+    void cabecalhoInvalidoRecusado() throws Exception {
+        ConsolidadoColunarWriter writer = new ConsolidadoColunarWriter(2);
+        writer.adicionar("300001", "Q1", 2024, new BigDecimal("10.00"));
+        writer.adicionar("300002", "Q2", 2024, new BigDecimal("20.00"));
+        Path original = diretorio.resolve("original.bin");
+        writer.gravar(original);
+        byte[] bytes = Files.readAllBytes(original);
+
+        IOException magic = assertThrows(IOException.class,
+            () -> ConsolidadoColunarReader.abrir(alterado(bytes, 0, 0x31534E41, "magic.bin")));
+        assertTrue(magic.getMessage().contains("não é um consolidado colunar"), magic.getMessage());
+
+        IOException versao = assertThrows(IOException.class, () -> ConsolidadoColunarReader.abrir(
+            alterado(bytes, LayoutConsolidadoColunar.POSICAO_VERSAO, LayoutConsolidadoColunar.VERSAO + 1, "versao.bin")));
+        assertTrue(versao.getMessage().contains("Versão"), versao.getMessage());
+
+        // Quantidade no cabeçalho incompatível com o tamanho, e arquivo truncado
+        assertThrows(IOException.class, () -> ConsolidadoColunarReader.abrir(
+            alterado(bytes, LayoutConsolidadoColunar.POSICAO_QUANTIDADE, 3, "quantidade.bin")));
+        Path truncado = diretorio.resolve("truncado.bin");
+        Files.write(truncado, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> ConsolidadoColunarReader.abrir(truncado));
+        Path curto = diretorio.resolve("curto.bin");
+        Files.write(curto, Arrays.copyOf(bytes, LayoutConsolidadoColunar.TAMANHO_CABECALHO - 1));
+        assertThrows(IOException.class, () -> ConsolidadoColunarReader.abrir(curto));
+    } // cabecalhoInvalidoRecusado
+
+    @Test
+    void valorForaDoLayoutRecusado() {
+        ConsolidadoColunarWriter writer = new ConsolidadoColunarWriter(1);
+        assertThrows(ArithmeticException.class,
+            () -> writer.adicionar("300001", "Q1", 2024, new BigDecimal("92233720368547758.08")));
+        assertThrows(IllegalArgumentException.class,
+            () -> writer.adicionar("300001", "Q5", 2024, BigDecimal.ONE));
+        assertEquals(0, writer.getQuantidade());
+    } // valorForaDoLayoutRecusado
+
+    /**
+     * Cópia do arquivo com um int do cabeçalho trocado
+     */
+    private Path alterado(byte[] bytes, int posicao, int valor, String nome) throws IOException {
+        byte[] copia = bytes.clone();
+        ByteBuffer.wrap(copia).order(LayoutConsolidadoColunar.ORDEM).putInt(posicao, valor);
+        Path arquivo = diretorio.resolve(nome);
+        Files.write(arquivo, copia);
+        return arquivo;
+    } // alterado
+} // ConsolidadoColunarTest
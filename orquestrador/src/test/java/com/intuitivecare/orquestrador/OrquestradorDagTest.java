@@ -0,0 +1,200 @@
+package com.intuitivecare.orquestrador;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DAG com ações de teste que gravam arquivos no diretório de trabalho:
+ * ordem, cache por hash (EstadoEtapas) e propagação de falhas
+ */
+class OrquestradorDagTest {
+
+    @TempDir
+    Path trabalho;
+
+    // Execuções por etapa (ações reais, não as puladas por cache)
+    private final Map<String, AtomicInteger> execucoes = new ConcurrentHashMap<>();
+    private final List<String> ordem = Collections.synchronizedList(new ArrayList<>());
+
+    // Conteúdo gravado por etapa; alterar muda a saída da próxima execução
+    private final Map<String, String> conteudos = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> falhar = new ConcurrentHashMap<>();
+
+    @Test
+    void ordemTopologica() throws Exception {
+        // Declaradas fora de ordem: d <- c <- b <- a, e <- a
+        List<Etapa> etapas = List.of(
+            etapa("d", "c"), etapa("b", "a"), etapa("e", "a"), etapa("c", "b"), etapa("a"));
+
+        Map<String, OrquestradorDag.Resultado> resultados = executar(etapas, false);
+
+        assertEquals(List.of("a", "b", "e", "c", "d"), new ArrayList<>(resultados.keySet()));
+        assertTrue(ordem.indexOf("a") < ordem.indexOf("b"));
+        assertTrue(ordem.indexOf("b") < ordem.indexOf("c"));
+        assertTrue(ordem.indexOf("c") < ordem.indexOf("d"));
+        assertTrue(ordem.indexOf("a") < ordem.indexOf("e"));
+        resultados.values().forEach(resultado -> assertEquals(OrquestradorDag.Status.EXECUTADA, resultado.status()));
+
+        // Entradas = saídas das dependências
+        assertEquals("b<-[a]", Files.readString(resultados.get("b").saidas().get(0)));
+    } // ordemTopologica
+
+    @Test
+    void dagInvalidoRejeitado() throws Exception {
+        EstadoEtapas estado = new EstadoEtapas(trabalho);
+
+        IllegalArgumentException ciclo = assertThrows(IllegalArgumentException.class, () -> new OrquestradorDag(
+            List.of(etapa("a"), etapa("b", "a", "c"), etapa("c", "b")), estado, 2, false));
+        assertTrue(ciclo.getMessage().contains("Ciclo"), ciclo.getMessage());
+        assertTrue(ciclo.getMessage().contains("b") && ciclo.getMessage().contains("c"), ciclo.getMessage());
+
+        IllegalArgumentException inexistente = assertThrows(IllegalArgumentException.class,
+            () -> new OrquestradorDag(List.of(etapa("a"), etapa("b", "x")), estado, 2, false));
+        assertTrue(inexistente.getMessage().contains("inexistente: x"), inexistente.getMessage());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new OrquestradorDag(List.of(etapa("a"), etapa("a")), estado, 2, false));
+    } // dagInvalidoRejeitado
+
+    @Test
+    void pulaEtapasAtualizadas() throws Exception {
+        List<Etapa> etapas = List.of(etapa("a"), etapa("b", "a"), etapa("c", "b"));
+        executar(etapas, false);
+
+        // Novo estado lido do disco, como numa nova execução do Application
+        Map<String, OrquestradorDag.Resultado> resultados = executar(etapas, false);
+        resultados.values().forEach(resultado -> assertEquals(OrquestradorDag.Status.ATUALIZADA, resultado.status()));
+        assertEquals(1, execucoes.get("a").get());
+        assertEquals(1, execucoes.get("c").get());
+        assertEquals(trabalho.resolve("c.txt"), resultados.get("c").saidas().get(0));
+
+        // Parâmetro diferente invalida a etapa; a saída igual mantém as seguintes
+        List<Etapa> outroParametro = List.of(new Etapa("a", List.of(), "k=2", false, acao("a")), etapa("b", "a"),
+            etapa("c", "b"));
+        resultados = executar(outroParametro, false);
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("a").status());
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("b").status());
+
+        // Forçar executa tudo
+        resultados = executar(etapas, true);
+        resultados.values().forEach(resultado -> assertEquals(OrquestradorDag.Status.EXECUTADA, resultado.status()));
+    } // pulaEtapasAtualizadas
+
+    @Test
+    void reexecutaSaidaEditadaOuApagada() throws Exception {
+        List<Etapa> etapas = List.of(etapa("a"), etapa("b", "a"), etapa("c", "b"));
+        executar(etapas, false);
+
+        // Saída de b editada à mão: b executa de novo e regrava o mesmo conteúdo,
+        // então c (entrada com o mesmo hash) continua atualizada
+        Files.writeString(trabalho.resolve("b.txt"), "editado à mão", StandardCharsets.UTF_8);
+        Map<String, OrquestradorDag.Resultado> resultados = executar(etapas, false);
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("a").status());
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("b").status());
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("c").status());
+        assertEquals("b<-[a]", Files.readString(trabalho.resolve("b.txt")));
+
+        // Saída de a apagada: a executa de novo
+        Files.delete(trabalho.resolve("a.txt"));
+        resultados = executar(etapas, false);
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("a").status());
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("b").status());
+
+        // Saída de a com outro conteúdo: invalida b e c em cascata
+        conteudos.put("a", "a versão 2");
+        Files.delete(trabalho.resolve("a.txt"));
+        resultados = executar(etapas, false);
+        resultados.values().forEach(resultado -> assertEquals(OrquestradorDag.Status.EXECUTADA, resultado.status()));
+        assertEquals(3, execucoes.get("a").get());
+        assertEquals(3, execucoes.get("b").get());
+        assertEquals(2, execucoes.get("c").get());
+    } // reexecutaSaidaEditadaOuApagada
+
+    @Test
+    void falhaCancelaSoDependentes() throws Exception {
+        //      a
+        //     / \
+        //    b   d
+        //    |   |
+        //    c   e
+        List<Etapa> etapas = List.of(etapa("a"), etapa("b", "a"), etapa("c", "b"), etapa("d", "a"), etapa("e", "d"));
+        executar(etapas, false);
+        Path estadoB = trabalho.resolve(".estado/b.properties");
+        assertTrue(Files.exists(estadoB));
+
+        falhar.put("b", true);
+        Map<String, OrquestradorDag.Resultado> resultados = executar(etapas, true);
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("a").status());
+        assertEquals(OrquestradorDag.Status.FALHOU, resultados.get("b").status());
+        assertEquals(OrquestradorDag.Status.CANCELADA, resultados.get("c").status());
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("d").status());
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("e").status());
+        assertEquals("falha simulada em b", resultados.get("b").erro().getMessage());
+        assertTrue(resultados.get("c").saidas().isEmpty());
+        assertEquals(1, execucoes.get("c").get());
+
+        // Registro de b removido: volta a executar mesmo sem forçar
+        assertFalse(Files.exists(estadoB));
+        assertTrue(Files.exists(trabalho.resolve(".estado/c.properties")));
+        falhar.remove("b");
+        resultados = executar(etapas, false);
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("a").status());
+        assertEquals(OrquestradorDag.Status.EXECUTADA, resultados.get("b").status());
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("c").status());
+        assertEquals(OrquestradorDag.Status.ATUALIZADA, resultados.get("e").status());
+    } // falhaCancelaSoDependentes
+
+    private Map<String, OrquestradorDag.Resultado> executar(List<Etapa> etapas, boolean forcar) throws IOException {
+        EstadoEtapas estado = new EstadoEtapas(trabalho);
+        Map<String, OrquestradorDag.Resultado> resultados = new OrquestradorDag(etapas, estado, 3, forcar).executar();
+        estado.salvarHashes();
+        return resultados;
+    } // executar
+
+    private Etapa etapa(String nome, String... dependencias) {
+        return new Etapa(nome, List.of(dependencias), "", false, acao(nome, dependencias));
+    } // etapa
+
+    /**
+     * Grava {nome}.txt com o conteúdo configurado ou, com dependências,
+     * "{nome}<-[conteúdo das entradas]"
+     */
+    private Etapa.Acao acao(String nome, String... dependencias) {
+        return entradas -> {
+            execucoes.computeIfAbsent(nome, n -> new AtomicInteger()).incrementAndGet();
+            ordem.add(nome);
+            if (falhar.getOrDefault(nome, false)) {
+                throw new IOException("falha simulada em " + nome);
+            } // if
+
+            String conteudo = conteudos.getOrDefault(nome, nome);
+            List<String> lidas = new ArrayList<>();
+            for (Path entrada : entradas.de(List.of(dependencias))) {
+                lidas.add(Files.readString(entrada));
+            } // for
+            if (!lidas.isEmpty()) {
+                conteudo = nome + "<-" + lidas;
+            } // if
+
+            Path saida = trabalho.resolve(nome + ".txt");
+            Files.writeString(saida, conteudo, StandardCharsets.UTF_8);
+            return List.of(saida);
+        };
+    } // acao
+} // OrquestradorDagTest